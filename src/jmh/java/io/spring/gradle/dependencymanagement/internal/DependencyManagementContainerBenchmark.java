@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
+import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+
+/**
+ * Benchmarks looking up managed versions with {@link DependencyManagementContainer#getManagedVersion} for a
+ * configuration at the bottom of a deep hierarchy. Every configuration in the hierarchy extends from the one above it
+ * and manages {@code MANAGED_PER_CONFIGURATION} dependencies of its own.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyManagementContainerBenchmark {
+
+    private static final int MANAGED_PER_CONFIGURATION = 50;
+
+    @Param({ "1", "10", "50" })
+    private int depth;
+
+    private Project project;
+
+    private DependencyManagementContainer container;
+
+    private Configuration leaf;
+
+    /**
+     * Creates the hierarchy of configurations and their dependency management.
+     */
+    @Setup
+    public void setUp() {
+        this.project = ProjectBuilder.builder().build();
+        this.container = new DependencyManagementContainer(this.project, new UnusedPomResolver());
+        for (int i = 0; i < MANAGED_PER_CONFIGURATION; i++) {
+            this.container.addManagedVersion(null, "com.example.global", "artifact" + i, "1.0",
+                    Collections.<String>emptyList());
+        }
+        Configuration parent = null;
+        for (int level = 0; level < this.depth; level++) {
+            Configuration configuration = this.project.getConfigurations().create("level" + level);
+            if (parent != null) {
+                configuration.extendsFrom(parent);
+            }
+            for (int i = 0; i < MANAGED_PER_CONFIGURATION; i++) {
+                this.container.addManagedVersion(configuration, "com.example.level" + level, "artifact" + i,
+                        level + ".0", Collections.<String>emptyList());
+            }
+            parent = configuration;
+        }
+        this.leaf = parent;
+    }
+
+    /**
+     * Deletes the project's directory.
+     */
+    @TearDown
+    public void tearDown() {
+        this.project.delete(this.project.getProjectDir());
+    }
+
+    /**
+     * Looks up a version that is managed by the leaf configuration itself.
+     *
+     * @return the managed version
+     */
+    @Benchmark
+    public String managedByLeaf() {
+        return this.container.getManagedVersion(this.leaf, "com.example.level" + (this.depth - 1), "artifact0");
+    }
+
+    /**
+     * Looks up a version that is managed by the configuration at the top of the hierarchy.
+     *
+     * @return the managed version
+     */
+    @Benchmark
+    public String managedByRoot() {
+        return this.container.getManagedVersion(this.leaf, "com.example.level0", "artifact0");
+    }
+
+    /**
+     * Looks up a version that is managed by global dependency management.
+     *
+     * @return the managed version
+     */
+    @Benchmark
+    public String managedGlobally() {
+        return this.container.getManagedVersion(this.leaf, "com.example.global", "artifact0");
+    }
+
+    /**
+     * Looks up a version that is not managed anywhere in the hierarchy.
+     *
+     * @return the managed version
+     */
+    @Benchmark
+    public String unmanaged() {
+        return this.container.getManagedVersion(this.leaf, "com.example.unmanaged", "artifact0");
+    }
+
+    /**
+     * Changes the leaf configuration's dependency management and then looks up a version that is managed by the
+     * configuration at the top of the hierarchy, measuring the cost of rebuilding the leaf's view of its hierarchy.
+     *
+     * @return the managed version
+     */
+    @Benchmark
+    public String managedByRootAfterChange() {
+        this.container.addManagedVersion(this.leaf, "com.example.level" + (this.depth - 1), "artifact0",
+                (this.depth - 1) + ".0", Collections.<String>emptyList());
+        return this.container.getManagedVersion(this.leaf, "com.example.level0", "artifact0");
+    }
+
+    private static final class UnusedPomResolver implements PomResolver {
+
+        @Override
+        public List<Pom> resolvePoms(List<PomReference> pomReferences, PropertySource properties) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Pom> resolvePomsLeniently(List<PomReference> pomReferences) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.spring.gradle.dependencymanagement.internal.ExclusionConfiguringAction.DependencyCandidate;
+
+/**
+ * Benchmarks finding the dependencies that are excluded from a synthetic, deep graph with {@link ModuleGraph} against
+ * a traversal that copies a set of {@code group:name} strings for every module, as the plugin used to.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExclusionTraversalBenchmark {
+
+    private static final int WIDTH = 5;
+
+    @Param({ "20", "200" })
+    private int depth;
+
+    private final Exclusions managedExclusions = new Exclusions();
+
+    private final Map<String, Exclusions> pomExclusionsById = new HashMap<String, Exclusions>();
+
+    private final Map<String, List<String>> dependenciesById = new HashMap<String, List<String>>();
+
+    private final List<String> ids = new ArrayList<String>();
+
+    private ModuleGraph graph;
+
+    /**
+     * Creates a graph with {@code depth} levels of five modules. Each module depends on every module in the level
+     * below it. Every module's pom excludes one module from two levels below it and dependency management excludes
+     * one module from two levels below the first module of every tenth level.
+     */
+    @Setup
+    public void setUp() {
+        this.graph = new ModuleGraph();
+        int[] previousLevel = new int[] { ModuleGraph.ROOT };
+        String[] previousIds = new String[] { null };
+        for (int level = 0; level < this.depth; level++) {
+            int[] currentLevel = new int[WIDTH];
+            String[] currentIds = new String[WIDTH];
+            for (int i = 0; i < WIDTH; i++) {
+                currentLevel[i] = this.graph.addModule("com.example.level" + level, "module" + i);
+                currentIds[i] = "com.example.level" + level + ":module" + i;
+                this.ids.add(currentIds[i]);
+                for (int j = 0; j < previousLevel.length; j++) {
+                    this.graph.addDependency(previousLevel[j], currentLevel[i]);
+                    addDependency(previousIds[j], currentIds[i]);
+                }
+                Exclusions pomExclusions = new Exclusions();
+                pomExclusions.add("com.example.level" + (level + 1) + ":module" + i,
+                        Collections.singleton("com.example.level" + (level + 2) + ":module" + i));
+                this.pomExclusionsById.put(currentIds[i], pomExclusions);
+            }
+            if (level % 10 == 0) {
+                this.managedExclusions.add(currentIds[0],
+                        Collections.singleton("com.example.level" + (level + 2) + ":module0"));
+            }
+            previousLevel = currentLevel;
+            previousIds = currentIds;
+        }
+    }
+
+    /**
+     * Finds the excluded dependencies with a {@link ModuleGraph}.
+     *
+     * @return the excluded dependencies
+     */
+    @Benchmark
+    public Set<DependencyCandidate> moduleGraph() {
+        return this.graph.findExcludedDependencies(this.managedExclusions, this.pomExclusionsById);
+    }
+
+    /**
+     * Finds the excluded dependencies by copying a set of {@code group:name} strings for every module.
+     *
+     * @return the excluded dependencies
+     */
+    @Benchmark
+    public Set<DependencyCandidate> stringSets() {
+        Set<String> included = new HashSet<String>();
+        Set<String> seen = new HashSet<String>();
+        LinkedList<StringNode> queue = new LinkedList<StringNode>();
+        queue.add(new StringNode(null, new HashSet<String>()));
+        while (!queue.isEmpty()) {
+            StringNode node = queue.remove();
+            if (node.id != null) {
+                included.add(node.id);
+            }
+            List<String> dependencies = this.dependenciesById.get(node.id);
+            if (dependencies == null) {
+                continue;
+            }
+            Exclusions pomExclusions = (node.id != null) ? this.pomExclusionsById.get(node.id) : null;
+            for (String dependency : dependencies) {
+                if (!node.exclusions.contains(dependency) && seen.add(dependency)) {
+                    Set<String> exclusions = new HashSet<String>(node.exclusions);
+                    addAllIfPossible(exclusions, this.managedExclusions.exclusionsForDependency(dependency));
+                    if (pomExclusions != null) {
+                        addAllIfPossible(exclusions, pomExclusions.exclusionsForDependency(dependency));
+                    }
+                    queue.add(new StringNode(dependency, exclusions));
+                }
+            }
+        }
+        Set<DependencyCandidate> excluded = new HashSet<DependencyCandidate>();
+        for (String id : this.ids) {
+            if (!included.contains(id)) {
+                String[] components = id.split(":");
+                excluded.add(new DependencyCandidate(components[0], components[1]));
+            }
+        }
+        return excluded;
+    }
+
+    private void addDependency(String id, String dependency) {
+        List<String> dependencies = this.dependenciesById.get(id);
+        if (dependencies == null) {
+            dependencies = new ArrayList<String>();
+            this.dependenciesById.put(id, dependencies);
+        }
+        dependencies.add(dependency);
+    }
+
+    private static void addAllIfPossible(Set<String> current, Set<String> addition) {
+        if (addition != null) {
+            current.addAll(addition);
+        }
+    }
+
+    private static final class StringNode {
+
+        private final String id;
+
+        private final Set<String> exclusions;
+
+        private StringNode(String id, Set<String> exclusions) {
+            this.id = id;
+            this.exclusions = exclusions;
+        }
+
+    }
+
+}
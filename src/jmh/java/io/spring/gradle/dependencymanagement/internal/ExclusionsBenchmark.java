@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks adding exclusions to {@link Exclusions}, both one dependency at a time and by merging several sets of
+ * exclusions as is done for each configuration's hierarchy.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExclusionsBenchmark {
+
+    private static final int EXCLUSIONS_PER_DEPENDENCY = 3;
+
+    private static final int SOURCES = 5;
+
+    @Param({ "100", "1000" })
+    private int dependencies;
+
+    private final List<String> dependencyIds = new ArrayList<String>();
+
+    private final List<List<String>> exclusionIds = new ArrayList<List<String>>();
+
+    private final List<Exclusions> sources = new ArrayList<Exclusions>();
+
+    /**
+     * Creates the dependencies and their exclusions. Each of the sources that are merged excludes a different module
+     * from every dependency so that merging has to combine, rather than replace, the exclusions.
+     */
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < this.dependencies; i++) {
+            this.dependencyIds.add("com.example:dependency" + i);
+            List<String> exclusions = new ArrayList<String>();
+            for (int j = 0; j < EXCLUSIONS_PER_DEPENDENCY; j++) {
+                exclusions.add("com.example.excluded:module" + ((i + j) % this.dependencies));
+            }
+            this.exclusionIds.add(exclusions);
+        }
+        for (int source = 0; source < SOURCES; source++) {
+            Exclusions exclusions = new Exclusions();
+            for (int i = 0; i < this.dependencies; i++) {
+                List<String> exclusionsForDependency = new ArrayList<String>();
+                exclusionsForDependency.add("com.example.source" + source + ":module" + i);
+                exclusions.add(this.dependencyIds.get(i), exclusionsForDependency);
+            }
+            this.sources.add(exclusions.toUnmodifiable());
+        }
+    }
+
+    /**
+     * Adds the exclusions for each dependency to a new {@link Exclusions}.
+     *
+     * @return the exclusions
+     */
+    @Benchmark
+    public Exclusions add() {
+        Exclusions exclusions = new Exclusions();
+        for (int i = 0; i < this.dependencies; i++) {
+            exclusions.add(this.dependencyIds.get(i), this.exclusionIds.get(i));
+        }
+        return exclusions;
+    }
+
+    /**
+     * Merges each of the sources into a new {@link Exclusions}.
+     *
+     * @return the exclusions
+     */
+    @Benchmark
+    public Exclusions addAll() {
+        Exclusions exclusions = new Exclusions();
+        for (Exclusions source : this.sources) {
+            exclusions.addAll(source);
+        }
+        return exclusions;
+    }
+
+}
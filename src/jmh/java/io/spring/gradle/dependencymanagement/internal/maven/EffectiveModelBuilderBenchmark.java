@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+
+/**
+ * Benchmarks building the effective model of a synthetic bom with a parent and an imported bom that are resolved from
+ * a local, file-based {@link SyntheticBomRepository}.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectiveModelBuilderBenchmark {
+
+    @Param({ "100", "1000", "5000" })
+    private int managedDependencies;
+
+    private final PropertySource properties = new MapPropertySource(Collections.<String, Object>emptyMap());
+
+    private Project project;
+
+    private EffectiveModelBuilder effectiveModelBuilder;
+
+    private File bom;
+
+    /**
+     * Writes the boms to a repository in the project's directory and creates the builder that resolves from it.
+     *
+     * @throws IOException if the boms cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.project = ProjectBuilder.builder().build();
+        final SyntheticBomRepository repository = new SyntheticBomRepository(
+                new File(this.project.getProjectDir(), "maven-repo"));
+        this.bom = repository.writeBoms(this.managedDependencies);
+        this.project.getRepositories().maven(new Action<MavenArtifactRepository>() {
+
+            @Override
+            public void execute(MavenArtifactRepository maven) {
+                maven.setUrl(repository.getRoot().toURI());
+            }
+
+        });
+        this.effectiveModelBuilder = new EffectiveModelBuilder(this.project,
+                new DependencyManagementConfigurationContainer(this.project), new PlatformCategoryAttributeConfigurer(),
+                new PomResolutionCache(new PersistentPomCache(new File(this.project.getProjectDir(), "pom-cache"),
+                        true)));
+    }
+
+    /**
+     * Deletes the project's directory, including the repository.
+     */
+    @TearDown
+    public void tearDown() {
+        this.project.delete(this.project.getProjectDir());
+    }
+
+    /**
+     * Builds the bom's effective model.
+     *
+     * @return the effective model
+     */
+    @Benchmark
+    public Model buildModel() {
+        return this.effectiveModelBuilder.buildModel(this.bom, this.properties, new ModelInputs());
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+
+/**
+ * Benchmarks reading a large, simple bom with {@link SimplePomReader} against building its effective model with
+ * {@link EffectiveModelBuilder}.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplePomReaderBenchmark {
+
+    @Param({ "100", "1000" })
+    private int managedDependencies;
+
+    private final PropertySource properties = new MapPropertySource(Collections.<String, Object>emptyMap());
+
+    private final SimplePomReader simplePomReader = new SimplePomReader(System.getProperties());
+
+    private Project project;
+
+    private EffectiveModelBuilder effectiveModelBuilder;
+
+    private File bom;
+
+    /**
+     * Creates the project that is used to build effective models and writes the bom.
+     *
+     * @throws IOException if the bom cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.project = ProjectBuilder.builder().build();
+        this.effectiveModelBuilder = new EffectiveModelBuilder(this.project,
+                new DependencyManagementConfigurationContainer(this.project), new PlatformCategoryAttributeConfigurer(),
+                new PomResolutionCache(new PersistentPomCache(new File(this.project.getProjectDir(), "pom-cache"),
+                        true)));
+        this.bom = new File(this.project.getProjectDir(), "bom-1.0.pom");
+        writeBom(this.bom, this.managedDependencies);
+    }
+
+    /**
+     * Deletes the project's directory, including the bom.
+     */
+    @TearDown
+    public void tearDown() {
+        this.project.delete(this.project.getProjectDir());
+    }
+
+    /**
+     * Reads the bom with a {@link SimplePomReader}.
+     *
+     * @return the pom
+     */
+    @Benchmark
+    public Pom simplePomReader() {
+        return this.simplePomReader.read(this.bom, this.properties, new ModelInputs());
+    }
+
+    /**
+     * Builds the bom's effective model with an {@link EffectiveModelBuilder}.
+     *
+     * @return the effective model
+     */
+    @Benchmark
+    public Model effectiveModelBuilder() {
+        return this.effectiveModelBuilder.buildModel(this.bom, this.properties, new ModelInputs());
+    }
+
+    /**
+     * Writes a bom that manages the given number of dependencies. Every group of five dependencies shares a version
+     * property, much like the boms of large projects.
+     */
+    private static void writeBom(File bom, int managedDependencies) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(bom), Charset.forName("UTF-8"));
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+            writer.write("    <modelVersion>4.0.0</modelVersion>\n");
+            writer.write("    <groupId>com.example</groupId>\n");
+            writer.write("    <artifactId>bom</artifactId>\n");
+            writer.write("    <version>1.0</version>\n");
+            writer.write("    <packaging>pom</packaging>\n");
+            writer.write("    <properties>\n");
+            for (int i = 0; i < managedDependencies; i += 5) {
+                writer.write("        <group" + i + ".version>" + i + ".0.0</group" + i + ".version>\n");
+            }
+            writer.write("    </properties>\n");
+            writer.write("    <dependencyManagement>\n");
+            writer.write("        <dependencies>\n");
+            for (int i = 0; i < managedDependencies; i++) {
+                writer.write("            <dependency>\n");
+                writer.write("                <groupId>com.example.group" + (i - i % 5) + "</groupId>\n");
+                writer.write("                <artifactId>artifact" + i + "</artifactId>\n");
+                writer.write("                <version>${group" + (i - i % 5) + ".version}</version>\n");
+                writer.write("            </dependency>\n");
+            }
+            writer.write("        </dependencies>\n");
+            writer.write("    </dependencyManagement>\n");
+            writer.write("</project>\n");
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+}
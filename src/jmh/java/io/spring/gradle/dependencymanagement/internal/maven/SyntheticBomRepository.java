@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * A local, file-based Maven repository of synthetic boms that allows benchmarks to run offline. The repository
+ * contains a bom, {@code com.example:bom:1.0}, that has a parent, {@code com.example:bom-parent:1.0}, and that
+ * imports another bom, {@code com.example:imported-bom:1.0}. The parent declares the version properties, and the
+ * managed dependencies are split evenly between the bom and the bom that it imports.
+ *
+ * @author agent (agent@local)
+ */
+final class SyntheticBomRepository {
+
+    private static final String GROUP = "com.example";
+
+    private static final String VERSION = "1.0";
+
+    private final File root;
+
+    /**
+     * Creates a new {@code SyntheticBomRepository} in the given {@code root} directory.
+     *
+     * @param root the root directory of the repository
+     */
+    SyntheticBomRepository(File root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the root directory of the repository.
+     *
+     * @return the root directory
+     */
+    File getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Writes the boms that, between them, manage the given number of dependencies and returns the pom file of {@code
+     * com.example:bom:1.0}.
+     *
+     * @param managedDependencies the number of managed dependencies
+     * @return the pom file of the bom
+     * @throws IOException if a bom cannot be written
+     */
+    File writeBoms(int managedDependencies) throws IOException {
+        int split = managedDependencies / 2;
+        writeParent(managedDependencies);
+        writeManagingBom("imported-bom", split, managedDependencies, null);
+        return writeManagingBom("bom", 0, split, "imported-bom");
+    }
+
+    private void writeParent(int managedDependencies) throws IOException {
+        Writer writer = createPom("bom-parent");
+        try {
+            writeStart(writer, "bom-parent");
+            writer.write("    <properties>\n");
+            for (int i = 0; i < managedDependencies; i += 5) {
+                writer.write("        <group" + i + ".version>" + i + ".0.0</group" + i + ".version>\n");
+            }
+            writer.write("    </properties>\n");
+            writer.write("</project>\n");
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private File writeManagingBom(String artifactId, int from, int to, String importedArtifactId)
+            throws IOException {
+        Writer writer = createPom(artifactId);
+        try {
+            writeStart(writer, artifactId);
+            writer.write("    <dependencyManagement>\n");
+            writer.write("        <dependencies>\n");
+            if (importedArtifactId != null) {
+                writer.write("            <dependency>\n");
+                writer.write("                <groupId>" + GROUP + "</groupId>\n");
+                writer.write("                <artifactId>" + importedArtifactId + "</artifactId>\n");
+                writer.write("                <version>" + VERSION + "</version>\n");
+                writer.write("                <type>pom</type>\n");
+                writer.write("                <scope>import</scope>\n");
+                writer.write("            </dependency>\n");
+            }
+            for (int i = from; i < to; i++) {
+                writer.write("            <dependency>\n");
+                writer.write("                <groupId>com.example.group" + (i - i % 5) + "</groupId>\n");
+                writer.write("                <artifactId>artifact" + i + "</artifactId>\n");
+                writer.write("                <version>${group" + (i - i % 5) + ".version}</version>\n");
+                writer.write("            </dependency>\n");
+            }
+            writer.write("        </dependencies>\n");
+            writer.write("    </dependencyManagement>\n");
+            writer.write("</project>\n");
+        }
+        finally {
+            writer.close();
+        }
+        return pomFile(artifactId);
+    }
+
+    private void writeStart(Writer writer, String artifactId) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        writer.write("    <modelVersion>4.0.0</modelVersion>\n");
+        if (!"bom-parent".equals(artifactId)) {
+            writer.write("    <parent>\n");
+            writer.write("        <groupId>" + GROUP + "</groupId>\n");
+            writer.write("        <artifactId>bom-parent</artifactId>\n");
+            writer.write("        <version>" + VERSION + "</version>\n");
+            writer.write("    </parent>\n");
+        }
+        writer.write("    <groupId>" + GROUP + "</groupId>\n");
+        writer.write("    <artifactId>" + artifactId + "</artifactId>\n");
+        writer.write("    <version>" + VERSION + "</version>\n");
+        writer.write("    <packaging>pom</packaging>\n");
+    }
+
+    private Writer createPom(String artifactId) throws IOException {
+        File pom = pomFile(artifactId);
+        pom.getParentFile().mkdirs();
+        return new OutputStreamWriter(new FileOutputStream(pom), Charset.forName("UTF-8"));
+    }
+
+    private File pomFile(String artifactId) {
+        return new File(this.root, GROUP.replace('.', '/') + "/" + artifactId + "/" + VERSION + "/" + artifactId
+                + "-" + VERSION + ".pom");
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Generates a multi-project build that resolves its dependencies from a repository generated by a {@link
+ * RepositoryGenerator}. Every subproject uses the {@code java} and {@code maven-publish} plugins and declares the
+ * same number of direct dependencies on the repository's libraries. When the dependency management plugin is
+ * applied, the subprojects import the repository's bom and declare their dependencies without versions. Otherwise,
+ * they declare their dependencies with versions. Gradle module metadata is not published so that publication only
+ * produces the poms that the plugin customizes.
+ *
+ * @author agent (agent@local)
+ */
+final class BuildGenerator {
+
+    private final File root;
+
+    private final File repository;
+
+    private final List<File> pluginClasspath;
+
+    /**
+     * Creates a new {@code BuildGenerator} that will generate a build in the given {@code root} directory that
+     * resolves its dependencies from the given {@code repository}. The given {@code pluginClasspath} is used to apply
+     * the dependency management plugin, or {@code null} if the plugin should not be applied.
+     *
+     * @param root the root directory of the build
+     * @param repository the root directory of the repository
+     * @param pluginClasspath the classpath of the plugin, or {@code null}
+     */
+    BuildGenerator(File root, File repository, List<File> pluginClasspath) {
+        this.root = root;
+        this.repository = repository;
+        this.pluginClasspath = pluginClasspath;
+    }
+
+    /**
+     * Generates a build with the given number of {@code subprojects}, each with the given number of {@code
+     * directDependencies} on the first {@code libraries} libraries in the repository.
+     *
+     * @param subprojects the number of subprojects
+     * @param directDependencies the number of direct dependencies of each subproject
+     * @param libraries the number of libraries from which the direct dependencies are chosen
+     * @throws IOException if the build cannot be generated
+     */
+    void generate(int subprojects, int directDependencies, int libraries) throws IOException {
+        Writer settings = createWriter(new File(this.root, "settings.gradle"));
+        try {
+            settings.write("rootProject.name = 'macro-benchmark'\n");
+            for (int i = 0; i < subprojects; i++) {
+                settings.write("include 'project" + i + "'\n");
+            }
+        }
+        finally {
+            settings.close();
+        }
+        writeRootBuildScript();
+        for (int i = 0; i < subprojects; i++) {
+            writeSubprojectBuildScript(i, directDependencies, libraries);
+        }
+    }
+
+    private void writeRootBuildScript() throws IOException {
+        Writer writer = createWriter(new File(this.root, "build.gradle"));
+        try {
+            if (this.pluginClasspath != null) {
+                writer.write("buildscript {\n");
+                writer.write("    dependencies {\n");
+                writer.write("        classpath files(");
+                for (int i = 0; i < this.pluginClasspath.size(); i++) {
+                    writer.write(((i > 0) ? ", " : "") + quote(this.pluginClasspath.get(i).getAbsolutePath()));
+                }
+                writer.write(")\n");
+                writer.write("    }\n");
+                writer.write("}\n\n");
+            }
+            writer.write("subprojects {\n");
+            writer.write("    apply plugin: 'java'\n");
+            writer.write("    apply plugin: 'maven-publish'\n");
+            if (this.pluginClasspath != null) {
+                writer.write("    apply plugin: 'io.spring.dependency-management'\n\n");
+                writer.write("    dependencyManagement {\n");
+                writer.write("        imports {\n");
+                writer.write("            mavenBom '" + RepositoryGenerator.bomCoordinates() + "'\n");
+                writer.write("        }\n");
+                writer.write("    }\n");
+            }
+            writer.write("\n    group = 'com.example.benchmark'\n");
+            writer.write("    version = '1.0'\n\n");
+            writer.write("    repositories {\n");
+            writer.write("        maven { url = uri(" + quote(this.repository.toURI().toString()) + ") }\n");
+            writer.write("    }\n\n");
+            writer.write("    ext.dependencyConfiguration = configurations.findByName('implementation') ? "
+                    + "'implementation' : 'compile'\n\n");
+            writer.write("    publishing {\n");
+            writer.write("        publications {\n");
+            writer.write("            maven(MavenPublication) {\n");
+            writer.write("                from components.java\n");
+            writer.write("            }\n");
+            writer.write("        }\n");
+            writer.write("        repositories {\n");
+            writer.write("            maven { url = uri(\"${rootDir}/build/publications\") }\n");
+            writer.write("        }\n");
+            writer.write("    }\n\n");
+            writer.write("    tasks.matching { it.name.startsWith('generateMetadataFile') }.all {\n");
+            writer.write("        enabled = false\n");
+            writer.write("    }\n\n");
+            writer.write("    task resolveDependencies {\n");
+            writer.write("        doLast {\n");
+            writer.write("            (configurations.findByName('runtimeClasspath') ?: configurations.runtime)"
+                    + ".resolve()\n");
+            writer.write("        }\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private void writeSubprojectBuildScript(int subproject, int directDependencies, int libraries)
+            throws IOException {
+        File projectDir = new File(this.root, "project" + subproject);
+        Writer writer = createWriter(new File(projectDir, "build.gradle"));
+        try {
+            writer.write("dependencies {\n");
+            for (int i = 0; i < directDependencies; i++) {
+                String library = RepositoryGenerator.libraryId((subproject * 31 + i * 17) % libraries);
+                if (this.pluginClasspath == null) {
+                    library += ":" + RepositoryGenerator.VERSION;
+                }
+                writer.write("    add(dependencyConfiguration, '" + library + "')\n");
+            }
+            writer.write("}\n");
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private static Writer createWriter(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        return new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+    }
+
+}
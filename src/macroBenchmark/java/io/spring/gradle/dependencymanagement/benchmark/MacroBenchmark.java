@@ -0,0 +1,196 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gradle.testkit.runner.GradleRunner;
+
+/**
+ * A macro-benchmark that uses TestKit to build generated multi-project builds with and without the dependency
+ * management plugin applied. The builds resolve their dependencies from a generated, file-based Maven repository so
+ * the benchmark runs offline. The following scenarios are measured:
+ *
+ * <ul>
+ * <li>{@code configuration}: running {@code help} in a warm daemon</li>
+ * <li>{@code firstResolution}: resolving every subproject's runtime classpath in a new daemon with an empty Gradle
+ * user home, and therefore with empty caches</li>
+ * <li>{@code warmResolution}: resolving every subproject's runtime classpath in a warm daemon</li>
+ * <li>{@code publication}: publishing every subproject to a local repository in a warm daemon</li>
+ * </ul>
+ *
+ * <p>Every measurement is the wall time of a complete build, including its configuration. The benchmark is
+ * configured using system properties that are prefixed with {@code macroBenchmark.}. The results are written as JSON
+ * to the file identified by {@code macroBenchmark.results}.
+ *
+ * @author agent (agent@local)
+ */
+public final class MacroBenchmark {
+
+    private static final String PREFIX = "macroBenchmark.";
+
+    private final File workDir;
+
+    private final File resultsFile;
+
+    private final List<File> pluginClasspath;
+
+    private final File gradleHome;
+
+    private final int subprojects;
+
+    private final int boms;
+
+    private final int libraries;
+
+    private final int directDependencies;
+
+    private final int warmups;
+
+    private final int iterations;
+
+    private final int coldIterations;
+
+    private final MacroBenchmarkResults results = new MacroBenchmarkResults();
+
+    private MacroBenchmark() {
+        this.workDir = new File(System.getProperty(PREFIX + "workDir", "build/macro-benchmark"));
+        this.resultsFile = new File(System.getProperty(PREFIX + "results",
+                new File(this.workDir, "results.json").getPath()));
+        this.pluginClasspath = getPluginClasspath();
+        String gradleHome = System.getProperty(PREFIX + "gradleHome");
+        this.gradleHome = (gradleHome != null) ? new File(gradleHome) : null;
+        this.subprojects = getParameter("subprojects", 10);
+        this.boms = getParameter("boms", 5);
+        this.libraries = getParameter("libraries", 2000);
+        this.directDependencies = getParameter("directDependencies", 20);
+        this.warmups = getParameter("warmups", 2);
+        this.iterations = getParameter("iterations", 5);
+        this.coldIterations = getParameter("coldIterations", 2);
+        this.results.addParameter("gradleVersion", System.getProperty(PREFIX + "gradleVersion", "unknown"));
+        this.results.addParameter("javaVersion", System.getProperty("java.version"));
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the arguments, which are ignored
+     * @throws IOException if the builds cannot be generated or the results cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        new MacroBenchmark().run();
+    }
+
+    private void run() throws IOException {
+        delete(this.workDir);
+        File repository = new File(this.workDir, "repository");
+        new RepositoryGenerator(repository, this.boms, this.libraries).generate();
+        run(MacroBenchmarkResults.WITHOUT_PLUGIN, repository, null);
+        run(MacroBenchmarkResults.WITH_PLUGIN, repository, this.pluginClasspath);
+        this.resultsFile.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(this.resultsFile), Charset.forName("UTF-8"));
+        try {
+            this.results.writeJson(writer);
+        }
+        finally {
+            writer.close();
+        }
+        PrintWriter summary = new PrintWriter(System.out);
+        this.results.writeSummary(summary);
+        summary.println("Results written to " + this.resultsFile.getAbsolutePath());
+        summary.flush();
+    }
+
+    private void run(String variant, File repository, List<File> pluginClasspath) throws IOException {
+        File variantDir = new File(this.workDir, variant);
+        File buildDir = new File(variantDir, "build");
+        new BuildGenerator(buildDir, repository, pluginClasspath).generate(this.subprojects,
+                this.directDependencies, Math.max(1, this.libraries / 4));
+        for (int i = 0; i < this.coldIterations; i++) {
+            GradleRunner runner = createRunner(buildDir, new File(variantDir, "test-kit-cold-" + i));
+            build(runner, "help");
+            this.results.addSample("firstResolution", variant, build(runner, "resolveDependencies"));
+        }
+        GradleRunner runner = createRunner(buildDir, new File(variantDir, "test-kit"));
+        measure(runner, variant, "configuration", "help");
+        measure(runner, variant, "warmResolution", "resolveDependencies");
+        measure(runner, variant, "publication", "publish");
+    }
+
+    private void measure(GradleRunner runner, String variant, String scenario, String task) {
+        for (int i = 0; i < this.warmups; i++) {
+            build(runner, task);
+        }
+        for (int i = 0; i < this.iterations; i++) {
+            this.results.addSample(scenario, variant, build(runner, task));
+        }
+    }
+
+    private GradleRunner createRunner(File buildDir, File testKitDir) {
+        GradleRunner runner = GradleRunner.create().withProjectDir(buildDir).withTestKitDir(testKitDir);
+        if (this.gradleHome != null) {
+            runner.withGradleInstallation(this.gradleHome);
+        }
+        return runner;
+    }
+
+    private long build(GradleRunner runner, String task) {
+        long start = System.nanoTime();
+        runner.withArguments(task, "--offline", "--stacktrace").build();
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    private int getParameter(String name, int defaultValue) {
+        int value = Integer.getInteger(PREFIX + name, defaultValue);
+        this.results.addParameter(name, value);
+        return value;
+    }
+
+    private static List<File> getPluginClasspath() {
+        String classpath = System.getProperty(PREFIX + "pluginClasspath");
+        if (classpath == null) {
+            throw new IllegalStateException("The plugin's classpath must be provided using the "
+                    + PREFIX + "pluginClasspath system property");
+        }
+        List<File> files = new ArrayList<File>();
+        for (String path : classpath.split(File.pathSeparator)) {
+            if (path.length() > 0) {
+                files.add(new File(path));
+            }
+        }
+        return files;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
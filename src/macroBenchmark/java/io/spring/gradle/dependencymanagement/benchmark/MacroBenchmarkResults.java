@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The results of a {@link MacroBenchmark} run: the parameters of the generated builds and, for each scenario, the
+ * duration of every measured build with and without the dependency management plugin. Results are written as JSON
+ * with a stable layout so that the results of different runs can be compared.
+ *
+ * @author agent (agent@local)
+ */
+final class MacroBenchmarkResults {
+
+    static final String WITH_PLUGIN = "withPlugin";
+
+    static final String WITHOUT_PLUGIN = "withoutPlugin";
+
+    private static final String NEW_LINE = System.getProperty("line.separator");
+
+    private final Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+
+    private final Map<String, Map<String, List<Long>>> samples = new LinkedHashMap<String, Map<String, List<Long>>>();
+
+    void addParameter(String name, Object value) {
+        this.parameters.put(name, value);
+    }
+
+    void addSample(String scenario, String variant, long millis) {
+        Map<String, List<Long>> variants = this.samples.get(scenario);
+        if (variants == null) {
+            variants = new LinkedHashMap<String, List<Long>>();
+            variants.put(WITHOUT_PLUGIN, new ArrayList<Long>());
+            variants.put(WITH_PLUGIN, new ArrayList<Long>());
+            this.samples.put(scenario, variants);
+        }
+        variants.get(variant).add(millis);
+    }
+
+    void writeJson(Writer writer) throws IOException {
+        writer.write("{\n  \"parameters\": {");
+        Iterator<Map.Entry<String, Object>> parameters = this.parameters.entrySet().iterator();
+        while (parameters.hasNext()) {
+            Map.Entry<String, Object> parameter = parameters.next();
+            Object value = parameter.getValue();
+            writer.write("\n    " + quote(parameter.getKey()) + ": "
+                    + ((value instanceof Number) ? value.toString() : quote(String.valueOf(value)))
+                    + (parameters.hasNext() ? "," : "\n  "));
+        }
+        writer.write("},\n  \"scenarios\": {");
+        Iterator<Map.Entry<String, Map<String, List<Long>>>> scenarios = this.samples.entrySet().iterator();
+        while (scenarios.hasNext()) {
+            Map.Entry<String, Map<String, List<Long>>> scenario = scenarios.next();
+            writer.write("\n    " + quote(scenario.getKey()) + ": {");
+            for (Map.Entry<String, List<Long>> variant : scenario.getValue().entrySet()) {
+                List<Long> samples = variant.getValue();
+                writer.write("\n      " + quote(variant.getKey()) + ": { \"medianMillis\": " + median(samples)
+                        + ", \"minMillis\": " + min(samples) + ", \"maxMillis\": " + max(samples)
+                        + ", \"samplesMillis\": " + samples + " },");
+            }
+            writer.write("\n      \"overheadMillis\": " + overhead(scenario.getValue()) + ",\n      \"ratio\": "
+                    + String.format(Locale.ROOT, "%.3f", ratio(scenario.getValue())) + "\n    }"
+                    + (scenarios.hasNext() ? "," : "\n  "));
+        }
+        writer.write("}\n}\n");
+    }
+
+    void writeSummary(Writer writer) throws IOException {
+        writer.write(String.format(Locale.ROOT, "%-20s %18s %18s %16s %8s%n", "Scenario", "Without plugin (ms)",
+                "With plugin (ms)", "Overhead (ms)", "Ratio"));
+        for (Map.Entry<String, Map<String, List<Long>>> scenario : this.samples.entrySet()) {
+            Map<String, List<Long>> variants = scenario.getValue();
+            writer.write(String.format(Locale.ROOT, "%-20s %18d %18d %16d %8.3f%n", scenario.getKey(),
+                    median(variants.get(WITHOUT_PLUGIN)), median(variants.get(WITH_PLUGIN)), overhead(variants),
+                    ratio(variants)));
+        }
+        writer.write(NEW_LINE);
+    }
+
+    private static long overhead(Map<String, List<Long>> variants) {
+        return median(variants.get(WITH_PLUGIN)) - median(variants.get(WITHOUT_PLUGIN));
+    }
+
+    private static double ratio(Map<String, List<Long>> variants) {
+        long without = median(variants.get(WITHOUT_PLUGIN));
+        return (without > 0) ? (double) median(variants.get(WITH_PLUGIN)) / without : 0;
+    }
+
+    private static long median(List<Long> samples) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<Long>(samples);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return (sorted.size() % 2 == 1) ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static long min(List<Long> samples) {
+        return samples.isEmpty() ? 0 : Collections.min(samples);
+    }
+
+    private static long max(List<Long> samples) {
+        return samples.isEmpty() ? 0 : Collections.max(samples);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generates a local, file-based Maven repository that contains a chain of boms and the libraries that they manage.
+ * The first bom in the chain, {@code com.example.platform:bom0:1.0}, imports the second, which imports the third, and
+ * so on. Each bom manages an even share of the libraries using one version property per group, much like Spring
+ * Boot's bom. Every library depends on a few libraries with a higher index, forming a graph with thousands of
+ * transitive components, and every tenth library excludes one of its transitive dependencies.
+ *
+ * @author agent (agent@local)
+ */
+final class RepositoryGenerator {
+
+    static final String BOM_GROUP = "com.example.platform";
+
+    static final String VERSION = "1.0";
+
+    private static final int LIBRARIES_PER_GROUP = 50;
+
+    private static final int DEPENDENCIES_PER_LIBRARY = 3;
+
+    private static final int DEPENDENCY_REACH = 97;
+
+    private final File root;
+
+    private final int boms;
+
+    private final int libraries;
+
+    /**
+     * Creates a new {@code RepositoryGenerator} that will generate a repository in the given {@code root} directory
+     * with the given number of {@code boms} that, between them, manage the given number of {@code libraries}.
+     *
+     * @param root the root directory of the repository
+     * @param boms the number of boms in the import chain
+     * @param libraries the number of libraries
+     */
+    RepositoryGenerator(File root, int boms, int libraries) {
+        this.root = root;
+        this.boms = boms;
+        this.libraries = libraries;
+    }
+
+    /**
+     * Generates the repository.
+     *
+     * @throws IOException if the repository cannot be generated
+     */
+    void generate() throws IOException {
+        byte[] jar = createJar();
+        for (int i = 0; i < this.libraries; i++) {
+            writeLibrary(i, jar);
+        }
+        for (int i = 0; i < this.boms; i++) {
+            writeBom(i);
+        }
+    }
+
+    /**
+     * Returns the coordinates of the first bom in the import chain.
+     *
+     * @return the bom's coordinates
+     */
+    static String bomCoordinates() {
+        return BOM_GROUP + ":bom0:" + VERSION;
+    }
+
+    /**
+     * Returns the {@code group:name} of the library with the given {@code index}.
+     *
+     * @param index the index of the library
+     * @return the library's id
+     */
+    static String libraryId(int index) {
+        return libraryGroup(index) + ":library" + index;
+    }
+
+    private static String libraryGroup(int index) {
+        return "com.example.group" + (index / LIBRARIES_PER_GROUP);
+    }
+
+    private void writeLibrary(int index, byte[] jar) throws IOException {
+        String group = libraryGroup(index);
+        String name = "library" + index;
+        Writer writer = createWriter(pomFile(group, name));
+        try {
+            writeStart(writer, group, name, "jar");
+            writer.write("    <dependencies>\n");
+            for (int i = 0; i < DEPENDENCIES_PER_LIBRARY; i++) {
+                int dependency = dependencyOf(index, i);
+                if (dependency >= this.libraries) {
+                    continue;
+                }
+                writer.write("        <dependency>\n");
+                writer.write("            <groupId>" + libraryGroup(dependency) + "</groupId>\n");
+                writer.write("            <artifactId>library" + dependency + "</artifactId>\n");
+                writer.write("            <version>" + VERSION + "</version>\n");
+                int excluded = dependencyOf(dependency, 0);
+                if (i == 0 && index % 10 == 0 && excluded < this.libraries) {
+                    writer.write("            <exclusions>\n");
+                    writer.write("                <exclusion>\n");
+                    writer.write("                    <groupId>" + libraryGroup(excluded) + "</groupId>\n");
+                    writer.write("                    <artifactId>library" + excluded + "</artifactId>\n");
+                    writer.write("                </exclusion>\n");
+                    writer.write("            </exclusions>\n");
+                }
+                writer.write("        </dependency>\n");
+            }
+            writer.write("    </dependencies>\n");
+            writer.write("</project>\n");
+        }
+        finally {
+            writer.close();
+        }
+        OutputStream output = new FileOutputStream(new File(pomFile(group, name).getParentFile(),
+                name + "-" + VERSION + ".jar"));
+        try {
+            output.write(jar);
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    private static int dependencyOf(int index, int dependency) {
+        return index + 1 + (index * 7 + dependency * 13) % DEPENDENCY_REACH;
+    }
+
+    private void writeBom(int index) throws IOException {
+        String name = "bom" + index;
+        int from = index * this.libraries / this.boms;
+        int to = (index + 1) * this.libraries / this.boms;
+        Writer writer = createWriter(pomFile(BOM_GROUP, name));
+        try {
+            writeStart(writer, BOM_GROUP, name, "pom");
+            writer.write("    <properties>\n");
+            for (int i = from; i < to; i++) {
+                if (i == from || i % LIBRARIES_PER_GROUP == 0) {
+                    writer.write("        <" + libraryGroup(i) + ".version>" + VERSION + "</" + libraryGroup(i)
+                            + ".version>\n");
+                }
+            }
+            writer.write("    </properties>\n");
+            writer.write("    <dependencyManagement>\n");
+            writer.write("        <dependencies>\n");
+            for (int i = from; i < to; i++) {
+                writer.write("            <dependency>\n");
+                writer.write("                <groupId>" + libraryGroup(i) + "</groupId>\n");
+                writer.write("                <artifactId>library" + i + "</artifactId>\n");
+                writer.write("                <version>${" + libraryGroup(i) + ".version}</version>\n");
+                writer.write("            </dependency>\n");
+            }
+            if (index + 1 < this.boms) {
+                writer.write("            <dependency>\n");
+                writer.write("                <groupId>" + BOM_GROUP + "</groupId>\n");
+                writer.write("                <artifactId>bom" + (index + 1) + "</artifactId>\n");
+                writer.write("                <version>" + VERSION + "</version>\n");
+                writer.write("                <type>pom</type>\n");
+                writer.write("                <scope>import</scope>\n");
+                writer.write("            </dependency>\n");
+            }
+            writer.write("        </dependencies>\n");
+            writer.write("    </dependencyManagement>\n");
+            writer.write("</project>\n");
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private void writeStart(Writer writer, String group, String name, String packaging) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        writer.write("    <modelVersion>4.0.0</modelVersion>\n");
+        writer.write("    <groupId>" + group + "</groupId>\n");
+        writer.write("    <artifactId>" + name + "</artifactId>\n");
+        writer.write("    <version>" + VERSION + "</version>\n");
+        writer.write("    <packaging>" + packaging + "</packaging>\n");
+    }
+
+    private File pomFile(String group, String name) {
+        return new File(this.root, group.replace('.', '/') + "/" + name + "/" + VERSION + "/" + name + "-" + VERSION
+                + ".pom");
+    }
+
+    private static Writer createWriter(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        return new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+    }
+
+    private static byte[] createJar() throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        new JarOutputStream(jar, manifest).close();
+        return jar.toByteArray();
+    }
+
+}
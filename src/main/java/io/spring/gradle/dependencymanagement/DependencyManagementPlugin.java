@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,9 @@ public class DependencyManagementPlugin implements Plugin<Project> {
 
         project.getExtensions().add("dependencyManagement", dependencyManagementExtension);
         internalComponents.createDependencyManagementReportTask("dependencyManagement");
+        internalComponents.createDependencyManagementPrefetchTask("dependencyManagementPrefetch");
+        internalComponents.createCompileBomIndexTask("compileBomIndex");
+        internalComponents.createDependencyManagementProfileTask("dependencyManagementProfile");
 
         project.getConfigurations().all(internalComponents.getImplicitDependencyManagementCollector());
         project.getConfigurations().all(internalComponents.getDependencyManagementApplier());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -89,6 +89,46 @@ public interface DependencyManagementExtension extends DependencyManagementHandl
      */
     void applyMavenExclusions(boolean applyMavenExclusions);
 
+    /**
+     * Set whether or not the dependencies that Maven-style exclusions exclude should be found by walking the poms of a
+     * configuration's dependencies, rather than by resolving a copy of the configuration. The default is
+     * {@code false}.
+     *
+     * @param mavenExclusionsFromPoms {@code true} if excluded dependencies should be found using poms, otherwise
+     * {@code false}
+     */
+    void setMavenExclusionsFromPoms(boolean mavenExclusionsFromPoms);
+
+    /**
+     * Set whether or not the dependencies that Maven-style exclusions exclude should be found by walking the poms of a
+     * configuration's dependencies, rather than by resolving a copy of the configuration. The default is
+     * {@code false}.
+     *
+     * @param mavenExclusionsFromPoms {@code true} if excluded dependencies should be found using poms, otherwise
+     * {@code false}
+     */
+    void mavenExclusionsFromPoms(boolean mavenExclusionsFromPoms);
+
+    /**
+     * Set whether or not the exclusions declared in poms should be cached in the Gradle user home for use by
+     * subsequent builds. When {@code false}, exclusions are only cached in memory for the rest of the build. The
+     * default is {@code true}.
+     *
+     * @param persistentExclusionCache {@code true} if exclusions should be cached for use by subsequent builds,
+     * otherwise {@code false}
+     */
+    void setPersistentExclusionCache(boolean persistentExclusionCache);
+
+    /**
+     * Set whether or not the exclusions declared in poms should be cached in the Gradle user home for use by
+     * subsequent builds. When {@code false}, exclusions are only cached in memory for the rest of the build. The
+     * default is {@code true}.
+     *
+     * @param persistentExclusionCache {@code true} if exclusions should be cached for use by subsequent builds,
+     * otherwise {@code false}
+     */
+    void persistentExclusionCache(boolean persistentExclusionCache);
+
     /**
      * Set whether dependency management should be overridden by versions declared on a project's dependencies. The
      * default is {@code true}.
@@ -107,9 +147,32 @@ public interface DependencyManagementExtension extends DependencyManagementHandl
      */
     void overriddenByDependencies(boolean overriddenByDependencies);
 
+    /**
+     * Set the maximum number of imported boms whose effective models are built in parallel. A value of {@code 1}
+     * disables parallel building. The default is the number of available processors.
+     *
+     * @param bomParallelism the bom parallelism
+     */
+    void setBomParallelism(int bomParallelism);
+
+    /**
+     * Set the maximum number of imported boms whose effective models are built in parallel. A value of {@code 1}
+     * disables parallel building. The default is the number of available processors.
+     *
+     * @param bomParallelism the bom parallelism
+     */
+    void bomParallelism(int bomParallelism);
+
+    /**
+     * Notifies dependency management that project properties that may be used when resolving imported boms have
+     * changed. The properties' memoized values are discarded and they are looked up again the next time that they are
+     * used.
+     */
+    void projectPropertiesChanged();
+
     /**
      * Returns a map of the managed versions for a specific {@link Configuration}, ignoring its hierarchy. The key-value
-     * pairs in the map have the form {@code group:name = version}.
+     * pairs in the map have the form {@code group:name = version}. The map cannot be modified.
      *
      * @param configuration the configuration
      * @return the managed versions for the configuration
@@ -118,7 +181,7 @@ public interface DependencyManagementExtension extends DependencyManagementHandl
 
     /**
      * Returns a map of the managed versions for a specific {@link Configuration}, including its hierarchy. The key-value
-     * pairs in the map have the form {@code group:name = version}.
+     * pairs in the map have the form {@code group:name = version}. The map cannot be modified.
      *
      * @param configuration the configuration
      * @return the managed versions for the configuration hierarchy
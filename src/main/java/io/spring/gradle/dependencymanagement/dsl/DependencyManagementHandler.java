@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,7 +35,7 @@ public interface DependencyManagementHandler extends DependencyManagementConfigu
     /**
      * Returns a map of the managed versions for the configuration associated with this handler. The entire {@link
      * org.gradle.api.artifacts.Configuration#getHierarchy()} configuration hierarchy} is considered. The key-value
-     * pairs in the map have the form {@code group:name = version}.
+     * pairs in the map have the form {@code group:name = version}. The map cannot be modified.
      *
      * @return the managed versions
      */
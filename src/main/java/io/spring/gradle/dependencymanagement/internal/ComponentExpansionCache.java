@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache, shared by {@link ModuleGraph graphs} that are walked with the same managed exclusions, of the exclusions
+ * with which a component's dependencies are reached. An entry is keyed by the component's module, its selected version
+ * and the exclusions with which the component was reached. It is only reused by a graph in which the component has the
+ * same dependencies, so graphs that differ elsewhere can still share it.
+ *
+ * <p>Modules are identified by ids that are the same in every graph that shares the cache so that the exclusions of
+ * one graph can be compared with those of another.
+ *
+ * @author agent (agent@local)
+ */
+final class ComponentExpansionCache {
+
+    private final Map<String, Integer> idsByModule = new HashMap<String, Integer>();
+
+    private final Map<Component, Expansion> expansions = new HashMap<Component, Expansion>();
+
+    private int size = 1;
+
+    /**
+     * Returns the id of the module with the given {@code group:name} identifier, allocating a new id if necessary.
+     *
+     * @param module the module's identifier
+     * @return the id of the module
+     */
+    synchronized int getId(String module) {
+        Integer id = this.idsByModule.get(module);
+        if (id == null) {
+            id = this.size++;
+            this.idsByModule.put(module, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the exclusions with which the given {@code dependencies} of the module with the given {@code id} and
+     * {@code version} are reached when the module is reached with the given {@code exclusions}, or {@code null} if
+     * they have not been cached for those dependencies.
+     *
+     * @param id the id of the module
+     * @param version the selected version of the module
+     * @param exclusions the exclusions with which the module is reached
+     * @param dependencies the ids of the module's dependencies
+     * @param count the number of the module's dependencies
+     * @return the exclusions of each of the dependencies or {@code null}
+     */
+    synchronized BitSet[] get(int id, String version, BitSet exclusions, int[] dependencies, int count) {
+        Expansion expansion = this.expansions.get(new Component(id, version, exclusions));
+        if (expansion == null || expansion.dependencies.length != count) {
+            return null;
+        }
+        for (int i = 0; i < count; i++) {
+            if (expansion.dependencies[i] != dependencies[i]) {
+                return null;
+            }
+        }
+        return expansion.exclusions;
+    }
+
+    /**
+     * Caches the exclusions with which the given {@code dependencies} of the module with the given {@code id} and
+     * {@code version} are reached when the module is reached with the given {@code exclusions}. Neither the given
+     * exclusions nor the dependencies' exclusions may be modified once they have been cached.
+     *
+     * @param id the id of the module
+     * @param version the selected version of the module
+     * @param exclusions the exclusions with which the module is reached
+     * @param dependencies the ids of the module's dependencies
+     * @param count the number of the module's dependencies
+     * @param dependencyExclusions the exclusions of each of the dependencies
+     */
+    synchronized void put(int id, String version, BitSet exclusions, int[] dependencies, int count,
+            BitSet[] dependencyExclusions) {
+        this.expansions.put(new Component(id, version, exclusions),
+                new Expansion(Arrays.copyOf(dependencies, count), dependencyExclusions));
+    }
+
+    /**
+     * A component that has been reached with some exclusions.
+     */
+    private static final class Component {
+
+        private final int id;
+
+        private final String version;
+
+        private final BitSet exclusions;
+
+        private final int hashCode;
+
+        private Component(int id, String version, BitSet exclusions) {
+            this.id = id;
+            this.version = version;
+            this.exclusions = exclusions;
+            this.hashCode = 31 * (31 * id + ((version != null) ? version.hashCode() : 0)) + exclusions.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Component other = (Component) o;
+            return this.id == other.id && this.hashCode == other.hashCode
+                    && ((this.version != null) ? this.version.equals(other.version) : other.version == null)
+                    && this.exclusions.equals(other.exclusions);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+    }
+
+    /**
+     * The exclusions with which a component's dependencies are reached.
+     */
+    private static final class Expansion {
+
+        private final int[] dependencies;
+
+        private final BitSet[] exclusions;
+
+        private Expansion(int[] dependencies, BitSet[] exclusions) {
+            this.dependencies = dependencies;
+            this.exclusions = exclusions;
+        }
+
+    }
+
+}
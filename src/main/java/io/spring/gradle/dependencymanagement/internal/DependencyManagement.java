@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,21 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.gradle.api.GradleException;
 import org.gradle.api.Project;
@@ -27,13 +38,18 @@ import org.gradle.api.artifacts.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.spring.gradle.dependencymanagement.internal.maven.PomResolutionCache;
+import io.spring.gradle.dependencymanagement.internal.pom.BomIndex;
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
 import io.spring.gradle.dependencymanagement.internal.pom.Pom;
 import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
-import io.spring.gradle.dependencymanagement.internal.properties.ProjectPropertySource;
+import io.spring.gradle.dependencymanagement.internal.profile.FlightRecorderEvents;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
+import io.spring.gradle.dependencymanagement.internal.properties.CompositePropertySource;
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.internal.properties.SystemPropertySource;
 
 /**
  * Encapsulates dependency management information for a particular configuration in a Gradle project.
@@ -44,17 +60,27 @@ public class DependencyManagement {
 
     private static final Logger logger = LoggerFactory.getLogger(DependencyManagement.class);
 
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private final Project project;
 
     private final Configuration targetConfiguration;
 
     private final PomResolver pomResolver;
 
+    private final PropertySource projectProperties;
+
+    private final SymbolTable symbols;
+
     private boolean resolved;
 
-    private final Map<String, String> versions = new HashMap<String, String>();
+    private final ManagedVersions versions = new ManagedVersions();
 
-    private final Map<String, String> explicitVersions = new HashMap<String, String>();
+    private final ManagedVersions explicitVersions = new ManagedVersions();
+
+    private ManagedVersionIndex managedVersionIndex;
 
     private final Exclusions explicitExclusions = new Exclusions();
 
@@ -66,18 +92,27 @@ public class DependencyManagement {
 
     private List<Pom> resolvedBoms = new ArrayList<Pom>();
 
-    DependencyManagement(Project project, PomResolver pomResolver) {
-        this(project, null, pomResolver);
+    private List<BomIndex> bomIndexes = Collections.emptyList();
+
+    private final Map<String, Set<String>> consultedProperties = new ConcurrentHashMap<String, Set<String>>();
+
+    DependencyManagement(Project project, PomResolver pomResolver, PropertySource projectProperties,
+            SymbolTable symbols) {
+        this(project, null, pomResolver, projectProperties, symbols);
     }
 
-    DependencyManagement(Project project, Configuration targetConfiguration, PomResolver pomResolver) {
+    DependencyManagement(Project project, Configuration targetConfiguration, PomResolver pomResolver,
+            PropertySource projectProperties, SymbolTable symbols) {
         this.project = project;
         this.pomResolver = pomResolver;
         this.targetConfiguration = targetConfiguration;
+        this.projectProperties = projectProperties;
+        this.symbols = symbols;
     }
 
     void importBom(Coordinates coordinates, PropertySource properties) {
         this.importedBoms.add(new PomReference(coordinates, properties));
+        this.managedVersionIndex = null;
     }
 
     /**
@@ -87,6 +122,13 @@ public class DependencyManagement {
      */
     List<Pom> getImportedBoms() {
         resolveIfNecessary();
+        if (!this.bomIndexes.isEmpty()) {
+            List<Pom> importedBoms = new ArrayList<Pom>();
+            for (BomIndex bomIndex: this.bomIndexes) {
+                importedBoms.add(bomIndex.toPom());
+            }
+            return importedBoms;
+        }
         return new ArrayList<Pom>(this.resolvedBoms);
     }
 
@@ -94,32 +136,97 @@ public class DependencyManagement {
         return this.importedBoms;
     }
 
+    /**
+     * Returns the references to the imported boms whose dependency management may differ from their default
+     * dependency management due to the project's properties. A bom is only affected by a project property that it
+     * consulted while it was being resolved, that is not provided by the bom's reference, and whose value differs from
+     * the one the bom would have used without it.
+     *
+     * @return the references to the boms that may have been changed by the project's properties
+     */
+    List<PomReference> getBomsChangedByProjectProperties() {
+        resolveIfNecessary();
+        Map<String, Map<String, String>> ownProperties = new HashMap<String, Map<String, String>>();
+        for (BomIndex bomIndex: this.bomIndexes) {
+            ownProperties.put(createKey(bomIndex.getCoordinates().getGroupId(),
+                    bomIndex.getCoordinates().getArtifactId()), bomIndex.getProperties());
+        }
+        for (Pom resolvedBom: this.resolvedBoms) {
+            ownProperties.put(createKey(resolvedBom.getCoordinates().getGroupId(),
+                    resolvedBom.getCoordinates().getArtifactId()), resolvedBom.getProperties());
+        }
+        Properties systemProperties = PomResolutionCache.forBuild(this.project.getGradle()).getSystemProperties();
+        List<PomReference> changed = new ArrayList<PomReference>();
+        for (PomReference reference: deduplicate(this.importedBoms)) {
+            String key = createKey(reference.getCoordinates().getGroupId(), reference.getCoordinates().getArtifactId());
+            Set<String> names = this.consultedProperties.get(key);
+            Map<String, String> properties = ownProperties.get(key);
+            if (names == null || properties == null
+                    || isChangedByProjectProperties(reference, names, properties, systemProperties)) {
+                changed.add(reference);
+            }
+        }
+        return changed;
+    }
+
+    private boolean isChangedByProjectProperties(PomReference reference, Set<String> names,
+            Map<String, String> ownProperties, Properties systemProperties) {
+        for (String name: names) {
+            Object value = this.projectProperties.getProperty(name);
+            if (value == null || reference.getProperties().getProperty(name) != null) {
+                continue;
+            }
+            String defaultValue = systemProperties.getProperty(name);
+            if (defaultValue == null) {
+                defaultValue = ownProperties.get(name);
+            }
+            if (!String.valueOf(value).equals(defaultValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     Map<String, String> getImportedProperties() {
         resolveIfNecessary();
+        if (this.bomProperties.isEmpty()) {
+            for (BomIndex bomIndex: this.bomIndexes) {
+                this.bomProperties.putAll(bomIndex.getProperties());
+            }
+        }
         return this.bomProperties;
     }
 
     void addImplicitManagedVersion(String group, String name, String version) {
-        this.versions.put(createKey(group, name), version);
+        this.versions.put(this.symbols.intern(group), this.symbols.intern(name), this.symbols.intern(version));
+        this.managedVersionIndex = null;
     }
 
     void addExplicitManagedVersion(String group, String name, String version, List<String>
             exclusions) {
         String key = createKey(group, name);
-        this.explicitVersions.put(key, version);
+        this.explicitVersions.put(this.symbols.intern(group), this.symbols.intern(name),
+                this.symbols.intern(version));
         this.explicitExclusions.add(key, exclusions);
         this.allExclusions.add(key, exclusions);
         addImplicitManagedVersion(group, name, version);
     }
 
-    String getManagedVersion(String group, String name) {
-        resolveIfNecessary();
-        return this.versions.get(createKey(group, name));
-    }
-
-    Map<String, String> getManagedVersions() {
+    /**
+     * Returns an index of the managed versions that is also an unmodifiable map keyed by {@code groupId:artifactId}.
+     * The index holds a copy of the versions that have been added and searches the indexes of any imported boms in
+     * place. It is created at most once and is shared by all callers until the managed versions change.
+     *
+     * @return the index of the managed versions
+     */
+    ManagedVersionIndex getManagedVersions() {
         resolveIfNecessary();
-        return new HashMap<String, String>(this.versions);
+        ManagedVersionIndex managedVersionIndex = this.managedVersionIndex;
+        if (managedVersionIndex == null) {
+            managedVersionIndex = new ManagedVersionIndex(this.symbols, this.versions.copy(), this.bomIndexes);
+            this.managedVersionIndex = managedVersionIndex;
+        }
+        return managedVersionIndex;
     }
 
     /**
@@ -129,10 +236,12 @@ public class DependencyManagement {
      */
     public List<Dependency> getManagedDependencies() {
         List<Dependency> managedDependencies = new ArrayList<Dependency>();
-        for (Map.Entry<String, String> entry: this.explicitVersions.entrySet()) {
-            String[] components = entry.getKey().split(":");
-            managedDependencies.add(new Dependency(new Coordinates(components[0], components[1],
-                    entry.getValue()), this.explicitExclusions.exclusionsForDependency(entry.getKey())));
+        for (int i = 0; i < this.explicitVersions.size(); i++) {
+            String group = this.symbols.get(this.explicitVersions.getGroup(i));
+            String name = this.symbols.get(this.explicitVersions.getName(i));
+            managedDependencies.add(new Dependency(new Coordinates(group, name,
+                    this.symbols.get(this.explicitVersions.getVersion(i))),
+                    this.explicitExclusions.exclusionsForDependency(createKey(group, name))));
         }
         return managedDependencies;
     }
@@ -148,6 +257,8 @@ public class DependencyManagement {
 
     private void resolveIfNecessary() {
         if (!this.importedBoms.isEmpty() && !this.resolved) {
+            Profiler.Sample sample = Profiler.start("bomResolution");
+            FlightRecorderEvents.Event event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.BOM_RESOLUTION);
             try {
                 this.resolved = true;
                 resolve();
@@ -156,9 +267,26 @@ public class DependencyManagement {
                 throw new GradleException("Failed to resolve imported Maven boms: " +
                         getRootCause(ex).getMessage(), ex);
             }
+            finally {
+                event.commit(describeImportedBoms(), !this.bomIndexes.isEmpty() || event.isCacheHit());
+                sample.stop();
+            }
         }
     }
 
+    private String describeImportedBoms() {
+        StringBuilder description = new StringBuilder();
+        for (PomReference importedBom: this.importedBoms) {
+            Coordinates coordinates = importedBom.getCoordinates();
+            if (description.length() > 0) {
+                description.append(", ");
+            }
+            description.append(coordinates.getGroupId()).append(":").append(coordinates.getArtifactId())
+                    .append(":").append(coordinates.getVersion());
+        }
+        return description.toString();
+    }
+
     private Throwable getRootCause(Exception ex) {
         Throwable candidate = ex;
         while (candidate.getCause() != null) {
@@ -175,26 +303,45 @@ public class DependencyManagement {
         else {
             logger.info("Resolving global dependency management for project '{}'", this.project.getName());
         }
-        Map<String, String> existingVersions = new HashMap<String, String>();
-        existingVersions.putAll(this.versions);
+        ManagedVersions existingVersions = this.versions.copy();
+
+        logger.debug("Preserving {} existing version(s)", existingVersions.size());
 
-        logger.debug("Preserving existing versions: {}", existingVersions);
+        this.bomIndexes = loadBomIndexes();
+        if (!this.bomIndexes.isEmpty()) {
+            logger.debug("Using compiled indexes of the imported boms");
+            for (BomIndex bomIndex: this.bomIndexes) {
+                for (Coordinates coordinates: bomIndex.getUnversionedManagedDependencies()) {
+                    warnOfMissingVersion(bomIndex.getCoordinates(), coordinates);
+                }
+                for (Map.Entry<String, Set<String>> exclusions: bomIndex.getExclusions().entrySet()) {
+                    this.allExclusions.add(exclusions.getKey(), exclusions.getValue());
+                }
+            }
+            return;
+        }
 
-        this.resolvedBoms = this.pomResolver.resolvePoms(this.importedBoms, new ProjectPropertySource(this.project));
+        List<PomReference> recordingReferences = new ArrayList<PomReference>();
+        for (PomReference reference: this.importedBoms) {
+            recordingReferences.add(recording(reference, this.consultedProperties));
+        }
+        this.resolvedBoms = this.pomResolver.resolvePoms(recordingReferences, this.projectProperties);
 
         for (Pom resolvedBom: this.resolvedBoms) {
             for (Dependency dependency : resolvedBom.getManagedDependencies()) {
                 if (isEmpty(dependency.getClassifier())) {
                     Coordinates coordinates = dependency.getCoordinates();
                     if (isEmpty(coordinates.getVersion())) {
-                        String bomId = resolvedBom.getCoordinates().getGroupId() + ":" + resolvedBom.getCoordinates().getArtifactId() + ":" + resolvedBom.getCoordinates().getVersion();
-                        logger.warn("Dependency management for " + coordinates.getGroupId() + ":" + coordinates.getArtifactId() + " in bom " + bomId + " has no version and will be ignored.");
+                        warnOfMissingVersion(resolvedBom.getCoordinates(), coordinates);
                     }
                     else {
-                        this.versions.put(coordinates.getGroupId() + ":" + coordinates.getArtifactId(),
-                                coordinates.getVersion());
-                        this.allExclusions.add(coordinates.getGroupId() + ":" + coordinates.getArtifactId(),
-                                dependency.getExclusions());
+                        this.versions.put(this.symbols.intern(coordinates.getGroupId()),
+                                this.symbols.intern(coordinates.getArtifactId()),
+                                this.symbols.intern(coordinates.getVersion()));
+                        if (!dependency.getExclusions().isEmpty()) {
+                            this.allExclusions.add(createKey(coordinates.getGroupId(), coordinates.getArtifactId()),
+                                    dependency.getExclusions());
+                        }
                     }
                 }
             }
@@ -204,6 +351,174 @@ public class DependencyManagement {
         this.versions.putAll(existingVersions);
     }
 
+    private void warnOfMissingVersion(Coordinates bom, Coordinates coordinates) {
+        String bomId = bom.getGroupId() + ":" + bom.getArtifactId() + ":" + bom.getVersion();
+        logger.warn("Dependency management for " + coordinates.getGroupId() + ":" + coordinates.getArtifactId() + " in bom " + bomId + " has no version and will be ignored.");
+    }
+
+    private List<BomIndex> loadBomIndexes() {
+        List<BomIndex> bomIndexes = new ArrayList<BomIndex>();
+        for (PomReference reference: deduplicate(this.importedBoms)) {
+            BomIndex bomIndex = isSnapshot(reference.getCoordinates()) ? null : loadBomIndex(reference);
+            if (bomIndex == null) {
+                return Collections.emptyList();
+            }
+            bomIndexes.add(bomIndex);
+        }
+        return bomIndexes;
+    }
+
+    private BomIndex loadBomIndex(PomReference reference) {
+        File[] indexFiles = getBomIndexDirectory(reference.getCoordinates()).listFiles();
+        if (indexFiles == null) {
+            return null;
+        }
+        PropertySource properties = getResolutionProperties(recording(reference, this.consultedProperties),
+                this.projectProperties);
+        for (File indexFile: indexFiles) {
+            if (!indexFile.getName().endsWith(INDEX_SUFFIX)) {
+                continue;
+            }
+            try {
+                BomIndex bomIndex = BomIndex.load(indexFile);
+                if (bomIndex.sourcesMatch() && bomIndex.inputsMatch(properties)) {
+                    return bomIndex;
+                }
+                logger.debug("Index {} is out of date", indexFile);
+            }
+            catch (IOException ex) {
+                logger.debug("Failed to load bom index " + indexFile, ex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compiles the imported boms into indexes that will be used in place of resolving them. Snapshot boms are not
+     * indexed.
+     */
+    void compileBomIndexes() {
+        Map<String, PomReference> references = new HashMap<String, PomReference>();
+        Map<String, Set<String>> usedProperties = new HashMap<String, Set<String>>();
+        List<PomReference> recordingReferences = new ArrayList<PomReference>();
+        for (PomReference reference: deduplicate(this.importedBoms)) {
+            Coordinates coordinates = reference.getCoordinates();
+            if (isSnapshot(coordinates)) {
+                logger.info("Not indexing snapshot bom {}:{}:{}", coordinates.getGroupId(),
+                        coordinates.getArtifactId(), coordinates.getVersion());
+                continue;
+            }
+            references.put(createKey(coordinates.getGroupId(), coordinates.getArtifactId()), reference);
+            recordingReferences.add(recording(reference, usedProperties));
+        }
+        if (recordingReferences.isEmpty()) {
+            return;
+        }
+        for (Pom pom: this.pomResolver.resolvePoms(recordingReferences, this.projectProperties)) {
+            String key = createKey(pom.getCoordinates().getGroupId(), pom.getCoordinates().getArtifactId());
+            PomReference reference = references.get(key);
+            if (reference != null && pom.getSources() == null) {
+                logger.info("Not indexing bom {}:{}:{} as the files from which it was built are not known",
+                        pom.getCoordinates().getGroupId(), pom.getCoordinates().getArtifactId(),
+                        pom.getCoordinates().getVersion());
+            }
+            else if (reference != null) {
+                PropertySource properties = getResolutionProperties(reference, this.projectProperties);
+                Map<String, String> inputs = new TreeMap<String, String>();
+                for (String name: usedProperties.get(key)) {
+                    Object value = properties.getProperty(name);
+                    inputs.put(name, value == null ? null : String.valueOf(value));
+                }
+                File indexFile = new File(getBomIndexDirectory(reference.getCoordinates()),
+                        digest(inputs) + INDEX_SUFFIX);
+                try {
+                    BomIndex.write(pom, inputs, indexFile);
+                }
+                catch (IOException ex) {
+                    throw new GradleException("Failed to write bom index " + indexFile, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a reference to the same bom as the given {@code reference} that records, in the given
+     * {@code consultedProperties} under the bom's {@code group:artifact} key, the name of every property that is
+     * consulted while the bom is resolved. The reference's properties take precedence over all others so every
+     * consulted property is seen.
+     */
+    private PomReference recording(final PomReference reference, Map<String, Set<String>> consultedProperties) {
+        String key = createKey(reference.getCoordinates().getGroupId(), reference.getCoordinates().getArtifactId());
+        Set<String> names = consultedProperties.get(key);
+        if (names == null) {
+            names = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            consultedProperties.put(key, names);
+        }
+        final Set<String> consulted = names;
+        return new PomReference(reference.getCoordinates(), new PropertySource() {
+
+            @Override
+            public Object getProperty(String name) {
+                consulted.add(name);
+                return reference.getProperties().getProperty(name);
+            }
+
+        });
+    }
+
+    private PropertySource getResolutionProperties(PomReference reference, PropertySource projectProperties) {
+        Properties systemProperties = PomResolutionCache.forBuild(this.project.getGradle()).getSystemProperties();
+        return new CompositePropertySource(reference.getProperties(), projectProperties,
+                new SystemPropertySource(systemProperties));
+    }
+
+    /**
+     * Returns the directory that holds the indexes of the bom with the given {@code coordinates}. A bom has an index for
+     * each distinct set of property values with which it has been compiled so that projects that resolve it with
+     * different properties do not replace each other's index.
+     */
+    private File getBomIndexDirectory(Coordinates coordinates) {
+        return new File(this.project.getRootProject().getBuildDir(), "dependency-management/bom-index/"
+                + coordinates.getGroupId() + "/" + coordinates.getArtifactId() + "/" + coordinates.getVersion());
+    }
+
+    private String digest(Map<String, String> inputs) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        for (Map.Entry<String, String> input: inputs.entrySet()) {
+            digest.update((input.getKey() + (input.getValue() == null ? "\u0000" : "=" + input.getValue()) + "\n")
+                    .getBytes(UTF_8));
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b: digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private boolean isSnapshot(Coordinates coordinates) {
+        return coordinates.getVersion().endsWith("-SNAPSHOT");
+    }
+
+    private List<PomReference> deduplicate(List<PomReference> references) {
+        List<PomReference> deduplicated = new ArrayList<PomReference>();
+        Set<String> seen = new HashSet<String>();
+        for (int i = references.size() - 1; i >= 0; i--) {
+            PomReference reference = references.get(i);
+            if (seen.add(createKey(reference.getCoordinates().getGroupId(),
+                    reference.getCoordinates().getArtifactId()))) {
+                deduplicated.add(reference);
+            }
+        }
+        Collections.reverse(deduplicated);
+        return deduplicated;
+    }
+
     private boolean isEmpty(String string) {
         return string == null || string.trim().length() == 0;
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,26 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyResolveDetails;
 import org.gradle.api.artifacts.ResolvableDependencies;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
 
 /**
- * An {@link Action} that applies dependency management to a {@link Project}.
+ * An {@link Action} that applies dependency management to a {@link Project}. When a configuration is about to be
+ * resolved, its dependency management is captured in a {@link ResolvedDependencyManagement} and the actions that run
+ * during resolution only depend upon that snapshot.
  *
  * @author Andy Wilkinson
  */
@@ -36,14 +45,20 @@ public class DependencyManagementApplier implements Action<Configuration> {
 
     private final Project project;
 
+    private final LocalProjects localProjects;
+
     private final ExclusionResolver exclusionResolver;
 
+    private final ExcludedDependenciesCache excludedDependenciesCache = new ExcludedDependenciesCache();
+
     private final DependencyManagementContainer dependencyManagementContainer;
 
     private final DependencyManagementConfigurationContainer configurationContainer;
 
     private final DependencyManagementSettings dependencyManagementSettings;
 
+    private final Profiler profiler;
+
     /**
      * Creates a new {@code DependencyManagementApplier} that will apply dependency management to the given
      * {@code project}.
@@ -58,10 +73,12 @@ public class DependencyManagementApplier implements Action<Configuration> {
             DependencyManagementConfigurationContainer configurationContainer,
             DependencyManagementSettings dependencyManagementSettings, PomResolver pomResolver) {
         this.project = project;
-        this.exclusionResolver = new ExclusionResolver(pomResolver);
+        this.localProjects = LocalProjects.forBuild(project);
+        this.exclusionResolver = new ExclusionResolver(pomResolver, project.getGradle(), dependencyManagementSettings);
         this.dependencyManagementContainer = dependencyManagementContainer;
         this.configurationContainer = configurationContainer;
         this.dependencyManagementSettings = dependencyManagementSettings;
+        this.profiler = Profiler.forBuild(project.getGradle());
     }
 
     @Override
@@ -69,29 +86,142 @@ public class DependencyManagementApplier implements Action<Configuration> {
         logger.info("Applying dependency management to configuration '{}' in project '{}'",
                 configuration.getName(), this.project.getName());
 
+        final DeferredVersionConfiguringAction versionConfiguringAction = new DeferredVersionConfiguringAction(
+                this.project.getPath(), configuration.getName(), this.profiler, new VersionConfiguringActionFactory() {
+
+                    @Override
+                    public VersionConfiguringAction create() {
+                        return createVersionConfiguringAction(
+                                DependencyManagementApplier.this.dependencyManagementContainer.resolve(configuration),
+                                configuration.getAllDependencies());
+                    }
+
+                });
+
         configuration.getIncoming().beforeResolve(new Action<ResolvableDependencies>() {
 
             @Override
             public void execute(ResolvableDependencies resolvableDependencies) {
-                dependencyManagementContainer.getManagedVersionsForConfiguration(configuration);
+                Profiler.Scope scope = DependencyManagementApplier.this.profiler
+                        .enter(DependencyManagementApplier.this.project.getPath(), configuration.getName());
+                try {
+                    configureResolution(configuration, resolvableDependencies, versionConfiguringAction);
+                }
+                finally {
+                    scope.exit();
+                }
             }
 
         });
 
-        final VersionConfiguringAction versionConfiguringAction = new VersionConfiguringAction(
-                this.project, this.dependencyManagementContainer, configuration);
+        configuration.getResolutionStrategy().eachDependency(versionConfiguringAction);
+    }
+
+    private void configureResolution(Configuration configuration, ResolvableDependencies resolvableDependencies,
+            DeferredVersionConfiguringAction versionConfiguringAction) {
+        ResolvedDependencyManagement dependencyManagement = this.dependencyManagementContainer.resolve(configuration);
+        final VersionConfiguringAction resolvedVersionConfiguringAction = createVersionConfiguringAction(
+                dependencyManagement, resolvableDependencies.getDependencies());
+        versionConfiguringAction.setDelegate(resolvedVersionConfiguringAction);
+        new ExclusionConfiguringAction(this.dependencyManagementSettings, dependencyManagement,
+                resolvedVersionConfiguringAction, this.configurationContainer, this.exclusionResolver,
+                this.excludedDependenciesCache, new DependencyManagementConfigurationContainer.ConfigurationConfigurer() {
+
+                    @Override
+                    public void configure(Configuration configuration) {
+                        configuration.getResolutionStrategy().eachDependency(resolvedVersionConfiguringAction);
+                    }
+
+                }).execute(resolvableDependencies);
+    }
 
-        configuration.getIncoming().beforeResolve(new ExclusionConfiguringAction(this.dependencyManagementSettings,
-                this.dependencyManagementContainer, this.configurationContainer, configuration,
-                this.exclusionResolver, new DependencyManagementConfigurationContainer.ConfigurationConfigurer() {
+    private VersionConfiguringAction createVersionConfiguringAction(ResolvedDependencyManagement dependencyManagement,
+            Iterable<Dependency> dependencies) {
+        Set<String> directDependencies = new HashSet<String>();
+        for (Dependency dependency : dependencies) {
+            directDependencies.add(dependency.getGroup() + ":" + dependency.getName());
+        }
+        return new VersionConfiguringAction(dependencyManagement, this.localProjects.snapshot(), directDependencies);
+    }
 
-            @Override
-            public void configure(Configuration configuration) {
-                configuration.getResolutionStrategy().eachDependency(versionConfiguringAction);
+    /**
+     * An {@link Action} registered with a configuration's resolution strategy that delegates to the
+     * {@link VersionConfiguringAction} created when the configuration is about to be resolved. Copies of the
+     * configuration retain the action without its before resolve hook so, for them, the delegate is created on first
+     * use. The action holds no reference to the project or its configurations. When it is serialized, its delegate is
+     * created first if necessary so that only the captured dependency management is written.
+     */
+    private static final class DeferredVersionConfiguringAction implements Action<DependencyResolveDetails>,
+            Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String projectPath;
+
+        private final String configurationName;
+
+        private final transient Profiler profiler;
+
+        private final transient VersionConfiguringActionFactory delegateFactory;
+
+        private volatile VersionConfiguringAction delegate;
+
+        private DeferredVersionConfiguringAction(String projectPath, String configurationName, Profiler profiler,
+                VersionConfiguringActionFactory delegateFactory) {
+            this.projectPath = projectPath;
+            this.configurationName = configurationName;
+            this.profiler = profiler;
+            this.delegateFactory = delegateFactory;
+        }
+
+        private void setDelegate(VersionConfiguringAction delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Applies the dependency management to the given {@code details}. Once the delegate has been created, it only
+         * records work when the profiler is enabled so, otherwise, no scope is entered.
+         *
+         * @param details the details of the dependency
+         */
+        @Override
+        public void execute(DependencyResolveDetails details) {
+            if (this.profiler == null || (this.delegate != null && !this.profiler.isEnabled())) {
+                getDelegate().execute(details);
+                return;
+            }
+            Profiler.Scope scope = this.profiler.enter(this.projectPath, this.configurationName);
+            try {
+                getDelegate().execute(details);
+            }
+            finally {
+                scope.exit();
+            }
+        }
+
+        private VersionConfiguringAction getDelegate() {
+            VersionConfiguringAction delegate = this.delegate;
+            if (delegate == null) {
+                delegate = this.delegateFactory.create();
+                this.delegate = delegate;
             }
+            return delegate;
+        }
 
-        }));
+        private Object writeReplace() {
+            getDelegate();
+            return this;
+        }
 
-        configuration.getResolutionStrategy().eachDependency(versionConfiguringAction);
     }
+
+    /**
+     * A factory for the {@link VersionConfiguringAction} of a configuration.
+     */
+    private interface VersionConfiguringActionFactory {
+
+        VersionConfiguringAction create();
+
+    }
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,17 +19,23 @@ package io.spring.gradle.dependencymanagement.internal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
+import io.spring.gradle.dependencymanagement.internal.properties.MemoizingPropertySource;
+import io.spring.gradle.dependencymanagement.internal.properties.ProjectPropertySource;
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
 
 /**
@@ -48,11 +54,22 @@ public class DependencyManagementContainer {
 
     private final Project project;
 
+    private final MemoizingPropertySource projectProperties;
+
+    private final SymbolTable symbols;
+
     private final Map<Configuration, DependencyManagement> configurationDependencyManagement = new LinkedHashMap<Configuration, DependencyManagement>();
 
+    private final Map<Configuration, HierarchyView> hierarchyViews = new HashMap<Configuration, HierarchyView>();
+
+    private HierarchyView globalView;
+
     /**
      * Creates a new {@code DependencyManagementContainer} that will hold dependency management for the given {@code
-     * project}. The given {@code pomResolver} will be use to resolve any Maven poms.
+     * project}. The given {@code pomResolver} will be use to resolve any Maven poms. The project's properties are
+     * memoized while resolving the poms. They are looked up again once the project has been evaluated, when another
+     * bom is imported, at the start of each configuration's resolution, and when
+     * {@link #invalidateProjectProperties() invalidated} explicitly.
      *
      * @param project the project
      * @param pomResolver the pom resolver
@@ -60,7 +77,20 @@ public class DependencyManagementContainer {
     public DependencyManagementContainer(Project project, PomResolver pomResolver) {
         this.project = project;
         this.pomResolver = pomResolver;
-        this.globalDependencyManagement = new DependencyManagement(this.project, this.pomResolver);
+        this.projectProperties = new MemoizingPropertySource(new ProjectPropertySource(project));
+        this.symbols = SymbolTable.forBuild(project.getGradle());
+        this.globalDependencyManagement = new DependencyManagement(this.project, this.pomResolver,
+                this.projectProperties, this.symbols);
+        if (!project.getState().getExecuted()) {
+            project.afterEvaluate(new Action<Project>() {
+
+                @Override
+                public void execute(Project project) {
+                    DependencyManagementContainer.this.projectProperties.invalidate();
+                }
+
+            });
+        }
     }
 
     /**
@@ -76,6 +106,7 @@ public class DependencyManagementContainer {
             String version) {
         dependencyManagementForConfiguration(configuration)
                 .addImplicitManagedVersion(group, name, version);
+        invalidateViews();
     }
 
     /**
@@ -93,6 +124,7 @@ public class DependencyManagementContainer {
             List<String> exclusions) {
         dependencyManagementForConfiguration(configuration)
                 .addExplicitManagedVersion(group, name, version, exclusions);
+        invalidateViews();
     }
 
     /**
@@ -106,55 +138,48 @@ public class DependencyManagementContainer {
      */
     public void importBom(Configuration configuration, Coordinates coordinates,
             PropertySource properties) {
+        this.projectProperties.invalidate();
         dependencyManagementForConfiguration(configuration).importBom(coordinates, properties);
+        invalidateViews();
     }
 
-    String getManagedVersion(Configuration configuration, String group, String name) {
-        String version = null;
-        if (configuration != null) {
-            version = findManagedVersion(configuration, group, name);
-        }
-        if (version == null) {
-            version = this.globalDependencyManagement.getManagedVersion(group, name);
-            if (version != null) {
-                logger.debug(
-                        "Found managed version '{}' for dependency '{}:{}' in global dependency "
-                                + "management", version, group, name);
-            }
-        }
-        return version;
+    /**
+     * Invalidates the project properties that have been memoized while resolving imported boms, causing them to be
+     * looked up again the next time that they are used. This should be called when a property that may be used by an
+     * imported bom has been changed.
+     */
+    public void invalidateProjectProperties() {
+        this.projectProperties.invalidate();
     }
 
-    private String findManagedVersion(Configuration source, String group, String name) {
-        for (Configuration configuration : source.getHierarchy()) {
-            String managedVersion = dependencyManagementForConfiguration(configuration)
-                    .getManagedVersion(group, name);
-            if (managedVersion != null) {
-                logger.debug("Found managed version '{}' for dependency '{}:{}' in dependency management for " +
-                        "configuration '{}'", managedVersion, group, name, configuration.getName());
-                return managedVersion;
-            }
-        }
-        return null;
+    private void invalidateViews() {
+        this.globalView = null;
+        this.hierarchyViews.clear();
+    }
+
+    String getManagedVersion(Configuration configuration, String group, String name) {
+        return getView(configuration).index.get(group, name);
     }
 
     /**
-     * Returns the {@link Exclusions} that have been configured for the given {@code configuration}.
+     * Returns the {@link Exclusions} that have been configured for the given {@code configuration}. The exclusions
+     * are merged from the configuration's hierarchy and global dependency management once and the unmodifiable result
+     * is reused until the dependency management or the hierarchy changes.
      *
      * @param configuration the configuration
      * @return the exclusions
      */
     public Exclusions getExclusions(Configuration configuration) {
-        Exclusions exclusions = new Exclusions();
-        if (configuration != null) {
-            for (Configuration inHierarchy : configuration.getHierarchy()) {
-                exclusions.addAll(dependencyManagementForConfiguration(inHierarchy)
-                        .getExclusions());
-            }
+        return getView(configuration).getExclusions();
+    }
 
+    private Exclusions mergeExclusions(Set<Configuration> hierarchy) {
+        Exclusions exclusions = new Exclusions();
+        for (Configuration inHierarchy : hierarchy) {
+            exclusions.addAll(dependencyManagementForConfiguration(inHierarchy).getExclusions());
         }
         exclusions.addAll(this.globalDependencyManagement.getExclusions());
-        return exclusions;
+        return exclusions.toUnmodifiable();
     }
 
     /**
@@ -178,7 +203,8 @@ public class DependencyManagementContainer {
 
     /**
      * Returns the managed versions for the given {@code configuration} and its hierarchy. The returned map contains
-     * keys of the form {@code groupId:artifactId}.
+     * keys of the form {@code groupId:artifactId}. It is an unmodifiable view that shares structure with the views
+     * of the configuration's hierarchy and is reused until the dependency management or the hierarchy changes.
      *
      * @param configuration the configuration, or {@code null} for managed versions in global dependency management
      * @return the managed versions for the configuration
@@ -198,19 +224,89 @@ public class DependencyManagementContainer {
      */
     public Map<String, String> getManagedVersionsForConfiguration(Configuration configuration, boolean inherited) {
         if (inherited) {
-            Map<String, String> managedVersions = dependencyManagementForConfiguration(null)
-                    .getManagedVersions();
-            if (configuration != null) {
-                for (Configuration inHierarchy : getReversedHierarchy(configuration)) {
-                    managedVersions.putAll(dependencyManagementForConfiguration(inHierarchy)
-                            .getManagedVersions());
-                }
-            }
-            return managedVersions;
+            return getView(configuration).index;
         }
         return dependencyManagementForConfiguration(configuration).getManagedVersions();
     }
 
+    private HierarchyView getView(Configuration configuration) {
+        return (configuration != null) ? getHierarchyView(configuration) : getGlobalView();
+    }
+
+    private HierarchyView getGlobalView() {
+        if (this.globalView == null) {
+            this.globalView = new HierarchyView(null, new Configuration[0], new HierarchyView[0],
+                    this.globalDependencyManagement.getManagedVersions());
+        }
+        return this.globalView;
+    }
+
+    private HierarchyView getHierarchyView(Configuration configuration) {
+        HierarchyView hierarchyView = this.hierarchyViews.get(configuration);
+        if (hierarchyView != null && isCurrent(hierarchyView)) {
+            return hierarchyView;
+        }
+        Configuration[] extendsFrom = configuration.getExtendsFrom().toArray(new Configuration[0]);
+        HierarchyView[] parents = new HierarchyView[extendsFrom.length];
+        for (int i = 0; i < extendsFrom.length; i++) {
+            parents[i] = getHierarchyView(extendsFrom[i]);
+        }
+        ManagedVersionIndex parent;
+        if (parents.length == 0) {
+            parent = getGlobalView().index;
+        }
+        else if (parents.length == 1) {
+            parent = parents[0].index;
+        }
+        else {
+            List<Configuration> inherited = new ArrayList<Configuration>(configuration.getHierarchy());
+            parent = getGlobalView().index;
+            for (int i = inherited.size() - 1; i > 0; i--) {
+                parent = dependencyManagementForConfiguration(inherited.get(i)).getManagedVersions().withParent(parent);
+            }
+        }
+        hierarchyView = new HierarchyView(configuration, extendsFrom, parents,
+                dependencyManagementForConfiguration(configuration).getManagedVersions().withParent(parent));
+        this.hierarchyViews.put(configuration, hierarchyView);
+        return hierarchyView;
+    }
+
+    /**
+     * Returns whether the given {@code view} is still current. A view is current while its configuration extends
+     * from the same configurations, in the same order, as when it was created and the views of those configurations
+     * are themselves current. Only direct parents are compared so the configuration's hierarchy is not flattened.
+     */
+    private boolean isCurrent(HierarchyView view) {
+        Set<Configuration> extendsFrom = view.configuration.getExtendsFrom();
+        if (extendsFrom.size() != view.extendsFrom.length) {
+            return false;
+        }
+        int i = 0;
+        for (Configuration parent: extendsFrom) {
+            if (parent != view.extendsFrom[i] || this.hierarchyViews.get(parent) != view.parents[i]
+                    || !isCurrent(view.parents[i])) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a snapshot of the dependency management for the given {@code configuration} and its hierarchy, including
+     * any global dependency management. The snapshot is detached from this container and does not reflect any
+     * subsequent changes to it. The project's memoized properties are invalidated so that any
+     * imported boms that have yet to be resolved use the properties' current values.
+     *
+     * @param configuration the configuration
+     * @return the snapshot
+     */
+    ResolvedDependencyManagement resolve(Configuration configuration) {
+        this.projectProperties.invalidate();
+        HierarchyView view = getView(configuration);
+        return new ResolvedDependencyManagement(view.index, view.getExclusions());
+    }
+
     private List<Configuration> getReversedHierarchy(Configuration configuration) {
         List<Configuration> hierarchy = new ArrayList<Configuration>(configuration.getHierarchy());
         Collections.reverse(hierarchy);
@@ -225,7 +321,8 @@ public class DependencyManagementContainer {
             DependencyManagement dependencyManagement = this.configurationDependencyManagement
                     .get(configuration);
             if (dependencyManagement == null) {
-                dependencyManagement = new DependencyManagement(this.project, configuration, this.pomResolver);
+                dependencyManagement = new DependencyManagement(this.project, configuration, this.pomResolver,
+                        this.projectProperties, this.symbols);
                 this.configurationDependencyManagement.put(configuration, dependencyManagement);
             }
             return dependencyManagement;
@@ -233,6 +330,86 @@ public class DependencyManagementContainer {
 
     }
 
+    /**
+     * Compiles the boms imported by this container's global and configuration-specific dependency management into
+     * indexes that will be used in place of resolving the boms.
+     */
+    public void compileBomIndexes() {
+        this.globalDependencyManagement.compileBomIndexes();
+        for (DependencyManagement dependencyManagement: this.configurationDependencyManagement.values()) {
+            dependencyManagement.compileBomIndexes();
+        }
+    }
+
+    /**
+     * Prefetches the boms imported by this container's global and configuration-specific dependency management. The
+     * distinct boms are resolved in as few batches as possible, building each batch's effective models in parallel,
+     * so that they are already cached when the dependency management is resolved.
+     */
+    public void prefetchImportedBoms() {
+        Map<String, List<PomReference>> distinct = new HashMap<String, List<PomReference>>();
+        List<List<PomReference>> batches = getPrefetchBatches(distinct);
+        logger.info("Prefetching {} imported bom(s) in {} batch(es)", distinct.size(), batches.size());
+        for (List<PomReference> batch: batches) {
+            this.pomResolver.resolvePoms(batch, this.projectProperties);
+        }
+    }
+
+    /**
+     * Returns the batches in which the boms imported by this container's global and configuration-specific dependency
+     * management should be prefetched. Each batch contains at most one version of a bom. Boms that are already in the
+     * given {@code distinct} references, keyed by {@code group:artifact:version}, are omitted and those that are not
+     * are added to them.
+     *
+     * @param distinct the distinct references that have already been batched
+     * @return the batches
+     */
+    List<List<PomReference>> getPrefetchBatches(Map<String, List<PomReference>> distinct) {
+        List<List<PomReference>> batches = new ArrayList<List<PomReference>>();
+        List<Set<String>> batchModules = new ArrayList<Set<String>>();
+        List<DependencyManagement> allDependencyManagement = new ArrayList<DependencyManagement>();
+        allDependencyManagement.add(this.globalDependencyManagement);
+        allDependencyManagement.addAll(this.configurationDependencyManagement.values());
+        for (DependencyManagement dependencyManagement: allDependencyManagement) {
+            for (PomReference reference: dependencyManagement.getImportedBomReferences()) {
+                Coordinates coordinates = reference.getCoordinates();
+                String module = coordinates.getGroupId() + ":" + coordinates.getArtifactId();
+                if (isDistinct(reference, module + ":" + coordinates.getVersion(), distinct)) {
+                    int batch = 0;
+                    while (batch < batches.size() && batchModules.get(batch).contains(module)) {
+                        batch++;
+                    }
+                    if (batch == batches.size()) {
+                        batches.add(new ArrayList<PomReference>());
+                        batchModules.add(new HashSet<String>());
+                    }
+                    batches.get(batch).add(reference);
+                    batchModules.get(batch).add(module);
+                }
+            }
+        }
+        return batches;
+    }
+
+    PropertySource getProjectProperties() {
+        return this.projectProperties;
+    }
+
+    private boolean isDistinct(PomReference reference, String id, Map<String, List<PomReference>> distinct) {
+        List<PomReference> references = distinct.get(id);
+        if (references == null) {
+            references = new ArrayList<PomReference>();
+            distinct.put(id, references);
+        }
+        for (PomReference existing: references) {
+            if (existing.getProperties().equals(reference.getProperties())) {
+                return false;
+            }
+        }
+        references.add(reference);
+        return true;
+    }
+
     /**
      * Returns this container's global {@link DependencyManagement}.
      *
@@ -242,4 +419,34 @@ public class DependencyManagementContainer {
         return this.globalDependencyManagement;
     }
 
+    private final class HierarchyView {
+
+        private final Configuration configuration;
+
+        private final Configuration[] extendsFrom;
+
+        private final HierarchyView[] parents;
+
+        private final ManagedVersionIndex index;
+
+        private Exclusions exclusions;
+
+        private HierarchyView(Configuration configuration, Configuration[] extendsFrom, HierarchyView[] parents,
+                ManagedVersionIndex index) {
+            this.configuration = configuration;
+            this.extendsFrom = extendsFrom;
+            this.parents = parents;
+            this.index = index;
+        }
+
+        private Exclusions getExclusions() {
+            if (this.exclusions == null) {
+                this.exclusions = mergeExclusions((this.configuration != null) ? this.configuration.getHierarchy()
+                        : Collections.<Configuration>emptySet());
+            }
+            return this.exclusions;
+        }
+
+    }
+
 }
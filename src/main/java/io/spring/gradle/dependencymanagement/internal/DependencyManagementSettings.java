@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.io.Serializable;
+
 /**
  * Settings that control dependency management behaviour.
  *
@@ -25,8 +27,14 @@ public class DependencyManagementSettings {
 
     private boolean applyMavenExclusions = true;
 
+    private boolean mavenExclusionsFromPoms;
+
+    private boolean persistentExclusionCache = true;
+
     private boolean overriddenByDependencies = true;
 
+    private int bomParallelism = Runtime.getRuntime().availableProcessors();
+
     private final PomCustomizationSettings pomCustomizationSettings = new PomCustomizationSettings();
 
     /**
@@ -34,7 +42,7 @@ public class DependencyManagementSettings {
      *
      * @return {@code true} if Maven-style exclusions should be applied, otherwise {@code false}
      */
-    boolean isApplyMavenExclusions() {
+    public boolean isApplyMavenExclusions() {
         return this.applyMavenExclusions;
     }
 
@@ -48,13 +56,58 @@ public class DependencyManagementSettings {
         this.applyMavenExclusions = applyMavenExclusions;
     }
 
+    /**
+     * Whether or not the dependencies that Maven-style exclusions exclude should be found by walking the poms of a
+     * configuration's dependencies, rather than by resolving a copy of the configuration.
+     *
+     * @return {@code true} if excluded dependencies should be found using poms, otherwise {@code false}
+     */
+    public boolean isMavenExclusionsFromPoms() {
+        return this.mavenExclusionsFromPoms;
+    }
+
+    /**
+     * Set whether or not the dependencies that Maven-style exclusions exclude should be found by walking the poms of a
+     * configuration's dependencies, rather than by resolving a copy of the configuration. Configurations whose
+     * dependencies cannot be described by their poms, for example because they use dynamic versions, are always
+     * resolved. The default is {@code false}.
+     *
+     * @param mavenExclusionsFromPoms {@code true} if excluded dependencies should be found using poms, otherwise
+     * {@code false}
+     */
+    public void setMavenExclusionsFromPoms(boolean mavenExclusionsFromPoms) {
+        this.mavenExclusionsFromPoms = mavenExclusionsFromPoms;
+    }
+
+    /**
+     * Whether or not the exclusions declared in poms should be cached in the Gradle user home for use by subsequent
+     * builds.
+     *
+     * @return {@code true} if exclusions should be cached for use by subsequent builds, otherwise {@code false}
+     */
+    public boolean isPersistentExclusionCache() {
+        return this.persistentExclusionCache;
+    }
+
+    /**
+     * Set whether or not the exclusions declared in poms should be cached in the Gradle user home for use by
+     * subsequent builds. When {@code false}, exclusions are only cached in memory for the rest of the build. The
+     * default is {@code true}.
+     *
+     * @param persistentExclusionCache {@code true} if exclusions should be cached for use by subsequent builds,
+     * otherwise {@code false}
+     */
+    public void setPersistentExclusionCache(boolean persistentExclusionCache) {
+        this.persistentExclusionCache = persistentExclusionCache;
+    }
+
     /**
      * Whether or not dependency management should be overridden by versions declared on a project's dependencies.
      *
      * @return {@code true} if dependency management should be overridden by dependencies' versions, otherwise {@code
      * false}
      */
-    boolean isOverriddenByDependencies() {
+    public boolean isOverriddenByDependencies() {
         return this.overriddenByDependencies;
     }
 
@@ -69,6 +122,28 @@ public class DependencyManagementSettings {
         this.overriddenByDependencies = overriddenByDependencies;
     }
 
+    /**
+     * Returns the maximum number of imported boms whose effective models are built in parallel.
+     *
+     * @return the bom parallelism
+     */
+    public int getBomParallelism() {
+        return this.bomParallelism;
+    }
+
+    /**
+     * Set the maximum number of imported boms whose effective models are built in parallel. A value of {@code 1}
+     * disables parallel building. The default is the number of available processors.
+     *
+     * @param bomParallelism the bom parallelism
+     */
+    public void setBomParallelism(int bomParallelism) {
+        if (bomParallelism < 1) {
+            throw new IllegalArgumentException("Bom parallelism must be at least 1 but was " + bomParallelism);
+        }
+        this.bomParallelism = bomParallelism;
+    }
+
     /**
      * Returns the settings for pom customization.
      *
@@ -81,7 +156,9 @@ public class DependencyManagementSettings {
     /**
      * Settings for the plugin's customization of generated poms.
      */
-    public static final class PomCustomizationSettings {
+    public static final class PomCustomizationSettings implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         private boolean enabled = true;
 
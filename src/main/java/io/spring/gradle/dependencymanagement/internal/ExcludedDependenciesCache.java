@@ -0,0 +1,193 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ExcludeRule;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.ProjectDependency;
+
+import io.spring.gradle.dependencymanagement.internal.ExclusionConfiguringAction.DependencyCandidate;
+
+/**
+ * A cache of the dependencies that Maven's exclusion semantics exclude from a project's configurations. A project's
+ * configurations often have the same dependencies and dependency management, for example when one extends another
+ * without declaring any dependencies of its own. The dependencies that are excluded from such configurations are the
+ * same so they are found once and then reused.
+ *
+ * <p>Entries are keyed by the inputs from which the excluded dependencies are found: the coordinates, exclusions and
+ * transitivity of each of the configuration's dependencies, in the order in which they are declared and including
+ * those of any project dependencies, and the configuration's managed versions and managed exclusions. Which modules
+ * are excluded depends upon the order in which the whole graph is walked so the excluded dependencies of one
+ * configuration cannot be reused for another. Instead, configurations with the same managed exclusions share a
+ * {@link ComponentExpansionCache} so that the parts of their graphs that are the same are only expanded once.
+ *
+ * @author agent (agent@local)
+ */
+final class ExcludedDependenciesCache {
+
+    private final Map<Key, Set<DependencyCandidate>> excludedDependencies = new HashMap<Key, Set<DependencyCandidate>>();
+
+    private final Map<Map<String, Set<String>>, ComponentExpansionCache> expansionCaches =
+            new HashMap<Map<String, Set<String>>, ComponentExpansionCache>();
+
+    /**
+     * Returns the key for the inputs of a configuration with the given {@code dependencies} and
+     * {@code dependencyManagement}, or {@code null} if the inputs cannot be determined.
+     *
+     * @param dependencyManagement the configuration's dependency management
+     * @param dependencies the configuration's dependencies
+     * @return the key or {@code null}
+     */
+    static Key createKey(ResolvedDependencyManagement dependencyManagement, Iterable<Dependency> dependencies) {
+        List<String> descriptions = new ArrayList<String>();
+        if (!describe(dependencies, descriptions, new HashSet<Configuration>())) {
+            return null;
+        }
+        return new Key(descriptions, dependencyManagement.getManagedVersions(),
+                dependencyManagement.getExclusions().toMap());
+    }
+
+    private static boolean describe(Iterable<Dependency> dependencies, List<String> descriptions,
+            Set<Configuration> projectConfigurations) {
+        for (Dependency dependency : dependencies) {
+            if (!(dependency instanceof ModuleDependency)) {
+                continue;
+            }
+            ModuleDependency moduleDependency = (ModuleDependency) dependency;
+            StringBuilder description = new StringBuilder();
+            description.append(dependency.getGroup()).append(':').append(dependency.getName()).append(':')
+                    .append(dependency.getVersion()).append(':').append(moduleDependency.getConfiguration())
+                    .append(':').append(moduleDependency.isTransitive());
+            Set<String> exclusions = new TreeSet<String>();
+            for (ExcludeRule excludeRule : moduleDependency.getExcludeRules()) {
+                exclusions.add(excludeRule.getGroup() + ":" + excludeRule.getModule());
+            }
+            description.append(exclusions);
+            if (dependency instanceof ProjectDependency) {
+                description.insert(0, "project:");
+                Configuration configuration = ((ProjectDependency) dependency).getDependencyProject().getConfigurations()
+                        .findByName(moduleDependency.getConfiguration());
+                if (configuration == null) {
+                    return false;
+                }
+                if (projectConfigurations.add(configuration)
+                        && !describe(configuration.getAllDependencies(), descriptions, projectConfigurations)) {
+                    return false;
+                }
+            }
+            descriptions.add(description.toString());
+        }
+        return true;
+    }
+
+    /**
+     * Returns the excluded dependencies for the given {@code key}, or {@code null} if they have not been cached.
+     *
+     * @param key the key
+     * @return the excluded dependencies or {@code null}
+     */
+    synchronized Set<DependencyCandidate> get(Key key) {
+        return this.excludedDependencies.get(key);
+    }
+
+    /**
+     * Caches the given {@code excludedDependencies} with the given {@code key}.
+     *
+     * @param key the key
+     * @param excludedDependencies the excluded dependencies
+     * @return the cached, unmodifiable excluded dependencies
+     */
+    synchronized Set<DependencyCandidate> put(Key key, Set<DependencyCandidate> excludedDependencies) {
+        Set<DependencyCandidate> cached = Collections
+                .unmodifiableSet(new LinkedHashSet<DependencyCandidate>(excludedDependencies));
+        this.excludedDependencies.put(key, cached);
+        return cached;
+    }
+
+    /**
+     * Returns the {@link ComponentExpansionCache} that is shared by the graphs of configurations with the given
+     * {@code managedExclusions}.
+     *
+     * @param managedExclusions the managed exclusions
+     * @return the expansion cache
+     */
+    synchronized ComponentExpansionCache getExpansionCache(Exclusions managedExclusions) {
+        Map<String, Set<String>> key = managedExclusions.toMap();
+        ComponentExpansionCache expansionCache = this.expansionCaches.get(key);
+        if (expansionCache == null) {
+            expansionCache = new ComponentExpansionCache();
+            this.expansionCaches.put(key, expansionCache);
+        }
+        return expansionCache;
+    }
+
+    /**
+     * The inputs from which a configuration's excluded dependencies are found.
+     */
+    static final class Key {
+
+        private final List<String> dependencies;
+
+        private final Map<String, String> managedVersions;
+
+        private final Map<String, Set<String>> managedExclusions;
+
+        private final int hashCode;
+
+        private Key(List<String> dependencies, Map<String, String> managedVersions,
+                Map<String, Set<String>> managedExclusions) {
+            this.dependencies = dependencies;
+            this.managedVersions = managedVersions;
+            this.managedExclusions = managedExclusions;
+            this.hashCode = 31 * (31 * dependencies.hashCode() + managedVersions.hashCode())
+                    + managedExclusions.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.hashCode == other.hashCode && this.dependencies.equals(other.dependencies)
+                    && this.managedVersions.equals(other.managedVersions)
+                    && this.managedExclusions.equals(other.managedExclusions);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+    }
+
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.gradle.api.invocation.Gradle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A build-scoped, thread-safe cache of the {@link Exclusions} declared in the poms of modules, keyed by each module's
+ * {@code group:name:version}. A single instance is shared by every project in a build. The cache holds a bounded
+ * number of entries, evicting the least recently used entry when it is full, and counts its hits and misses.
+ *
+ * <p>When the cache has a file, entries for modules that are not snapshots are appended to it as they are added and
+ * are read from it when the cache is created so that they can be used by subsequent builds. The file is only read
+ * and written while holding a lock on a file in the same directory so it can be safely shared by multiple concurrent
+ * builds. A partial entry at the end of the file, left by a build that was interrupted while appending to it, is
+ * ignored and removed. Once the file has grown beyond a maximum size, it is compacted by replacing it with a file that
+ * contains only the entries that are held in memory. The file is discarded if it cannot be read.
+ *
+ * @author agent (agent@local)
+ */
+final class ExclusionCache {
+
+    /**
+     * The default maximum number of entries held in memory.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /**
+     * The default size, in bytes, beyond which the file is compacted.
+     */
+    static final long DEFAULT_MAX_FILE_SIZE = 8 * 1024 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(ExclusionCache.class);
+
+    private static final int MAGIC = 0x444d4543;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final int ENTRY = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final Object lock = new Object();
+
+    private static final Map<Gradle, ExclusionCache> persistentCaches = new WeakHashMap<Gradle, ExclusionCache>();
+
+    private static final Map<Gradle, ExclusionCache> inMemoryCaches = new WeakHashMap<Gradle, ExclusionCache>();
+
+    private final Map<String, Exclusions> entries;
+
+    private final File file;
+
+    private final long maxFileSize;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Creates a new {@code ExclusionCache} that will hold at most {@code maxEntries} entries in memory. When
+     * {@code file} is not {@code null}, entries are persisted to it and existing entries are read from it unless
+     * {@code refresh} is {@code true}. The file is compacted once it is larger than {@link #DEFAULT_MAX_FILE_SIZE}.
+     *
+     * @param maxEntries the maximum number of entries held in memory
+     * @param file the file to which entries are persisted, may be {@code null}
+     * @param refresh whether existing entries in the file should be ignored
+     */
+    ExclusionCache(int maxEntries, File file, boolean refresh) {
+        this(maxEntries, file, DEFAULT_MAX_FILE_SIZE, refresh);
+    }
+
+    /**
+     * Creates a new {@code ExclusionCache} that will hold at most {@code maxEntries} entries in memory. When
+     * {@code file} is not {@code null}, entries are persisted to it and existing entries are read from it unless
+     * {@code refresh} is {@code true}. The file is compacted once it is larger than {@code maxFileSize} bytes.
+     *
+     * @param maxEntries the maximum number of entries held in memory
+     * @param file the file to which entries are persisted, may be {@code null}
+     * @param maxFileSize the size, in bytes, beyond which the file is compacted
+     * @param refresh whether existing entries in the file should be ignored
+     */
+    ExclusionCache(int maxEntries, File file, long maxFileSize, boolean refresh) {
+        this.entries = new LeastRecentlyUsedMap<String, Exclusions>(maxEntries);
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        if (file != null) {
+            if (refresh) {
+                delete();
+            }
+            else {
+                read();
+            }
+        }
+    }
+
+    /**
+     * Returns the {@code ExclusionCache} for the build of the given {@code gradle}, creating it if necessary. When
+     * {@code persistent} is {@code true}, the returned cache persists its entries in the Gradle user home for use by
+     * subsequent builds. Otherwise, it only holds its entries in memory.
+     *
+     * @param gradle the gradle
+     * @param persistent whether the cache should persist its entries
+     * @return the cache for the build
+     */
+    static ExclusionCache forBuild(Gradle gradle, boolean persistent) {
+        Map<Gradle, ExclusionCache> caches = persistent ? persistentCaches : inMemoryCaches;
+        synchronized (caches) {
+            ExclusionCache cache = caches.get(gradle);
+            if (cache == null) {
+                cache = persistent ? new ExclusionCache(DEFAULT_MAX_ENTRIES, new File(gradle.getGradleUserHomeDir(),
+                        "caches/dependency-management/exclusions-1.bin"),
+                        gradle.getStartParameter().isRefreshDependencies())
+                        : new ExclusionCache(DEFAULT_MAX_ENTRIES, null, false);
+                caches.put(gradle, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Returns the exclusions of the module with the given {@code group:name:version} {@code id} or {@code null} if
+     * they are not cached.
+     *
+     * @param id the id of the module
+     * @return the exclusions or {@code null}
+     */
+    synchronized Exclusions get(String id) {
+        Exclusions exclusions = this.entries.get(id);
+        if (exclusions != null) {
+            this.hits++;
+        }
+        else {
+            this.misses++;
+        }
+        return exclusions;
+    }
+
+    /**
+     * Caches the given exclusions, keyed by the {@code group:name:version} id of the module in whose pom they were
+     * declared.
+     *
+     * @param exclusionsById the exclusions to cache
+     */
+    void putAll(Map<String, Exclusions> exclusionsById) {
+        if (exclusionsById.isEmpty()) {
+            return;
+        }
+        Map<String, Exclusions> persistable = new LinkedHashMap<String, Exclusions>();
+        synchronized (this) {
+            for (Map.Entry<String, Exclusions> entry : exclusionsById.entrySet()) {
+                Exclusions exclusions = entry.getValue().toUnmodifiable();
+                if (this.entries.put(entry.getKey(), exclusions) == null && !entry.getKey().endsWith("-SNAPSHOT")) {
+                    persistable.put(entry.getKey(), exclusions);
+                }
+            }
+        }
+        if (this.file != null && !persistable.isEmpty()) {
+            write(persistable);
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found an entry in the cache.
+     *
+     * @return the number of hits
+     */
+    synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find an entry in the cache.
+     *
+     * @return the number of misses
+     */
+    synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of entries that are held in memory.
+     *
+     * @return the number of entries
+     */
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ExclusionCache [entries=" + this.entries.size() + ", hits=" + this.hits + ", misses=" + this.misses
+                + "]";
+    }
+
+    private void read() {
+        try {
+            withFileLock(new FileOperation() {
+
+                @Override
+                public void perform() throws IOException {
+                    if (ExclusionCache.this.file.isFile()) {
+                        readEntries();
+                    }
+                }
+
+            });
+        }
+        catch (IOException ex) {
+            logger.debug("Discarding unreadable cached exclusions in " + this.file, ex);
+            delete();
+        }
+    }
+
+    private void readEntries() throws IOException {
+        byte[] bytes = readFile();
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (bytes.length < HEADER_SIZE || input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("Unrecognized header");
+        }
+        Map<String, Exclusions> exclusionsById = new LinkedHashMap<String, Exclusions>();
+        int complete = HEADER_SIZE;
+        try {
+            int marker;
+            while ((marker = input.read()) != -1) {
+                if (marker != ENTRY) {
+                    throw new IOException("Unrecognized entry");
+                }
+                String id = readString(input);
+                exclusionsById.put(id, readExclusions(input));
+                complete = bytes.length - input.available();
+            }
+        }
+        catch (EOFException ex) {
+            logger.debug("Ignoring partial entry at the end of {}", this.file);
+            truncate(complete);
+        }
+        synchronized (this) {
+            this.entries.putAll(exclusionsById);
+        }
+    }
+
+    private byte[] readFile() throws IOException {
+        RandomAccessFile input = new RandomAccessFile(this.file, "r");
+        try {
+            byte[] bytes = new byte[(int) input.length()];
+            input.readFully(bytes);
+            return bytes;
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    private void truncate(long length) throws IOException {
+        RandomAccessFile output = new RandomAccessFile(this.file, "rw");
+        try {
+            output.setLength(length);
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    private Exclusions readExclusions(DataInputStream input) throws IOException {
+        Exclusions exclusions = new Exclusions();
+        int dependencies = input.readInt();
+        for (int i = 0; i < dependencies; i++) {
+            String dependency = readString(input);
+            int count = input.readInt();
+            List<String> excluded = new ArrayList<String>(count);
+            for (int j = 0; j < count; j++) {
+                excluded.add(readString(input));
+            }
+            exclusions.add(dependency, excluded);
+        }
+        return exclusions.toUnmodifiable();
+    }
+
+    private void delete() {
+        try {
+            withFileLock(new FileOperation() {
+
+                @Override
+                public void perform() {
+                    ExclusionCache.this.file.delete();
+                }
+
+            });
+        }
+        catch (IOException ex) {
+            logger.debug("Failed to delete cached exclusions in " + this.file, ex);
+        }
+    }
+
+    private void write(final Map<String, Exclusions> exclusionsById) {
+        try {
+            withFileLock(new FileOperation() {
+
+                @Override
+                public void perform() throws IOException {
+                    if (ExclusionCache.this.file.length() > ExclusionCache.this.maxFileSize) {
+                        compact();
+                    }
+                    else {
+                        append(exclusionsById);
+                    }
+                }
+
+            });
+        }
+        catch (IOException ex) {
+            logger.debug("Failed to cache exclusions in " + this.file, ex);
+        }
+    }
+
+    private void withFileLock(FileOperation operation) throws IOException {
+        synchronized (lock) {
+            File directory = this.file.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Failed to create directory " + directory);
+            }
+            RandomAccessFile lockFile = new RandomAccessFile(new File(directory, ".lock"), "rw");
+            try {
+                FileLock fileLock = lockFile.getChannel().lock();
+                try {
+                    operation.perform();
+                }
+                finally {
+                    fileLock.release();
+                }
+            }
+            finally {
+                lockFile.close();
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        Map<String, Exclusions> persistable = new LinkedHashMap<String, Exclusions>();
+        synchronized (this) {
+            for (Map.Entry<String, Exclusions> entry : this.entries.entrySet()) {
+                if (!entry.getKey().endsWith("-SNAPSHOT")) {
+                    persistable.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        File compacted = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+        compacted.delete();
+        write(compacted, persistable, true);
+        if (!this.file.delete() || !compacted.renameTo(this.file)) {
+            compacted.delete();
+            throw new IOException("Failed to replace " + this.file + " with its compacted form");
+        }
+        logger.debug("Compacted cached exclusions in {} to {} entries", this.file, persistable.size());
+    }
+
+    private void append(Map<String, Exclusions> exclusionsById) throws IOException {
+        write(this.file, exclusionsById, !this.file.isFile() || this.file.length() == 0);
+    }
+
+    private void write(File file, Map<String, Exclusions> exclusionsById, boolean newFile) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        try {
+            if (newFile) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+            }
+            for (Map.Entry<String, Exclusions> entry : exclusionsById.entrySet()) {
+                output.write(ENTRY);
+                writeString(output, entry.getKey());
+                Map<String, Set<String>> exclusionsByDependency = entry.getValue().toMap();
+                output.writeInt(exclusionsByDependency.size());
+                for (Map.Entry<String, Set<String>> dependency : exclusionsByDependency.entrySet()) {
+                    writeString(output, dependency.getKey());
+                    output.writeInt(dependency.getValue().size());
+                    for (String exclusion : dependency.getValue()) {
+                        writeString(output, exclusion);
+                    }
+                }
+            }
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    private void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] bytes = string.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * An operation that is performed on the cache's file while holding its lock.
+     */
+    private interface FileOperation {
+
+        void perform() throws IOException;
+
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,6 @@ package io.spring.gradle.dependencymanagement.internal;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +38,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer.ConfigurationConfigurer;
+import io.spring.gradle.dependencymanagement.internal.profile.FlightRecorderEvents;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
 
 /**
  * An {@link Action} to be applied to {@link ResolvableDependencies} that configures exclusions based on the Maven
@@ -53,25 +53,29 @@ class ExclusionConfiguringAction implements Action<ResolvableDependencies> {
 
     private final DependencyManagementSettings dependencyManagementSettings;
 
-    private final DependencyManagementContainer dependencyManagementContainer;
+    private final ResolvedDependencyManagement dependencyManagement;
 
-    private final DependencyManagementConfigurationContainer configurationContainer;
+    private final VersionConfiguringAction versionConfiguringAction;
 
-    private final Configuration configuration;
+    private final DependencyManagementConfigurationContainer configurationContainer;
 
     private final ExclusionResolver exclusionResolver;
 
+    private final ExcludedDependenciesCache excludedDependenciesCache;
+
     private final ConfigurationConfigurer configurationConfigurer;
 
     ExclusionConfiguringAction(DependencyManagementSettings dependencyManagementSettings,
-            DependencyManagementContainer dependencyManagementContainer,
+            ResolvedDependencyManagement dependencyManagement, VersionConfiguringAction versionConfiguringAction,
             DependencyManagementConfigurationContainer configurationContainer,
-            Configuration configuration, ExclusionResolver exclusionResolver, ConfigurationConfigurer configurationConfigurer) {
+            ExclusionResolver exclusionResolver, ExcludedDependenciesCache excludedDependenciesCache,
+            ConfigurationConfigurer configurationConfigurer) {
         this.dependencyManagementSettings = dependencyManagementSettings;
-        this.dependencyManagementContainer = dependencyManagementContainer;
+        this.dependencyManagement = dependencyManagement;
+        this.versionConfiguringAction = versionConfiguringAction;
         this.configurationContainer = configurationContainer;
-        this.configuration = configuration;
         this.exclusionResolver = exclusionResolver;
+        this.excludedDependenciesCache = excludedDependenciesCache;
         this.configurationConfigurer = configurationConfigurer;
     }
 
@@ -83,7 +87,7 @@ class ExclusionConfiguringAction implements Action<ResolvableDependencies> {
     }
 
     private void applyMavenExclusions(ResolvableDependencies resolvableDependencies) {
-        Set<DependencyCandidate> excludedDependencies = findExcludedDependencies();
+        Set<DependencyCandidate> excludedDependencies = findExcludedDependencies(resolvableDependencies);
         if (logger.isInfoEnabled()) {
             logger.info("Excluding " + excludedDependencies);
         }
@@ -107,145 +111,121 @@ class ExclusionConfiguringAction implements Action<ResolvableDependencies> {
         }
     }
 
-    private Set<DependencyCandidate> findExcludedDependencies() {
-        DependencySet allDependencies = this.configuration.getAllDependencies();
-        Configuration configurationCopy = this.configurationContainer.newConfiguration(
-                this.configurationConfigurer,
-                allDependencies.toArray(new org.gradle.api.artifacts.Dependency[allDependencies.size()]));
-        ResolutionResult resolutionResult = configurationCopy.getIncoming().getResolutionResult();
-        ResolvedComponentResult root = resolutionResult.getRoot();
-        final Set<DependencyCandidate> excludedDependencies = new HashSet<DependencyCandidate>();
-        resolutionResult.allDependencies(new Action<DependencyResult>() {
-            @Override
-            public void execute(DependencyResult dependencyResult) {
-                if (dependencyResult instanceof ResolvedDependencyResult) {
-                    ResolvedDependencyResult resolved = (ResolvedDependencyResult) dependencyResult;
-                    excludedDependencies.add(new DependencyCandidate(resolved.getSelected()
-                            .getModuleVersion().getGroup(), resolved.getSelected()
-                            .getModuleVersion().getName()));
-                }
-                else if (dependencyResult instanceof UnresolvedDependencyResult) {
-                    DependencyCandidate dependencyCandidate =
-                            toDependencyCandidate((UnresolvedDependencyResult) dependencyResult);
-                    if (dependencyCandidate != null) {
-                        excludedDependencies.add(dependencyCandidate);
-                    }
-                }
+    private Set<DependencyCandidate> findExcludedDependencies(ResolvableDependencies resolvableDependencies) {
+        FlightRecorderEvents.Event event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.EXCLUDED_DEPENDENCIES);
+        boolean cacheHit = false;
+        try {
+            ExcludedDependenciesCache.Key key = ExcludedDependenciesCache.createKey(this.dependencyManagement,
+                    resolvableDependencies.getDependencies());
+            if (key == null) {
+                return doFindExcludedDependencies(resolvableDependencies);
             }
-        });
-        Set<DependencyCandidate> includedDependencies = determineIncludedComponents(root,
-                this.exclusionResolver.resolveExclusions(resolutionResult.getAllComponents()));
-        excludedDependencies.removeAll(includedDependencies);
-        return excludedDependencies;
-    }
-
-    private Set<DependencyCandidate> determineIncludedComponents(ResolvedComponentResult root,
-            Map<String, Exclusions> pomExclusionsById) {
-        LinkedList<Node> queue = new LinkedList<Node>();
-        queue.add(new Node(root, getId(root), new HashSet<String>()));
-        Set<ResolvedComponentResult> seen = new HashSet<ResolvedComponentResult>();
-        Set<DependencyCandidate> includedComponents = new HashSet<DependencyCandidate>();
-        while (!queue.isEmpty()) {
-            Node node = queue.remove();
-            includedComponents.add(new DependencyCandidate(node.component.getModuleVersion()
-                    .getGroup(), node.component.getModuleVersion().getName()));
-            for (DependencyResult dependency : node.component.getDependencies()) {
-                if (dependency instanceof ResolvedDependencyResult) {
-                    handleResolvedDependency((ResolvedDependencyResult) dependency, node, pomExclusionsById, queue,
-                            seen);
-                }
-                else if (dependency instanceof UnresolvedDependencyResult) {
-                    handleUnresolvedDependency((UnresolvedDependencyResult) dependency, node, includedComponents);
-                }
+            Set<DependencyCandidate> excludedDependencies = this.excludedDependenciesCache.get(key);
+            cacheHit = excludedDependencies != null;
+            Profiler.recordCacheAccess("excludedDependencies", cacheHit);
+            if (cacheHit) {
+                logger.debug("Reusing the dependencies excluded from a configuration with the same inputs as '{}'",
+                        resolvableDependencies.getName());
+                return excludedDependencies;
             }
+            return this.excludedDependenciesCache.put(key, doFindExcludedDependencies(resolvableDependencies));
         }
-        return includedComponents;
-    }
-
-    private void handleResolvedDependency(ResolvedDependencyResult dependency, Node node,
-            Map<String, Exclusions> pomExclusionsById, LinkedList<Node> queue, Set<ResolvedComponentResult> seen) {
-        ResolvedComponentResult child = dependency
-                .getSelected();
-        String childId = getId(child);
-        if (!node.excluded(childId) && seen.add(child)) {
-            queue.add(new Node(child, childId, getChildExclusions(node, childId, pomExclusionsById)));
+        finally {
+            event.commit(null, cacheHit);
         }
     }
 
-    private void handleUnresolvedDependency(UnresolvedDependencyResult dependency, Node node,
-            Set<DependencyCandidate> includedComponents) {
-        DependencyCandidate dependencyCandidate = toDependencyCandidate(
-                dependency);
-        if (dependencyCandidate != null && (!node.excluded(dependencyCandidate.groupId + ":" +
-                dependencyCandidate.artifactId))) {
-            includedComponents.add(dependencyCandidate);
+    private Set<DependencyCandidate> doFindExcludedDependencies(ResolvableDependencies resolvableDependencies) {
+        if (this.dependencyManagementSettings.isMavenExclusionsFromPoms()) {
+            Set<DependencyCandidate> excludedDependencies;
+            Profiler.Sample sample = Profiler.start("exclusions.pomGraph");
+            try {
+                excludedDependencies = new PomGraphExclusionFinder(this.dependencyManagement,
+                        this.versionConfiguringAction, this.exclusionResolver, getExpansionCache())
+                        .findExcludedDependencies(resolvableDependencies.getDependencies());
+            }
+            finally {
+                sample.stop();
+            }
+            if (excludedDependencies != null) {
+                return excludedDependencies;
+            }
+            logger.info("The dependencies of '{}' cannot be described by their poms. A copy of it will be resolved to "
+                    + "find the dependencies that should be excluded", resolvableDependencies.getName());
         }
+        return findExcludedDependenciesByResolution(resolvableDependencies);
     }
 
-    private DependencyCandidate toDependencyCandidate(
-            UnresolvedDependencyResult unresolved) {
-        ComponentSelector attemptedSelector = unresolved.getAttempted();
-        if (!(attemptedSelector instanceof ModuleComponentSelector)) {
-            return null;
+    private Set<DependencyCandidate> findExcludedDependenciesByResolution(
+            ResolvableDependencies resolvableDependencies) {
+        DependencySet allDependencies = resolvableDependencies.getDependencies();
+        Configuration configurationCopy = this.configurationContainer.newConfiguration(
+                this.configurationConfigurer,
+                allDependencies.toArray(new org.gradle.api.artifacts.Dependency[allDependencies.size()]));
+        Profiler.Sample resolution = Profiler.start("exclusions.copyResolution");
+        ModuleGraph graph;
+        Set<ResolvedComponentResult> components;
+        try {
+            ResolutionResult resolutionResult = configurationCopy.getIncoming().getResolutionResult();
+            components = resolutionResult.getAllComponents();
+            graph = createGraph(resolutionResult.getRoot(), components);
         }
-        ModuleComponentSelector attemptedModuleSelector =
-                (ModuleComponentSelector) attemptedSelector;
-        return new DependencyCandidate(attemptedModuleSelector
-                .getGroup(), attemptedModuleSelector.getModule());
-    }
-
-    private Set<String> getChildExclusions(Node parent, String childId,
-            Map<String, Exclusions> pomExclusionsById) {
-        Set<String> childExclusions = new HashSet<String>(parent.exclusions);
-        addAllIfPossible(childExclusions,
-                this.dependencyManagementContainer.getExclusions(this.configuration)
-                        .exclusionsForDependency(childId));
-        Exclusions exclusionsInPom = pomExclusionsById.get(parent.id);
-        if (exclusionsInPom != null) {
-            addAllIfPossible(childExclusions, exclusionsInPom.exclusionsForDependency(childId));
+        finally {
+            resolution.stop();
         }
-        return childExclusions;
-    }
-
-    private void addAllIfPossible(Set<String> current, Set<String> addition) {
-        if (addition != null) {
-            current.addAll(addition);
+        Map<String, Exclusions> pomExclusionsById = this.exclusionResolver.resolveExclusions(components);
+        Profiler.Sample traversal = Profiler.start("exclusions.traversal");
+        try {
+            return graph.findExcludedDependencies(this.dependencyManagement.getExclusions(), pomExclusionsById);
+        }
+        finally {
+            traversal.stop();
         }
-
-    }
-
-    private String getId(ResolvedComponentResult component) {
-        return component.getModuleVersion().getGroup() + ":" + component.getModuleVersion()
-                .getName();
     }
 
-    private static final class Node {
-
-        private final ResolvedComponentResult component;
-
-        private final String id;
-
-        private final Set<String> exclusions;
-
-        private Node(ResolvedComponentResult component, String id, Set<String> exclusions) {
-            this.component = component;
-            this.id = id;
-            this.exclusions = exclusions;
+    private ModuleGraph createGraph(ResolvedComponentResult root, Set<ResolvedComponentResult> components) {
+        ModuleGraph graph = new ModuleGraph(getExpansionCache());
+        Map<ResolvedComponentResult, Integer> ids = new HashMap<ResolvedComponentResult, Integer>();
+        ids.put(root, ModuleGraph.ROOT);
+        for (ResolvedComponentResult component : components) {
+            if (!ids.containsKey(component)) {
+                ids.put(component, graph.addModule(component.getModuleVersion().getGroup(),
+                        component.getModuleVersion().getName(), component.getModuleVersion().getVersion()));
+            }
         }
-
-        private boolean excluded(String id) {
-            return this.exclusions != null && this.exclusions.contains(id);
+        for (ResolvedComponentResult component : components) {
+            int id = ids.get(component);
+            for (DependencyResult dependency : component.getDependencies()) {
+                if (dependency instanceof ResolvedDependencyResult) {
+                    graph.addDependency(id, ids.get(((ResolvedDependencyResult) dependency).getSelected()));
+                }
+                else if (dependency instanceof UnresolvedDependencyResult) {
+                    ComponentSelector attempted = ((UnresolvedDependencyResult) dependency).getAttempted();
+                    if (attempted instanceof ModuleComponentSelector) {
+                        ModuleComponentSelector moduleSelector = (ModuleComponentSelector) attempted;
+                        graph.addDependency(id, graph.addModule(moduleSelector.getGroup(),
+                                moduleSelector.getModule()));
+                    }
+                }
+            }
         }
+        return graph;
+    }
 
+    private ComponentExpansionCache getExpansionCache() {
+        return this.excludedDependenciesCache.getExpansionCache(this.dependencyManagement.getExclusions());
     }
 
-    private static final class DependencyCandidate {
+    /**
+     * A dependency that is a candidate for exclusion.
+     */
+    static final class DependencyCandidate {
 
         private final String groupId;
 
         private final String artifactId;
 
-        private DependencyCandidate(String groupId, String artifactId) {
+        DependencyCandidate(String groupId, String artifactId) {
             this.groupId = groupId;
             this.artifactId = artifactId;
         }
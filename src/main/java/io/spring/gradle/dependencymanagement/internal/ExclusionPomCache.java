@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.gradle.api.invocation.Gradle;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+
+/**
+ * A build-scoped, thread-safe cache of the {@link Pom Poms} that have been resolved to find the exclusions declared
+ * in them, keyed by each module's {@code group:name:version}. A single instance is shared by every project in a
+ * build. A module whose pom could not be resolved is cached without a pom so that its resolution is not attempted
+ * again. The cache holds a bounded number of entries, evicting the least recently used entry when it is full.
+ *
+ * @author agent (agent@local)
+ */
+final class ExclusionPomCache {
+
+    /**
+     * The default maximum number of entries.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final Map<Gradle, ExclusionPomCache> caches = new WeakHashMap<Gradle, ExclusionPomCache>();
+
+    private final Map<String, Pom> poms;
+
+    /**
+     * Creates a new {@code ExclusionPomCache} that will hold at most {@code maxEntries} entries.
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    ExclusionPomCache(int maxEntries) {
+        this.poms = new LeastRecentlyUsedMap<String, Pom>(maxEntries);
+    }
+
+    /**
+     * Returns the {@code ExclusionPomCache} for the build of the given {@code gradle}, creating it if necessary.
+     *
+     * @param gradle the gradle
+     * @return the cache for the build
+     */
+    static ExclusionPomCache forBuild(Gradle gradle) {
+        synchronized (caches) {
+            ExclusionPomCache cache = caches.get(gradle);
+            if (cache == null) {
+                cache = new ExclusionPomCache(DEFAULT_MAX_ENTRIES);
+                caches.put(gradle, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Returns the cached entries for the modules with the given {@code group:name:version} {@code ids}. A module
+     * whose pom could not be resolved has a {@code null} value. Modules that are not cached are omitted.
+     *
+     * @param ids the ids of the modules
+     * @return the cached poms, keyed by id
+     */
+    synchronized Map<String, Pom> getAll(Collection<String> ids) {
+        Map<String, Pom> cached = new HashMap<String, Pom>();
+        for (String id : ids) {
+            Pom pom = this.poms.get(id);
+            if (pom != null || this.poms.containsKey(id)) {
+                cached.put(id, pom);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Caches the given poms, keyed by {@code group:name:version}. A {@code null} value records that a module's pom
+     * could not be resolved.
+     *
+     * @param pomsById the poms to cache
+     */
+    synchronized void putAll(Map<String, Pom> pomsById) {
+        this.poms.putAll(pomsById);
+    }
+
+}
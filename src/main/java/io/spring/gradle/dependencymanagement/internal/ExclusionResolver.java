@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,21 +22,27 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
 import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.invocation.Gradle;
 
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
 import io.spring.gradle.dependencymanagement.internal.pom.Pom;
 import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
+import io.spring.gradle.dependencymanagement.internal.profile.FlightRecorderEvents;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
 
 /**
- * Resolves the {@link Exclusions exclusions} for a {@link ResolvedComponentResult dependency}.
+ * Resolves the {@link Exclusions exclusions} for a {@link ResolvedComponentResult dependency}. The exclusions and the
+ * poms from which they are collected are cached for the rest of the build and shared by every project. The exclusions
+ * are also cached for use by subsequent builds unless the {@link DependencyManagementSettings settings} disable it.
  *
  * @author Andy Wilkinson
  */
@@ -45,17 +51,38 @@ class ExclusionResolver {
     private static final Set<String> IGNORED_SCOPES = Collections
             .unmodifiableSet(new HashSet<String>(Arrays.asList("provided", "test")));
 
-    private final Map<String, Exclusions> exclusionsCache = new HashMap<String, Exclusions>();
+    private final Gradle gradle;
+
+    private final DependencyManagementSettings settings;
+
+    private final ExclusionPomCache pomCache;
 
     private final PomResolver pomResolver;
 
-    ExclusionResolver(PomResolver pomResolver) {
+    ExclusionResolver(PomResolver pomResolver, Gradle gradle, DependencyManagementSettings settings) {
         this.pomResolver = pomResolver;
+        this.gradle = gradle;
+        this.settings = settings;
+        this.pomCache = ExclusionPomCache.forBuild(gradle);
     }
 
     Map<String, Exclusions> resolveExclusions(
             Collection<ResolvedComponentResult> resolvedComponents) {
+        FlightRecorderEvents.Event event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.EXCLUSION_RESOLUTION);
         List<PomReference> pomReferences = new ArrayList<PomReference>();
+        try {
+            return resolveExclusions(resolvedComponents, pomReferences);
+        }
+        finally {
+            event.commit(null, pomReferences.isEmpty());
+        }
+    }
+
+    private Map<String, Exclusions> resolveExclusions(Collection<ResolvedComponentResult> resolvedComponents,
+            List<PomReference> pomReferences) {
+        ExclusionCache exclusionCache = ExclusionCache.forBuild(this.gradle,
+                this.settings.isPersistentExclusionCache());
+        Map<String, String> versionsById = new HashMap<String, String>();
         Map<String, Exclusions> exclusionsById = new HashMap<String, Exclusions>();
         for (ResolvedComponentResult resolvedComponent : resolvedComponents) {
             if (!(resolvedComponent
@@ -64,28 +91,100 @@ class ExclusionResolver {
                     .getName() != null) {
                 String id = resolvedComponent.getModuleVersion()
                         .getGroup() + ":" + resolvedComponent.getModuleVersion().getName();
-                Exclusions exclusions = this.exclusionsCache.get(id);
+                String version = resolvedComponent.getModuleVersion().getVersion();
+                Exclusions exclusions = exclusionCache.get(id + ":" + version);
+                Profiler.recordCacheAccess("exclusions", exclusions != null);
                 if (exclusions != null) {
                     exclusionsById.put(id, exclusions);
                 }
                 else {
+                    versionsById.put(id, version);
                     pomReferences.add(new PomReference(new Coordinates(resolvedComponent.getModuleVersion().getGroup(),
-                            resolvedComponent.getModuleVersion().getName(),
-                            resolvedComponent.getModuleVersion().getVersion())));
+                            resolvedComponent.getModuleVersion().getName(), version)));
                 }
             }
         }
-        List<Pom> poms = this.pomResolver.resolvePomsLeniently(pomReferences);
+        List<Pom> poms = resolvePomsLeniently(pomReferences);
+        Map<String, Exclusions> resolvedExclusions = new HashMap<String, Exclusions>();
         for (Pom pom: poms) {
             String id = pom.getCoordinates().getGroupId() + ":" + pom.getCoordinates().getArtifactId();
             Exclusions exclusions = collectExclusions(pom);
-            this.exclusionsCache.put(id, exclusions);
             exclusionsById.put(id, exclusions);
+            String version = versionsById.get(id);
+            if (version != null) {
+                resolvedExclusions.put(id + ":" + version, exclusions);
+            }
         }
+        exclusionCache.putAll(resolvedExclusions);
         return exclusionsById;
     }
 
-    private Exclusions collectExclusions(Pom pom) {
+    /**
+     * Resolves the poms of the modules with the given {@code coordinates}, ignoring any that cannot be resolved. The
+     * returned map is keyed by {@code group:name:version}.
+     *
+     * @param coordinates the coordinates of the modules
+     * @return the resolved poms
+     */
+    Map<String, Pom> resolvePoms(Collection<Coordinates> coordinates) {
+        Map<String, Coordinates> modulesById = new LinkedHashMap<String, Coordinates>();
+        for (Coordinates module : coordinates) {
+            modulesById.put(module.getGroupId() + ":" + module.getArtifactId() + ":" + module.getVersion(), module);
+        }
+        Map<String, Pom> cachedPoms = this.pomCache.getAll(modulesById.keySet());
+        Map<String, Pom> pomsById = new HashMap<String, Pom>();
+        Map<String, String> idsByModule = new HashMap<String, String>();
+        List<PomReference> pomReferences = new ArrayList<PomReference>();
+        for (Map.Entry<String, Coordinates> entry : modulesById.entrySet()) {
+            String id = entry.getKey();
+            Coordinates module = entry.getValue();
+            boolean cached = cachedPoms.containsKey(id);
+            Profiler.recordCacheAccess("exclusionPoms", cached);
+            if (cached) {
+                Pom pom = cachedPoms.get(id);
+                if (pom != null) {
+                    pomsById.put(id, pom);
+                }
+            }
+            else if (idsByModule.put(module.getGroupId() + ":" + module.getArtifactId(), id) == null) {
+                pomReferences.add(new PomReference(module));
+            }
+        }
+        Map<String, Pom> resolvedPoms = new HashMap<String, Pom>();
+        for (String id : idsByModule.values()) {
+            resolvedPoms.put(id, null);
+        }
+        for (Pom pom : resolvePomsLeniently(pomReferences)) {
+            String id = idsByModule.get(pom.getCoordinates().getGroupId() + ":" + pom.getCoordinates().getArtifactId());
+            if (id != null) {
+                resolvedPoms.put(id, pom);
+                pomsById.put(id, pom);
+            }
+        }
+        this.pomCache.putAll(resolvedPoms);
+        return pomsById;
+    }
+
+    private List<Pom> resolvePomsLeniently(List<PomReference> pomReferences) {
+        if (pomReferences.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Profiler.Sample sample = Profiler.start("exclusions.pomFetch");
+        try {
+            return this.pomResolver.resolvePomsLeniently(pomReferences);
+        }
+        finally {
+            sample.stop();
+        }
+    }
+
+    /**
+     * Returns the exclusions declared in the given {@code pom}.
+     *
+     * @param pom the pom
+     * @return the exclusions
+     */
+    Exclusions collectExclusions(Pom pom) {
         Exclusions exclusions = new Exclusions();
         List<Dependency> dependencies = new ArrayList<Dependency>(pom.getManagedDependencies());
         dependencies.addAll(pom.getDependencies());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -27,9 +29,19 @@ import java.util.Set;
  *
  * @author Andy Wilkinson
  */
-class Exclusions {
+class Exclusions implements Serializable {
 
-    private final Map<String, Set<String>> exclusionsByDependency = new HashMap<String, Set<String>>();
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, Set<String>> exclusionsByDependency;
+
+    Exclusions() {
+        this(new HashMap<String, Set<String>>());
+    }
+
+    private Exclusions(Map<String, Set<String>> exclusionsByDependency) {
+        this.exclusionsByDependency = exclusionsByDependency;
+    }
 
     void add(String dependency, Collection<String> exclusionsForDependency) {
         Set<String> exclusions = this.exclusionsByDependency.get(dependency);
@@ -50,6 +62,29 @@ class Exclusions {
         return this.exclusionsByDependency.get(dependency);
     }
 
+    /**
+     * Returns an unmodifiable view of these exclusions, keyed by the {@code group:name} of the dependency to which they
+     * apply.
+     *
+     * @return the exclusions by dependency
+     */
+    Map<String, Set<String>> toMap() {
+        return Collections.unmodifiableMap(this.exclusionsByDependency);
+    }
+
+    /**
+     * Returns an unmodifiable copy of these exclusions.
+     *
+     * @return the unmodifiable copy
+     */
+    Exclusions toUnmodifiable() {
+        Map<String, Set<String>> exclusionsByDependency = new HashMap<String, Set<String>>();
+        for (Map.Entry<String, Set<String>> entry : this.exclusionsByDependency.entrySet()) {
+            exclusionsByDependency.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+        }
+        return new Exclusions(Collections.unmodifiableMap(exclusionsByDependency));
+    }
+
     @Override
     public String toString() {
         return this.exclusionsByDependency.toString();
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+
+import org.gradle.api.Project;
+import org.gradle.api.invocation.Gradle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
+
+/**
+ * A build-wide prefetcher of the boms imported by the build's projects. Prefetching from the root project collects
+ * the distinct boms imported by every project to which the plugin has been applied and resolves them together: each
+ * project's boms are resolved in turn while the effective models of the boms that have already been resolved are
+ * built in parallel. A project's boms are only prefetched once so its own prefetch has nothing left to do after the
+ * root project's.
+ *
+ * @author agent (agent@local)
+ */
+public final class ImportedBomPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportedBomPrefetcher.class);
+
+    private static final Map<Gradle, ImportedBomPrefetcher> prefetchers =
+            new WeakHashMap<Gradle, ImportedBomPrefetcher>();
+
+    private final Map<Project, Registration> pending = new LinkedHashMap<Project, Registration>();
+
+    private ImportedBomPrefetcher() {
+
+    }
+
+    /**
+     * Returns the {@code ImportedBomPrefetcher} for the build of the given {@code project}, creating it if necessary.
+     *
+     * @param project the project
+     * @return the prefetcher of the build
+     */
+    public static ImportedBomPrefetcher forBuild(Project project) {
+        Gradle gradle = project.getGradle();
+        synchronized (prefetchers) {
+            ImportedBomPrefetcher prefetcher = prefetchers.get(gradle);
+            if (prefetcher == null) {
+                prefetcher = new ImportedBomPrefetcher();
+                prefetchers.put(gradle, prefetcher);
+            }
+            return prefetcher;
+        }
+    }
+
+    /**
+     * Registers the given {@code container} of the given {@code project}, whose imported boms will be resolved using
+     * the given {@code pomResolver}.
+     *
+     * @param project the project
+     * @param container the project's dependency management container
+     * @param pomResolver the resolver for the project's boms
+     */
+    public synchronized void register(Project project, DependencyManagementContainer container,
+            MavenPomResolver pomResolver) {
+        this.pending.put(project, new Registration(container, pomResolver));
+    }
+
+    /**
+     * Prefetches the boms imported by the given {@code project} or, if it is the root project, by every registered
+     * project, that have not already been prefetched.
+     *
+     * @param project the project
+     */
+    public void prefetch(Project project) {
+        List<Registration> registrations = new ArrayList<Registration>();
+        synchronized (this) {
+            if (project == project.getRootProject()) {
+                registrations.addAll(this.pending.values());
+                this.pending.clear();
+            }
+            else if (this.pending.containsKey(project)) {
+                registrations.add(this.pending.remove(project));
+            }
+        }
+        Map<String, List<PomReference>> distinct = new HashMap<String, List<PomReference>>();
+        List<Callable<List<Callable<Pom>>>> stages = new ArrayList<Callable<List<Callable<Pom>>>>();
+        for (Registration registration: registrations) {
+            for (List<PomReference> batch: registration.container.getPrefetchBatches(distinct)) {
+                stages.add(registration.pomResolver.createStage(batch,
+                        registration.container.getProjectProperties()));
+            }
+        }
+        logger.info("Prefetching {} imported bom(s) of {} project(s) in {} batch(es)", distinct.size(),
+                registrations.size(), stages.size());
+        if (!stages.isEmpty()) {
+            registrations.get(0).pomResolver.resolveInStages(stages);
+        }
+    }
+
+    /**
+     * A project's container and the resolver for its boms.
+     */
+    private static final class Registration {
+
+        private final DependencyManagementContainer container;
+
+        private final MavenPomResolver pomResolver;
+
+        private Registration(DependencyManagementContainer container, MavenPomResolver pomResolver) {
+            this.container = container;
+            this.pomResolver = pomResolver;
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link LinkedHashMap} that holds a bounded number of entries, evicting the least recently used entry when it is
+ * full. Like {@code LinkedHashMap}, it is not thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author agent (agent@local)
+ */
+final class LeastRecentlyUsedMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxEntries;
+
+    /**
+     * Creates a new {@code LeastRecentlyUsedMap} that will hold at most {@code maxEntries} entries.
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    LeastRecentlyUsedMap(int maxEntries) {
+        super(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > this.maxEntries;
+    }
+
+}
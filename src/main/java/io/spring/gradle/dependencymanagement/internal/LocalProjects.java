@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.gradle.api.Project;
+import org.gradle.api.invocation.Gradle;
+
+/**
+ * A build-wide index of the coordinates of the build's projects. The index is built on first use. It records the
+ * group of each project from which it was built and is rebuilt when any of them has changed, whenever during the build
+ * the change is made.
+ *
+ * @author agent (agent@local)
+ */
+final class LocalProjects {
+
+    private static final Map<Gradle, LocalProjects> localProjects = new WeakHashMap<Gradle, LocalProjects>();
+
+    private final Project[] projects;
+
+    private volatile Index index;
+
+    private LocalProjects(Project rootProject) {
+        this.projects = rootProject.getAllprojects().toArray(new Project[0]);
+    }
+
+    /**
+     * Returns the {@code LocalProjects} for the build of the given {@code project}, creating it if necessary.
+     *
+     * @param project the project
+     * @return the local projects of the build
+     */
+    static LocalProjects forBuild(Project project) {
+        Gradle gradle = project.getGradle();
+        synchronized (localProjects) {
+            LocalProjects projects = localProjects.get(gradle);
+            if (projects == null) {
+                projects = new LocalProjects(project.getRootProject());
+                localProjects.put(gradle, projects);
+            }
+            return projects;
+        }
+    }
+
+    /**
+     * Returns whether or not the build contains a project with the given {@code group} and {@code name}.
+     *
+     * @param group the group
+     * @param name the name
+     * @return {@code true} if there is such a project, otherwise {@code false}
+     */
+    boolean contains(String group, String name) {
+        Set<String> names = getNamesByGroup().get(group);
+        return names != null && names.contains(name);
+    }
+
+    /**
+     * Returns an unmodifiable snapshot of the names of the build's projects, keyed by group. The snapshot is not
+     * affected by any subsequent change to the projects' groups and can be serialized.
+     *
+     * @return the names of the projects keyed by group
+     */
+    Map<String, Set<String>> snapshot() {
+        return getNamesByGroup();
+    }
+
+    private Map<String, Set<String>> getNamesByGroup() {
+        Index index = this.index;
+        if (index == null || !index.isCurrent()) {
+            index = new Index(this.projects);
+            this.index = index;
+        }
+        return index.namesByGroup;
+    }
+
+    /**
+     * An index of the names of the build's projects keyed by the groups that the projects had when it was built.
+     */
+    private static final class Index {
+
+        private final Project[] projects;
+
+        private final String[] groups;
+
+        private final Map<String, Set<String>> namesByGroup;
+
+        private Index(Project[] projects) {
+            this.projects = projects;
+            this.groups = new String[projects.length];
+            Map<String, Set<String>> namesByGroup = new HashMap<String, Set<String>>();
+            for (int i = 0; i < projects.length; i++) {
+                this.groups[i] = String.valueOf(projects[i].getGroup());
+                Set<String> names = namesByGroup.get(this.groups[i]);
+                if (names == null) {
+                    names = new HashSet<String>();
+                    namesByGroup.put(this.groups[i], names);
+                }
+                names.add(projects[i].getName());
+            }
+            for (Map.Entry<String, Set<String>> entry: namesByGroup.entrySet()) {
+                entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+            }
+            this.namesByGroup = Collections.unmodifiableMap(namesByGroup);
+        }
+
+        private boolean isCurrent() {
+            for (int i = 0; i < this.projects.length; i++) {
+                if (!this.groups[i].equals(String.valueOf(this.projects[i].getGroup()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
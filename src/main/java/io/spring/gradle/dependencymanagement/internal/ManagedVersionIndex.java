@@ -0,0 +1,196 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.spring.gradle.dependencymanagement.internal.pom.BomIndex;
+
+/**
+ * An immutable, layered index of the managed versions for a configuration hierarchy. Each layer holds a copy of a
+ * {@link DependencyManagement}'s own {@link ManagedVersions} table, keyed by {@link SymbolTable} ids, and the
+ * {@link BomIndex indexes} of the boms that it imports. A layer is shared, rather than copied, by the layers of the
+ * configurations that inherit from it. A version is found by checking each layer in turn, starting with the index's
+ * own layer, probing its table and then searching its bom indexes, without creating a {@code group:name} key or
+ * copying the bom indexes' entries. The index is also an unmodifiable map keyed by {@code groupId:artifactId} whose
+ * merged entries are only materialized if the map is iterated, and then at most once.
+ * <p>
+ * When serialized, each layer's table is written as strings and read into a table of its own.
+ *
+ * @author agent (agent@local)
+ */
+final class ManagedVersionIndex extends AbstractMap<String, String> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient SymbolTable symbols;
+
+    private transient ManagedVersions versions;
+
+    private final List<BomIndex> bomIndexes;
+
+    private final ManagedVersionIndex parent;
+
+    private transient volatile Set<Map.Entry<String, String>> entrySet;
+
+    /**
+     * Creates a new index with a single layer of the given {@code versions}, whose ids are those of the given {@code
+     * symbols}, and the given {@code bomIndexes}. Versions in the table take precedence over those in the bom indexes
+     * and versions in later bom indexes take precedence over those in earlier ones.
+     *
+     * @param symbols the symbol table
+     * @param versions the versions, which must not be modified
+     * @param bomIndexes the indexes of the imported boms
+     */
+    ManagedVersionIndex(SymbolTable symbols, ManagedVersions versions, List<BomIndex> bomIndexes) {
+        this(symbols, versions, bomIndexes, null);
+    }
+
+    private ManagedVersionIndex(SymbolTable symbols, ManagedVersions versions, List<BomIndex> bomIndexes,
+            ManagedVersionIndex parent) {
+        this.symbols = symbols;
+        this.versions = versions;
+        this.bomIndexes = bomIndexes;
+        this.parent = parent;
+    }
+
+    /**
+     * Returns an index with this index's own layer on top of the layers of the given {@code parent}.
+     *
+     * @param parent the parent index or {@code null}
+     * @return the layered index
+     */
+    ManagedVersionIndex withParent(ManagedVersionIndex parent) {
+        return new ManagedVersionIndex(this.symbols, this.versions, this.bomIndexes, parent);
+    }
+
+    /**
+     * Returns the managed version of the dependency with the given {@code group} and {@code name}, or {@code null}
+     * if it is not managed.
+     *
+     * @param group the group of the dependency
+     * @param name the name of the dependency
+     * @return the managed version or {@code null}
+     */
+    String get(String group, String name) {
+        for (ManagedVersionIndex layer = this; layer != null; layer = layer.parent) {
+            String version = layer.getFromLayer(group, name);
+            if (version != null) {
+                return version;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String string = (String) key;
+        int separator = string.indexOf(':');
+        return (separator >= 0) ? get(string.substring(0, separator), string.substring(separator + 1)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (ManagedVersionIndex layer = this; layer != null; layer = layer.parent) {
+            if (layer.versions.size() > 0) {
+                return false;
+            }
+            for (BomIndex bomIndex: layer.bomIndexes) {
+                if (bomIndex.getManagedVersionCount() > 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        Set<Map.Entry<String, String>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            Map<String, String> merged = new LinkedHashMap<String, String>();
+            if (this.parent != null) {
+                merged.putAll(this.parent);
+            }
+            for (BomIndex bomIndex: this.bomIndexes) {
+                merged.putAll(bomIndex.getManagedVersions());
+            }
+            for (int i = 0; i < this.versions.size(); i++) {
+                merged.put(this.symbols.get(this.versions.getGroup(i)) + ":"
+                        + this.symbols.get(this.versions.getName(i)), this.symbols.get(this.versions.getVersion(i)));
+            }
+            entrySet = Collections.unmodifiableMap(merged).entrySet();
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+
+    private String getFromLayer(String group, String name) {
+        int groupId = this.symbols.find(group);
+        int nameId = (groupId >= 0) ? this.symbols.find(name) : -1;
+        int versionId = (nameId >= 0) ? this.versions.get(groupId, nameId) : -1;
+        if (versionId >= 0) {
+            return this.symbols.get(versionId);
+        }
+        for (int i = this.bomIndexes.size() - 1; i >= 0; i--) {
+            String version = this.bomIndexes.get(i).getManagedVersion(group, name);
+            if (version != null) {
+                return version;
+            }
+        }
+        return null;
+    }
+
+    private void writeObject(ObjectOutputStream output) throws IOException {
+        output.defaultWriteObject();
+        output.writeInt(this.versions.size());
+        for (int i = 0; i < this.versions.size(); i++) {
+            output.writeUTF(this.symbols.get(this.versions.getGroup(i)));
+            output.writeUTF(this.symbols.get(this.versions.getName(i)));
+            output.writeUTF(this.symbols.get(this.versions.getVersion(i)));
+        }
+    }
+
+    private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+        this.symbols = new SymbolTable();
+        this.versions = new ManagedVersions();
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            this.versions.put(this.symbols.intern(input.readUTF()), this.symbols.intern(input.readUTF()),
+                    this.symbols.intern(input.readUTF()));
+        }
+    }
+
+}
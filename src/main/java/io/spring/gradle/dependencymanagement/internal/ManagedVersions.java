@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Arrays;
+
+/**
+ * A table of managed versions keyed by the {@link SymbolTable} ids of a dependency's group and name. Entries are held
+ * in insertion order in parallel {@code int} arrays and located using an open-addressing index, so neither adding nor
+ * looking up a version allocates a key.
+ *
+ * @author agent (agent@local)
+ */
+final class ManagedVersions {
+
+    private int[] groups;
+
+    private int[] names;
+
+    private int[] versions;
+
+    private int size;
+
+    private int[] index;
+
+    ManagedVersions() {
+        this(8);
+    }
+
+    private ManagedVersions(int capacity) {
+        this.groups = new int[capacity];
+        this.names = new int[capacity];
+        this.versions = new int[capacity];
+        this.index = new int[capacity * 2];
+    }
+
+    /**
+     * Puts the given {@code version} for the dependency with the given {@code group} and {@code name}, replacing any
+     * existing version.
+     *
+     * @param group the id of the dependency's group
+     * @param name the id of the dependency's name
+     * @param version the id of the version
+     */
+    void put(int group, int name, int version) {
+        int slot = findSlot(group, name);
+        int entry = this.index[slot] - 1;
+        if (entry >= 0) {
+            this.versions[entry] = version;
+            return;
+        }
+        if (this.size == this.groups.length) {
+            grow();
+            slot = findSlot(group, name);
+        }
+        this.groups[this.size] = group;
+        this.names[this.size] = name;
+        this.versions[this.size] = version;
+        this.index[slot] = ++this.size;
+    }
+
+    /**
+     * Puts all of the versions in the given {@code other} table into this table.
+     *
+     * @param other the other table
+     */
+    void putAll(ManagedVersions other) {
+        for (int i = 0; i < other.size; i++) {
+            put(other.groups[i], other.names[i], other.versions[i]);
+        }
+    }
+
+    /**
+     * Returns the id of the version for the dependency with the given {@code group} and {@code name}, or {@code -1}
+     * if it has no managed version.
+     *
+     * @param group the id of the dependency's group
+     * @param name the id of the dependency's name
+     * @return the id of the version or {@code -1}
+     */
+    int get(int group, int name) {
+        int entry = this.index[findSlot(group, name)] - 1;
+        return (entry >= 0) ? this.versions[entry] : -1;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int getGroup(int entry) {
+        return this.groups[entry];
+    }
+
+    int getName(int entry) {
+        return this.names[entry];
+    }
+
+    int getVersion(int entry) {
+        return this.versions[entry];
+    }
+
+    ManagedVersions copy() {
+        ManagedVersions copy = new ManagedVersions(this.groups.length);
+        copy.putAll(this);
+        return copy;
+    }
+
+    private int findSlot(int group, int name) {
+        int mask = this.index.length - 1;
+        int slot = hash(group, name) & mask;
+        while (true) {
+            int entry = this.index[slot] - 1;
+            if (entry < 0 || (this.groups[entry] == group && this.names[entry] == name)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        int capacity = this.groups.length * 2;
+        this.groups = Arrays.copyOf(this.groups, capacity);
+        this.names = Arrays.copyOf(this.names, capacity);
+        this.versions = Arrays.copyOf(this.versions, capacity);
+        this.index = new int[capacity * 2];
+        for (int i = 0; i < this.size; i++) {
+            this.index[findSlot(this.groups[i], this.names[i])] = i + 1;
+        }
+    }
+
+    private static int hash(int group, int name) {
+        int hash = (group * 31 + name) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.spring.gradle.dependencymanagement.internal.ExclusionConfiguringAction.DependencyCandidate;
+
+/**
+ * A graph of modules and the dependencies between them that is used to apply Maven's exclusion semantics. Each module
+ * is identified by a small {@code int} id so that the graph can be traversed without creating strings and the
+ * exclusions that apply on the path to each module can be held in a {@link BitSet}. A module's exclusions are shared
+ * with its parent's unless the dependency that leads to it adds to them.
+ *
+ * <p>Graphs that share a {@link ComponentExpansionCache} reuse the exclusions with which a component's dependencies
+ * were reached in another graph when the component has the same version, is reached with the same exclusions, and has
+ * the same dependencies. The walk itself visits every module that is reached: as in Maven, a module that is reached by
+ * more than one path is subject only to the exclusions of the first path to reach it, so whether the modules beneath a
+ * component are excluded depends upon the rest of the graph.
+ *
+ * @author agent (agent@local)
+ */
+final class ModuleGraph {
+
+    /**
+     * The id of the root of the graph.
+     */
+    static final int ROOT = 0;
+
+    private static final int[] NO_DEPENDENCIES = new int[0];
+
+    private final ComponentExpansionCache expansionCache;
+
+    private final BitSet modulesInGraph = new BitSet();
+
+    private String[] groups = new String[16];
+
+    private String[] names = new String[16];
+
+    private String[] modules = new String[16];
+
+    private String[] versions = new String[16];
+
+    private int[][] dependencies = new int[16][];
+
+    private int[] dependencyCounts = new int[16];
+
+    private int size = 1;
+
+    /**
+     * Creates a new {@code ModuleGraph} that does not share its expansions with any other graph.
+     */
+    ModuleGraph() {
+        this(new ComponentExpansionCache());
+    }
+
+    /**
+     * Creates a new {@code ModuleGraph} that shares its expansions with the other graphs that use the given
+     * {@code expansionCache}. Those graphs must be walked with the same managed exclusions.
+     *
+     * @param expansionCache the expansion cache
+     */
+    ModuleGraph(ComponentExpansionCache expansionCache) {
+        this.expansionCache = expansionCache;
+        this.modulesInGraph.set(ROOT);
+    }
+
+    /**
+     * Returns the id of the module with the given {@code group} and {@code name}, adding it to the graph if necessary.
+     *
+     * @param group the group of the module
+     * @param name the name of the module
+     * @return the id of the module
+     */
+    int addModule(String group, String name) {
+        return addModule(group, name, null);
+    }
+
+    /**
+     * Returns the id of the module with the given {@code group} and {@code name}, adding it to the graph with the
+     * given selected {@code version} if necessary.
+     *
+     * @param group the group of the module
+     * @param name the name of the module
+     * @param version the selected version of the module, or {@code null}
+     * @return the id of the module
+     */
+    int addModule(String group, String name, String version) {
+        String module = group + ":" + name;
+        int id = this.expansionCache.getId(module);
+        if (this.modulesInGraph.get(id)) {
+            return id;
+        }
+        if (id >= this.modules.length) {
+            grow(id);
+        }
+        this.groups[id] = group;
+        this.names[id] = name;
+        this.modules[id] = module;
+        this.versions[id] = version;
+        this.modulesInGraph.set(id);
+        this.size++;
+        return id;
+    }
+
+    /**
+     * Records that the module with the given {@code id} depends upon the module with the given {@code dependencyId}.
+     *
+     * @param id the id of the dependent module
+     * @param dependencyId the id of the dependency
+     */
+    void addDependency(int id, int dependencyId) {
+        int[] dependencies = this.dependencies[id];
+        int count = this.dependencyCounts[id];
+        if (dependencies == null) {
+            dependencies = new int[4];
+            this.dependencies[id] = dependencies;
+        }
+        else if (count == dependencies.length) {
+            dependencies = Arrays.copyOf(dependencies, count * 2);
+            this.dependencies[id] = dependencies;
+        }
+        dependencies[count] = dependencyId;
+        this.dependencyCounts[id] = count + 1;
+    }
+
+    /**
+     * Returns the number of modules in the graph, including its root.
+     *
+     * @return the number of modules
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Walks the graph breadth-first from its root and returns the modules that cannot be reached once exclusions have
+     * been applied. The exclusions that apply to a module's dependencies are those that apply to the module itself,
+     * those that are declared in dependency management for the dependency, and those that are declared on the
+     * dependency in the module's pom.
+     *
+     * @param managedExclusions the exclusions declared in dependency management
+     * @param pomExclusionsById the exclusions declared in the poms of the modules, keyed by {@code group:name}
+     * @return the excluded modules
+     */
+    Set<DependencyCandidate> findExcludedDependencies(Exclusions managedExclusions,
+            Map<String, Exclusions> pomExclusionsById) {
+        BitSet included = new BitSet(this.modules.length);
+        BitSet[] exclusions = new BitSet[this.modules.length];
+        int[] queue = new int[this.size];
+        int head = 0;
+        int tail = 0;
+        included.set(ROOT);
+        exclusions[ROOT] = new BitSet();
+        queue[tail++] = ROOT;
+        while (head < tail) {
+            int id = queue[head++];
+            BitSet moduleExclusions = exclusions[id];
+            exclusions[id] = null;
+            int[] dependencies = (this.dependencies[id] != null) ? this.dependencies[id] : NO_DEPENDENCIES;
+            BitSet[] dependencyExclusions = getDependencyExclusions(id, moduleExclusions, managedExclusions,
+                    pomExclusionsById);
+            for (int i = 0; i < this.dependencyCounts[id]; i++) {
+                int dependencyId = dependencies[i];
+                if (!moduleExclusions.get(dependencyId) && !included.get(dependencyId)) {
+                    included.set(dependencyId);
+                    exclusions[dependencyId] = dependencyExclusions[i];
+                    queue[tail++] = dependencyId;
+                }
+            }
+        }
+        Set<DependencyCandidate> excludedDependencies = new LinkedHashSet<DependencyCandidate>();
+        BitSet excluded = (BitSet) this.modulesInGraph.clone();
+        excluded.andNot(included);
+        for (int id = excluded.nextSetBit(ROOT); id >= 0; id = excluded.nextSetBit(id + 1)) {
+            excludedDependencies.add(new DependencyCandidate(this.groups[id], this.names[id]));
+        }
+        return excludedDependencies;
+    }
+
+    private BitSet[] getDependencyExclusions(int id, BitSet moduleExclusions, Exclusions managedExclusions,
+            Map<String, Exclusions> pomExclusionsById) {
+        int[] dependencies = (this.dependencies[id] != null) ? this.dependencies[id] : NO_DEPENDENCIES;
+        int count = this.dependencyCounts[id];
+        BitSet[] dependencyExclusions = this.expansionCache.get(id, this.versions[id], moduleExclusions, dependencies,
+                count);
+        if (dependencyExclusions != null) {
+            return dependencyExclusions;
+        }
+        Exclusions pomExclusions = (this.modules[id] != null) ? pomExclusionsById.get(this.modules[id]) : null;
+        dependencyExclusions = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            dependencyExclusions[i] = getDependencyExclusions(moduleExclusions, dependencies[i], managedExclusions,
+                    pomExclusions);
+        }
+        this.expansionCache.put(id, this.versions[id], moduleExclusions, dependencies, count, dependencyExclusions);
+        return dependencyExclusions;
+    }
+
+    private BitSet getDependencyExclusions(BitSet moduleExclusions, int dependencyId, Exclusions managedExclusions,
+            Exclusions pomExclusions) {
+        String dependency = this.modules[dependencyId];
+        BitSet dependencyExclusions = addExclusions(moduleExclusions, moduleExclusions,
+                managedExclusions.exclusionsForDependency(dependency));
+        if (pomExclusions != null) {
+            dependencyExclusions = addExclusions(moduleExclusions, dependencyExclusions,
+                    pomExclusions.exclusionsForDependency(dependency));
+        }
+        return dependencyExclusions;
+    }
+
+    private BitSet addExclusions(BitSet moduleExclusions, BitSet exclusions, Set<String> additions) {
+        if (additions == null) {
+            return exclusions;
+        }
+        for (String addition : additions) {
+            int id = this.expansionCache.getId(addition);
+            if (!exclusions.get(id)) {
+                if (exclusions == moduleExclusions) {
+                    exclusions = (BitSet) moduleExclusions.clone();
+                }
+                exclusions.set(id);
+            }
+        }
+        return exclusions;
+    }
+
+    private void grow(int id) {
+        int capacity = Math.max(this.modules.length * 2, id + 1);
+        this.groups = Arrays.copyOf(this.groups, capacity);
+        this.names = Arrays.copyOf(this.names, capacity);
+        this.modules = Arrays.copyOf(this.modules, capacity);
+        this.versions = Arrays.copyOf(this.versions, capacity);
+        this.dependencies = Arrays.copyOf(this.dependencies, capacity);
+        this.dependencyCounts = Arrays.copyOf(this.dependencyCounts, capacity);
+    }
+
+}
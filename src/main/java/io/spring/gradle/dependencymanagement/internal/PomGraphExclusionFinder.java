@@ -0,0 +1,375 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ExcludeRule;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.ProjectDependency;
+
+import io.spring.gradle.dependencymanagement.internal.ExclusionConfiguringAction.DependencyCandidate;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+
+/**
+ * Finds the dependencies that Maven's exclusion semantics exclude from a configuration by walking the graph that is
+ * described by the poms of its dependencies, rather than by resolving a copy of the configuration. Versions are
+ * selected in the same way as they are during resolution: managed versions are used where available and, otherwise,
+ * the newest requested version is used. The graph is walked again whenever a newer version of a module that has
+ * already been walked is requested.
+ *
+ * <p>Graphs that cannot be described by poms alone, such as those that require a dynamic version to be resolved, are
+ * not walked. For them, {@link #findExcludedDependencies(Iterable)} returns {@code null}.
+ *
+ * @author agent (agent@local)
+ */
+class PomGraphExclusionFinder {
+
+    private static final Set<String> TRANSITIVE_SCOPES = Collections
+            .unmodifiableSet(new HashSet<String>(Arrays.asList("", "compile", "runtime")));
+
+    private final ResolvedDependencyManagement dependencyManagement;
+
+    private final VersionConfiguringAction versionConfiguringAction;
+
+    private final ExclusionResolver exclusionResolver;
+
+    private final ComponentExpansionCache expansionCache;
+
+    PomGraphExclusionFinder(ResolvedDependencyManagement dependencyManagement,
+            VersionConfiguringAction versionConfiguringAction, ExclusionResolver exclusionResolver,
+            ComponentExpansionCache expansionCache) {
+        this.dependencyManagement = dependencyManagement;
+        this.versionConfiguringAction = versionConfiguringAction;
+        this.exclusionResolver = exclusionResolver;
+        this.expansionCache = expansionCache;
+    }
+
+    /**
+     * Finds the dependencies that should be excluded from a configuration with the given {@code dependencies}.
+     *
+     * @param dependencies the configuration's dependencies
+     * @return the excluded dependencies or {@code null} if the configuration's graph cannot be described by poms
+     */
+    Set<DependencyCandidate> findExcludedDependencies(Iterable<Dependency> dependencies) {
+        Map<String, String> selectedVersions = new HashMap<String, String>();
+        Walk walk;
+        do {
+            walk = new Walk(selectedVersions);
+            if (!walk.walk(dependencies)) {
+                return null;
+            }
+        }
+        while (walk.versionsChanged);
+        return findExcludedDependencies(walk);
+    }
+
+    private Set<DependencyCandidate> findExcludedDependencies(Walk walk) {
+        ModuleGraph graph = new ModuleGraph(this.expansionCache);
+        Map<Node, Integer> ids = new LinkedHashMap<Node, Integer>();
+        ids.put(walk.root, ModuleGraph.ROOT);
+        Map<String, Exclusions> pomExclusionsById = new HashMap<String, Exclusions>();
+        for (Node node : walk.nodes.values()) {
+            ids.put(node, graph.addModule(node.group, node.name, node.version));
+            if (node.pom != null) {
+                pomExclusionsById.put(node.id, this.exclusionResolver.collectExclusions(node.pom));
+            }
+        }
+        for (Map.Entry<Node, Integer> entry : ids.entrySet()) {
+            for (Node child : entry.getKey().getChildren()) {
+                graph.addDependency(entry.getValue(), ids.get(child));
+            }
+        }
+        return graph.findExcludedDependencies(this.dependencyManagement.getExclusions(), pomExclusionsById);
+    }
+
+    private static boolean matches(Set<String> exclusions, String group, String name) {
+        return exclusions.contains(group + ":" + name) || exclusions.contains(group + ":*")
+                || exclusions.contains("*:" + name) || exclusions.contains("*:*");
+    }
+
+    private static Set<String> union(Set<String> exclusions, Set<String> additions) {
+        if (additions.isEmpty()) {
+            return exclusions;
+        }
+        Set<String> union = new HashSet<String>(exclusions);
+        union.addAll(additions);
+        return union;
+    }
+
+    /**
+     * A walk of the graph, as described by the poms, that approximates the graph that Gradle would resolve. Exclusions
+     * declared on the path to a module apply to its dependencies and a module that is reached by more than one path is
+     * only subject to the exclusions that all of those paths share.
+     */
+    private final class Walk {
+
+        private final Map<String, String> selectedVersions;
+
+        private final Map<String, Node> nodes = new LinkedHashMap<String, Node>();
+
+        private final Node root = new Node(null, null, null);
+
+        private final LinkedList<Node> pending = new LinkedList<Node>();
+
+        private boolean versionsChanged;
+
+        private Walk(Map<String, String> selectedVersions) {
+            this.selectedVersions = selectedVersions;
+        }
+
+        private boolean walk(Iterable<Dependency> dependencies) {
+            if (!requestAll(this.root, dependencies)) {
+                return false;
+            }
+            while (!this.pending.isEmpty()) {
+                List<Node> round = new ArrayList<Node>(this.pending);
+                this.pending.clear();
+                resolvePoms(round);
+                for (Node node : round) {
+                    node.queued = false;
+                    if (!expand(node)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void resolvePoms(List<Node> round) {
+            List<Coordinates> unresolved = new ArrayList<Coordinates>();
+            for (Node node : round) {
+                if (node.project == null && node.version != null && !node.version.equals(node.pomVersion)) {
+                    unresolved.add(new Coordinates(node.group, node.name, node.version));
+                }
+            }
+            if (unresolved.isEmpty()) {
+                return;
+            }
+            Map<String, Pom> poms = PomGraphExclusionFinder.this.exclusionResolver.resolvePoms(unresolved);
+            for (Node node : round) {
+                if (node.project == null && node.version != null && !node.version.equals(node.pomVersion)) {
+                    node.pom = poms.get(node.id + ":" + node.version);
+                    node.pomVersion = node.version;
+                }
+            }
+        }
+
+        private boolean expand(Node node) {
+            if (!node.transitive) {
+                return true;
+            }
+            if (node.project != null) {
+                for (Configuration configuration : node.project) {
+                    if (!requestAll(node, configuration.getAllDependencies())) {
+                        return false;
+                    }
+                }
+            }
+            else if (node.pom != null) {
+                for (io.spring.gradle.dependencymanagement.internal.pom.Dependency dependency : node.pom
+                        .getDependencies()) {
+                    String scope = dependency.getScope() == null ? "" : dependency.getScope();
+                    if (!dependency.isOptional() && TRANSITIVE_SCOPES.contains(scope)) {
+                        Coordinates coordinates = dependency.getCoordinates();
+                        Set<String> exclusions = dependency.getExclusions() == null ? Collections.<String>emptySet()
+                                : dependency.getExclusions();
+                        if (!request(node, coordinates.getGroupId(), coordinates.getArtifactId(),
+                                coordinates.getVersion(), exclusions, true, null)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean requestAll(Node parent, Iterable<Dependency> dependencies) {
+            for (Dependency dependency : dependencies) {
+                if (!(dependency instanceof ModuleDependency)) {
+                    continue;
+                }
+                ModuleDependency moduleDependency = (ModuleDependency) dependency;
+                Configuration configuration = null;
+                if (dependency instanceof ProjectDependency) {
+                    configuration = ((ProjectDependency) dependency).getDependencyProject().getConfigurations()
+                            .findByName(moduleDependency.getConfiguration());
+                    if (configuration == null) {
+                        return false;
+                    }
+                }
+                if (!request(parent, dependency.getGroup(), dependency.getName(), dependency.getVersion(),
+                        getExclusions(moduleDependency), moduleDependency.isTransitive(), configuration)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Set<String> getExclusions(ModuleDependency dependency) {
+            if (dependency.getExcludeRules().isEmpty()) {
+                return Collections.emptySet();
+            }
+            Set<String> exclusions = new HashSet<String>();
+            for (ExcludeRule excludeRule : dependency.getExcludeRules()) {
+                exclusions.add((excludeRule.getGroup() == null ? "*" : excludeRule.getGroup()) + ":"
+                        + (excludeRule.getModule() == null ? "*" : excludeRule.getModule()));
+            }
+            return exclusions;
+        }
+
+        private boolean request(Node parent, String group, String name, String requestedVersion,
+                Set<String> edgeExclusions, boolean transitive, Configuration projectConfiguration) {
+            if (matches(parent.exclusions, group, name)) {
+                return true;
+            }
+            String id = group + ":" + name;
+            String version = null;
+            if (projectConfiguration == null) {
+                version = selectVersion(group, name, requestedVersion);
+                if (version != null && Versions.isDynamic(version)) {
+                    return false;
+                }
+            }
+            Set<String> exclusions = union(parent.exclusions, edgeExclusions);
+            Node node = this.nodes.get(id);
+            if (node == null) {
+                node = new Node(group, name, version);
+                node.exclusions = exclusions;
+                node.transitive = transitive;
+                this.nodes.put(id, node);
+                enqueue(node);
+            }
+            else {
+                if (version != null && (node.version == null || Versions.compare(version, node.version) > 0)) {
+                    node.version = version;
+                    if (node.pomVersion != null) {
+                        this.versionsChanged = true;
+                    }
+                }
+                if (transitive && !node.transitive) {
+                    node.transitive = true;
+                    enqueue(node);
+                }
+                if (!exclusions.containsAll(node.exclusions)) {
+                    Set<String> shared = new HashSet<String>(node.exclusions);
+                    shared.retainAll(exclusions);
+                    node.exclusions = shared;
+                    enqueue(node);
+                }
+            }
+            if (projectConfiguration != null && node.addProjectConfiguration(projectConfiguration)) {
+                enqueue(node);
+            }
+            if (node.version != null) {
+                this.selectedVersions.put(id, node.version);
+            }
+            parent.children.add(node);
+            return true;
+        }
+
+        private String selectVersion(String group, String name, String requestedVersion) {
+            String managedVersion = PomGraphExclusionFinder.this.versionConfiguringAction.getManagedVersion(group,
+                    name, requestedVersion);
+            String version = managedVersion != null ? managedVersion : requestedVersion;
+            String selectedVersion = this.selectedVersions.get(group + ":" + name);
+            if (version == null || (selectedVersion != null && Versions.compare(selectedVersion, version) > 0)) {
+                return selectedVersion;
+            }
+            return version;
+        }
+
+        private void enqueue(Node node) {
+            if (!node.queued) {
+                node.queued = true;
+                this.pending.add(node);
+            }
+        }
+
+    }
+
+    private static final class Node {
+
+        private final String group;
+
+        private final String name;
+
+        private final String id;
+
+        private final Set<Node> children = new LinkedHashSet<Node>();
+
+        private String version;
+
+        private String pomVersion;
+
+        private Pom pom;
+
+        private List<Configuration> project;
+
+        private Set<String> exclusions = Collections.emptySet();
+
+        private boolean transitive = true;
+
+        private boolean queued;
+
+        private Node(String group, String name, String version) {
+            this.group = group;
+            this.name = name;
+            this.id = group + ":" + name;
+            this.version = version;
+        }
+
+        private boolean addProjectConfiguration(Configuration configuration) {
+            if (this.project == null) {
+                this.project = new ArrayList<Configuration>();
+            }
+            if (this.project.contains(configuration)) {
+                return false;
+            }
+            this.project.add(configuration);
+            return true;
+        }
+
+        private Set<Node> getChildren() {
+            if (this.exclusions.isEmpty()) {
+                return this.children;
+            }
+            Set<Node> children = new LinkedHashSet<Node>();
+            for (Node child : this.children) {
+                if (!matches(this.exclusions, child.group, child.name)) {
+                    children.add(child);
+                }
+            }
+            return children;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the dependency management that applies to a configuration, taken when the configuration
+ * is about to be resolved. Unlike {@link DependencyManagementContainer}, it holds no reference to the project or to
+ * any configurations and can be serialized.
+ *
+ * @author agent (agent@local)
+ */
+final class ResolvedDependencyManagement implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ManagedVersionIndex managedVersions;
+
+    private final Exclusions exclusions;
+
+    ResolvedDependencyManagement(ManagedVersionIndex managedVersions, Exclusions exclusions) {
+        this.managedVersions = managedVersions;
+        this.exclusions = exclusions;
+    }
+
+    String getManagedVersion(String group, String name) {
+        return this.managedVersions.get(group, name);
+    }
+
+    Map<String, String> getManagedVersions() {
+        return this.managedVersions;
+    }
+
+    Set<String> getExclusions(String dependency) {
+        return this.exclusions.exclusionsForDependency(dependency);
+    }
+
+    Exclusions getExclusions() {
+        return this.exclusions;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -23,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 
 import groovy.util.Node;
-import org.gradle.api.Project;
 import org.gradle.api.XmlProvider;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings.PomCustomizationSettings;
@@ -32,16 +32,19 @@ import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
 import io.spring.gradle.dependencymanagement.internal.pom.Pom;
 import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
-import io.spring.gradle.dependencymanagement.internal.properties.ProjectPropertySource;
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
 import io.spring.gradle.dependencymanagement.maven.PomDependencyManagementConfigurer;
 
 /**
- * Standard implementation of {@link PomDependencyManagementConfigurer}.
+ * Standard implementation of {@link PomDependencyManagementConfigurer}. When serialized, the configurer is replaced
+ * with one that holds the dependency management that it would apply to the pom rather than the
+ * {@link DependencyManagement} from which it was derived.
  *
  * @author Andy Wilkinson
  */
-public class StandardPomDependencyManagementConfigurer implements PomDependencyManagementConfigurer {
+public class StandardPomDependencyManagementConfigurer implements PomDependencyManagementConfigurer, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final String NODE_NAME_DEPENDENCY_MANAGEMENT = "dependencyManagement";
 
@@ -65,13 +68,13 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
 
     private static final String NODE_NAME_CLASSIFIER = "classifier";
 
-    private final DependencyManagement dependencyManagement;
+    private final transient DependencyManagement dependencyManagement;
 
     private final PomCustomizationSettings settings;
 
-    private final PomResolver pomResolver;
+    private final transient PomResolver pomResolver;
 
-    private final Project project;
+    private final ResolvedPomDependencyManagement resolved;
 
     /**
      * Creates a new {@code StandardPomDependencyManagementConfigurer} that will configure the pom's dependency management
@@ -81,14 +84,21 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
      * @param dependencyManagement the dependency management
      * @param settings the customization settings
      * @param pomResolver resolves imported boms during dependency management configuration
-     * @param project owner of the pom that is being configured
      */
     public StandardPomDependencyManagementConfigurer(DependencyManagement dependencyManagement,
-            PomCustomizationSettings settings, PomResolver pomResolver, Project project) {
+            PomCustomizationSettings settings, PomResolver pomResolver) {
         this.dependencyManagement = dependencyManagement;
         this.settings = settings;
         this.pomResolver = pomResolver;
-        this.project = project;
+        this.resolved = null;
+    }
+
+    private StandardPomDependencyManagementConfigurer(PomCustomizationSettings settings,
+            ResolvedPomDependencyManagement resolved) {
+        this.dependencyManagement = null;
+        this.settings = settings;
+        this.pomResolver = null;
+        this.resolved = resolved;
     }
 
     @Override
@@ -112,8 +122,28 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
         if (managedDependenciesNode == null) {
             managedDependenciesNode = dependencyManagementNode.appendNode(NODE_NAME_DEPENDENCIES);
         }
-        configureBomImports(managedDependenciesNode);
-        configureManagedDependencies(managedDependenciesNode, findChild(pom, NODE_NAME_DEPENDENCIES));
+        ResolvedPomDependencyManagement resolved = (this.resolved != null) ? this.resolved : resolve();
+        configureBomImports(managedDependenciesNode, resolved);
+        configureManagedDependencies(managedDependenciesNode, findChild(pom, NODE_NAME_DEPENDENCIES), resolved);
+    }
+
+    private ResolvedPomDependencyManagement resolve() {
+        List<Pom> importedBoms = this.dependencyManagement.getImportedBoms();
+        List<Dependency> overrides = findOverrides(importedBoms);
+        List<Coordinates> importedBomCoordinates = new ArrayList<Coordinates>();
+        for (Pom importedBom: importedBoms) {
+            importedBomCoordinates.add(importedBom.getCoordinates());
+        }
+        Collections.reverse(importedBomCoordinates);
+        return new ResolvedPomDependencyManagement(overrides, importedBomCoordinates,
+                new ArrayList<Dependency>(this.dependencyManagement.getManagedDependencies()));
+    }
+
+    private Object writeReplace() {
+        if (this.resolved != null || !this.settings.isEnabled()) {
+            return this;
+        }
+        return new StandardPomDependencyManagementConfigurer(this.settings, resolve());
     }
 
     private Node findChild(Node node, String name) {
@@ -126,30 +156,45 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
         return null;
     }
 
-    private void configureBomImports(Node dependencies) {
-        List<PomReference> bomReferences = this.dependencyManagement.getImportedBomReferences();
-        Map<String, Dependency> withoutPropertiesManagedDependencies = getManagedDependenciesById(bomReferences, new EmptyPropertySource());
-        Map<String, Dependency> withPropertiesManagedDependencies = getManagedDependenciesById(bomReferences, new ProjectPropertySource(this.project));
+    private void configureBomImports(Node dependencies, ResolvedPomDependencyManagement resolved) {
+        for (Dependency override: resolved.overrides) {
+            appendDependencyNode(dependencies, override.getCoordinates(), override.getScope(), override.getType());
+        }
+        for (Coordinates importedBom: resolved.importedBoms) {
+            addImport(dependencies, importedBom);
+        }
+    }
+
+    private List<Dependency> findOverrides(List<Pom> importedBoms) {
         List<Dependency> overrides = new ArrayList<Dependency>();
+        List<PomReference> changedBoms = this.dependencyManagement.getBomsChangedByProjectProperties();
+        if (changedBoms.isEmpty()) {
+            return overrides;
+        }
+        Map<String, Pom> defaultBoms = new HashMap<String, Pom>();
+        for (Pom defaultBom: this.pomResolver.resolvePoms(changedBoms, new EmptyPropertySource())) {
+            defaultBoms.put(createId(defaultBom.getCoordinates()), defaultBom);
+        }
+        List<Pom> withoutPropertiesBoms = new ArrayList<Pom>();
+        for (Pom importedBom: importedBoms) {
+            Pom defaultBom = defaultBoms.get(createId(importedBom.getCoordinates()));
+            withoutPropertiesBoms.add(defaultBom != null ? defaultBom : importedBom);
+        }
+        Map<String, Dependency> withoutPropertiesManagedDependencies = getManagedDependenciesById(
+                withoutPropertiesBoms);
+        Map<String, Dependency> withPropertiesManagedDependencies = getManagedDependenciesById(importedBoms);
         for (Map.Entry<String, Dependency> withPropertyEntry: withPropertiesManagedDependencies.entrySet()) {
             Dependency withoutPropertyDependency = withoutPropertiesManagedDependencies.get(withPropertyEntry.getKey());
             if (differentVersions(withoutPropertyDependency, withPropertyEntry.getValue())) {
                 overrides.add(withPropertyEntry.getValue());
             }
         }
-        for (Dependency override: overrides) {
-            appendDependencyNode(dependencies, override.getCoordinates(), override.getScope(), override.getType());
-        }
-        List<Pom> importedBoms = this.dependencyManagement.getImportedBoms();
-        Collections.reverse(importedBoms);
-        for (Pom resolvedBom: importedBoms) {
-            addImport(dependencies, resolvedBom);
-        }
+        return overrides;
     }
 
-    private Map<String, Dependency> getManagedDependenciesById(List<PomReference> bomReferences, PropertySource propertySource) {
+    private Map<String, Dependency> getManagedDependenciesById(List<Pom> poms) {
         Map<String, Dependency> managedDependencies = new HashMap<String, Dependency>();
-        for (Pom pom: this.pomResolver.resolvePoms(bomReferences, propertySource)) {
+        for (Pom pom: poms) {
             for (Dependency dependency: pom.getManagedDependencies()) {
                 managedDependencies.put(createId(dependency), dependency);
             }
@@ -157,6 +202,10 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
         return managedDependencies;
     }
 
+    private String createId(Coordinates coordinates) {
+        return coordinates.getGroupId() + ":" + coordinates.getArtifactId();
+    }
+
     private String createId(Dependency dependency) {
         return String.format("%s:%s:%s:%s:%s",
                 dependency.getCoordinates().getGroupId(),
@@ -175,8 +224,8 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
         return !version1.equals(version2);
     }
 
-    private void addImport(Node dependencies, Pom importedBom) {
-        appendDependencyNode(dependencies, importedBom.getCoordinates(), "import", "pom");
+    private void addImport(Node dependencies, Coordinates importedBom) {
+        appendDependencyNode(dependencies, importedBom, "import", "pom");
     }
 
     private Node appendDependencyNode(Node parent, Coordinates coordinates, String scope,
@@ -194,9 +243,9 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
         return dependencyNode;
     }
 
-    private void configureManagedDependencies(Node managedDependencies, Node dependencies) {
-        for (Dependency managedDependency : this.dependencyManagement
-                .getManagedDependencies()) {
+    private void configureManagedDependencies(Node managedDependencies, Node dependencies,
+            ResolvedPomDependencyManagement resolved) {
+        for (Dependency managedDependency : resolved.managedDependencies) {
             addManagedDependency(managedDependencies, managedDependency, null);
             if (dependencies != null) {
                 for (String classifier : findClassifiers(dependencies, managedDependency)) {
@@ -257,4 +306,26 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
 
     }
 
+    /**
+     * The dependency management that is applied to a pom.
+     */
+    private static final class ResolvedPomDependencyManagement implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Dependency> overrides;
+
+        private final List<Coordinates> importedBoms;
+
+        private final List<Dependency> managedDependencies;
+
+        private ResolvedPomDependencyManagement(List<Dependency> overrides, List<Coordinates> importedBoms,
+                List<Dependency> managedDependencies) {
+            this.overrides = overrides;
+            this.importedBoms = importedBoms;
+            this.managedDependencies = managedDependencies;
+        }
+
+    }
+
 }
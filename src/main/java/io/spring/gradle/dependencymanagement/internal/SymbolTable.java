@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.gradle.api.invocation.Gradle;
+
+/**
+ * A build-wide pool of interned strings, such as the group IDs, artifact IDs, and versions of managed dependencies.
+ * Each distinct string is held once and identified by an {@code int} so that dependency management for many
+ * configurations in many projects can refer to it without duplicating it.
+ *
+ * @author agent (agent@local)
+ */
+final class SymbolTable {
+
+    private static final Map<Gradle, SymbolTable> symbolTables = new WeakHashMap<Gradle, SymbolTable>();
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+
+    private volatile String[] symbols = new String[1024];
+
+    private int size;
+
+    /**
+     * Returns the {@code SymbolTable} for the build of the given {@code gradle}, creating it if necessary.
+     *
+     * @param gradle the gradle
+     * @return the symbol table for the build
+     */
+    static SymbolTable forBuild(Gradle gradle) {
+        synchronized (symbolTables) {
+            SymbolTable symbolTable = symbolTables.get(gradle);
+            if (symbolTable == null) {
+                symbolTable = new SymbolTable();
+                symbolTables.put(gradle, symbolTable);
+            }
+            return symbolTable;
+        }
+    }
+
+    /**
+     * Returns the id of the given {@code symbol}, adding it to the table if necessary.
+     *
+     * @param symbol the symbol
+     * @return the id of the symbol
+     */
+    int intern(String symbol) {
+        Integer id = this.ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = this.ids.get(symbol);
+            if (id == null) {
+                String[] symbols = this.symbols;
+                if (this.size == symbols.length) {
+                    String[] grown = new String[symbols.length * 2];
+                    System.arraycopy(symbols, 0, grown, 0, symbols.length);
+                    symbols = grown;
+                }
+                symbols[this.size] = symbol;
+                this.symbols = symbols;
+                id = this.size++;
+                this.ids.put(symbol, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Returns the id of the given {@code symbol} or {@code -1} if it is not in the table. The table is not modified.
+     *
+     * @param symbol the symbol
+     * @return the id of the symbol or {@code -1}
+     */
+    int find(String symbol) {
+        Integer id = this.ids.get(symbol);
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * Returns the symbol with the given {@code id}.
+     *
+     * @param id the id
+     * @return the symbol
+     */
+    String get(int id) {
+        return this.symbols[id];
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,97 +16,91 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
-import java.util.HashSet;
+import java.io.Serializable;
+import java.util.Map;
 import java.util.Set;
 
 import org.gradle.api.Action;
-import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.DependencyResolveDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
+
 /**
  * An {@link Action} to be applied to {@link DependencyResolveDetails} that configures the
- * dependency's version based on the dependency management.
+ * dependency's version based on the dependency management. The action only depends upon
+ * values that are captured when the configuration is about to be resolved and can be serialized.
  *
  * @author Andy Wilkinson
  */
-class VersionConfiguringAction implements Action<DependencyResolveDetails> {
+class VersionConfiguringAction implements Action<DependencyResolveDetails>, Serializable {
 
-    private static final Logger logger = LoggerFactory.getLogger(VersionConfiguringAction.class);
+    private static final long serialVersionUID = 1L;
 
-    private final Project project;
+    private static final Logger logger = LoggerFactory.getLogger(VersionConfiguringAction.class);
 
-    private final DependencyManagementContainer dependencyManagementContainer;
+    private final ResolvedDependencyManagement dependencyManagement;
 
-    private final Configuration configuration;
+    private final Map<String, Set<String>> localProjects;
 
-    private Set<String> directDependencies;
+    private final Set<String> directDependencies;
 
-    VersionConfiguringAction(Project project,
-                             DependencyManagementContainer dependencyManagementContainer,
-                             Configuration configuration) {
-        this.project = project;
-        this.dependencyManagementContainer = dependencyManagementContainer;
-        this.configuration = configuration;
+    VersionConfiguringAction(ResolvedDependencyManagement dependencyManagement, Map<String, Set<String>> localProjects,
+            Set<String> directDependencies) {
+        this.dependencyManagement = dependencyManagement;
+        this.localProjects = localProjects;
+        this.directDependencies = directDependencies;
     }
 
     @Override
     public void execute(DependencyResolveDetails details) {
-        logger.debug("Processing dependency '{}'", details.getRequested());
-        if (isDependencyOnLocalProject(this.project, details)) {
-            logger.debug("'{}' is a local project dependency. Dependency management has not " +
-                    "been applied", details.getRequested());
-            return;
-        }
-
-        if (isDirectDependency(details) && Versions.isDynamic(details.getRequested().getVersion())) {
-            logger.debug("'{}' is a direct dependency and has a dynamic version. Dependency management has not been "
-                    + "applied", details.getRequested());
-            return;
-        }
-
-        String version = this.dependencyManagementContainer
-                .getManagedVersion(this.configuration, details.getRequested().getGroup(),
-                        details.getRequested().getName());
-
-        if (version != null) {
-            logger.debug("Using version '{}' for dependency '{}'", version,
-                    details.getRequested());
-            details.useVersion(version);
+        Profiler.Sample sample = Profiler.start("versionConfiguration");
+        try {
+            logger.debug("Processing dependency '{}'", details.getRequested());
+            String version = getManagedVersion(details.getRequested().getGroup(), details.getRequested().getName(),
+                    details.getRequested().getVersion());
+
+            if (version != null) {
+                logger.debug("Using version '{}' for dependency '{}'", version,
+                        details.getRequested());
+                details.useVersion(version);
+            }
         }
-        else {
-            logger.debug("No dependency management for dependency '{}'", details.getRequested());
+        finally {
+            sample.stop();
         }
-
     }
 
-    private boolean isDirectDependency(DependencyResolveDetails details) {
-        if (this.directDependencies == null) {
-            Set<String> directDependencies = new HashSet<String>();
-            for (Dependency dependency : this.configuration.getAllDependencies()) {
-                directDependencies.add(dependency.getGroup() + ":" + dependency.getName());
-            }
-            this.directDependencies = directDependencies;
+    /**
+     * Returns the managed version that should be used for the dependency with the given {@code group}, {@code name},
+     * and {@code requestedVersion}.
+     *
+     * @param group the group of the dependency
+     * @param name the name of the dependency
+     * @param requestedVersion the requested version of the dependency, may be {@code null}
+     * @return the managed version or {@code null} if dependency management should not be applied
+     */
+    String getManagedVersion(String group, String name, String requestedVersion) {
+        Set<String> localProjectNames = this.localProjects.get(group);
+        if (localProjectNames != null && localProjectNames.contains(name)) {
+            logger.debug("'{}:{}' is a local project dependency. Dependency management has not " +
+                    "been applied", group, name);
+            return null;
         }
-        return this.directDependencies.contains(details.getRequested().getGroup() + ":"
-                + details.getRequested().getName());
-    }
 
-    private boolean isDependencyOnLocalProject(Project project,
-                                               DependencyResolveDetails details) {
-        return getAllLocalProjectNames(project.getRootProject()).contains(details.getRequested()
-                .getGroup() + ":" + details.getRequested().getName());
-    }
+        if (requestedVersion != null && Versions.isDynamic(requestedVersion)
+                && this.directDependencies.contains(group + ":" + name)) {
+            logger.debug("'{}:{}:{}' is a direct dependency and has a dynamic version. Dependency management has not "
+                    + "been applied", group, name, requestedVersion);
+            return null;
+        }
 
-    private Set<String> getAllLocalProjectNames(Project rootProject) {
-        Set<String> names = new HashSet<String>();
-        for (Project localProject: rootProject.getAllprojects()) {
-            names.add(localProject.getGroup() + ":" + localProject.getName());
+        String version = this.dependencyManagement.getManagedVersion(group, name);
+        if (version == null) {
+            logger.debug("No dependency management for dependency '{}:{}'", group, name);
         }
-        return names;
+        return version;
     }
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,13 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,6 +35,17 @@ final class Versions {
     private static final Set<String> DYNAMIC_PREFIXES = Collections.unmodifiableSet(
             new HashSet<String>(Arrays.asList("latest.", "[", "]", "(")));
 
+    private static final Map<String, Integer> SPECIAL_MEANINGS;
+
+    static {
+        Map<String, Integer> specialMeanings = new HashMap<String, Integer>();
+        specialMeanings.put("dev", -1);
+        specialMeanings.put("rc", 1);
+        specialMeanings.put("release", 2);
+        specialMeanings.put("final", 3);
+        SPECIAL_MEANINGS = Collections.unmodifiableMap(specialMeanings);
+    }
+
     private Versions() {
 
     }
@@ -44,4 +59,99 @@ final class Versions {
         return version.endsWith("+");
     }
 
+    /**
+     * Compares the given versions in the same way as Gradle does when selecting the newest of several versions of a
+     * module. Versions are split into parts at {@code .}, {@code -}, {@code _}, and {@code +}, and where digits and
+     * other characters meet. Numeric parts are compared numerically and are newer than non-numeric parts. {@code dev}
+     * is older, and {@code rc}, {@code release}, and {@code final} are newer, than any other non-numeric part.
+     *
+     * @param version1 the first version
+     * @param version2 the second version
+     * @return a negative integer, zero, or a positive integer as the first version is older than, the same as, or
+     * newer than the second
+     */
+    static int compare(String version1, String version2) {
+        if (version1.equals(version2)) {
+            return 0;
+        }
+        List<String> parts1 = split(version1);
+        List<String> parts2 = split(version2);
+        int common = Math.min(parts1.size(), parts2.size());
+        for (int i = 0; i < common; i++) {
+            int result = compareParts(parts1.get(i), parts2.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        if (parts1.size() == parts2.size()) {
+            return 0;
+        }
+        if (parts1.size() > parts2.size()) {
+            return isNumeric(parts1.get(common)) ? 1 : -1;
+        }
+        return isNumeric(parts2.get(common)) ? -1 : 1;
+    }
+
+    private static int compareParts(String part1, String part2) {
+        boolean numeric1 = isNumeric(part1);
+        boolean numeric2 = isNumeric(part2);
+        if (numeric1 && numeric2) {
+            String trimmed1 = trimLeadingZeros(part1);
+            String trimmed2 = trimLeadingZeros(part2);
+            if (trimmed1.length() != trimmed2.length()) {
+                return trimmed1.length() - trimmed2.length();
+            }
+            return trimmed1.compareTo(trimmed2);
+        }
+        if (numeric1) {
+            return 1;
+        }
+        if (numeric2) {
+            return -1;
+        }
+        Integer meaning1 = SPECIAL_MEANINGS.get(part1.toLowerCase());
+        Integer meaning2 = SPECIAL_MEANINGS.get(part2.toLowerCase());
+        if (meaning1 != null && meaning2 != null) {
+            return meaning1.compareTo(meaning2);
+        }
+        if (meaning1 != null) {
+            return meaning1;
+        }
+        if (meaning2 != null) {
+            return -meaning2;
+        }
+        return part1.compareTo(part2);
+    }
+
+    private static List<String> split(String version) {
+        List<String> parts = new ArrayList<String>();
+        int start = 0;
+        for (int i = 1; i <= version.length(); i++) {
+            if (i == version.length() || isSeparator(version.charAt(i))
+                    || Character.isDigit(version.charAt(i)) != Character.isDigit(version.charAt(i - 1))) {
+                if (start < i && !isSeparator(version.charAt(start))) {
+                    parts.add(version.substring(start, i));
+                }
+                start = (i < version.length() && isSeparator(version.charAt(i))) ? i + 1 : i;
+            }
+        }
+        return parts;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '.' || c == '-' || c == '_' || c == '+';
+    }
+
+    private static boolean isNumeric(String part) {
+        return Character.isDigit(part.charAt(0));
+    }
+
+    private static String trimLeadingZeros(String part) {
+        int i = 0;
+        while (i < part.length() - 1 && part.charAt(i) == '0') {
+            i++;
+        }
+        return part.substring(i);
+    }
+
 }
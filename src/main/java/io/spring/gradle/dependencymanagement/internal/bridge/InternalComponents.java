@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package io.spring.gradle.dependencymanagement.internal.bridge;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.execution.TaskExecutionGraph;
 import org.gradle.api.plugins.HelpTasksPlugin;
 
 import io.spring.gradle.dependencymanagement.dsl.DependencyManagementExtension;
@@ -27,8 +28,14 @@ import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfig
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings;
 import io.spring.gradle.dependencymanagement.internal.ImplicitDependencyManagementCollector;
+import io.spring.gradle.dependencymanagement.internal.ImportedBomPrefetcher;
 import io.spring.gradle.dependencymanagement.internal.dsl.StandardDependencyManagementExtension;
+import io.spring.gradle.dependencymanagement.internal.index.CompileBomIndexTask;
 import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.maven.PomResolutionCache;
+import io.spring.gradle.dependencymanagement.internal.prefetch.DependencyManagementPrefetchTask;
+import io.spring.gradle.dependencymanagement.internal.profile.DependencyManagementProfileTask;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
 import io.spring.gradle.dependencymanagement.internal.report.DependencyManagementReportTask;
 
 /**
@@ -57,11 +64,13 @@ public class InternalComponents {
         this.project = project;
         DependencyManagementConfigurationContainer configurationContainer =
                 new DependencyManagementConfigurationContainer(project);
-        MavenPomResolver pomResolver = new MavenPomResolver(project, configurationContainer);
-        this.dependencyManagementContainer = new DependencyManagementContainer(project, pomResolver);
         DependencyManagementSettings dependencyManagementSettings = new DependencyManagementSettings();
+        MavenPomResolver pomResolver = new MavenPomResolver(project, configurationContainer,
+                PomResolutionCache.forBuild(project.getGradle()), dependencyManagementSettings);
+        this.dependencyManagementContainer = new DependencyManagementContainer(project, pomResolver);
+        ImportedBomPrefetcher.forBuild(project).register(project, this.dependencyManagementContainer, pomResolver);
         this.dependencyManagementExtension = new StandardDependencyManagementExtension(dependencyManagementContainer,
-                configurationContainer, project, dependencyManagementSettings);
+                configurationContainer, project, dependencyManagementSettings, pomResolver);
         this.implicitDependencyManagementCollector =
                 new ImplicitDependencyManagementCollector(dependencyManagementContainer, dependencyManagementSettings);
         this.dependencyManagementApplier = new DependencyManagementApplier(project, dependencyManagementContainer,
@@ -103,7 +112,8 @@ public class InternalComponents {
      * @param taskName the task name
      */
     public void createDependencyManagementReportTask(String taskName) {
-        this.project.getTasks().create(taskName, DependencyManagementReportTask.class,
+        final DependencyManagementReportTask reportTask = this.project.getTasks().create(taskName,
+                DependencyManagementReportTask.class,
                 new Action<DependencyManagementReportTask>() {
 
             @Override
@@ -116,6 +126,90 @@ public class InternalComponents {
             }
 
         });
+        this.project.getGradle().getTaskGraph().whenReady(new Action<TaskExecutionGraph>() {
+
+            @Override
+            public void execute(TaskExecutionGraph taskGraph) {
+                if (taskGraph.hasTask(reportTask)) {
+                    reportTask.captureReport();
+                }
+            }
+
+        });
+    }
+
+    /**
+     * Creates a task that prefetches the project's imported boms, assigning it the given {@code taskName}.
+     *
+     * @param taskName the task name
+     */
+    public void createDependencyManagementPrefetchTask(String taskName) {
+        this.project.getTasks().create(taskName, DependencyManagementPrefetchTask.class,
+                new Action<DependencyManagementPrefetchTask>() {
+
+            @Override
+            public void execute(DependencyManagementPrefetchTask prefetchTask) {
+                prefetchTask.setPrefetcher(ImportedBomPrefetcher.forBuild(InternalComponents.this.project));
+                prefetchTask.setGroup(HelpTasksPlugin.HELP_GROUP);
+                prefetchTask.setDescription("Prefetches the boms imported by " + prefetchTask.getProject()
+                        + (prefetchTask.getProject() == prefetchTask.getProject().getRootProject()
+                                ? " and its subprojects." : "."));
+            }
+
+        });
+    }
+
+    /**
+     * Creates a task that compiles the project's imported boms into indexes, assigning it the given
+     * {@code taskName}.
+     *
+     * @param taskName the task name
+     */
+    public void createCompileBomIndexTask(String taskName) {
+        this.project.getTasks().create(taskName, CompileBomIndexTask.class, new Action<CompileBomIndexTask>() {
+
+            @Override
+            public void execute(CompileBomIndexTask compileBomIndexTask) {
+                compileBomIndexTask
+                        .setDependencyManagementContainer(InternalComponents.this.dependencyManagementContainer);
+                compileBomIndexTask.setGroup(HelpTasksPlugin.HELP_GROUP);
+                compileBomIndexTask.setDescription("Compiles the boms imported by "
+                        + compileBomIndexTask.getProject() + " into indexes.");
+            }
+
+        });
+    }
+
+    /**
+     * Creates a task that profiles the project's dependency management, assigning it the given {@code taskName}. The
+     * build's {@link Profiler} is enabled when the task will be executed.
+     *
+     * @param taskName the task name
+     */
+    public void createDependencyManagementProfileTask(String taskName) {
+        final Profiler profiler = Profiler.forBuild(this.project.getGradle());
+        final DependencyManagementProfileTask profileTask = this.project.getTasks().create(taskName,
+                DependencyManagementProfileTask.class, new Action<DependencyManagementProfileTask>() {
+
+            @Override
+            public void execute(DependencyManagementProfileTask dependencyManagementProfileTask) {
+                dependencyManagementProfileTask.setProfiler(profiler);
+                dependencyManagementProfileTask.setGroup(HelpTasksPlugin.HELP_GROUP);
+                dependencyManagementProfileTask.setDescription("Profiles the dependency management of "
+                        + dependencyManagementProfileTask.getProject() + ".");
+            }
+
+        });
+        this.project.getGradle().getTaskGraph().whenReady(new Action<TaskExecutionGraph>() {
+
+            @Override
+            public void execute(TaskExecutionGraph taskGraph) {
+                if (taskGraph.hasTask(profileTask)) {
+                    profiler.setEnabled(true);
+                }
+            }
+
+        });
     }
 
 }
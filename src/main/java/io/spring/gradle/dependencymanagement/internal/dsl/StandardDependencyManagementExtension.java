@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,7 +39,7 @@ import io.spring.gradle.dependencymanagement.internal.DependencyManagementContai
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings.PomCustomizationSettings;
 import io.spring.gradle.dependencymanagement.internal.StandardPomDependencyManagementConfigurer;
-import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
 
 /**
  * Standard implementation of {@link DependencyManagementExtension}.
@@ -56,6 +56,8 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport i
 
     private final DependencyManagementSettings dependencyManagementSettings;
 
+    private final PomResolver pomResolver;
+
     /**
      * Creates a new {@code StandardDependencyManagementExtension} that is associated with the given {@code project}.
      *
@@ -63,14 +65,16 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport i
      * @param configurationContainer the container used to create dependency management-specific configurations
      * @param project the project
      * @param dependencyManagementSettings the settings that control dependency management behavior
+     * @param pomResolver the resolver used to resolve imported boms
      */
     public StandardDependencyManagementExtension(DependencyManagementContainer dependencyManagementContainer,
             DependencyManagementConfigurationContainer configurationContainer, Project project,
-            DependencyManagementSettings dependencyManagementSettings) {
+            DependencyManagementSettings dependencyManagementSettings, PomResolver pomResolver) {
         this.dependencyManagementContainer = dependencyManagementContainer;
         this.configurationContainer = configurationContainer;
         this.project = project;
         this.dependencyManagementSettings = dependencyManagementSettings;
+        this.pomResolver = pomResolver;
     }
 
     @Override
@@ -146,7 +150,7 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport i
         return new StandardPomDependencyManagementConfigurer(
                 this.dependencyManagementContainer.getGlobalDependencyManagement(),
                 this.dependencyManagementSettings.getPomCustomizationSettings(),
-                new MavenPomResolver(this.project, configurationContainer), this.project);
+                this.pomResolver);
     }
 
     /**
@@ -221,6 +225,26 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport i
         this.dependencyManagementSettings.setApplyMavenExclusions(applyMavenExclusions);
     }
 
+    @Override
+    public void setMavenExclusionsFromPoms(boolean mavenExclusionsFromPoms) {
+        this.dependencyManagementSettings.setMavenExclusionsFromPoms(mavenExclusionsFromPoms);
+    }
+
+    @Override
+    public void mavenExclusionsFromPoms(boolean mavenExclusionsFromPoms) {
+        this.dependencyManagementSettings.setMavenExclusionsFromPoms(mavenExclusionsFromPoms);
+    }
+
+    @Override
+    public void setPersistentExclusionCache(boolean persistentExclusionCache) {
+        this.dependencyManagementSettings.setPersistentExclusionCache(persistentExclusionCache);
+    }
+
+    @Override
+    public void persistentExclusionCache(boolean persistentExclusionCache) {
+        this.dependencyManagementSettings.setPersistentExclusionCache(persistentExclusionCache);
+    }
+
     @Override
     public void setOverriddenByDependencies(boolean overriddenByDependencies) {
         this.dependencyManagementSettings.setOverriddenByDependencies(overriddenByDependencies);
@@ -231,6 +255,21 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport i
         this.dependencyManagementSettings.setOverriddenByDependencies(overriddenByDependencies);
     }
 
+    @Override
+    public void setBomParallelism(int bomParallelism) {
+        this.dependencyManagementSettings.setBomParallelism(bomParallelism);
+    }
+
+    @Override
+    public void bomParallelism(int bomParallelism) {
+        this.dependencyManagementSettings.setBomParallelism(bomParallelism);
+    }
+
+    @Override
+    public void projectPropertiesChanged() {
+        this.dependencyManagementContainer.invalidateProjectProperties();
+    }
+
     /**
      * Returns the settings for pom customization.
      *
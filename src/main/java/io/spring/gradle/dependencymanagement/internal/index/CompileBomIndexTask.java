@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.index;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.TaskAction;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
+import io.spring.gradle.dependencymanagement.internal.pom.BomIndex;
+
+/**
+ * Task to compile the boms imported by a project into {@link BomIndex BomIndexes}.
+ *
+ * @author agent (agent@local)
+ */
+public class CompileBomIndexTask extends DefaultTask {
+
+    private DependencyManagementContainer dependencyManagementContainer;
+
+    /**
+     * Sets the container for the dependency management whose imported boms will be compiled.
+     *
+     * @param dependencyManagementContainer the container
+     */
+    public void setDependencyManagementContainer(DependencyManagementContainer dependencyManagementContainer) {
+        this.dependencyManagementContainer = dependencyManagementContainer;
+    }
+
+    /**
+     * {@link TaskAction} that compiles the indexes.
+     */
+    @TaskAction
+    public void compile() {
+        this.dependencyManagementContainer.compileBomIndexes();
+    }
+
+}
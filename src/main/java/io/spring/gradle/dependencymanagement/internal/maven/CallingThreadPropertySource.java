@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+
+/**
+ * A {@link PropertySource} that only accesses its delegate, such as a source backed by a project, on the thread that
+ * is resolving poms. Each property that is retrieved from the delegate is added to a snapshot that is used for
+ * subsequent requests. Properties that are used while prefetching are therefore snapshotted before any model
+ * building tasks are submitted. A property that is first requested on a model building worker thread is retrieved
+ * by the calling thread using {@link ModelBuildingExecutor#callerRuns(Callable)}.
+ *
+ * @author agent (agent@local)
+ */
+final class CallingThreadPropertySource implements PropertySource {
+
+    private static final Object NULL = new Object();
+
+    private final ConcurrentMap<String, Object> snapshot = new ConcurrentHashMap<String, Object>();
+
+    private final PropertySource delegate;
+
+    CallingThreadPropertySource(PropertySource delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        Object value = this.snapshot.get(name);
+        if (value == null) {
+            value = retrieve(name);
+            this.snapshot.putIfAbsent(name, value);
+        }
+        return (value != NULL) ? value : null;
+    }
+
+    private Object retrieve(final String name) {
+        try {
+            return ModelBuildingExecutor.callerRuns(new Callable<Object>() {
+
+                @Override
+                public Object call() {
+                    Object value = CallingThreadPropertySource.this.delegate.getProperty(name);
+                    return (value != null) ? value : NULL;
+                }
+
+            });
+        }
+        catch (RuntimeException ex) {
+            throw ex;
+        }
+        catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
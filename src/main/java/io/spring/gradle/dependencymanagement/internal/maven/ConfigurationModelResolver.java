@@ -16,60 +16,202 @@
 
 package io.spring.gradle.dependencymanagement.internal.maven;
 
+import java.io.File;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.FlatDirectoryArtifactRepository;
+import org.gradle.api.artifacts.repositories.IvyArtifactRepository;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.api.specs.Specs;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.profile.FlightRecorderEvents;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Repository;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.FileModelSource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelCache;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.ModelResolver;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.UnresolvableModelException;
 
 /**
  * A {@link ModelResolver} that uses a {@link Configuration} to resolve the {@link ModelSource} for a pom.
- * requested model.
+ * requested model. Resolved pom files and built models are cached for the project's current set of repositories so
+ * that they are only shared with projects that would resolve them from the same repositories.
  *
  * @author Andy Wilkinson
  */
 class ConfigurationModelResolver implements ModelResolver {
 
-    private final Map<String, FileModelSource> pomCache = new HashMap<String, FileModelSource>();
-
     private final Project project;
 
     private final DependencyManagementConfigurationContainer configurationContainer;
 
     private final PlatformCategoryAttributeConfigurer attributeConfigurer;
 
+    private final PomResolutionCache cache;
+
+    private volatile PomResolutionCache.RepositoryCache repositoryCache;
+
     ConfigurationModelResolver(Project project,  DependencyManagementConfigurationContainer configurationContainer,
-            PlatformCategoryAttributeConfigurer attributeConfigurer) {
+            PlatformCategoryAttributeConfigurer attributeConfigurer, PomResolutionCache cache) {
         this.project = project;
         this.configurationContainer = configurationContainer;
         this.attributeConfigurer = attributeConfigurer;
+        this.cache = cache;
     }
 
     @Override
     public ModelSource resolveModel(String groupId, String artifactId, String version)
             throws UnresolvableModelException {
         String coordinates = groupId + ":" + artifactId + ":" + version + "@pom";
-        FileModelSource pom = this.pomCache.get(coordinates);
-        if (pom == null) {
-            pom = resolveModel(coordinates);
-            this.pomCache.put(coordinates, pom);
+        FlightRecorderEvents.Event event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.MODEL_RESOLUTION);
+        File pom = getRepositoryCache().getPomFile(coordinates);
+        boolean cacheHit = pom != null;
+        try {
+            if (pom == null) {
+                pom = resolvePomFile(coordinates);
+                getRepositoryCache().putPomFile(coordinates, pom);
+            }
+            return new FileModelSource(pom);
+        }
+        finally {
+            event.commit(coordinates, cacheHit);
         }
-        return pom;
     }
 
-    private FileModelSource resolveModel(final String coordinates) {
+    /**
+     * Identifies the project's current set of repositories and switches to the cache of pom files and models for
+     * them. As the project's repositories can only be safely accessed on the thread that is resolving the project's
+     * configurations, this method must not be called on a model building worker thread.
+     */
+    void refreshRepositories() {
+        this.repositoryCache = this.cache.forRepositories(describeRepositories());
+    }
+
+    /**
+     * Returns the pom file for the given coordinates if it has already been resolved, otherwise {@code null}.
+     *
+     * @param groupId the group ID
+     * @param artifactId the artifact ID
+     * @param version the version
+     * @return the pom file or {@code null}
+     */
+    File getPomFile(String groupId, String artifactId, String version) {
+        return getPomFile(groupId + ":" + artifactId + ":" + version);
+    }
+
+    /**
+     * Returns the pom file for the given coordinates, in the form {@code groupId:artifactId:version}, if it has
+     * already been resolved, otherwise {@code null}.
+     *
+     * @param coordinates the coordinates
+     * @return the pom file or {@code null}
+     */
+    File getPomFile(String coordinates) {
+        return getRepositoryCache().getPomFile(coordinates + "@pom");
+    }
+
+    /**
+     * Returns the cache of the models that have been built using the project's current set of repositories.
+     *
+     * @return the model cache
+     */
+    ModelCache getModelCache() {
+        return getRepositoryCache().getModelCache();
+    }
+
+    /**
+     * Resolves the poms with the given {@code coordinates}, each in the form {@code groupId:artifactId:version}, using
+     * a single {@link Configuration}. Poms that cannot be resolved are ignored. Each resolved pom is stored in the
+     * cache, making it available to subsequent calls to {@link #resolveModel(String, String, String)}.
+     *
+     * @param coordinates the coordinates of the poms, with at most one version of each module
+     * @return the resolved pom files, keyed by their coordinates
+     */
+    Map<String, File> resolvePomFiles(Collection<String> coordinates) {
+        Configuration configuration = this.configurationContainer.newConfiguration();
+        for (String pomCoordinates: coordinates) {
+            Dependency dependency = this.project.getDependencies().create(pomCoordinates + "@pom");
+            this.attributeConfigurer.configureCategoryAttribute(dependency);
+            configuration.getDependencies().add(dependency);
+        }
+        Map<String, File> pomFiles = new HashMap<String, File>();
+        for (ResolvedArtifact artifact: configuration.getResolvedConfiguration().getLenientConfiguration()
+                .getArtifacts(Specs.SATISFIES_ALL)) {
+            ModuleVersionIdentifier id = artifact.getModuleVersion().getId();
+            String pomCoordinates = id.getGroup() + ":" + id.getName() + ":" + id.getVersion();
+            if (coordinates.contains(pomCoordinates)) {
+                getRepositoryCache().putPomFile(pomCoordinates + "@pom", artifact.getFile());
+                pomFiles.put(pomCoordinates, artifact.getFile());
+            }
+        }
+        return pomFiles;
+    }
+
+    private File resolvePomFile(final String coordinates) {
+        try {
+            return ModelBuildingExecutor.callerRuns(new Callable<File>() {
+
+                @Override
+                public File call() {
+                    File pom = getRepositoryCache().getPomFile(coordinates);
+                    return pom != null ? pom : resolveModel(coordinates);
+                }
+
+            });
+        }
+        catch (RuntimeException ex) {
+            throw ex;
+        }
+        catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private File resolveModel(String coordinates) {
         Dependency dependency = this.project.getDependencies().create(coordinates);
         this.attributeConfigurer.configureCategoryAttribute(dependency);
         Configuration configuration = this.configurationContainer.newConfiguration(dependency);
-        return new FileModelSource(configuration.resolve().iterator().next());
+        return configuration.resolve().iterator().next();
+    }
+
+    private PomResolutionCache.RepositoryCache getRepositoryCache() {
+        PomResolutionCache.RepositoryCache repositoryCache = this.repositoryCache;
+        if (repositoryCache == null) {
+            repositoryCache = this.cache.forRepositories(describeRepositories());
+            this.repositoryCache = repositoryCache;
+        }
+        return repositoryCache;
+    }
+
+    private String describeRepositories() {
+        StringBuilder description = new StringBuilder();
+        for (ArtifactRepository repository: this.project.getRepositories()) {
+            if (repository instanceof MavenArtifactRepository) {
+                description.append("maven:").append(((MavenArtifactRepository) repository).getUrl())
+                        .append(((MavenArtifactRepository) repository).getArtifactUrls());
+            }
+            else if (repository instanceof IvyArtifactRepository) {
+                description.append("ivy:").append(((IvyArtifactRepository) repository).getUrl());
+            }
+            else if (repository instanceof FlatDirectoryArtifactRepository) {
+                description.append("flatDir:").append(((FlatDirectoryArtifactRepository) repository).getDirs());
+            }
+            else {
+                description.append(repository.getClass().getName()).append(':').append(repository.getName());
+            }
+            description.append(';');
+        }
+        return description.toString();
     }
 
     @Override
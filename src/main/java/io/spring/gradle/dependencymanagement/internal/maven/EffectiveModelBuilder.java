@@ -18,26 +18,30 @@ package io.spring.gradle.dependencymanagement.internal.maven;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.gradle.api.Project;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.profile.FlightRecorderEvents;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
-import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuilder;
-import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuilderFactory;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Repository;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuildingRequest;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.FileModelSource;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelBuildingException;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelBuildingResult;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelCache;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelProblem;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.InvalidRepositoryException;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.ModelResolver;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.UnresolvableModelException;
 
 /**
  * Builds the effective {@link Model} for a Maven pom.
@@ -48,34 +52,85 @@ final class EffectiveModelBuilder {
 
     private static final Logger logger = LoggerFactory.getLogger(EffectiveModelBuilder.class);
 
-    private final ModelCache modelCache = new InMemoryModelCache();
+    private final ModelBuildingEngine engine;
 
-    private final ModelResolver modelResolver;
+    private final ModelPrefetcher modelPrefetcher;
+
+    private final ConfigurationModelResolver modelResolver;
 
     EffectiveModelBuilder(Project project,
-            DependencyManagementConfigurationContainer configurationContainer, PlatformCategoryAttributeConfigurer attributeConfigurer) {
-        this.modelResolver = new ConfigurationModelResolver(project, configurationContainer, attributeConfigurer);
+            DependencyManagementConfigurationContainer configurationContainer, PlatformCategoryAttributeConfigurer attributeConfigurer,
+            PomResolutionCache cache) {
+        this.modelResolver = new ConfigurationModelResolver(project, configurationContainer, attributeConfigurer, cache);
+        this.engine = cache.getModelBuildingEngine();
+        this.modelPrefetcher = new ModelPrefetcher(this.modelResolver);
+    }
+
+    /**
+     * Identifies the project's current set of repositories so that only the pom files and models that were resolved
+     * using the same repositories are reused. Must be called on the thread that is resolving the project's
+     * configurations.
+     */
+    void refreshRepositories() {
+        this.modelResolver.refreshRepositories();
+    }
+
+    /**
+     * Prefetches the parents and imports of the given poms so that their effective models can be built without
+     * further resolution.
+     *
+     * @param poms the poms and the properties that will be used to build their effective models
+     */
+    void prefetch(Map<File, PropertySource> poms) {
+        this.modelPrefetcher.prefetch(poms);
     }
 
     Model buildModel(File pom, PropertySource properties) {
+        return buildModel(pom, properties, new ModelInputs());
+    }
+
+    /**
+     * Builds the effective model for the given {@code pom}, recording the poms and properties that are used in the
+     * given {@code inputs}.
+     *
+     * @param pom the pom
+     * @param properties the properties to use during interpolation
+     * @param inputs the inputs to record to
+     * @return the effective model
+     */
+    Model buildModel(File pom, PropertySource properties, ModelInputs inputs) {
         DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
-        request.setSystemProperties(System.getProperties());
         request.setModelSource(new FileModelSource(pom));
-        request.setModelResolver(this.modelResolver);
-        request.setModelCache(this.modelCache);
+        request.setModelResolver(new InputsRecordingModelResolver(this.modelResolver, inputs));
+        InputsRecordingModelCache modelCache = new InputsRecordingModelCache(this.modelResolver.getModelCache(),
+                this.modelResolver, inputs, properties);
+        request.setModelCache(modelCache);
 
+        Profiler.Sample sample = Profiler.start("modelBuilding");
+        FlightRecorderEvents.Event event = FlightRecorderEvents.begin(FlightRecorderEvents.Type.MODEL_BUILDING);
+        Model model = null;
         try {
-            ModelBuildingResult result = createModelBuilder(properties).build(request);
+            ModelBuildingResult result = this.engine.build(request, inputs.record(properties));
             List<ModelProblem> errors = extractErrors(result.getProblems());
             if (!errors.isEmpty()) {
+                inputs.markIncomplete();
                 reportErrors(errors, pom);
             }
-            return result.getEffectiveModel();
+            model = result.getEffectiveModel();
+            return model;
         }
         catch (ModelBuildingException ex) {
             logger.debug("Model building failed", ex);
+            inputs.markIncomplete();
             reportErrors(extractErrors(ex.getProblems()), pom);
-            return ex.getResult().getEffectiveModel();
+            model = ex.getResult().getEffectiveModel();
+            return model;
+        }
+        finally {
+            // The model is always built here. Cached poms are found before their models are built
+            event.commit((model != null) ? createId(model.getGroupId(), model.getArtifactId(), model.getVersion())
+                    : pom.getName(), false);
+            sample.stop();
         }
     }
 
@@ -97,83 +152,120 @@ final class EffectiveModelBuilder {
         logger.error(message.toString());
     }
 
-    private DefaultModelBuilder createModelBuilder(PropertySource properties) {
-        DefaultModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
-        modelBuilder
-                .setModelInterpolator(new PropertiesModelInterpolator(properties));
-        modelBuilder.setModelValidator(new RelaxedModelValidator());
-        return modelBuilder;
+    private static String createId(String groupId, String artifactId, String version) {
+        return groupId + ":" + artifactId + ":" + version;
     }
 
-    private static final class InMemoryModelCache implements ModelCache {
+    /**
+     * A {@link ModelResolver} that records the poms that it resolves in a {@link ModelInputs}.
+     */
+    private static final class InputsRecordingModelResolver implements ModelResolver {
+
+        private final ModelResolver delegate;
 
-        private final Map<Key, Object> cache = new ConcurrentHashMap<Key, Object>();
+        private final ModelInputs inputs;
+
+        private InputsRecordingModelResolver(ModelResolver delegate, ModelInputs inputs) {
+            this.delegate = delegate;
+            this.inputs = inputs;
+        }
 
         @Override
-        public Object get(String groupId, String artifactId, String version, String tag) {
-            return this.cache.get(new Key(groupId, artifactId, version, tag));
+        public ModelSource resolveModel(String groupId, String artifactId, String version)
+                throws UnresolvableModelException {
+            ModelSource source = this.delegate.resolveModel(groupId, artifactId, version);
+            this.inputs.pomUsed(createId(groupId, artifactId, version),
+                    source instanceof FileModelSource ? ((FileModelSource) source).getPomFile() : null);
+            return source;
         }
 
         @Override
-        public void put(String groupId, String artifactId, String version, String tag, Object item) {
-            this.cache.put(new Key(groupId, artifactId, version, tag), item);
+        public void addRepository(Repository repository) throws InvalidRepositoryException {
+            this.delegate.addRepository(repository);
         }
 
-        private static final class Key {
+        @Override
+        public ModelResolver newCopy() {
+            return this;
+        }
 
-            private final String groupId;
+    }
 
-            private final String artifactId;
+    /**
+     * A {@link ModelCache} that records the inputs of the models that it returns. An imported model is only returned
+     * from the cache when the properties that were used to interpolate it have the same values in the current
+     * {@link PropertySource}.
+     */
+    private static final class InputsRecordingModelCache implements ModelCache {
 
-            private final String version;
+        private static final String IMPORT = "import";
 
-            private final String tag;
+        private final ModelCache delegate;
 
-            private Key(String groupId, String artifactId, String version, String tag) {
-                this.groupId = groupId;
-                this.artifactId = artifactId;
-                this.version = version;
-                this.tag = tag;
-            }
+        private final ConfigurationModelResolver modelResolver;
 
-            @Override
-            public int hashCode() {
-                final int prime = 31;
-                int result = 1;
-                result = prime * result + groupId.hashCode();
-                result = prime * result + artifactId.hashCode();
-                result = prime * result + version.hashCode();
-                result = prime * result + tag.hashCode();
-                return result;
-            }
+        private final ModelInputs inputs;
 
-            @Override
-            public boolean equals(Object obj) {
-                if (this == obj) {
-                    return true;
-                }
-                if (obj == null) {
-                    return false;
-                }
-                if (getClass() != obj.getClass()) {
-                    return false;
-                }
-                Key other = (Key) obj;
-                if (!groupId.equals(other.groupId)) {
-                    return false;
-                }
-                if (!artifactId.equals(other.artifactId)) {
-                    return false;
+        private final PropertySource properties;
+
+        private final Map<String, ModelInputs.Mark> importMarks = new HashMap<String, ModelInputs.Mark>();
+
+        private InputsRecordingModelCache(ModelCache delegate, ConfigurationModelResolver modelResolver,
+                ModelInputs inputs, PropertySource properties) {
+            this.delegate = delegate;
+            this.modelResolver = modelResolver;
+            this.inputs = inputs;
+            this.properties = properties;
+        }
+
+        @Override
+        public Object get(String groupId, String artifactId, String version, String tag) {
+            Object item = this.delegate.get(groupId, artifactId, version, tag);
+            String id = createId(groupId, artifactId, version);
+            if (IMPORT.equals(tag)) {
+                if (item != null && ((ImportedModel) item).inputs.propertiesMatch(this.properties)) {
+                    this.inputs.addAll(((ImportedModel) item).inputs);
+                    return ((ImportedModel) item).model;
                 }
-                if (!version.equals(other.version)) {
-                    return false;
+                this.importMarks.put(id, this.inputs.mark());
+                return null;
+            }
+            if (item != null) {
+                this.inputs.pomUsed(id, this.modelResolver.getPomFile(groupId, artifactId, version));
+            }
+            return item;
+        }
+
+        @Override
+        public void put(String groupId, String artifactId, String version, String tag, Object item) {
+            if (IMPORT.equals(tag)) {
+                ModelInputs.Mark mark = this.importMarks.remove(createId(groupId, artifactId, version));
+                ModelInputs importInputs;
+                if (mark != null) {
+                    importInputs = this.inputs.since(mark);
                 }
-                if (!tag.equals(other.tag)) {
-                    return false;
+                else {
+                    importInputs = new ModelInputs();
+                    importInputs.markIncomplete();
                 }
-                return true;
+                this.delegate.put(groupId, artifactId, version, tag, new ImportedModel(item, importInputs));
             }
+            else {
+                this.delegate.put(groupId, artifactId, version, tag, item);
+            }
+        }
+
+    }
+
+    private static final class ImportedModel {
+
+        private final Object model;
+
+        private final ModelInputs inputs;
 
+        private ImportedModel(Object model, ModelInputs inputs) {
+            this.model = model;
+            this.inputs = inputs;
         }
 
     }
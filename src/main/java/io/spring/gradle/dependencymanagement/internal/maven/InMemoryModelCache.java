@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelCache;
+
+/**
+ * A thread-safe, in-memory {@link ModelCache}.
+ *
+ * @author agent (agent@local)
+ */
+final class InMemoryModelCache implements ModelCache {
+
+    private final Map<Key, Object> cache = new ConcurrentHashMap<Key, Object>();
+
+    @Override
+    public Object get(String groupId, String artifactId, String version, String tag) {
+        return this.cache.get(new Key(groupId, artifactId, version, tag));
+    }
+
+    @Override
+    public void put(String groupId, String artifactId, String version, String tag, Object item) {
+        this.cache.put(new Key(groupId, artifactId, version, tag), item);
+    }
+
+    private static final class Key {
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final String version;
+
+        private final String tag;
+
+        private Key(String groupId, String artifactId, String version, String tag) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.tag = tag;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + groupId.hashCode();
+            result = prime * result + artifactId.hashCode();
+            result = prime * result + version.hashCode();
+            result = prime * result + tag.hashCode();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            if (!groupId.equals(other.groupId)) {
+                return false;
+            }
+            if (!artifactId.equals(other.artifactId)) {
+                return false;
+            }
+            if (!version.equals(other.version)) {
+                return false;
+            }
+            if (!tag.equals(other.tag)) {
+                return false;
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -21,11 +21,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
@@ -35,6 +37,7 @@ import org.gradle.api.artifacts.dsl.DependencyHandler;
 import org.gradle.api.specs.Specs;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings;
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
 import io.spring.gradle.dependencymanagement.internal.pom.Pom;
@@ -43,6 +46,7 @@ import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
 import io.spring.gradle.dependencymanagement.internal.properties.CompositePropertySource;
 import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.internal.properties.SystemPropertySource;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Exclusion;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
 
@@ -53,39 +57,130 @@ import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
  */
 public class MavenPomResolver implements PomResolver {
 
+    /**
+     * The maximum number of poms that are resolved leniently by a single configuration.
+     */
+    static final int LENIENT_CHUNK_SIZE = 200;
+
     private final PlatformCategoryAttributeConfigurer attributeConfigurer = new PlatformCategoryAttributeConfigurer();
 
     private final DependencyManagementConfigurationContainer configurationContainer;
 
     private final EffectiveModelBuilder effectiveModelBuilder;
 
+    private final SimplePomReader simplePomReader;
+
+    private final PomResolutionCache cache;
+
+    private final DependencyManagementSettings settings;
+
     private final DependencyHandler dependencyHandler;
 
     /**
      * Creates a new {@code MavenPomResolver}. Properties from the given {@code project} will be used during resolution.
-     * The given {@code configurationContainer} will be used to create configurations to resolve the poms.
+     * The given {@code configurationContainer} will be used to create configurations to resolve the poms. The
+     * {@link PomResolutionCache} of the project's build will be used.
      *
      * @param project the project
      * @param configurationContainer the configuration container
      */
     public MavenPomResolver(Project project, DependencyManagementConfigurationContainer configurationContainer) {
+        this(project, configurationContainer, PomResolutionCache.forBuild(project.getGradle()),
+                new DependencyManagementSettings());
+    }
+
+    /**
+     * Creates a new {@code MavenPomResolver}. Properties from the given {@code project} will be used during resolution.
+     * The given {@code configurationContainer} will be used to create configurations to resolve the poms. Resolved pom
+     * files, models, and poms will be stored in, and retrieved from, the given {@code cache}. The given
+     * {@code settings} control how many poms are built in parallel.
+     *
+     * @param project the project
+     * @param configurationContainer the configuration container
+     * @param cache the cache
+     * @param settings the dependency management settings
+     */
+    public MavenPomResolver(Project project, DependencyManagementConfigurationContainer configurationContainer,
+            PomResolutionCache cache, DependencyManagementSettings settings) {
         this.configurationContainer = configurationContainer;
-        this.effectiveModelBuilder = new EffectiveModelBuilder(project, configurationContainer, this.attributeConfigurer);
+        this.effectiveModelBuilder = new EffectiveModelBuilder(project, configurationContainer, this.attributeConfigurer,
+                cache);
+        this.simplePomReader = new SimplePomReader(cache.getSystemProperties());
+        this.cache = cache;
+        this.settings = settings;
         this.dependencyHandler = project.getDependencies();
     }
 
+    /**
+     * Resolves the poms leniently in chunks of at most {@link #LENIENT_CHUNK_SIZE}. The chunks are resolved one after
+     * another, each by its own configuration, while the poms of the chunks that have already been resolved are
+     * built in parallel.
+     *
+     * @param pomReferences the references to the poms
+     * @return the poms that were resolved
+     */
     @Override
     public List<Pom> resolvePomsLeniently(List<PomReference> pomReferences) {
-        return createPoms(createConfiguration(pomReferences).getResolvedConfiguration().getLenientConfiguration()
-                .getArtifacts(Specs.SATISFIES_ALL), pomReferences,
-                        new MapPropertySource(Collections.<String, Object>emptyMap()));
+        this.effectiveModelBuilder.refreshRepositories();
+        final PropertySource properties = new MapPropertySource(Collections.<String, Object>emptyMap());
+        List<Callable<List<Callable<Pom>>>> chunks = new ArrayList<Callable<List<Callable<Pom>>>>();
+        for (int i = 0; i < pomReferences.size(); i += LENIENT_CHUNK_SIZE) {
+            final List<PomReference> chunk = pomReferences.subList(i,
+                    Math.min(i + LENIENT_CHUNK_SIZE, pomReferences.size()));
+            chunks.add(new Callable<List<Callable<Pom>>>() {
+
+                @Override
+                public List<Callable<Pom>> call() {
+                    return createPomCreators(createConfiguration(chunk).getResolvedConfiguration()
+                            .getLenientConfiguration().getArtifacts(Specs.SATISFIES_ALL), chunk, properties);
+                }
+
+            });
+        }
+        return this.cache.createModelBuildingExecutor(this.settings.getBomParallelism()).invokeInStages(chunks);
     }
 
     @Override
     public List<Pom> resolvePoms(List<PomReference> pomReferences, PropertySource properties) {
+        this.effectiveModelBuilder.refreshRepositories();
         List<PomReference> deduplicatedPomReferences = deduplicate(pomReferences);
         return createPoms(createConfiguration(deduplicatedPomReferences).getResolvedConfiguration().getResolvedArtifacts(),
-                deduplicatedPomReferences, properties);
+                deduplicatedPomReferences, new CallingThreadPropertySource(properties));
+    }
+
+    /**
+     * Returns a stage that, when it is called, resolves the given {@code pomReferences} and returns the tasks that
+     * build their poms using the given {@code properties}. The stages of several resolvers, such as those of a build's
+     * projects, can be {@link #resolveInStages resolved together}.
+     *
+     * @param pomReferences the pom references to resolve
+     * @param properties properties to apply to the resolution of each pom reference
+     * @return the stage
+     */
+    public Callable<List<Callable<Pom>>> createStage(List<PomReference> pomReferences,
+            final PropertySource properties) {
+        final List<PomReference> deduplicatedPomReferences = deduplicate(pomReferences);
+        return new Callable<List<Callable<Pom>>>() {
+
+            @Override
+            public List<Callable<Pom>> call() {
+                MavenPomResolver.this.effectiveModelBuilder.refreshRepositories();
+                return createPomCreators(createConfiguration(deduplicatedPomReferences).getResolvedConfiguration()
+                        .getResolvedArtifacts(), deduplicatedPomReferences, new CallingThreadPropertySource(properties));
+            }
+
+        };
+    }
+
+    /**
+     * Resolves the poms of the given {@code stages}. Each stage is resolved in turn on the calling thread while the
+     * poms of the stages before it are built in parallel.
+     *
+     * @param stages the stages
+     * @return the poms of every stage
+     */
+    public List<Pom> resolveInStages(List<Callable<List<Callable<Pom>>>> stages) {
+        return this.cache.createModelBuildingExecutor(this.settings.getBomParallelism()).invokeInStages(stages);
     }
 
     private List<PomReference> deduplicate(List<PomReference> pomReferences) {
@@ -115,27 +210,60 @@ public class MavenPomResolver implements PomResolver {
 
     private List<Pom> createPoms(Set<ResolvedArtifact> resolvedArtifacts, List<PomReference> pomReferences,
             PropertySource properties) {
+        return this.cache.createModelBuildingExecutor(this.settings.getBomParallelism())
+                .invokeAll(createPomCreators(resolvedArtifacts, pomReferences, properties));
+    }
+
+    private List<Callable<Pom>> createPomCreators(Set<ResolvedArtifact> resolvedArtifacts,
+            List<PomReference> pomReferences, PropertySource properties) {
         Map<String, PomReference> referencesById = new HashMap<String, PomReference>();
         for (PomReference pomReference: pomReferences) {
             referencesById.put(createKey(pomReference.getCoordinates().getGroupId(),
                     pomReference.getCoordinates().getArtifactId()), pomReference);
         }
-        List<Pom> resolvedPoms = new ArrayList<Pom>();
+        List<Callable<Pom>> pomCreators = new ArrayList<Callable<Pom>>();
+        Map<File, PropertySource> pomsToBuild = new LinkedHashMap<File, PropertySource>();
         for (ResolvedArtifact resolvedArtifact: resolvedArtifacts) {
             ModuleVersionIdentifier id = resolvedArtifact.getModuleVersion().getId();
             PomReference reference = referencesById.get(createKey(id.getGroup(), id.getName()));
-            CompositePropertySource allProperties = new CompositePropertySource(reference.getProperties(), properties);
-            resolvedPoms.add(createPom(resolvedArtifact.getFile(), allProperties));
+            final CompositePropertySource allProperties = new CompositePropertySource(reference.getProperties(),
+                    properties, new SystemPropertySource(this.cache.getSystemProperties()));
+            final File file = resolvedArtifact.getFile();
+            final Pom cached = this.cache.getPom(file, allProperties);
+            if (cached == null) {
+                pomsToBuild.put(file, allProperties);
+            }
+            pomCreators.add(new Callable<Pom>() {
+
+                @Override
+                public Pom call() {
+                    return cached != null ? cached : buildPom(file, allProperties);
+                }
+
+            });
         }
-        return resolvedPoms;
+        if (!pomsToBuild.isEmpty()) {
+            this.effectiveModelBuilder.prefetch(pomsToBuild);
+        }
+        return pomCreators;
     }
 
-    private Pom createPom(File file, PropertySource properties) {
-        Model effectiveModel = this.effectiveModelBuilder.buildModel(file, properties);
+    private Pom buildPom(File file, PropertySource properties) {
+        ModelInputs inputs = new ModelInputs();
+        Pom simplePom = this.simplePomReader.read(file, properties, inputs);
+        if (simplePom != null) {
+            Pom pom = new Pom(simplePom.getCoordinates(), simplePom.getManagedDependencies(),
+                    simplePom.getDependencies(), simplePom.getProperties(), inputs.getSources(file));
+            this.cache.putPom(file, inputs, pom);
+            return pom;
+        }
+        Model effectiveModel = this.effectiveModelBuilder.buildModel(file, properties, inputs);
         Coordinates coordinates = new Coordinates(effectiveModel.getGroupId(), effectiveModel.getArtifactId(),
                 effectiveModel.getVersion());
-        return new Pom(coordinates, getManagedDependencies(effectiveModel), getDependencies(effectiveModel),
-                asMap(effectiveModel.getProperties()));
+        Pom pom = new Pom(coordinates, getManagedDependencies(effectiveModel), getDependencies(effectiveModel),
+                asMap(effectiveModel.getProperties()), inputs.getSources(file));
+        this.cache.putPom(file, inputs, pom);
+        return pom;
     }
 
     private List<Dependency> getManagedDependencies(Model model) {
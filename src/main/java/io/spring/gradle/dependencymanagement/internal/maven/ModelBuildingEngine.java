@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuilder;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuilderFactory;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelBuildingException;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelBuildingRequest;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelBuildingResult;
+
+/**
+ * A thread-safe engine for building effective models. Creating a {@link DefaultModelBuilder} and its components is
+ * expensive so builders are pooled and reused. Each builder is only used by one thread at a time and, between uses,
+ * only its property layer is swapped. The JVM's system properties are captured once, when the engine is created, and
+ * that snapshot is used for every model that it builds.
+ *
+ * @author agent (agent@local)
+ */
+final class ModelBuildingEngine {
+
+    private final Queue<PooledModelBuilder> pool = new ConcurrentLinkedQueue<PooledModelBuilder>();
+
+    private final Properties systemProperties;
+
+    /**
+     * Creates a new engine that will use the given snapshot of the JVM's {@code systemProperties}.
+     *
+     * @param systemProperties the system properties
+     */
+    ModelBuildingEngine(Properties systemProperties) {
+        this.systemProperties = systemProperties;
+    }
+
+    /**
+     * Returns the snapshot of the JVM's system properties that is used when building models.
+     *
+     * @return the system properties
+     */
+    Properties getSystemProperties() {
+        return this.systemProperties;
+    }
+
+    /**
+     * Builds the effective model described by the given {@code request}, using the given {@code properties} during
+     * interpolation. The request's system properties are replaced with the engine's snapshot.
+     *
+     * @param request the request
+     * @param properties the properties
+     * @return the result of building the model
+     * @throws ModelBuildingException if the model cannot be built
+     */
+    ModelBuildingResult build(ModelBuildingRequest request, PropertySource properties)
+            throws ModelBuildingException {
+        request.setSystemProperties(this.systemProperties);
+        PooledModelBuilder modelBuilder = this.pool.poll();
+        if (modelBuilder == null) {
+            modelBuilder = new PooledModelBuilder(this.systemProperties);
+        }
+        modelBuilder.interpolator.setProperties(properties);
+        try {
+            return modelBuilder.builder.build(request);
+        }
+        finally {
+            modelBuilder.interpolator.setProperties(null);
+            this.pool.offer(modelBuilder);
+        }
+    }
+
+    private static final class PooledModelBuilder {
+
+        private final DefaultModelBuilder builder;
+
+        private final PropertiesModelInterpolator interpolator;
+
+        private PooledModelBuilder(Properties systemProperties) {
+            this.interpolator = new PropertiesModelInterpolator(systemProperties);
+            this.builder = new DefaultModelBuilderFactory().newInstance();
+            this.builder.setModelInterpolator(this.interpolator);
+            this.builder.setModelValidator(new RelaxedModelValidator());
+        }
+
+    }
+
+}
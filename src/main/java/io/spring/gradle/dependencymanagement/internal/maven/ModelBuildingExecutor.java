@@ -0,0 +1,329 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.GradleException;
+
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
+
+/**
+ * Executes model building tasks using a build-scoped {@link ExecutorService}, running at most a given number of them
+ * at once. The executor service is created by {@link #createExecutorService(int)} and is shared by every invocation in
+ * a build. On JDK 21 and later, each task is run on its own virtual thread. Otherwise, the tasks are run by a pool of
+ * platform threads whose idle threads time out. Work that must be performed on the
+ * thread that submitted the tasks, such as resolving a {@link org.gradle.api.artifacts.Configuration}, can be handed
+ * back to it using {@link #callerRuns(Callable)}.
+ *
+ * @author agent (agent@local)
+ */
+final class ModelBuildingExecutor {
+
+    private static final ThreadLocal<ModelBuildingExecutor> current = new ThreadLocal<ModelBuildingExecutor>();
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final String THREAD_NAME_PREFIX = "dependency-management-model-builder-";
+
+    private static final ThreadFactory virtualThreadFactory = createVirtualThreadFactory();
+
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private final BlockingQueue<Runnable> callerTasks = new LinkedBlockingQueue<Runnable>();
+
+    private final int parallelism;
+
+    private final ExecutorService executorService;
+
+    ModelBuildingExecutor(int parallelism, ExecutorService executorService) {
+        this.parallelism = parallelism;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Invokes the given {@code tasks}, returning their results in the same order as the tasks. The tasks are run in
+     * parallel when the executor's parallelism and the number of tasks allow it.
+     *
+     * @param tasks the tasks to invoke
+     * @param <T> the type of the tasks' results
+     * @return the results
+     */
+    <T> List<T> invokeAll(final List<Callable<T>> tasks) {
+        int threads = Math.min(this.parallelism, tasks.size());
+        if (threads <= 1) {
+            return invokeSequentially(tasks);
+        }
+        return invokeInStages(Collections.<Callable<List<Callable<T>>>>singletonList(
+                new Callable<List<Callable<T>>>() {
+
+                    @Override
+                    public List<Callable<T>> call() {
+                        return tasks;
+                    }
+
+                }), threads);
+    }
+
+    /**
+     * Invokes the tasks that are created by the given {@code stages}, returning their results in the same order as
+     * the stages and their tasks. Each stage is called in turn on the calling thread and the tasks that it creates
+     * are started before the next stage is called so that the work of creating one stage's tasks, such as resolving
+     * the files that they need, overlaps with running the tasks of the stages before it. Work that the running tasks
+     * have handed back to the calling thread is performed between stages so that they are not left waiting for it
+     * until every stage has been called.
+     *
+     * @param stages the stages that create the tasks
+     * @param <T> the type of the tasks' results
+     * @return the results
+     */
+    <T> List<T> invokeInStages(List<Callable<List<Callable<T>>>> stages) {
+        if (this.parallelism <= 1) {
+            List<T> results = new ArrayList<T>();
+            for (Callable<List<Callable<T>>> stage: stages) {
+                results.addAll(invokeSequentially(call(stage)));
+            }
+            return results;
+        }
+        return invokeInStages(stages, this.parallelism);
+    }
+
+    private <T> List<T> invokeInStages(List<Callable<List<Callable<T>>>> stages, int threads) {
+        Semaphore permits = new Semaphore(threads);
+        Profiler.Scope scope = Profiler.currentScope();
+        List<Future<T>> futures = new ArrayList<Future<T>>();
+        try {
+            for (Callable<List<Callable<T>>> stage: stages) {
+                for (Callable<T> task: call(stage)) {
+                    futures.add(this.executorService.submit(new WorkerTask<T>(task, permits, scope)));
+                }
+                runCallerTasks();
+            }
+            List<T> results = new ArrayList<T>();
+            for (Future<T> future: futures) {
+                results.add(await(future));
+            }
+            return results;
+        }
+        finally {
+            for (Future<T> future: futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Creates an {@link ExecutorService} that can be shared by the {@code ModelBuildingExecutors} of a build. On JDK
+     * 21 and later, the service runs each task on its own virtual thread. Otherwise, it uses a pool of at most
+     * {@code parallelism} platform threads that time out when idle so that an unused pool holds no threads.
+     *
+     * @param parallelism the maximum number of tasks that the service should run at once
+     * @return the executor service
+     */
+    static ExecutorService createExecutorService(int parallelism) {
+        if (virtualThreadFactory != null) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, virtualThreadFactory);
+            }
+            catch (Exception ex) {
+                // Continue with a pool of platform threads
+            }
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new WorkerThreadFactory());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Ensures that the given {@code executorService}, created by {@link #createExecutorService(int)}, can run at least
+     * {@code parallelism} tasks at once.
+     *
+     * @param executorService the executor service
+     * @param parallelism the required parallelism
+     */
+    static void ensureParallelism(ExecutorService executorService, int parallelism) {
+        if (executorService instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executorService;
+            if (pool.getMaximumPoolSize() < parallelism) {
+                pool.setMaximumPoolSize(parallelism);
+                pool.setCorePoolSize(parallelism);
+            }
+        }
+    }
+
+    private static <T> T call(Callable<T> callable) {
+        try {
+            return callable.call();
+        }
+        catch (RuntimeException ex) {
+            throw ex;
+        }
+        catch (Exception ex) {
+            throw new GradleException(ex.getMessage(), ex);
+        }
+    }
+
+    private <T> List<T> invokeSequentially(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<T>();
+        for (Callable<T> task: tasks) {
+            results.add(call(task));
+        }
+        return results;
+    }
+
+    private void runCallerTasks() {
+        Runnable callerTask;
+        while ((callerTask = this.callerTasks.poll()) != null) {
+            callerTask.run();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            while (!future.isDone()) {
+                Runnable callerTask = this.callerTasks.poll(10, TimeUnit.MILLISECONDS);
+                if (callerTask != null) {
+                    callerTask.run();
+                }
+            }
+            return future.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while building effective models", ex);
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new GradleException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Calls the given {@code callable}. When called on one of an executor's worker threads, the callable is handed
+     * back to the thread that submitted the tasks and this method waits for it to complete. Otherwise, it is called
+     * on the current thread.
+     *
+     * @param callable the callable
+     * @param <T> the type of the callable's result
+     * @return the result
+     * @throws Exception if the callable fails
+     */
+    static <T> T callerRuns(Callable<T> callable) throws Exception {
+        ModelBuildingExecutor executor = current.get();
+        if (executor == null) {
+            return callable.call();
+        }
+        FutureTask<T> task = new FutureTask<T>(callable);
+        executor.callerTasks.add(task);
+        try {
+            return task.get();
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    /**
+     * Returns a factory for virtual threads or {@code null} if the JVM is older than JDK 21. The factory is created
+     * reflectively so that the plugin continues to run on older JVMs.
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            if (Integer.parseInt(System.getProperty("java.specification.version")) < 21) {
+                return null;
+            }
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX,
+                    1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }
+        catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private final class WorkerTask<T> implements Callable<T> {
+
+        private final Callable<T> delegate;
+
+        private final Semaphore permits;
+
+        private final Profiler.Scope scope;
+
+        private WorkerTask(Callable<T> delegate, Semaphore permits, Profiler.Scope scope) {
+            this.delegate = delegate;
+            this.permits = permits;
+            this.scope = scope;
+        }
+
+        @Override
+        public T call() throws Exception {
+            this.permits.acquire();
+            current.set(ModelBuildingExecutor.this);
+            Profiler.Scope resumed = Profiler.resume(this.scope);
+            try {
+                return this.delegate.call();
+            }
+            finally {
+                resumed.exit();
+                current.remove();
+                this.permits.release();
+            }
+        }
+
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
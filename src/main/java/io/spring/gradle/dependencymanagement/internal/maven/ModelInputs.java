@@ -0,0 +1,218 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+
+/**
+ * The inputs that contributed to an effective model: the poms that were read while building it and the properties
+ * that were looked up while interpolating it.
+ *
+ * @author agent (agent@local)
+ */
+final class ModelInputs {
+
+    private final List<Pom> poms = new ArrayList<Pom>();
+
+    private final List<Property> properties = new ArrayList<Property>();
+
+    private boolean complete = true;
+
+    /**
+     * Returns a {@link PropertySource} that delegates to the given {@code source}, recording each lookup that is
+     * made.
+     *
+     * @param source the source to record
+     * @return the recording source
+     */
+    PropertySource record(final PropertySource source) {
+        return new PropertySource() {
+
+            @Override
+            public Object getProperty(String name) {
+                Object value = source.getProperty(name);
+                propertyUsed(name, value == null ? null : String.valueOf(value));
+                return value;
+            }
+
+        };
+    }
+
+    void pomUsed(String id, File file) {
+        if (file == null) {
+            this.complete = false;
+        }
+        else {
+            this.poms.add(new Pom(id, file));
+        }
+    }
+
+    void propertyUsed(String name, String value) {
+        this.properties.add(new Property(name, value));
+    }
+
+    void markIncomplete() {
+        this.complete = false;
+    }
+
+    /**
+     * Returns whether or not these inputs completely describe the model that was built. Inputs are incomplete if a
+     * pom was read from a location that is not known or if errors occurred while building the model.
+     *
+     * @return {@code true} if the inputs are complete, otherwise {@code false}
+     */
+    boolean isComplete() {
+        return this.complete;
+    }
+
+    void addAll(ModelInputs inputs) {
+        this.poms.addAll(inputs.poms);
+        this.properties.addAll(inputs.properties);
+        this.complete &= inputs.complete;
+    }
+
+    Mark mark() {
+        return new Mark(this.poms.size(), this.properties.size());
+    }
+
+    /**
+     * Returns a copy of the inputs that have been recorded since the given {@code mark} was taken.
+     *
+     * @param mark the mark
+     * @return the inputs recorded since the mark
+     */
+    ModelInputs since(Mark mark) {
+        ModelInputs inputs = new ModelInputs();
+        inputs.poms.addAll(this.poms.subList(mark.poms, this.poms.size()));
+        inputs.properties.addAll(this.properties.subList(mark.properties, this.properties.size()));
+        inputs.complete = this.complete;
+        return inputs;
+    }
+
+    /**
+     * Returns whether the recorded property lookups produce the same values when they are made against the given
+     * {@code source}.
+     *
+     * @param source the source of the properties
+     * @return {@code true} if the properties match, otherwise {@code false}
+     */
+    boolean propertiesMatch(PropertySource source) {
+        for (Map.Entry<String, String> property: getProperties().entrySet()) {
+            Object value = source.getProperty(property.getKey());
+            String current = value == null ? null : String.valueOf(value);
+            if (current == null ? property.getValue() != null : !current.equals(property.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the poms that were used, keyed by their {@code groupId:artifactId:version}.
+     *
+     * @return the poms
+     */
+    Map<String, File> getPoms() {
+        Map<String, File> poms = new LinkedHashMap<String, File>();
+        for (Pom pom: this.poms) {
+            poms.put(pom.id, pom.file);
+        }
+        return Collections.unmodifiableMap(poms);
+    }
+
+    /**
+     * Returns the files from which a model was built from the given {@code pom} using these inputs: the pom itself
+     * followed by the poms that were used. Returns {@code null} if the inputs are incomplete.
+     *
+     * @param pom the pom from which the model was built
+     * @return the files or {@code null}
+     */
+    List<File> getSources(File pom) {
+        if (!this.complete) {
+            return null;
+        }
+        List<File> sources = new ArrayList<File>();
+        sources.add(pom);
+        sources.addAll(getPoms().values());
+        return sources;
+    }
+
+    /**
+     * Returns the properties that were looked up. A property that was not found has a {@code null} value.
+     *
+     * @return the properties
+     */
+    Map<String, String> getProperties() {
+        Map<String, String> properties = new LinkedHashMap<String, String>();
+        for (Property property: this.properties) {
+            if (!properties.containsKey(property.name)) {
+                properties.put(property.name, property.value);
+            }
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * A position in the inputs' recording.
+     */
+    static final class Mark {
+
+        private final int poms;
+
+        private final int properties;
+
+        private Mark(int poms, int properties) {
+            this.poms = poms;
+            this.properties = properties;
+        }
+
+    }
+
+    private static final class Pom {
+
+        private final String id;
+
+        private final File file;
+
+        private Pom(String id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+    }
+
+    private static final class Property {
+
+        private final String name;
+
+        private final String value;
+
+        private Property(String name, String value) {
+            this.name = name;
+            this.value = value;
+        }
+
+    }
+
+}
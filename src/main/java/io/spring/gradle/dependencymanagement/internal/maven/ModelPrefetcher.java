@@ -0,0 +1,360 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Parent;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.io.DefaultModelReader;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.io.ModelReader;
+
+/**
+ * Prefetches the parent and imported poms of one or more poms. The graph of parents and imports is walked one level
+ * at a time and all of a level's poms that have not already been resolved are resolved together using
+ * {@link ConfigurationModelResolver#resolvePomFiles}. This reduces the number of resolutions that are needed to build
+ * an effective model from one per pom to one per level of the graph.
+ * <p>
+ * Prefetching is best-effort. A parent or import whose coordinates cannot be determined from the raw models is left
+ * for the model builder to resolve on demand.
+ *
+ * @author agent (agent@local)
+ */
+final class ModelPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelPrefetcher.class);
+
+    private static final Pattern PROPERTY_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
+
+    private static final Map<String, ?> READ_OPTIONS = Collections.singletonMap(ModelReader.IS_STRICT, Boolean.FALSE);
+
+    private final ModelReader modelReader = new DefaultModelReader();
+
+    private final ConfigurationModelResolver modelResolver;
+
+    ModelPrefetcher(ConfigurationModelResolver modelResolver) {
+        this.modelResolver = modelResolver;
+    }
+
+    /**
+     * Prefetches the parents and imports of the given poms. Each pom is accompanied by the properties that will be
+     * used to build its effective model.
+     *
+     * @param poms the poms and their properties
+     */
+    void prefetch(Map<File, PropertySource> poms) {
+        Map<String, RawPom> rawPoms = new HashMap<String, RawPom>();
+        List<RawPom> pending = new ArrayList<RawPom>();
+        for (Map.Entry<File, PropertySource> pom: poms.entrySet()) {
+            RawPom rawPom = read(pom.getKey(), pom.getValue());
+            if (rawPom != null) {
+                pending.add(rawPom);
+            }
+        }
+        int level = 0;
+        while (!pending.isEmpty()) {
+            Map<String, List<Request>> missing = new LinkedHashMap<String, List<Request>>();
+            List<RawPom> discovered = new ArrayList<RawPom>();
+            boolean progress = false;
+            for (Iterator<RawPom> iterator = pending.iterator(); iterator.hasNext();) {
+                RawPom rawPom = iterator.next();
+                progress |= collectRequests(rawPom, rawPoms, missing, discovered);
+                if (rawPom.requests.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            if (!missing.isEmpty()) {
+                level++;
+                discovered.addAll(resolve(missing, rawPoms));
+            }
+            if (!progress && discovered.isEmpty()) {
+                break;
+            }
+            pending.addAll(discovered);
+        }
+        logger.debug("Prefetched parents and imports of {} in {} level(s)", poms.keySet(), level);
+    }
+
+    private boolean collectRequests(RawPom rawPom, Map<String, RawPom> rawPoms, Map<String, List<Request>> missing,
+            List<RawPom> discovered) {
+        boolean progress = false;
+        for (Iterator<Request> iterator = rawPom.requests.iterator(); iterator.hasNext();) {
+            Request request = iterator.next();
+            String coordinates = request.getCoordinates();
+            if (coordinates == null) {
+                continue;
+            }
+            iterator.remove();
+            progress = true;
+            RawPom target = rawPoms.get(coordinates);
+            if (target == null) {
+                File pomFile = this.modelResolver.getPomFile(coordinates);
+                if (pomFile != null) {
+                    target = read(pomFile, rawPom.properties);
+                    if (target != null) {
+                        rawPoms.put(coordinates, target);
+                        discovered.add(target);
+                    }
+                }
+            }
+            if (target != null) {
+                request.resolved(target);
+            }
+            else {
+                List<Request> requests = missing.get(coordinates);
+                if (requests == null) {
+                    requests = new ArrayList<Request>();
+                    missing.put(coordinates, requests);
+                }
+                requests.add(request);
+            }
+        }
+        return progress;
+    }
+
+    private List<RawPom> resolve(Map<String, List<Request>> missing, Map<String, RawPom> rawPoms) {
+        List<RawPom> resolved = new ArrayList<RawPom>();
+        Set<String> remaining = new LinkedHashSet<String>(missing.keySet());
+        while (!remaining.isEmpty()) {
+            Set<String> batch = new LinkedHashSet<String>();
+            Set<String> modules = new HashSet<String>();
+            for (Iterator<String> iterator = remaining.iterator(); iterator.hasNext();) {
+                String coordinates = iterator.next();
+                if (modules.add(coordinates.substring(0, coordinates.lastIndexOf(':')))) {
+                    batch.add(coordinates);
+                    iterator.remove();
+                }
+            }
+            for (Map.Entry<String, File> pomFile: this.modelResolver.resolvePomFiles(batch).entrySet()) {
+                List<Request> requests = missing.get(pomFile.getKey());
+                RawPom rawPom = read(pomFile.getValue(), requests.get(0).source.properties);
+                if (rawPom != null) {
+                    rawPoms.put(pomFile.getKey(), rawPom);
+                    resolved.add(rawPom);
+                    for (Request request: requests) {
+                        request.resolved(rawPom);
+                    }
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private RawPom read(File pomFile, PropertySource properties) {
+        try {
+            return new RawPom(this.modelReader.read(pomFile, READ_OPTIONS), properties);
+        }
+        catch (IOException ex) {
+            logger.debug("Failed to read " + pomFile + " for prefetching", ex);
+            return null;
+        }
+        catch (RuntimeException ex) {
+            logger.debug("Failed to read " + pomFile + " for prefetching", ex);
+            return null;
+        }
+    }
+
+    private static String toCoordinates(String groupId, String artifactId, String version) {
+        if (groupId == null || artifactId == null || version == null || groupId.contains("${")
+                || artifactId.contains("${") || version.contains("${")) {
+            return null;
+        }
+        return groupId + ":" + artifactId + ":" + version;
+    }
+
+    /**
+     * A raw, uninterpolated pom and the requests for its parent and imports that have yet to be satisfied.
+     */
+    private static final class RawPom {
+
+        private final Model model;
+
+        private final PropertySource properties;
+
+        private final List<Request> requests = new ArrayList<Request>();
+
+        private RawPom parent;
+
+        private RawPom(Model model, PropertySource properties) {
+            this.model = model;
+            this.properties = properties;
+            if (model.getParent() != null) {
+                this.requests.add(new ParentRequest(this));
+            }
+            if (model.getDependencyManagement() != null) {
+                for (Dependency dependency: model.getDependencyManagement().getDependencies()) {
+                    if ("pom".equals(dependency.getType()) && "import".equals(dependency.getScope())) {
+                        this.requests.add(new ImportRequest(this, dependency));
+                    }
+                }
+            }
+        }
+
+        private boolean isParentUnknown() {
+            return this.model.getParent() != null && this.parent == null;
+        }
+
+        private String interpolate(String value) {
+            if (value == null) {
+                return null;
+            }
+            String result = value;
+            for (int i = 0; i < 10 && result.contains("${"); i++) {
+                Matcher matcher = PROPERTY_PATTERN.matcher(result);
+                StringBuffer buffer = new StringBuffer();
+                while (matcher.find()) {
+                    String property = getProperty(matcher.group(1));
+                    if (property == null) {
+                        return null;
+                    }
+                    matcher.appendReplacement(buffer, Matcher.quoteReplacement(property));
+                }
+                matcher.appendTail(buffer);
+                result = buffer.toString();
+            }
+            return result.contains("${") ? null : result;
+        }
+
+        private String getProperty(String name) {
+            Object value = this.properties.getProperty(name);
+            if (value != null) {
+                return String.valueOf(value);
+            }
+            for (RawPom rawPom = this; rawPom != null; rawPom = rawPom.parent) {
+                String property = rawPom.model.getProperties().getProperty(name);
+                if (property != null) {
+                    return property;
+                }
+                if (rawPom.isParentUnknown()) {
+                    return null;
+                }
+            }
+            return getBuiltInProperty(name);
+        }
+
+        private String getBuiltInProperty(String name) {
+            Parent parent = this.model.getParent();
+            if ("project.version".equals(name) || "pom.version".equals(name) || "version".equals(name)) {
+                return this.model.getVersion() != null ? this.model.getVersion()
+                        : parent != null ? parent.getVersion() : null;
+            }
+            if ("project.groupId".equals(name) || "pom.groupId".equals(name) || "groupId".equals(name)) {
+                return this.model.getGroupId() != null ? this.model.getGroupId()
+                        : parent != null ? parent.getGroupId() : null;
+            }
+            if ("project.parent.version".equals(name)) {
+                return parent != null ? parent.getVersion() : null;
+            }
+            if ("project.parent.groupId".equals(name)) {
+                return parent != null ? parent.getGroupId() : null;
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * A request for a pom that is needed by a {@link RawPom}.
+     */
+    private abstract static class Request {
+
+        private final RawPom source;
+
+        Request(RawPom source) {
+            this.source = source;
+        }
+
+        protected RawPom getSource() {
+            return this.source;
+        }
+
+        /**
+         * Returns the coordinates of the requested pom, or {@code null} if they cannot yet be determined.
+         *
+         * @return the coordinates or {@code null}
+         */
+        protected abstract String getCoordinates();
+
+        /**
+         * Called when the requested pom has been read.
+         *
+         * @param rawPom the requested pom
+         */
+        protected abstract void resolved(RawPom rawPom);
+
+    }
+
+    private static final class ParentRequest extends Request {
+
+        private ParentRequest(RawPom source) {
+            super(source);
+        }
+
+        @Override
+        protected String getCoordinates() {
+            Parent parent = getSource().model.getParent();
+            return toCoordinates(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+        }
+
+        @Override
+        protected void resolved(RawPom rawPom) {
+            getSource().parent = rawPom;
+        }
+
+    }
+
+    private static final class ImportRequest extends Request {
+
+        private final Dependency dependency;
+
+        private ImportRequest(RawPom source, Dependency dependency) {
+            super(source);
+            this.dependency = dependency;
+        }
+
+        @Override
+        protected String getCoordinates() {
+            return toCoordinates(getSource().interpolate(this.dependency.getGroupId()),
+                    getSource().interpolate(this.dependency.getArtifactId()),
+                    getSource().interpolate(this.dependency.getVersion()));
+        }
+
+        @Override
+        protected void resolved(RawPom rawPom) {
+        }
+
+    }
+
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+
+/**
+ * A cache of {@link Pom Poms}, built from effective models, that is persisted to disk so that it can be used across
+ * builds. Entries are keyed by the hash of the pom's content. Each entry records the location of the pom, the poms in
+ * its parent and import chain, and the properties that were used to build it and is only used when they are
+ * unchanged. As pom files are resolved from a particular set of repositories, recording the pom's location prevents an
+ * entry that was built from one set of repositories from being used with another. The cache's
+ * directory can be safely shared by multiple concurrent builds.
+ *
+ * @author agent (agent@local)
+ */
+final class PersistentPomCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentPomCache.class);
+
+    private static final int MAGIC = 0x444d5043;
+
+    private static final int VERSION = 2;
+
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final Object lock = new Object();
+
+    private final Map<File, FileHash> hashes = new ConcurrentHashMap<File, FileHash>();
+
+    private final File directory;
+
+    private final boolean refresh;
+
+    /**
+     * Creates a new {@code PersistentPomCache} that will store its entries beneath the given {@code directory}. When
+     * {@code refresh} is {@code true}, existing entries are ignored and will be replaced.
+     *
+     * @param directory the directory of the cache
+     * @param refresh whether existing entries should be ignored
+     */
+    PersistentPomCache(File directory, boolean refresh) {
+        this.directory = directory;
+        this.refresh = refresh;
+    }
+
+    /**
+     * Returns the cached {@code Pom} for the given {@code pomFile} or {@code null} if there is no entry that matches
+     * the pom, the poms in its chain, and the given {@code properties}. When a matching entry is found, its inputs are
+     * recorded in the given {@code inputs}.
+     *
+     * @param pomFile the pom file
+     * @param properties the properties that will be used to build the pom
+     * @param inputs the inputs to record to
+     * @return the cached pom or {@code null}
+     */
+    Pom get(File pomFile, PropertySource properties, ModelInputs inputs) {
+        if (this.refresh) {
+            return null;
+        }
+        try {
+            File[] entries = getEntriesDirectory(pomFile).listFiles();
+            if (entries == null) {
+                return null;
+            }
+            for (File entry: entries) {
+                if (entry.getName().endsWith(ENTRY_SUFFIX)) {
+                    Pom pom = read(entry, pomFile, properties, inputs);
+                    if (pom != null) {
+                        logger.debug("Using cached effective model for {} from {}", pomFile, entry);
+                        return pom;
+                    }
+                }
+            }
+        }
+        catch (IOException ex) {
+            logger.debug("Failed to read cached effective model for " + pomFile, ex);
+        }
+        return null;
+    }
+
+    /**
+     * Stores the given {@code pom}, which was built from the given {@code pomFile} using the given {@code inputs}, in
+     * the cache. Nothing is stored when the inputs are incomplete or refer to a snapshot.
+     *
+     * @param pomFile the pom file
+     * @param inputs the inputs used to build the pom
+     * @param pom the pom to cache
+     */
+    void put(File pomFile, ModelInputs inputs, Pom pom) {
+        if (!isCacheable(inputs)) {
+            return;
+        }
+        try {
+            byte[] header = writeHeader(pomFile, inputs);
+            if (header == null) {
+                return;
+            }
+            File entriesDirectory = getEntriesDirectory(pomFile);
+            File entry = new File(entriesDirectory, toHex(digest(header)) + ENTRY_SUFFIX);
+            synchronized (lock) {
+                if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+                    return;
+                }
+                RandomAccessFile lockFile = new RandomAccessFile(new File(this.directory, ".lock"), "rw");
+                try {
+                    FileLock fileLock = lockFile.getChannel().lock();
+                    try {
+                        write(entriesDirectory, entry, header, pom);
+                    }
+                    finally {
+                        fileLock.release();
+                    }
+                }
+                finally {
+                    lockFile.close();
+                }
+            }
+        }
+        catch (IOException ex) {
+            logger.debug("Failed to cache effective model for " + pomFile, ex);
+        }
+    }
+
+    private boolean isCacheable(ModelInputs inputs) {
+        if (!inputs.isComplete()) {
+            return false;
+        }
+        for (String id: inputs.getPoms().keySet()) {
+            if (id.endsWith("-SNAPSHOT")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private File getEntriesDirectory(File pomFile) throws IOException {
+        return new File(this.directory, hash(pomFile));
+    }
+
+    private void write(File entriesDirectory, File entry, byte[] header, Pom pom) throws IOException {
+        if (!entriesDirectory.isDirectory() && !entriesDirectory.mkdirs()) {
+            throw new IOException("Failed to create " + entriesDirectory);
+        }
+        File temp = File.createTempFile("entry", ".tmp", entriesDirectory);
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                output.write(header);
+                writePom(output, pom);
+            }
+            finally {
+                output.close();
+            }
+            if (!temp.renameTo(entry)) {
+                entry.delete();
+                if (!temp.renameTo(entry)) {
+                    throw new IOException("Failed to rename " + temp + " to " + entry);
+                }
+            }
+        }
+        finally {
+            temp.delete();
+        }
+    }
+
+    private byte[] writeHeader(File pomFile, ModelInputs inputs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        writeString(output, pomFile.getAbsolutePath());
+        Map<String, File> poms = inputs.getPoms();
+        output.writeInt(poms.size());
+        for (Map.Entry<String, File> pom: poms.entrySet()) {
+            if (!pom.getValue().isFile()) {
+                return null;
+            }
+            writeString(output, pom.getKey());
+            writeString(output, pom.getValue().getAbsolutePath());
+            writeString(output, hash(pom.getValue()));
+        }
+        Map<String, String> properties = inputs.getProperties();
+        output.writeInt(properties.size());
+        for (Map.Entry<String, String> property: properties.entrySet()) {
+            writeString(output, property.getKey());
+            writeString(output, property.getValue());
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writePom(DataOutputStream output, Pom pom) throws IOException {
+        writeCoordinates(output, pom.getCoordinates());
+        writeDependencies(output, pom.getManagedDependencies());
+        writeDependencies(output, pom.getDependencies());
+        output.writeInt(pom.getProperties().size());
+        for (Map.Entry<String, String> property: pom.getProperties().entrySet()) {
+            writeString(output, property.getKey());
+            writeString(output, property.getValue());
+        }
+    }
+
+    private void writeDependencies(DataOutputStream output, List<Dependency> dependencies) throws IOException {
+        output.writeInt(dependencies.size());
+        for (Dependency dependency: dependencies) {
+            writeCoordinates(output, dependency.getCoordinates());
+            output.writeBoolean(dependency.isOptional());
+            writeString(output, dependency.getType());
+            writeString(output, dependency.getClassifier());
+            writeString(output, dependency.getScope());
+            output.writeInt(dependency.getExclusions().size());
+            for (String exclusion: dependency.getExclusions()) {
+                writeString(output, exclusion);
+            }
+        }
+    }
+
+    private void writeCoordinates(DataOutputStream output, Coordinates coordinates) throws IOException {
+        writeString(output, coordinates.getGroupId());
+        writeString(output, coordinates.getArtifactId());
+        writeString(output, coordinates.getVersion());
+    }
+
+    private void writeString(DataOutputStream output, String string) throws IOException {
+        if (string == null) {
+            output.writeInt(-1);
+        }
+        else {
+            byte[] bytes = string.getBytes(UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private Pom read(File entry, File pomFile, PropertySource properties, ModelInputs inputs) {
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)));
+            try {
+                if (input.readInt() != MAGIC || input.readInt() != VERSION
+                        || !pomFile.getAbsolutePath().equals(readString(input))) {
+                    return null;
+                }
+                ModelInputs entryInputs = new ModelInputs();
+                if (!readPoms(input, entryInputs)) {
+                    return null;
+                }
+                readProperties(input, entryInputs);
+                if (!entryInputs.propertiesMatch(properties)) {
+                    return null;
+                }
+                Pom pom = readPom(input, entryInputs.getSources(pomFile));
+                inputs.addAll(entryInputs);
+                return pom;
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch (IOException ex) {
+            logger.debug("Ignoring unreadable cache entry " + entry, ex);
+            return null;
+        }
+    }
+
+    private boolean readPoms(DataInputStream input, ModelInputs inputs) throws IOException {
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            String id = readString(input);
+            File pom = new File(readString(input));
+            String hash = readString(input);
+            if (!pom.isFile() || !hash(pom).equals(hash)) {
+                return false;
+            }
+            inputs.pomUsed(id, pom);
+        }
+        return true;
+    }
+
+    private void readProperties(DataInputStream input, ModelInputs inputs) throws IOException {
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            inputs.propertyUsed(readString(input), readString(input));
+        }
+    }
+
+    private Pom readPom(DataInputStream input, List<File> sources) throws IOException {
+        Coordinates coordinates = readCoordinates(input);
+        List<Dependency> managedDependencies = readDependencies(input);
+        List<Dependency> dependencies = readDependencies(input);
+        int count = input.readInt();
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int i = 0; i < count; i++) {
+            properties.put(readString(input), readString(input));
+        }
+        return new Pom(coordinates, managedDependencies, dependencies, properties, sources);
+    }
+
+    private List<Dependency> readDependencies(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        List<Dependency> dependencies = new ArrayList<Dependency>(count);
+        for (int i = 0; i < count; i++) {
+            Coordinates coordinates = readCoordinates(input);
+            boolean optional = input.readBoolean();
+            String type = readString(input);
+            String classifier = readString(input);
+            String scope = readString(input);
+            int exclusionCount = input.readInt();
+            Set<String> exclusions = new LinkedHashSet<String>();
+            for (int j = 0; j < exclusionCount; j++) {
+                exclusions.add(readString(input));
+            }
+            dependencies.add(new Dependency(coordinates, optional, type, classifier, scope, exclusions));
+        }
+        return dependencies;
+    }
+
+    private Coordinates readCoordinates(DataInputStream input) throws IOException {
+        return new Coordinates(readString(input), readString(input), readString(input));
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private String hash(File file) throws IOException {
+        FileHash hash = this.hashes.get(file);
+        if (hash == null || hash.length != file.length() || hash.lastModified != file.lastModified()) {
+            hash = new FileHash(file.length(), file.lastModified(), toHex(digest(file)));
+            this.hashes.put(file, hash);
+        }
+        return hash.hash;
+    }
+
+    private byte[] digest(File file) throws IOException {
+        MessageDigest digest = createDigest();
+        InputStream input = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        finally {
+            input.close();
+        }
+        return digest.digest();
+    }
+
+    private byte[] digest(byte[] bytes) {
+        return createDigest().digest(bytes);
+    }
+
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b: bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static final class FileHash {
+
+        private final long length;
+
+        private final long lastModified;
+
+        private final String hash;
+
+        private FileHash(long length, long lastModified, String hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+import org.gradle.api.invocation.Gradle;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelCache;
+
+/**
+ * A build-scoped, thread-safe cache of the pom files, models, and {@link Pom Poms} that are used during pom
+ * resolution. A single instance is shared by every project in a build so that each pom is only resolved and built
+ * once. As the projects in a build may be configured with different repositories, the pom files that have been
+ * resolved and the models that have been built from them are cached separately for each set of repositories. Only
+ * {@code Poms}, which are keyed by the pom file from which they were built, are shared across every project. The
+ * cache also provides the {@link ModelBuildingEngine} and the {@link ExecutorService} that are used to build models
+ * and the snapshot of the JVM's system properties, taken when the cache is created, that is used while doing so.
+ *
+ * @author agent (agent@local)
+ */
+public final class PomResolutionCache {
+
+    private static final Map<Gradle, PomResolutionCache> caches = new WeakHashMap<Gradle, PomResolutionCache>();
+
+    private final ConcurrentMap<String, RepositoryCache> repositoryCaches =
+            new ConcurrentHashMap<String, RepositoryCache>();
+
+    private final ConcurrentMap<File, List<CachedPom>> poms = new ConcurrentHashMap<File, List<CachedPom>>();
+
+    private final PersistentPomCache persistentPomCache;
+
+    private final ModelBuildingEngine modelBuildingEngine;
+
+    private ExecutorService executorService;
+
+    PomResolutionCache(PersistentPomCache persistentPomCache) {
+        this.persistentPomCache = persistentPomCache;
+        this.modelBuildingEngine = new ModelBuildingEngine((Properties) System.getProperties().clone());
+    }
+
+    /**
+     * Returns the {@code PomResolutionCache} for the build of the given {@code gradle}, creating it if necessary.
+     *
+     * @param gradle the gradle
+     * @return the cache for the build
+     */
+    public static PomResolutionCache forBuild(Gradle gradle) {
+        synchronized (caches) {
+            PomResolutionCache cache = caches.get(gradle);
+            if (cache == null) {
+                cache = new PomResolutionCache(new PersistentPomCache(new File(gradle.getGradleUserHomeDir(),
+                        "caches/dependency-management/effective-poms-1"),
+                        gradle.getStartParameter().isRefreshDependencies()));
+                caches.put(gradle, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Returns the cache of pom files and models for the set of repositories with the given {@code id}, creating it if
+     * necessary.
+     *
+     * @param repositoriesId the id of the set of repositories
+     * @return the cache for the repositories
+     */
+    RepositoryCache forRepositories(String repositoriesId) {
+        RepositoryCache repositoryCache = this.repositoryCaches.get(repositoriesId);
+        if (repositoryCache == null) {
+            repositoryCache = new RepositoryCache();
+            RepositoryCache existing = this.repositoryCaches.putIfAbsent(repositoriesId, repositoryCache);
+            if (existing != null) {
+                repositoryCache = existing;
+            }
+        }
+        return repositoryCache;
+    }
+
+    ModelBuildingEngine getModelBuildingEngine() {
+        return this.modelBuildingEngine;
+    }
+
+    /**
+     * Returns the snapshot of the JVM's system properties that is used while resolving poms.
+     *
+     * @return the system properties
+     */
+    public Properties getSystemProperties() {
+        return this.modelBuildingEngine.getSystemProperties();
+    }
+
+    /**
+     * Creates a {@link ModelBuildingExecutor} that runs at most {@code parallelism} tasks at once using the build's
+     * shared {@link ExecutorService}.
+     *
+     * @param parallelism the parallelism
+     * @return the model building executor
+     */
+    ModelBuildingExecutor createModelBuildingExecutor(int parallelism) {
+        return new ModelBuildingExecutor(parallelism, getExecutorService(parallelism));
+    }
+
+    synchronized ExecutorService getExecutorService(int parallelism) {
+        if (this.executorService == null) {
+            this.executorService = ModelBuildingExecutor.createExecutorService(parallelism);
+        }
+        else {
+            ModelBuildingExecutor.ensureParallelism(this.executorService, parallelism);
+        }
+        return this.executorService;
+    }
+
+    /**
+     * Returns the {@code Pom} for the given {@code pomFile} that was built using the given {@code properties}, or
+     * {@code null} if no such {@code Pom} has been cached in memory or on disk.
+     *
+     * @param pomFile the pom file
+     * @param properties the properties
+     * @return the pom or {@code null}
+     */
+    Pom getPom(File pomFile, PropertySource properties) {
+        List<CachedPom> cachedPoms = this.poms.get(pomFile);
+        if (cachedPoms != null) {
+            for (CachedPom cachedPom: cachedPoms) {
+                if (cachedPom.inputs.propertiesMatch(properties)) {
+                    Profiler.recordCacheAccess("poms", true);
+                    return cachedPom.pom;
+                }
+            }
+        }
+        ModelInputs inputs = new ModelInputs();
+        Pom pom = this.persistentPomCache.get(pomFile, properties, inputs);
+        if (pom != null) {
+            cache(pomFile, inputs, pom);
+        }
+        Profiler.recordCacheAccess("poms", pom != null);
+        return pom;
+    }
+
+    /**
+     * Caches the given {@code pom} that was built from the given {@code pomFile} using the given {@code inputs}.
+     *
+     * @param pomFile the pom file
+     * @param inputs the inputs used to build the pom
+     * @param pom the pom
+     */
+    void putPom(File pomFile, ModelInputs inputs, Pom pom) {
+        if (inputs.isComplete()) {
+            cache(pomFile, inputs, pom);
+        }
+        this.persistentPomCache.put(pomFile, inputs, pom);
+    }
+
+    private void cache(File pomFile, ModelInputs inputs, Pom pom) {
+        List<CachedPom> cachedPoms = this.poms.get(pomFile);
+        if (cachedPoms == null) {
+            cachedPoms = new CopyOnWriteArrayList<CachedPom>();
+            List<CachedPom> existing = this.poms.putIfAbsent(pomFile, cachedPoms);
+            if (existing != null) {
+                cachedPoms = existing;
+            }
+        }
+        cachedPoms.add(new CachedPom(inputs, pom));
+    }
+
+    /**
+     * A cache of the pom files that have been resolved from, and the models that have been built using, a particular
+     * set of repositories.
+     */
+    static final class RepositoryCache {
+
+        private final ConcurrentMap<String, File> pomFiles = new ConcurrentHashMap<String, File>();
+
+        private final ModelCache modelCache = new InMemoryModelCache();
+
+        File getPomFile(String coordinates) {
+            return this.pomFiles.get(coordinates);
+        }
+
+        void putPomFile(String coordinates, File pomFile) {
+            this.pomFiles.putIfAbsent(coordinates, pomFile);
+        }
+
+        ModelCache getModelCache() {
+            return this.modelCache;
+        }
+
+    }
+
+    private static final class CachedPom {
+
+        private final ModelInputs inputs;
+
+        private final Pom pom;
+
+        private CachedPom(ModelInputs inputs, Pom pom) {
+            this.inputs = inputs;
+            this.pom = pom;
+        }
+
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Properties;
 
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
@@ -33,26 +34,34 @@ import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.P
 import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.ValueSource;
 
 /**
- * A {@link ModelInterpolator} that uses properties from various sources as a {@link ValueSource ValueSource}.
+ * A {@link ModelInterpolator} that uses properties from various sources as a {@link ValueSource ValueSource}. The
+ * properties can be changed between uses so that an interpolator can be reused. An interpolator must not be used by
+ * more than one thread at a time.
  *
  * @author Andy Wilkinson
  */
 class PropertiesModelInterpolator extends StringSearchModelInterpolator {
 
-    private final PropertySource properties;
+    private final Properties systemProperties;
 
-    PropertiesModelInterpolator(PropertySource properties) {
-        this.properties = properties;
+    private PropertySource properties;
+
+    PropertiesModelInterpolator(Properties systemProperties) {
+        this.systemProperties = systemProperties;
         setUrlNormalizer(new DefaultUrlNormalizer());
         setPathTranslator(new DefaultPathTranslator());
     }
 
+    void setProperties(PropertySource properties) {
+        this.properties = properties;
+    }
+
     @Override
     public List<ValueSource> createValueSources(Model model, File projectDir,
             ModelBuildingRequest request, ModelProblemCollector collector) {
         List<ValueSource> valueSources = new ArrayList<ValueSource>(
                 Arrays.asList(new PropertySourceValueSource(this.properties),
-                        new PropertiesBasedValueSource(System.getProperties())));
+                        new PropertiesBasedValueSource(this.systemProperties)));
         valueSources.addAll(super.createValueSources(model, projectDir, request, collector));
         return valueSources;
     }
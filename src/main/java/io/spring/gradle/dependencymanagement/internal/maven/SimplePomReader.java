@@ -0,0 +1,675 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+
+/**
+ * Reads a simple pom directly into a {@link Pom} using a streaming XML parser, rather than building its effective
+ * model. A pom is simple when it has no parent, no profiles, and does not import any boms, and when all of the
+ * expressions in its coordinates, properties, and dependencies can be resolved. For such a pom, the result is the same
+ * as that produced from the pom's effective model, including the merging of duplicate dependencies, the application
+ * of the pom's own dependency management to its dependencies, and the defaulting of their scope.
+ * <p>
+ * A pom that is not simple, or that the effective model builder would report as being invalid, is not read and
+ * {@code null} is returned so that its effective model can be built instead.
+ *
+ * @author agent (agent@local)
+ */
+final class SimplePomReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimplePomReader.class);
+
+    private static final String[] PROJECT_PREFIXES = new String[] {"project.", "pom."};
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9_\\-.]+");
+
+    private static final String ILLEGAL_VERSION_CHARS = "\\/:\"<>|?*";
+
+    private final ThreadLocal<XMLInputFactory> inputFactory = new ThreadLocal<XMLInputFactory>() {
+
+        @Override
+        protected XMLInputFactory initialValue() {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+            return factory;
+        }
+
+    };
+
+    private final Properties systemProperties;
+
+    /**
+     * Creates a new {@code SimplePomReader} that will use the given snapshot of the JVM's {@code systemProperties}
+     * when resolving expressions.
+     *
+     * @param systemProperties the system properties
+     */
+    SimplePomReader(Properties systemProperties) {
+        this.systemProperties = systemProperties;
+    }
+
+    /**
+     * Reads the given {@code pomFile} if it is simple, using the given {@code properties} to resolve the expressions
+     * that it contains. The properties that are looked up are recorded in the given {@code inputs}. Nothing is
+     * recorded if the pom is not simple.
+     *
+     * @param pomFile the pom file
+     * @param properties the properties
+     * @param inputs the inputs to record to
+     * @return the pom or {@code null} if it is not simple
+     */
+    Pom read(File pomFile, PropertySource properties, ModelInputs inputs) {
+        try {
+            RawPom rawPom = parse(pomFile);
+            ModelInputs pomInputs = new ModelInputs();
+            Pom pom = new Interpolator(rawPom, pomInputs.record(properties), this.systemProperties).createPom();
+            inputs.addAll(pomInputs);
+            return pom;
+        }
+        catch (NotSimpleException ex) {
+            logger.debug("{} is not a simple pom as {}", pomFile, ex.getMessage());
+            return null;
+        }
+    }
+
+    private RawPom parse(File pomFile) throws NotSimpleException {
+        InputStream input = null;
+        XMLStreamReader reader = null;
+        try {
+            input = new BufferedInputStream(new FileInputStream(pomFile));
+            reader = this.inputFactory.get().createXMLStreamReader(input);
+            if (!nextChild(reader) || !"project".equals(reader.getLocalName())) {
+                throw new NotSimpleException("it has no project element");
+            }
+            return readProject(reader);
+        }
+        catch (IOException ex) {
+            throw new NotSimpleException("it could not be read (" + ex.getMessage() + ")");
+        }
+        catch (XMLStreamException ex) {
+            throw new NotSimpleException("it could not be parsed (" + ex.getMessage() + ")");
+        }
+        finally {
+            close(reader, input);
+        }
+    }
+
+    private RawPom readProject(XMLStreamReader reader) throws XMLStreamException, NotSimpleException {
+        RawPom pom = new RawPom();
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if ("parent".equals(name)) {
+                throw new NotSimpleException("it has a parent");
+            }
+            else if ("profiles".equals(name)) {
+                throw new NotSimpleException("it has profiles");
+            }
+            else if ("modules".equals(name)) {
+                throw new NotSimpleException("it has modules");
+            }
+            else if ("repositories".equals(name) || "pluginRepositories".equals(name)) {
+                throw new NotSimpleException("it declares repositories");
+            }
+            else if ("reporting".equals(name)) {
+                throw new NotSimpleException("it configures reporting");
+            }
+            else if ("modelVersion".equals(name)) {
+                pom.modelVersion = text(reader);
+            }
+            else if ("groupId".equals(name)) {
+                pom.groupId = text(reader);
+            }
+            else if ("artifactId".equals(name)) {
+                pom.artifactId = text(reader);
+            }
+            else if ("version".equals(name)) {
+                pom.version = text(reader);
+            }
+            else if ("packaging".equals(name)) {
+                pom.packaging = text(reader);
+            }
+            else if ("name".equals(name)) {
+                pom.name = text(reader);
+            }
+            else if ("properties".equals(name)) {
+                while (nextChild(reader)) {
+                    pom.properties.put(reader.getLocalName(), text(reader));
+                }
+            }
+            else if ("dependencies".equals(name)) {
+                readDependencies(reader, pom.dependencies);
+            }
+            else if ("dependencyManagement".equals(name)) {
+                while (nextChild(reader)) {
+                    if ("dependencies".equals(reader.getLocalName())) {
+                        readDependencies(reader, pom.managedDependencies);
+                    }
+                    else {
+                        skip(reader);
+                    }
+                }
+            }
+            else if ("build".equals(name)) {
+                while (nextChild(reader)) {
+                    if (!"pluginManagement".equals(reader.getLocalName())) {
+                        throw new NotSimpleException("it configures its build");
+                    }
+                    skip(reader);
+                }
+            }
+            else {
+                skip(reader);
+            }
+        }
+        return pom;
+    }
+
+    private void readDependencies(XMLStreamReader reader, List<RawDependency> dependencies)
+            throws XMLStreamException {
+        while (nextChild(reader)) {
+            if ("dependency".equals(reader.getLocalName())) {
+                dependencies.add(readDependency(reader));
+            }
+            else {
+                skip(reader);
+            }
+        }
+    }
+
+    private RawDependency readDependency(XMLStreamReader reader) throws XMLStreamException {
+        RawDependency dependency = new RawDependency();
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if ("groupId".equals(name)) {
+                dependency.groupId = text(reader);
+            }
+            else if ("artifactId".equals(name)) {
+                dependency.artifactId = text(reader);
+            }
+            else if ("version".equals(name)) {
+                dependency.version = text(reader);
+            }
+            else if ("type".equals(name)) {
+                dependency.type = text(reader);
+            }
+            else if ("classifier".equals(name)) {
+                dependency.classifier = text(reader);
+            }
+            else if ("scope".equals(name)) {
+                dependency.scope = text(reader);
+            }
+            else if ("optional".equals(name)) {
+                dependency.optional = text(reader);
+            }
+            else if ("systemPath".equals(name)) {
+                dependency.systemPath = text(reader);
+            }
+            else if ("exclusions".equals(name)) {
+                while (nextChild(reader)) {
+                    if ("exclusion".equals(reader.getLocalName())) {
+                        dependency.exclusions.add(readExclusion(reader));
+                    }
+                    else {
+                        skip(reader);
+                    }
+                }
+            }
+            else {
+                skip(reader);
+            }
+        }
+        return dependency;
+    }
+
+    private RawExclusion readExclusion(XMLStreamReader reader) throws XMLStreamException {
+        RawExclusion exclusion = new RawExclusion();
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if ("groupId".equals(name)) {
+                exclusion.groupId = text(reader);
+            }
+            else if ("artifactId".equals(name)) {
+                exclusion.artifactId = text(reader);
+            }
+            else {
+                skip(reader);
+            }
+        }
+        return exclusion;
+    }
+
+    /**
+     * Moves the reader to the start of the next child of the current element, returning {@code false} if the end of
+     * the current element is reached instead.
+     */
+    private boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private String text(XMLStreamReader reader) throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+
+    private void close(XMLStreamReader reader, InputStream input) {
+        if (reader != null) {
+            try {
+                reader.close();
+            }
+            catch (XMLStreamException ex) {
+                // Continue
+            }
+        }
+        if (input != null) {
+            try {
+                input.close();
+            }
+            catch (IOException ex) {
+                // Continue
+            }
+        }
+    }
+
+    private static boolean isEmpty(String string) {
+        return string == null || string.length() == 0;
+    }
+
+    private static String stripPrefix(String expression) {
+        for (String prefix: PROJECT_PREFIXES) {
+            if (expression.startsWith(prefix)) {
+                return expression.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the expressions in a {@link RawPom} in the same order as the effective model builder: the given
+     * properties, system properties, the pom's coordinates and other simple fields, its properties, and, finally, its
+     * unprefixed fields. An expression that cannot be resolved, such as {@code basedir} which is unknown when
+     * building the effective model of a pom that is not part of a project, is left as-is by the effective model
+     * builder. Rather than trying to mimic this, the pom is considered not to be simple.
+     */
+    private static final class Interpolator {
+
+        private final RawPom pom;
+
+        private final PropertySource properties;
+
+        private final Properties systemProperties;
+
+        private final Map<String, String> resolved = new HashMap<String, String>();
+
+        private Interpolator(RawPom pom, PropertySource properties, Properties systemProperties) {
+            this.pom = pom;
+            this.properties = properties;
+            this.systemProperties = systemProperties;
+        }
+
+        private Pom createPom() throws NotSimpleException {
+            if (!"4.0.0".equals(this.pom.modelVersion)) {
+                throw new NotSimpleException("its model version is not 4.0.0");
+            }
+            Coordinates coordinates = new Coordinates(validId(interpolate(this.pom.groupId)),
+                    validId(interpolate(this.pom.artifactId)), notEmpty(interpolate(this.pom.version)));
+            notEmpty(interpolate(this.pom.packaging));
+            Map<String, String> properties = new HashMap<String, String>();
+            for (Map.Entry<String, String> property: this.pom.properties.entrySet()) {
+                properties.put(property.getKey(), interpolate(property.getValue()));
+            }
+            List<RawDependency> managedDependencies = new ArrayList<RawDependency>();
+            for (RawDependency managedDependency: this.pom.managedDependencies) {
+                RawDependency interpolated = interpolate(managedDependency);
+                if ("import".equals(interpolated.scope) && "pom".equals(interpolated.type)) {
+                    throw new NotSimpleException("it imports " + interpolated.getKey());
+                }
+                managedDependencies.add(interpolated);
+            }
+            List<RawDependency> dependencies = new ArrayList<RawDependency>();
+            for (RawDependency dependency: mergeDuplicates(this.pom.dependencies)) {
+                RawDependency interpolated = interpolate(dependency);
+                for (RawDependency managedDependency: managedDependencies) {
+                    if (managedDependency.getKey().equals(interpolated.getKey())) {
+                        interpolated.manage(managedDependency);
+                    }
+                }
+                if (isEmpty(interpolated.scope)) {
+                    interpolated.scope = "compile";
+                }
+                if (isEmpty(interpolated.type) || isEmpty(interpolated.version)) {
+                    throw new NotSimpleException(interpolated.getKey() + " has no type or version");
+                }
+                for (int i = 0; i < interpolated.version.length(); i++) {
+                    if (ILLEGAL_VERSION_CHARS.indexOf(interpolated.version.charAt(i)) >= 0) {
+                        throw new NotSimpleException(interpolated.getKey() + " has an illegal version");
+                    }
+                }
+                dependencies.add(interpolated);
+            }
+            return new Pom(coordinates, createDependencies(managedDependencies), createDependencies(dependencies),
+                    properties);
+        }
+
+        /**
+         * Removes duplicate dependencies. As with Maven 2, the last declaration of a dependency is kept in the
+         * position of its first declaration.
+         */
+        private List<RawDependency> mergeDuplicates(List<RawDependency> dependencies) {
+            Map<String, RawDependency> merged = new LinkedHashMap<String, RawDependency>();
+            for (RawDependency dependency: dependencies) {
+                merged.put(dependency.getKey(), dependency);
+            }
+            return new ArrayList<RawDependency>(merged.values());
+        }
+
+        private List<Dependency> createDependencies(List<RawDependency> rawDependencies) {
+            List<Dependency> dependencies = new ArrayList<Dependency>(rawDependencies.size());
+            for (RawDependency rawDependency: rawDependencies) {
+                Set<String> exclusions = new LinkedHashSet<String>();
+                for (RawExclusion exclusion: rawDependency.exclusions) {
+                    exclusions.add(exclusion.groupId + ":" + exclusion.artifactId);
+                }
+                dependencies.add(new Dependency(new Coordinates(rawDependency.groupId, rawDependency.artifactId,
+                        rawDependency.version), Boolean.valueOf(rawDependency.optional), rawDependency.type,
+                        rawDependency.classifier, rawDependency.scope, exclusions));
+            }
+            return dependencies;
+        }
+
+        private RawDependency interpolate(RawDependency dependency) throws NotSimpleException {
+            RawDependency interpolated = new RawDependency();
+            interpolated.groupId = validId(interpolate(dependency.groupId));
+            interpolated.artifactId = validId(interpolate(dependency.artifactId));
+            interpolated.version = interpolate(dependency.version);
+            interpolated.type = interpolate(dependency.type);
+            interpolated.classifier = interpolate(dependency.classifier);
+            interpolated.scope = interpolate(dependency.scope);
+            interpolated.optional = interpolate(dependency.optional);
+            if (!isEmpty(interpolated.optional) && !"true".equalsIgnoreCase(interpolated.optional)
+                    && !"false".equalsIgnoreCase(interpolated.optional)) {
+                throw new NotSimpleException(interpolated.getKey() + " has an invalid optional flag");
+            }
+            if ("system".equals(interpolated.scope) || !isEmpty(dependency.systemPath)) {
+                throw new NotSimpleException(interpolated.getKey() + " is a system dependency");
+            }
+            for (RawExclusion exclusion: dependency.exclusions) {
+                RawExclusion interpolatedExclusion = new RawExclusion();
+                interpolatedExclusion.groupId = interpolate(exclusion.groupId);
+                interpolatedExclusion.artifactId = interpolate(exclusion.artifactId);
+                interpolated.exclusions.add(interpolatedExclusion);
+            }
+            return interpolated;
+        }
+
+        private String validId(String id) throws NotSimpleException {
+            if (id == null || !ID_PATTERN.matcher(id).matches()) {
+                throw new NotSimpleException("'" + id + "' is not a valid id");
+            }
+            return id;
+        }
+
+        private String notEmpty(String value) throws NotSimpleException {
+            if (isEmpty(value)) {
+                throw new NotSimpleException("its coordinates or packaging are missing");
+            }
+            return value;
+        }
+
+        private String interpolate(String value) throws NotSimpleException {
+            return interpolate(value, new HashSet<String>());
+        }
+
+        private String interpolate(String value, Set<String> resolving) throws NotSimpleException {
+            if (value == null || !value.contains("${")) {
+                return value;
+            }
+            StringBuilder result = new StringBuilder();
+            int position = 0;
+            int start;
+            while ((start = value.indexOf("${", position)) >= 0) {
+                int end = value.indexOf('}', start + 2);
+                if (end < 0) {
+                    break;
+                }
+                result.append(value, position, start);
+                result.append(resolve(value.substring(start + 2, end), resolving));
+                position = end + 1;
+            }
+            result.append(value, position, value.length());
+            return result.toString();
+        }
+
+        private String resolve(String expression, Set<String> resolving) throws NotSimpleException {
+            String resolvedValue = this.resolved.get(expression);
+            if (resolvedValue != null) {
+                return resolvedValue;
+            }
+            String unprefixed = stripPrefix(expression);
+            String key = unprefixed != null ? unprefixed : expression;
+            if (!resolving.add(key)) {
+                throw new NotSimpleException("'" + expression + "' refers to itself");
+            }
+            String value = interpolate(lookUp(expression, unprefixed), resolving);
+            resolving.remove(key);
+            this.resolved.put(expression, value);
+            return value;
+        }
+
+        private String lookUp(String expression, String unprefixed) throws NotSimpleException {
+            Object value = this.properties.getProperty(expression);
+            if (value != null) {
+                return String.valueOf(value);
+            }
+            String systemProperty = this.systemProperties.getProperty(expression);
+            if (systemProperty != null) {
+                return systemProperty;
+            }
+            if (unprefixed != null) {
+                if (!isField(unprefixed)) {
+                    throw new NotSimpleException("'" + expression + "' cannot be resolved");
+                }
+                String field = getField(unprefixed);
+                if (field != null) {
+                    return field;
+                }
+            }
+            String property = this.pom.properties.get(expression);
+            if (property != null) {
+                return property;
+            }
+            String environmentVariable = this.systemProperties.getProperty("env." + expression);
+            if (environmentVariable != null) {
+                return environmentVariable;
+            }
+            String field = isField(expression) ? getField(expression) : null;
+            if (field != null) {
+                return field;
+            }
+            throw new NotSimpleException("'" + expression + "' cannot be resolved");
+        }
+
+        private boolean isField(String name) {
+            return "modelVersion".equals(name) || "groupId".equals(name) || "artifactId".equals(name)
+                    || "version".equals(name) || "packaging".equals(name) || "name".equals(name);
+        }
+
+        private String getField(String name) {
+            if ("modelVersion".equals(name)) {
+                return this.pom.modelVersion;
+            }
+            if ("groupId".equals(name)) {
+                return this.pom.groupId;
+            }
+            if ("artifactId".equals(name)) {
+                return this.pom.artifactId;
+            }
+            if ("version".equals(name)) {
+                return this.pom.version;
+            }
+            if ("packaging".equals(name)) {
+                return this.pom.packaging;
+            }
+            return this.pom.name;
+        }
+
+    }
+
+    private static final class RawPom {
+
+        private final Map<String, String> properties = new LinkedHashMap<String, String>();
+
+        private final List<RawDependency> dependencies = new ArrayList<RawDependency>();
+
+        private final List<RawDependency> managedDependencies = new ArrayList<RawDependency>();
+
+        private String modelVersion;
+
+        private String groupId;
+
+        private String artifactId;
+
+        private String version;
+
+        private String packaging = "jar";
+
+        private String name;
+
+    }
+
+    private static final class RawDependency {
+
+        private final List<RawExclusion> exclusions = new ArrayList<RawExclusion>();
+
+        private String groupId;
+
+        private String artifactId;
+
+        private String version;
+
+        private String type = "jar";
+
+        private String classifier;
+
+        private String scope;
+
+        private String optional;
+
+        private String systemPath;
+
+        private String getKey() {
+            return this.groupId + ":" + this.artifactId + ":" + this.type
+                    + (this.classifier != null ? ":" + this.classifier : "");
+        }
+
+        /**
+         * Applies the given managed dependency to this dependency in the same way as Maven. Missing values are taken
+         * from the managed dependency, as are its exclusions if this dependency has none. Whether or not the
+         * dependency is optional is not managed.
+         */
+        private void manage(RawDependency managedDependency) {
+            if (this.version == null) {
+                this.version = managedDependency.version;
+            }
+            if (this.scope == null) {
+                this.scope = managedDependency.scope;
+            }
+            if (this.exclusions.isEmpty()) {
+                this.exclusions.addAll(managedDependency.exclusions);
+            }
+        }
+
+    }
+
+    private static final class RawExclusion {
+
+        private String groupId;
+
+        private String artifactId;
+
+    }
+
+    /**
+     * Thrown when a pom is found not to be simple so that the full model builder is used instead. It is not an error
+     * so no stack trace is captured.
+     */
+    private static final class NotSimpleException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private NotSimpleException(String reason) {
+            super(reason);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+    }
+
+}
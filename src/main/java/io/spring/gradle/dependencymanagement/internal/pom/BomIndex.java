@@ -0,0 +1,676 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.pom;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+
+/**
+ * A compiled, read-only index of a bom's dependency management. The index is a binary file containing a table of
+ * interned strings followed by fixed-size records that refer to those strings. Managed versions are held in records
+ * that are sorted by group and name so that a version can be found with a binary search of the index's bytes
+ * without creating an object for each of its entries. The properties that were used to resolve the bom and the
+ * location and content hash of the bom and of each of its parents and imports are also recorded so that a stale index
+ * can be identified. An index can be serialized, in which case its bytes are written as they are.
+ *
+ * @author agent (agent@local)
+ */
+public final class BomIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAGIC = 0x444d4249;
+
+    private static final int VERSION = 2;
+
+    private static final int DEPENDENCY_RECORD_SIZE = 9;
+
+    private static final int VERSION_RECORD_SIZE = 5;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+
+    private final String[] strings;
+
+    private final int stringOffsets;
+
+    private final int coordinates;
+
+    private final int inputs;
+
+    private final int sources;
+
+    private final int dependencies;
+
+    private final int exclusions;
+
+    private final int versions;
+
+    private final int properties;
+
+    private BomIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < 12 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported bom index format");
+        }
+        int stringCount = buffer.getInt(8);
+        this.strings = new String[stringCount];
+        this.stringOffsets = 12;
+        this.coordinates = buffer.getInt(this.stringOffsets + 4 * stringCount);
+        this.inputs = this.coordinates + 12;
+        this.sources = this.inputs + 4 + 8 * buffer.getInt(this.inputs);
+        this.dependencies = this.sources + 4 + 8 * buffer.getInt(this.sources);
+        this.exclusions = this.dependencies + 4 + 4 * DEPENDENCY_RECORD_SIZE * buffer.getInt(this.dependencies);
+        this.versions = this.exclusions + 4 + 4 * buffer.getInt(this.exclusions);
+        this.properties = this.versions + 4 + 4 * VERSION_RECORD_SIZE * buffer.getInt(this.versions);
+        if (this.properties + 4 + 8 * buffer.getInt(this.properties) != buffer.limit()) {
+            throw new IOException("Corrupt bom index");
+        }
+    }
+
+    /**
+     * Loads the index in the given {@code file} by reading it into memory. The file is closed before this method
+     * returns so that it can be replaced or deleted while the index is in use.
+     *
+     * @param file the file containing the index
+     * @return the index
+     * @throws IOException if the file cannot be read or does not contain a valid index
+     */
+    public static BomIndex load(File file) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            long length = input.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Bom index " + file + " is too large");
+            }
+            byte[] bytes = new byte[(int) length];
+            input.readFully(bytes);
+            return new BomIndex(ByteBuffer.wrap(bytes));
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Compiles the dependency management of the given {@code pom} into an index that is written to the given
+     * {@code file}. The given {@code inputs} are the properties, and their values, that were used to resolve the pom.
+     * The content of each of the pom's {@link Pom#getSources() sources} is hashed.
+     *
+     * @param pom the pom to index
+     * @param inputs the properties that were used to resolve the pom
+     * @param file the file to write the index to
+     * @throws IOException if the index cannot be written
+     */
+    public static void write(Pom pom, Map<String, String> inputs, File file) throws IOException {
+        byte[] index = new Compiler(pom, inputs).compile();
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+        File temp = File.createTempFile("index", ".tmp", directory);
+        try {
+            BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(temp));
+            try {
+                output.write(index);
+            }
+            finally {
+                output.close();
+            }
+            if (!temp.renameTo(file)) {
+                file.delete();
+                if (!temp.renameTo(file)) {
+                    throw new IOException("Failed to rename " + temp + " to " + file);
+                }
+            }
+        }
+        finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the coordinates of the indexed bom.
+     *
+     * @return the coordinates
+     */
+    public Coordinates getCoordinates() {
+        return new Coordinates(string(this.coordinates), string(this.coordinates + 4), string(this.coordinates + 8));
+    }
+
+    /**
+     * Returns whether the properties that were used to resolve the indexed bom have the same values in the given
+     * {@code properties}.
+     *
+     * @param properties the properties
+     * @return {@code true} if the index's inputs match, otherwise {@code false}
+     */
+    public boolean inputsMatch(PropertySource properties) {
+        int count = this.buffer.getInt(this.inputs);
+        for (int i = 0; i < count; i++) {
+            int position = this.inputs + 4 + 8 * i;
+            Object value = properties.getProperty(string(position));
+            int expected = this.buffer.getInt(position + 4);
+            if (value == null ? expected != -1 : expected == -1 || !string(position + 4).equals(String.valueOf(value))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether each of the files from which the indexed bom was built still exists and has the same content.
+     *
+     * @return {@code true} if the index's sources match, otherwise {@code false}
+     */
+    public boolean sourcesMatch() {
+        int count = this.buffer.getInt(this.sources);
+        for (int i = 0; i < count; i++) {
+            int position = this.sources + 4 + 8 * i;
+            File source = new File(string(position));
+            try {
+                if (!source.isFile() || !hash(source).equals(string(position + 4))) {
+                    return false;
+                }
+            }
+            catch (IOException ex) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the version of the dependency with the given {@code group} and {@code name} that is managed by the
+     * indexed bom, or {@code null} if the bom does not manage its version.
+     *
+     * @param group the group of the dependency
+     * @param name the name of the dependency
+     * @return the managed version or {@code null}
+     */
+    public String getManagedVersion(String group, String name) {
+        int low = 0;
+        int high = this.buffer.getInt(this.versions) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int record = this.versions + 4 + 4 * VERSION_RECORD_SIZE * middle;
+            int comparison = compare(group, this.buffer.getInt(record));
+            if (comparison == 0) {
+                comparison = compare(name, this.buffer.getInt(record + 4));
+            }
+            if (comparison == 0) {
+                return string(record + 8);
+            }
+            if (comparison < 0) {
+                high = middle - 1;
+            }
+            else {
+                low = middle + 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of managed versions in the index.
+     *
+     * @return the number of managed versions
+     */
+    public int getManagedVersionCount() {
+        return this.buffer.getInt(this.versions);
+    }
+
+    /**
+     * Returns the versions that are managed by the indexed bom, keyed by {@code groupId:artifactId}.
+     *
+     * @return the managed versions
+     */
+    public Map<String, String> getManagedVersions() {
+        int count = this.buffer.getInt(this.versions);
+        Map<String, String> managedVersions = new HashMap<String, String>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int record = this.versions + 4 + 4 * VERSION_RECORD_SIZE * i;
+            managedVersions.put(string(record) + ":" + string(record + 4), string(record + 8));
+        }
+        return managedVersions;
+    }
+
+    /**
+     * Returns the coordinates of the bom's managed dependencies that do not have a classifier or a version.
+     *
+     * @return the coordinates of the unversioned managed dependencies
+     */
+    public List<Coordinates> getUnversionedManagedDependencies() {
+        List<Coordinates> unversioned = new ArrayList<Coordinates>();
+        int count = this.buffer.getInt(this.dependencies);
+        for (int i = 0; i < count; i++) {
+            int record = this.dependencies + 4 + 4 * DEPENDENCY_RECORD_SIZE * i;
+            if (isEmpty(string(record + 20)) && isEmpty(string(record + 8))) {
+                unversioned.add(new Coordinates(string(record), string(record + 4), string(record + 8)));
+            }
+        }
+        return unversioned;
+    }
+
+    /**
+     * Returns the exclusions of the dependencies whose versions are managed by the indexed bom, keyed by
+     * {@code groupId:artifactId}. Dependencies without any exclusions are omitted.
+     *
+     * @return the exclusions
+     */
+    public Map<String, Set<String>> getExclusions() {
+        Map<String, Set<String>> exclusions = new HashMap<String, Set<String>>();
+        int count = this.buffer.getInt(this.versions);
+        for (int i = 0; i < count; i++) {
+            int record = this.versions + 4 + 4 * VERSION_RECORD_SIZE * i;
+            if (this.buffer.getInt(record + 16) > 0) {
+                exclusions.put(string(record) + ":" + string(record + 4),
+                        exclusions(this.buffer.getInt(record + 12), this.buffer.getInt(record + 16)));
+            }
+        }
+        return exclusions;
+    }
+
+    /**
+     * Returns the properties of the indexed bom.
+     *
+     * @return the properties
+     */
+    public Map<String, String> getProperties() {
+        int count = this.buffer.getInt(this.properties);
+        Map<String, String> properties = new HashMap<String, String>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int position = this.properties + 4 + 8 * i;
+            properties.put(string(position), string(position + 4));
+        }
+        return properties;
+    }
+
+    /**
+     * Returns a {@link Pom} that is equivalent to the indexed bom. The pom's dependencies are not indexed so the
+     * returned pom has none.
+     *
+     * @return the pom
+     */
+    public Pom toPom() {
+        int count = this.buffer.getInt(this.dependencies);
+        List<Dependency> managedDependencies = new ArrayList<Dependency>(count);
+        for (int i = 0; i < count; i++) {
+            int record = this.dependencies + 4 + 4 * DEPENDENCY_RECORD_SIZE * i;
+            Coordinates coordinates = new Coordinates(string(record), string(record + 4), string(record + 8));
+            managedDependencies.add(new Dependency(coordinates, this.buffer.getInt(record + 12) != 0,
+                    string(record + 16), string(record + 20), string(record + 24),
+                    exclusions(this.buffer.getInt(record + 28), this.buffer.getInt(record + 32))));
+        }
+        return new Pom(getCoordinates(), managedDependencies, Collections.<Dependency>emptyList(),
+                getProperties());
+    }
+
+    private Set<String> exclusions(int start, int count) {
+        Set<String> exclusions = new LinkedHashSet<String>();
+        for (int i = 0; i < count; i++) {
+            exclusions.add(string(this.exclusions + 4 + 4 * (start + i)));
+        }
+        return exclusions;
+    }
+
+    private String string(int position) {
+        int id = this.buffer.getInt(position);
+        if (id < 0) {
+            return null;
+        }
+        String string = this.strings[id];
+        if (string == null) {
+            int start = stringStart(id);
+            byte[] bytes = new byte[stringStart(id + 1) - start];
+            ByteBuffer source = this.buffer.duplicate();
+            source.position(start);
+            source.get(bytes);
+            string = new String(bytes, UTF_8);
+            this.strings[id] = string;
+        }
+        return string;
+    }
+
+    private int stringStart(int id) {
+        return this.buffer.getInt(this.stringOffsets + 4 * id);
+    }
+
+    /**
+     * Compares the given {@code value} with the string with the given {@code id}, comparing the bytes of their UTF-8
+     * encodings without decoding the indexed string.
+     *
+     * @param value the value
+     * @param id the id of the indexed string
+     * @return the result of the comparison
+     */
+    private int compare(String value, int id) {
+        int position = stringStart(id);
+        int end = stringStart(id + 1);
+        int i = 0;
+        while (i < value.length()) {
+            int codePoint = value.codePointAt(i);
+            i += Character.charCount(codePoint);
+            int length = (codePoint < 0x80) ? 1 : (codePoint < 0x800) ? 2 : (codePoint < 0x10000) ? 3 : 4;
+            for (int j = 0; j < length; j++) {
+                if (position == end) {
+                    return 1;
+                }
+                int difference = utf8Byte(codePoint, length, j) - (this.buffer.get(position++) & 0xff);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+        }
+        return (position == end) ? 0 : -1;
+    }
+
+    private static int utf8Byte(int codePoint, int length, int index) {
+        if (length == 1) {
+            return codePoint;
+        }
+        int shift = 6 * (length - 1 - index);
+        if (index == 0) {
+            return ((0xff00 >> length) & 0xff) | (codePoint >> shift);
+        }
+        return 0x80 | ((codePoint >> shift) & 0x3f);
+    }
+
+    private Object writeReplace() {
+        ByteBuffer source = this.buffer.duplicate();
+        source.clear();
+        byte[] bytes = new byte[source.remaining()];
+        source.get(bytes);
+        return new SerializedBomIndex(bytes);
+    }
+
+    private static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        InputStream input = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        finally {
+            input.close();
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b: digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static boolean isEmpty(String string) {
+        return string == null || string.trim().length() == 0;
+    }
+
+    private static int compare(byte[] one, byte[] two) {
+        int length = Math.min(one.length, two.length);
+        for (int i = 0; i < length; i++) {
+            int difference = (one[i] & 0xff) - (two[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return one.length - two.length;
+    }
+
+    /**
+     * Compiles a {@link Pom} into the binary form of an index.
+     */
+    private static final class Compiler {
+
+        private final Map<String, Integer> ids = new LinkedHashMap<String, Integer>();
+
+        private final List<byte[]> strings = new ArrayList<byte[]>();
+
+        private final Pom pom;
+
+        private final Map<String, String> inputs;
+
+        private Compiler(Pom pom, Map<String, String> inputs) {
+            this.pom = pom;
+            this.inputs = inputs;
+        }
+
+        private byte[] compile() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream records = new DataOutputStream(bytes);
+            writeCoordinates(records, this.pom.getCoordinates());
+            writeStrings(records, new ArrayList<Map.Entry<String, String>>(this.inputs.entrySet()));
+            writeStrings(records, new ArrayList<Map.Entry<String, String>>(hashSources().entrySet()));
+            List<Integer> exclusions = new ArrayList<Integer>();
+            List<Dependency> managedDependencies = this.pom.getManagedDependencies();
+            records.writeInt(managedDependencies.size());
+            for (Dependency dependency: managedDependencies) {
+                writeCoordinates(records, dependency.getCoordinates());
+                records.writeInt(dependency.isOptional() ? 1 : 0);
+                records.writeInt(id(dependency.getType()));
+                records.writeInt(id(dependency.getClassifier()));
+                records.writeInt(id(dependency.getScope()));
+                records.writeInt(exclusions.size());
+                records.writeInt(dependency.getExclusions().size());
+                for (String exclusion: dependency.getExclusions()) {
+                    exclusions.add(id(exclusion));
+                }
+            }
+            List<ManagedVersion> managedVersions = getManagedVersions();
+            int versionExclusions = exclusions.size();
+            for (ManagedVersion managedVersion: managedVersions) {
+                for (String exclusion: managedVersion.exclusions) {
+                    exclusions.add(id(exclusion));
+                }
+            }
+            records.writeInt(exclusions.size());
+            for (Integer exclusion: exclusions) {
+                records.writeInt(exclusion);
+            }
+            records.writeInt(managedVersions.size());
+            for (ManagedVersion managedVersion: managedVersions) {
+                records.writeInt(managedVersion.group);
+                records.writeInt(managedVersion.name);
+                records.writeInt(managedVersion.version);
+                records.writeInt(versionExclusions);
+                records.writeInt(managedVersion.exclusions.size());
+                versionExclusions += managedVersion.exclusions.size();
+            }
+            List<Map.Entry<String, String>> properties = new ArrayList<Map.Entry<String, String>>(
+                    this.pom.getProperties().entrySet());
+            Collections.sort(properties, new Comparator<Map.Entry<String, String>>() {
+
+                @Override
+                public int compare(Map.Entry<String, String> one, Map.Entry<String, String> two) {
+                    return one.getKey().compareTo(two.getKey());
+                }
+
+            });
+            writeStrings(records, properties);
+            records.flush();
+            return link(bytes.toByteArray());
+        }
+
+        private Map<String, String> hashSources() throws IOException {
+            Map<String, String> hashes = new LinkedHashMap<String, String>();
+            if (this.pom.getSources() != null) {
+                for (File source: this.pom.getSources()) {
+                    hashes.put(source.getAbsolutePath(), hash(source));
+                }
+            }
+            return hashes;
+        }
+
+        private List<ManagedVersion> getManagedVersions() {
+            Map<String, ManagedVersion> managedVersions = new HashMap<String, ManagedVersion>();
+            for (Dependency dependency: this.pom.getManagedDependencies()) {
+                Coordinates coordinates = dependency.getCoordinates();
+                if (isEmpty(dependency.getClassifier()) && !isEmpty(coordinates.getVersion())) {
+                    String key = coordinates.getGroupId() + ":" + coordinates.getArtifactId();
+                    ManagedVersion managedVersion = managedVersions.get(key);
+                    if (managedVersion == null) {
+                        managedVersion = new ManagedVersion(id(coordinates.getGroupId()),
+                                id(coordinates.getArtifactId()));
+                        managedVersions.put(key, managedVersion);
+                    }
+                    managedVersion.version = id(coordinates.getVersion());
+                    managedVersion.exclusions.addAll(dependency.getExclusions());
+                }
+            }
+            List<ManagedVersion> sorted = new ArrayList<ManagedVersion>(managedVersions.values());
+            Collections.sort(sorted, new Comparator<ManagedVersion>() {
+
+                @Override
+                public int compare(ManagedVersion one, ManagedVersion two) {
+                    int comparison = BomIndex.compare(string(one.group), string(two.group));
+                    return (comparison != 0) ? comparison : BomIndex.compare(string(one.name), string(two.name));
+                }
+
+            });
+            return sorted;
+        }
+
+        private void writeCoordinates(DataOutputStream output, Coordinates coordinates) throws IOException {
+            output.writeInt(id(coordinates.getGroupId()));
+            output.writeInt(id(coordinates.getArtifactId()));
+            output.writeInt(id(coordinates.getVersion()));
+        }
+
+        private void writeStrings(DataOutputStream output, List<Map.Entry<String, String>> entries)
+                throws IOException {
+            output.writeInt(entries.size());
+            for (Map.Entry<String, String> entry: entries) {
+                output.writeInt(id(entry.getKey()));
+                output.writeInt(id(entry.getValue()));
+            }
+        }
+
+        private int id(String string) {
+            if (string == null) {
+                return -1;
+            }
+            Integer id = this.ids.get(string);
+            if (id == null) {
+                id = this.strings.size();
+                this.ids.put(string, id);
+                this.strings.add(string.getBytes(UTF_8));
+            }
+            return id;
+        }
+
+        private byte[] string(int id) {
+            return this.strings.get(id);
+        }
+
+        private byte[] link(byte[] records) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(this.strings.size());
+            int offset = 12 + 4 * (this.strings.size() + 1);
+            for (byte[] string: this.strings) {
+                output.writeInt(offset);
+                offset += string.length;
+            }
+            output.writeInt(offset);
+            for (byte[] string: this.strings) {
+                output.write(string);
+            }
+            output.write(records);
+            output.flush();
+            return bytes.toByteArray();
+        }
+
+    }
+
+    private static final class ManagedVersion {
+
+        private final int group;
+
+        private final int name;
+
+        private final Set<String> exclusions = new LinkedHashSet<String>();
+
+        private int version;
+
+        private ManagedVersion(int group, int name) {
+            this.group = group;
+            this.name = name;
+        }
+
+    }
+
+    /**
+     * The serialized form of a {@link BomIndex}.
+     */
+    private static final class SerializedBomIndex implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+
+        private SerializedBomIndex(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            try {
+                return new BomIndex(ByteBuffer.wrap(this.bytes));
+            }
+            catch (IOException ex) {
+                throw new InvalidObjectException(ex.getMessage());
+            }
+        }
+
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,16 @@
 
 package io.spring.gradle.dependencymanagement.internal.pom;
 
+import java.io.Serializable;
+
 /**
  * Coordinates (group ID, artifact ID, and version) for a Maven artifact.
  *
  * @author Andy Wilkinson
  */
-public class Coordinates {
+public class Coordinates implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final String groupId;
 
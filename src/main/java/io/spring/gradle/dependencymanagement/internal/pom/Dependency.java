@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package io.spring.gradle.dependencymanagement.internal.pom;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.Set;
 
@@ -24,7 +25,9 @@ import java.util.Set;
  *
  * @author Andy Wilkinson
  */
-public final class Dependency {
+public final class Dependency implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Coordinates coordinates;
 
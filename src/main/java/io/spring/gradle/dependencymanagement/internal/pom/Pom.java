@@ -16,6 +16,7 @@
 
 package io.spring.gradle.dependencymanagement.internal.pom;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 
@@ -34,8 +35,10 @@ public class Pom {
 
     private final Map<String, String> properties;
 
+    private final List<File> sources;
+
     /**
-     * Creates a new pom.
+     * Creates a new pom whose sources are not known.
      *
      * @param coordinates the coordinates of the pom
      * @param managedDependencies the managed dependencies
@@ -44,10 +47,25 @@ public class Pom {
      */
     public Pom(Coordinates coordinates, List<Dependency> managedDependencies,
                List<Dependency> dependencies, Map<String, String> properties) {
+        this(coordinates, managedDependencies, dependencies, properties, null);
+    }
+
+    /**
+     * Creates a new pom that was built from the given {@code sources}.
+     *
+     * @param coordinates the coordinates of the pom
+     * @param managedDependencies the managed dependencies
+     * @param dependencies the dependencies
+     * @param properties the properties
+     * @param sources the files from which the pom was built, or {@code null} if they are not known
+     */
+    public Pom(Coordinates coordinates, List<Dependency> managedDependencies,
+               List<Dependency> dependencies, Map<String, String> properties, List<File> sources) {
         this.coordinates = coordinates;
         this.managedDependencies = managedDependencies;
         this.dependencies = dependencies;
         this.properties = properties;
+        this.sources = sources;
     }
 
     /**
@@ -86,4 +104,14 @@ public class Pom {
         return this.dependencies;
     }
 
+    /**
+     * Returns the files from which the pom was built: the pom's own file followed by the files of its parents and
+     * imports. Returns {@code null} if the files are not known.
+     *
+     * @return the sources or {@code null}
+     */
+    public List<File> getSources() {
+        return this.sources;
+    }
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.prefetch;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.TaskAction;
+
+import io.spring.gradle.dependencymanagement.internal.ImportedBomPrefetcher;
+
+/**
+ * Task to prefetch the boms imported by a project so that they are cached before its dependency management is
+ * resolved. The root project's task prefetches the boms imported by every project in the build.
+ *
+ * @author agent (agent@local)
+ */
+public class DependencyManagementPrefetchTask extends DefaultTask {
+
+    private ImportedBomPrefetcher prefetcher;
+
+    /**
+     * Sets the prefetcher that will prefetch the imported boms.
+     *
+     * @param prefetcher the prefetcher
+     */
+    public void setPrefetcher(ImportedBomPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * {@link TaskAction} that prefetches the imported boms.
+     */
+    @TaskAction
+    public void prefetch() {
+        this.prefetcher.prefetch(getProject());
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.profile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Task that profiles the dependency management of a project. Each of the project's resolvable configurations is
+ * resolved and the measurements recorded by the build's {@link Profiler} for the project are written as JSON to
+ * {@code build/dependency-management/profile.json} and as a human-readable summary to
+ * {@code build/dependency-management/profile.txt}. The summary is also logged.
+ *
+ * @author agent (agent@local)
+ */
+public class DependencyManagementProfileTask extends DefaultTask {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final Logger logger = Logging.getLogger(DependencyManagementProfileTask.class);
+
+    private static final Method isCanBeResolved = findIsCanBeResolved();
+
+    private Profiler profiler;
+
+    /**
+     * Sets the profiler whose measurements will be written.
+     *
+     * @param profiler the profiler
+     */
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Returns the file to which the profile is written as JSON.
+     *
+     * @return the JSON file
+     */
+    public File getJsonFile() {
+        return new File(getProject().getBuildDir(), "dependency-management/profile.json");
+    }
+
+    /**
+     * Returns the file to which the profile's summary is written.
+     *
+     * @return the summary file
+     */
+    public File getSummaryFile() {
+        return new File(getProject().getBuildDir(), "dependency-management/profile.txt");
+    }
+
+    /**
+     * {@link TaskAction} that resolves the project's resolvable configurations and writes the profile.
+     */
+    @TaskAction
+    public void profile() {
+        for (Configuration configuration : new ArrayList<Configuration>(getProject().getConfigurations())) {
+            if (isResolvable(configuration)) {
+                configuration.getIncoming().getResolutionResult().getAllComponents();
+            }
+        }
+        ProfileWriter profileWriter = new ProfileWriter(getProject().getPath(),
+                this.profiler.getMeasurements(getProject().getPath()));
+        try {
+            StringWriter summary = new StringWriter();
+            profileWriter.writeSummary(summary);
+            write(getSummaryFile(), summary.toString());
+            StringWriter json = new StringWriter();
+            profileWriter.writeJson(json);
+            write(getJsonFile(), json.toString());
+            getLogger().lifecycle(summary.toString());
+        }
+        catch (IOException ex) {
+            throw new GradleException("Failed to write dependency management profile", ex);
+        }
+    }
+
+    private boolean isResolvable(Configuration configuration) {
+        if (isCanBeResolved == null) {
+            return true;
+        }
+        try {
+            return (Boolean) isCanBeResolved.invoke(configuration);
+        }
+        catch (Exception ex) {
+            logger.debug("Failed to determine whether " + configuration + " can be resolved", ex);
+            return true;
+        }
+    }
+
+    /**
+     * Returns {@link Configuration Configuration.isCanBeResolved()} or {@code null} if the version of Gradle is older
+     * than 3.3 and, therefore, every configuration can be resolved.
+     */
+    private static Method findIsCanBeResolved() {
+        try {
+            return Configuration.class.getMethod("isCanBeResolved");
+        }
+        catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private void write(File file, String content) throws IOException {
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Failed to create directory '" + file.getParentFile() + "'");
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8);
+        try {
+            writer.write(content);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.profile;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Emits Java Flight Recorder events around the work performed by dependency management. Each event records the path
+ * of the project and the name of the configuration of the current {@link Profiler.Scope}, the coordinates of the
+ * module or modules involved, and whether the work was served from a cache.
+ *
+ * <p>The events are created using JFR's {@code jdk.jfr.EventFactory}, which is accessed reflectively so that the
+ * plugin continues to run on JVMs without JFR. On such JVMs, and when no recording is in progress, {@link
+ * #begin(Type)} returns an event that does nothing.
+ *
+ * @author agent (agent@local)
+ */
+public final class FlightRecorderEvents {
+
+    private static final String NAME_PREFIX = "io.spring.dependencymanagement.";
+
+    private static final FlightRecorder flightRecorder = FlightRecorder.create();
+
+    private static final ThreadLocal<Event> currentEvent = new ThreadLocal<Event>();
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Returns whether or not the JVM supports JFR events.
+     *
+     * @return {@code true} if events are supported, otherwise {@code false}
+     */
+    public static boolean isAvailable() {
+        return flightRecorder != null;
+    }
+
+    /**
+     * Begins an event of the given {@code type} on the calling thread. The returned event must be {@link
+     * Event#commit(String, boolean) committed} on the same thread.
+     *
+     * @param type the type of the event
+     * @return the event
+     */
+    public static Event begin(Type type) {
+        if (flightRecorder == null) {
+            return Event.NONE;
+        }
+        return flightRecorder.begin(type);
+    }
+
+    /**
+     * Records a hit or a miss of a cache against the events that are in progress on the calling thread.
+     *
+     * @param hit {@code true} for a hit or {@code false} for a miss
+     * @see Event#isCacheHit()
+     */
+    static void recordCacheAccess(boolean hit) {
+        if (flightRecorder == null) {
+            return;
+        }
+        for (Event event = currentEvent.get(); event != null; event = event.parent) {
+            event.cacheAccessed = true;
+            event.cacheMissed |= !hit;
+        }
+    }
+
+    private static void setCurrentEvent(Event event) {
+        if (event != null) {
+            currentEvent.set(event);
+        }
+        else {
+            currentEvent.remove();
+        }
+    }
+
+    /**
+     * The types of the events.
+     */
+    public enum Type {
+
+        /**
+         * Resolution of a configuration's imported boms.
+         */
+        BOM_RESOLUTION("BomResolution", "BOM Resolution", "Resolution of the boms imported by dependency management"),
+
+        /**
+         * Building of a pom's effective model.
+         */
+        MODEL_BUILDING("ModelBuilding", "Model Building", "Building of the effective model of a pom"),
+
+        /**
+         * Resolution of a parent or imported pom during model building.
+         */
+        MODEL_RESOLUTION("ModelResolution", "Model Resolution",
+                "Resolution of a parent or imported pom during model building"),
+
+        /**
+         * Resolution of the exclusions declared in the poms of a configuration's resolved components.
+         */
+        EXCLUSION_RESOLUTION("ExclusionResolution", "Exclusion Resolution",
+                "Resolution of the exclusions declared in the poms of resolved components"),
+
+        /**
+         * Finding the dependencies that should be excluded from a configuration.
+         */
+        EXCLUDED_DEPENDENCIES("ExcludedDependencies", "Excluded Dependencies",
+                "Finding the dependencies that should be excluded from a configuration");
+
+        private final String name;
+
+        private final String label;
+
+        private final String description;
+
+        Type(String name, String label, String description) {
+            this.name = name;
+            this.label = label;
+            this.description = description;
+        }
+
+    }
+
+    /**
+     * An event that is in progress.
+     */
+    public static final class Event {
+
+        private static final Event NONE = new Event(null, null, null, null);
+
+        private final Object event;
+
+        private final Profiler.Scope scope;
+
+        private final FlightRecorder flightRecorder;
+
+        private final Event parent;
+
+        private boolean cacheAccessed;
+
+        private boolean cacheMissed;
+
+        private Event(Object event, Profiler.Scope scope, FlightRecorder flightRecorder, Event parent) {
+            this.event = event;
+            this.scope = scope;
+            this.flightRecorder = flightRecorder;
+            this.parent = parent;
+        }
+
+        /**
+         * Returns whether the work of this event was served from caches. That is the case when at least one cache
+         * was accessed on the event's thread while it was in progress and every access was a hit.
+         *
+         * @return {@code true} if the work was served from caches, otherwise {@code false}
+         */
+        public boolean isCacheHit() {
+            return this.cacheAccessed && !this.cacheMissed;
+        }
+
+        /**
+         * Commits the event with the given {@code coordinates} and {@code cacheHit} flag.
+         *
+         * @param coordinates the coordinates of the module or modules involved, or {@code null}
+         * @param cacheHit whether the work was served from a cache
+         */
+        public void commit(String coordinates, boolean cacheHit) {
+            if (this.event != null) {
+                if (currentEvent.get() == this) {
+                    setCurrentEvent(this.parent);
+                }
+                this.flightRecorder.commit(this.event, this.scope, coordinates, cacheHit);
+            }
+        }
+
+    }
+
+    /**
+     * Reflective access to JFR's dynamic events.
+     */
+    private static final class FlightRecorder {
+
+        private final Object[] factories;
+
+        private final Object[] eventTypes;
+
+        private final Method newEvent;
+
+        private final Method isEnabled;
+
+        private final Method begin;
+
+        private final Method set;
+
+        private final Method commit;
+
+        private FlightRecorder(Object[] factories, Object[] eventTypes, Method newEvent, Method isEnabled,
+                Method begin, Method set, Method commit) {
+            this.factories = factories;
+            this.eventTypes = eventTypes;
+            this.newEvent = newEvent;
+            this.isEnabled = isEnabled;
+            this.begin = begin;
+            this.set = set;
+            this.commit = commit;
+        }
+
+        private static FlightRecorder create() {
+            try {
+                Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+                Constructor<?> annotationElement = annotationElementClass.getConstructor(Class.class, Object.class);
+                Constructor<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class,
+                        String.class, List.class);
+                Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+                Method create = eventFactoryClass.getMethod("create", List.class, List.class);
+                Class<?> label = Class.forName("jdk.jfr.Label");
+                List<Object> fields = Arrays.asList(
+                        field(valueDescriptor, annotationElement, label, String.class, "projectPath", "Project Path"),
+                        field(valueDescriptor, annotationElement, label, String.class, "configuration",
+                                "Configuration"),
+                        field(valueDescriptor, annotationElement, label, String.class, "coordinates", "Coordinates"),
+                        field(valueDescriptor, annotationElement, label, boolean.class, "cacheHit", "Cache Hit"));
+                Type[] types = Type.values();
+                Object[] factories = new Object[types.length];
+                Object[] eventTypes = new Object[types.length];
+                Method getEventType = eventFactoryClass.getMethod("getEventType");
+                for (Type type : types) {
+                    List<Object> annotations = Arrays.asList(
+                            annotationElement.newInstance(Class.forName("jdk.jfr.Name"), NAME_PREFIX + type.name),
+                            annotationElement.newInstance(label, type.label),
+                            annotationElement.newInstance(Class.forName("jdk.jfr.Description"), type.description),
+                            annotationElement.newInstance(Class.forName("jdk.jfr.Category"),
+                                    new String[] { "Dependency Management" }));
+                    factories[type.ordinal()] = create.invoke(null, annotations, fields);
+                    eventTypes[type.ordinal()] = getEventType.invoke(factories[type.ordinal()]);
+                }
+                Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                return new FlightRecorder(factories, eventTypes, eventFactoryClass.getMethod("newEvent"),
+                        Class.forName("jdk.jfr.EventType").getMethod("isEnabled"), eventClass.getMethod("begin"),
+                        eventClass.getMethod("set", int.class, Object.class), eventClass.getMethod("commit"));
+            }
+            catch (Exception ex) {
+                return null;
+            }
+            catch (LinkageError ex) {
+                return null;
+            }
+        }
+
+        private static Object field(Constructor<?> valueDescriptor, Constructor<?> annotationElement,
+                Class<?> label, Class<?> type, String name, String fieldLabel) throws Exception {
+            return valueDescriptor.newInstance(type, name,
+                    Collections.singletonList(annotationElement.newInstance(label, fieldLabel)));
+        }
+
+        private Event begin(Type type) {
+            try {
+                if (!(Boolean) this.isEnabled.invoke(this.eventTypes[type.ordinal()])) {
+                    return Event.NONE;
+                }
+                Object event = this.newEvent.invoke(this.factories[type.ordinal()]);
+                this.begin.invoke(event);
+                Event current = new Event(event, Profiler.currentScope(), this, currentEvent.get());
+                currentEvent.set(current);
+                return current;
+            }
+            catch (Exception ex) {
+                return Event.NONE;
+            }
+        }
+
+        private void commit(Object event, Profiler.Scope scope, String coordinates, boolean cacheHit) {
+            try {
+                this.set.invoke(event, 0, scope.getProjectPath());
+                this.set.invoke(event, 1, scope.getConfigurationName());
+                this.set.invoke(event, 2, coordinates);
+                this.set.invoke(event, 3, cacheHit);
+                this.commit.invoke(event);
+            }
+            catch (Exception ex) {
+                // The event is dropped
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.profile;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler.CacheStatistics;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler.Measurements;
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler.PhaseStatistics;
+
+/**
+ * Writes the {@link Measurements} recorded by a {@link Profiler} for a project's configurations as JSON or as a
+ * human-readable summary.
+ *
+ * @author agent (agent@local)
+ */
+final class ProfileWriter {
+
+    private static final String NEW_LINE = System.getProperty("line.separator");
+
+    private final String projectPath;
+
+    private final Map<String, Measurements> measurements;
+
+    ProfileWriter(String projectPath, Map<String, Measurements> measurements) {
+        this.projectPath = projectPath;
+        this.measurements = measurements;
+    }
+
+    void writeJson(Writer writer) throws IOException {
+        writer.write("{\n  \"project\": " + quote(this.projectPath) + ",\n  \"configurations\": {");
+        Iterator<Map.Entry<String, Measurements>> configurations = this.measurements.entrySet().iterator();
+        while (configurations.hasNext()) {
+            Map.Entry<String, Measurements> configuration = configurations.next();
+            writer.write("\n    " + quote(configuration.getKey()) + ": {\n      \"phases\": {");
+            Iterator<Map.Entry<String, PhaseStatistics>> phases = configuration.getValue().getPhases().entrySet()
+                    .iterator();
+            while (phases.hasNext()) {
+                Map.Entry<String, PhaseStatistics> phase = phases.next();
+                writer.write("\n        " + quote(phase.getKey()) + ": { \"invocations\": "
+                        + phase.getValue().getInvocations() + ", \"wallTimeNanos\": " + phase.getValue().getNanos()
+                        + ", \"allocatedBytes\": " + toJson(phase.getValue().getAllocatedBytes()) + " }"
+                        + (phases.hasNext() ? "," : "\n      "));
+            }
+            writer.write("},\n      \"caches\": {");
+            Iterator<Map.Entry<String, CacheStatistics>> caches = configuration.getValue().getCaches().entrySet()
+                    .iterator();
+            while (caches.hasNext()) {
+                Map.Entry<String, CacheStatistics> cache = caches.next();
+                writer.write("\n        " + quote(cache.getKey()) + ": { \"hits\": " + cache.getValue().getHits()
+                        + ", \"misses\": " + cache.getValue().getMisses() + ", \"hitRatio\": "
+                        + String.format(Locale.ROOT, "%.4f", cache.getValue().getHitRatio()) + " }"
+                        + (caches.hasNext() ? "," : "\n      "));
+            }
+            writer.write("}\n    }" + (configurations.hasNext() ? "," : "\n  "));
+        }
+        writer.write("}\n}\n");
+    }
+
+    void writeSummary(Writer writer) throws IOException {
+        writer.write("Dependency management profile of project '" + this.projectPath + "'" + NEW_LINE);
+        if (this.measurements.isEmpty()) {
+            writer.write(NEW_LINE + "No dependency management work was recorded" + NEW_LINE);
+            return;
+        }
+        for (Map.Entry<String, Measurements> configuration : this.measurements.entrySet()) {
+            writer.write(NEW_LINE + "Configuration '" + configuration.getKey() + "'" + NEW_LINE);
+            Map<String, PhaseStatistics> phases = configuration.getValue().getPhases();
+            if (!phases.isEmpty()) {
+                writer.write(String.format(Locale.ROOT, "    %-32s %12s %15s %15s%n", "Phase", "Invocations",
+                        "Wall time (ms)", "Allocated (KB)"));
+                for (Map.Entry<String, PhaseStatistics> phase : phases.entrySet()) {
+                    long allocatedBytes = phase.getValue().getAllocatedBytes();
+                    writer.write(String.format(Locale.ROOT, "    %-32s %12d %15.2f %15s%n", phase.getKey(),
+                            phase.getValue().getInvocations(), phase.getValue().getNanos() / 1000000.0,
+                            (allocatedBytes >= 0) ? Long.toString(allocatedBytes / 1024) : "n/a"));
+                }
+            }
+            Map<String, CacheStatistics> caches = configuration.getValue().getCaches();
+            if (!caches.isEmpty()) {
+                writer.write(String.format(Locale.ROOT, "    %-32s %12s %15s %15s%n", "Cache", "Hits", "Misses",
+                        "Hit ratio"));
+                for (Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+                    writer.write(String.format(Locale.ROOT, "    %-32s %12d %15d %14.1f%%%n", cache.getKey(),
+                            cache.getValue().getHits(), cache.getValue().getMisses(),
+                            cache.getValue().getHitRatio() * 100));
+                }
+            }
+        }
+    }
+
+    private static String toJson(long value) {
+        return (value >= 0) ? Long.toString(value) : "null";
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            }
+            else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+}
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gradle.api.invocation.Gradle;
+
+/**
+ * A build-wide profiler of the work performed by dependency management. While the profiler is enabled, the time
+ * spent in each phase of the work, the number of times each phase is entered, and the number of hits and misses of
+ * each cache are recorded against the project and configuration on whose behalf the work is performed. Where the JVM
+ * supports it, the bytes allocated by the thread that performed each phase are also recorded.
+ *
+ * <p>The project and configuration are identified by the {@link Scope} that is current on the thread performing the
+ * work. Work that is performed without a current scope is not recorded. Scopes are also entered while the profiler is
+ * disabled when the JVM supports {@link FlightRecorderEvents JFR events} so that the events can identify the project
+ * and configuration. Phases may be nested, in which case the
+ * measurements of the outer phase include those of the inner phase.
+ *
+ * @author agent (agent@local)
+ */
+public final class Profiler {
+
+    private static final Map<Gradle, Profiler> profilers = new WeakHashMap<Gradle, Profiler>();
+
+    private static final ThreadLocal<Scope> currentScope = new ThreadLocal<Scope>();
+
+    private static final AllocationCounter allocationCounter = AllocationCounter.create();
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Measurements>> measurements =
+            new ConcurrentHashMap<String, ConcurrentMap<String, Measurements>>();
+
+    private volatile boolean enabled;
+
+    Profiler() {
+    }
+
+    /**
+     * Returns the {@code Profiler} for the build of the given {@code gradle}, creating it if necessary.
+     *
+     * @param gradle the gradle
+     * @return the profiler for the build
+     */
+    public static Profiler forBuild(Gradle gradle) {
+        synchronized (profilers) {
+            Profiler profiler = profilers.get(gradle);
+            if (profiler == null) {
+                profiler = new Profiler();
+                profilers.put(gradle, profiler);
+            }
+            return profiler;
+        }
+    }
+
+    /**
+     * Sets whether or not the profiler is enabled. Nothing is recorded while the profiler is disabled, which it is by
+     * default.
+     *
+     * @param enabled whether or not the profiler is enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether or not the profiler is enabled.
+     *
+     * @return {@code true} if the profiler is enabled, otherwise {@code false}
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Enters a scope in which work is recorded against the configuration with the given {@code configurationName} in
+     * the project with the given {@code projectPath}. The scope must be {@link Scope#exit() exited} on the same
+     * thread.
+     *
+     * @param projectPath the path of the project
+     * @param configurationName the name of the configuration
+     * @return the scope
+     */
+    public Scope enter(String projectPath, String configurationName) {
+        if (!this.enabled && !FlightRecorderEvents.isAvailable()) {
+            return Scope.NONE;
+        }
+        return Scope.enter(new Scope(projectPath, configurationName,
+                this.enabled ? getMeasurements(projectPath, configurationName) : null, currentScope.get()));
+    }
+
+    /**
+     * Returns the scope that is current on the calling thread so that it can be {@link #resume(Scope) resumed} on
+     * another thread.
+     *
+     * @return the current scope
+     */
+    public static Scope currentScope() {
+        Scope scope = currentScope.get();
+        return (scope != null) ? scope : Scope.NONE;
+    }
+
+    /**
+     * Resumes the given {@code scope}, which was obtained on another thread, on the calling thread. The returned scope
+     * must be {@link Scope#exit() exited} on the calling thread.
+     *
+     * @param scope the scope to resume
+     * @return the resumed scope
+     */
+    public static Scope resume(Scope scope) {
+        if (scope == Scope.NONE) {
+            return Scope.NONE;
+        }
+        return Scope.enter(new Scope(scope.projectPath, scope.configurationName, scope.measurements,
+                currentScope.get()));
+    }
+
+    /**
+     * Starts a sample of the phase with the given {@code name} on the calling thread. The sample must be
+     * {@link Sample#stop() stopped} on the same thread.
+     *
+     * @param name the name of the phase
+     * @return the sample
+     */
+    public static Sample start(String name) {
+        Scope scope = currentScope.get();
+        if (scope == null || scope.measurements == null) {
+            return Sample.NONE;
+        }
+        return new Sample(scope.measurements.getPhase(name), System.nanoTime(), allocationCounter.get());
+    }
+
+    /**
+     * Records a hit or a miss of the cache with the given {@code name}.
+     *
+     * @param name the name of the cache
+     * @param hit {@code true} for a hit or {@code false} for a miss
+     */
+    public static void recordCacheAccess(String name, boolean hit) {
+        FlightRecorderEvents.recordCacheAccess(hit);
+        Scope scope = currentScope.get();
+        if (scope != null && scope.measurements != null) {
+            CacheStatistics statistics = scope.measurements.getCache(name);
+            (hit ? statistics.hits : statistics.misses).incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns whether or not the bytes allocated by each phase are being measured.
+     *
+     * @return {@code true} if allocations are measured, otherwise {@code false}
+     */
+    public static boolean isMeasuringAllocations() {
+        return allocationCounter.get() >= 0;
+    }
+
+    /**
+     * Returns a snapshot of the measurements recorded for the configurations of the project with the given
+     * {@code projectPath}, keyed by configuration name.
+     *
+     * @param projectPath the path of the project
+     * @return the measurements
+     */
+    public Map<String, Measurements> getMeasurements(String projectPath) {
+        Map<String, Measurements> snapshot = new TreeMap<String, Measurements>();
+        Map<String, Measurements> byConfiguration = this.measurements.get(projectPath);
+        if (byConfiguration != null) {
+            snapshot.putAll(byConfiguration);
+        }
+        return snapshot;
+    }
+
+    private Measurements getMeasurements(String projectPath, String configurationName) {
+        ConcurrentMap<String, Measurements> byConfiguration = this.measurements.get(projectPath);
+        if (byConfiguration == null) {
+            byConfiguration = new ConcurrentHashMap<String, Measurements>();
+            ConcurrentMap<String, Measurements> existing = this.measurements.putIfAbsent(projectPath,
+                    byConfiguration);
+            byConfiguration = (existing != null) ? existing : byConfiguration;
+        }
+        Measurements measurements = byConfiguration.get(configurationName);
+        if (measurements == null) {
+            measurements = new Measurements();
+            Measurements existing = byConfiguration.putIfAbsent(configurationName, measurements);
+            measurements = (existing != null) ? existing : measurements;
+        }
+        return measurements;
+    }
+
+    /**
+     * A scope in which work is recorded against a particular project and configuration.
+     */
+    public static final class Scope {
+
+        private static final Scope NONE = new Scope(null, null, null, null);
+
+        private final String projectPath;
+
+        private final String configurationName;
+
+        private final Measurements measurements;
+
+        private final Scope previous;
+
+        private Scope(String projectPath, String configurationName, Measurements measurements, Scope previous) {
+            this.projectPath = projectPath;
+            this.configurationName = configurationName;
+            this.measurements = measurements;
+            this.previous = previous;
+        }
+
+        private static Scope enter(Scope scope) {
+            currentScope.set(scope);
+            return scope;
+        }
+
+        String getProjectPath() {
+            return this.projectPath;
+        }
+
+        String getConfigurationName() {
+            return this.configurationName;
+        }
+
+        /**
+         * Exits this scope, restoring the scope that was current when it was entered.
+         */
+        public void exit() {
+            if (this == NONE) {
+                return;
+            }
+            if (this.previous != null) {
+                currentScope.set(this.previous);
+            }
+            else {
+                currentScope.remove();
+            }
+        }
+
+    }
+
+    /**
+     * A sample of the time spent in, and the bytes allocated by, a phase.
+     */
+    public static final class Sample {
+
+        private static final Sample NONE = new Sample(null, 0, 0);
+
+        private final PhaseStatistics statistics;
+
+        private final long startNanos;
+
+        private final long startBytes;
+
+        private Sample(PhaseStatistics statistics, long startNanos, long startBytes) {
+            this.statistics = statistics;
+            this.startNanos = startNanos;
+            this.startBytes = startBytes;
+        }
+
+        /**
+         * Stops the sample, recording its measurements.
+         */
+        public void stop() {
+            if (this.statistics == null) {
+                return;
+            }
+            this.statistics.invocations.incrementAndGet();
+            this.statistics.nanos.addAndGet(System.nanoTime() - this.startNanos);
+            if (this.startBytes >= 0) {
+                this.statistics.allocatedBytes.addAndGet(allocationCounter.get() - this.startBytes);
+            }
+        }
+
+    }
+
+    /**
+     * The measurements recorded for a configuration.
+     */
+    public static final class Measurements {
+
+        private final ConcurrentMap<String, PhaseStatistics> phases = new ConcurrentHashMap<String, PhaseStatistics>();
+
+        private final ConcurrentMap<String, CacheStatistics> caches = new ConcurrentHashMap<String, CacheStatistics>();
+
+        /**
+         * Returns the statistics for each phase, keyed by phase name.
+         *
+         * @return the phase statistics
+         */
+        public Map<String, PhaseStatistics> getPhases() {
+            return new TreeMap<String, PhaseStatistics>(this.phases);
+        }
+
+        /**
+         * Returns the statistics for each cache, keyed by cache name.
+         *
+         * @return the cache statistics
+         */
+        public Map<String, CacheStatistics> getCaches() {
+            return new TreeMap<String, CacheStatistics>(this.caches);
+        }
+
+        private PhaseStatistics getPhase(String name) {
+            PhaseStatistics statistics = this.phases.get(name);
+            if (statistics == null) {
+                statistics = new PhaseStatistics();
+                PhaseStatistics existing = this.phases.putIfAbsent(name, statistics);
+                statistics = (existing != null) ? existing : statistics;
+            }
+            return statistics;
+        }
+
+        private CacheStatistics getCache(String name) {
+            CacheStatistics statistics = this.caches.get(name);
+            if (statistics == null) {
+                statistics = new CacheStatistics();
+                CacheStatistics existing = this.caches.putIfAbsent(name, statistics);
+                statistics = (existing != null) ? existing : statistics;
+            }
+            return statistics;
+        }
+
+    }
+
+    /**
+     * The statistics recorded for a phase.
+     */
+    public static final class PhaseStatistics {
+
+        private final AtomicLong invocations = new AtomicLong();
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        private final AtomicLong allocatedBytes = new AtomicLong();
+
+        /**
+         * Returns the number of times the phase was entered.
+         *
+         * @return the number of invocations
+         */
+        public long getInvocations() {
+            return this.invocations.get();
+        }
+
+        /**
+         * Returns the wall time spent in the phase, in nanoseconds.
+         *
+         * @return the wall time
+         */
+        public long getNanos() {
+            return this.nanos.get();
+        }
+
+        /**
+         * Returns the number of bytes allocated by the phase or {@code -1} if allocations are not being measured.
+         *
+         * @return the allocated bytes or {@code -1}
+         */
+        public long getAllocatedBytes() {
+            return isMeasuringAllocations() ? this.allocatedBytes.get() : -1;
+        }
+
+    }
+
+    /**
+     * The statistics recorded for a cache.
+     */
+    public static final class CacheStatistics {
+
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        /**
+         * Returns the number of hits.
+         *
+         * @return the hits
+         */
+        public long getHits() {
+            return this.hits.get();
+        }
+
+        /**
+         * Returns the number of misses.
+         *
+         * @return the misses
+         */
+        public long getMisses() {
+            return this.misses.get();
+        }
+
+        /**
+         * Returns the ratio of hits to all accesses or {@code 0} if the cache has not been accessed.
+         *
+         * @return the hit ratio
+         */
+        public double getHitRatio() {
+            long hits = getHits();
+            long accesses = hits + getMisses();
+            return (accesses > 0) ? (double) hits / accesses : 0;
+        }
+
+    }
+
+    /**
+     * Counts the bytes allocated by the current thread using the HotSpot-specific extension of
+     * {@link ThreadMXBean}, where available.
+     */
+    private static final class AllocationCounter {
+
+        private final ThreadMXBean threadMXBean;
+
+        private final Method getThreadAllocatedBytes;
+
+        private AllocationCounter(ThreadMXBean threadMXBean, Method getThreadAllocatedBytes) {
+            this.threadMXBean = threadMXBean;
+            this.getThreadAllocatedBytes = getThreadAllocatedBytes;
+        }
+
+        private static AllocationCounter create() {
+            try {
+                ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+                Method getThreadAllocatedBytes = Class.forName("com.sun.management.ThreadMXBean")
+                        .getMethod("getThreadAllocatedBytes", long.class);
+                if (getThreadAllocatedBytes.getDeclaringClass().isInstance(threadMXBean)) {
+                    return new AllocationCounter(threadMXBean, getThreadAllocatedBytes);
+                }
+            }
+            catch (Exception ex) {
+                // Allocations will not be measured
+            }
+            return new AllocationCounter(null, null);
+        }
+
+        /**
+         * Returns the bytes allocated by the current thread or {@code -1} if they cannot be measured.
+         */
+        private long get() {
+            if (this.getThreadAllocatedBytes == null) {
+                return -1;
+            }
+            try {
+                return (Long) this.getThreadAllocatedBytes.invoke(this.threadMXBean,
+                        Thread.currentThread().getId());
+            }
+            catch (Exception ex) {
+                return -1;
+            }
+        }
+
+    }
+
+}
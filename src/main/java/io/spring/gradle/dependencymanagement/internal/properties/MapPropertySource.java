@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,4 +41,20 @@ public class MapPropertySource implements PropertySource {
         return this.properties.get(name);
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return this.properties.equals(((MapPropertySource) obj).properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.properties.hashCode();
+    }
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.properties;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread-safe {@link PropertySource} that memoizes the results of looking up properties in another source. Both
+ * hits and misses are memoized so that each property is only looked up in the delegate once, effectively taking a
+ * snapshot of the properties that are used. The memoized results are discarded when the source is
+ * {@link #invalidate() invalidated}.
+ *
+ * @author agent (agent@local)
+ */
+public class MemoizingPropertySource implements PropertySource {
+
+    private static final Object MISSING = new Object();
+
+    private final ConcurrentMap<String, Object> properties = new ConcurrentHashMap<String, Object>();
+
+    private final PropertySource delegate;
+
+    /**
+     * Creates a new {@code MemoizingPropertySource} that will memoize the properties of the given {@code delegate}.
+     *
+     * @param delegate the delegate
+     */
+    public MemoizingPropertySource(PropertySource delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        Object property = this.properties.get(name);
+        if (property == null) {
+            property = this.delegate.getProperty(name);
+            if (property == null) {
+                property = MISSING;
+            }
+            this.properties.putIfAbsent(name, property);
+        }
+        return property == MISSING ? null : property;
+    }
+
+    /**
+     * Invalidates the memoized properties, causing them to be looked up again the next time that they are used. This
+     * should be called when the delegate's properties may have changed.
+     */
+    public void invalidate() {
+        this.properties.clear();
+    }
+
+}
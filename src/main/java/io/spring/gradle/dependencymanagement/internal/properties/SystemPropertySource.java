@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.properties;
+
+import java.util.Properties;
+
+/**
+ * A {@link PropertySource} backed by a snapshot of the JVM's system properties.
+ *
+ * @author agent (agent@local)
+ */
+public class SystemPropertySource implements PropertySource {
+
+    private final Properties systemProperties;
+
+    /**
+     * Creates a new {@code SystemPropertySource} backed by the given snapshot of the JVM's {@code systemProperties}.
+     *
+     * @param systemProperties the system properties
+     */
+    public SystemPropertySource(Properties systemProperties) {
+        this.systemProperties = systemProperties;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return this.systemProperties.getProperty(name);
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.report;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
+
+/**
+ * The contents of a report that describes a {@link Project Project's} dependency management. The report is captured
+ * from the project and its {@link DependencyManagementContainer} and can then be serialized and rendered without
+ * either of them.
+ *
+ * @author agent (agent@local)
+ */
+final class DependencyManagementReport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean rootProject;
+
+    private final String projectPath;
+
+    private final String projectDescription;
+
+    private final Map<String, String> globalManagedVersions;
+
+    private final Map<String, Map<String, String>> configurationManagedVersions;
+
+    private DependencyManagementReport(boolean rootProject, String projectPath, String projectDescription,
+            Map<String, String> globalManagedVersions, Map<String, Map<String, String>> configurationManagedVersions) {
+        this.rootProject = rootProject;
+        this.projectPath = projectPath;
+        this.projectDescription = projectDescription;
+        this.globalManagedVersions = globalManagedVersions;
+        this.configurationManagedVersions = configurationManagedVersions;
+    }
+
+    static DependencyManagementReport capture(Project project,
+            DependencyManagementContainer dependencyManagementContainer) {
+        Map<String, Map<String, String>> configurationManagedVersions = new TreeMap<String, Map<String, String>>();
+        for (Configuration configuration: project.getConfigurations()) {
+            configurationManagedVersions.put(configuration.getName(),
+                    dependencyManagementContainer.getManagedVersionsForConfiguration(configuration));
+        }
+        return new DependencyManagementReport(project.getRootProject().equals(project), project.getPath(),
+                project.getDescription(), dependencyManagementContainer.getManagedVersionsForConfiguration(null),
+                configurationManagedVersions);
+    }
+
+    void render(DependencyManagementReportRenderer renderer) {
+        renderer.startProject(this.rootProject, this.projectPath, this.projectDescription);
+        renderer.renderGlobalManagedVersions(this.globalManagedVersions);
+        for (Map.Entry<String, Map<String, String>> entry: this.configurationManagedVersions.entrySet()) {
+            renderer.renderConfigurationManagedVersions(entry.getValue(), entry.getKey(),
+                    this.globalManagedVersions);
+        }
+    }
+
+}
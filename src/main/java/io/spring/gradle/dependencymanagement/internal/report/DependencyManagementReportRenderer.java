@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,6 @@ import java.util.Map;
 import java.util.TreeMap;
 
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
 
 /**
  * {@code DependencyManagementReportRenderer} renders a report the describes a {@link Project Project's} dependency
@@ -42,19 +41,19 @@ class DependencyManagementReportRenderer {
         this.output = writer;
     }
 
-    void startProject(final Project project) {
+    void startProject(boolean rootProject, String path, String description) {
         this.output.println();
         this.output.println("------------------------------------------------------------");
         String heading;
-        if (project.getRootProject().equals(project)) {
+        if (rootProject) {
             heading = "Root project";
         }
         else {
-            heading = "Project " + project.getPath();
+            heading = "Project " + path;
         }
 
-        if (project.getDescription() != null) {
-            heading += " - " + project.getDescription();
+        if (description != null) {
+            heading += " - " + description;
         }
 
         this.output.println(heading);
@@ -102,9 +101,9 @@ class DependencyManagementReportRenderer {
     }
 
     void renderConfigurationManagedVersions(Map<String, String> managedVersions,
-            final Configuration configuration, Map<String, String> globalManagedVersions) {
-        renderDependencyManagementHeader(configuration.getName(),
-                "Dependency management for the " + configuration.getName() + " configuration");
+            String configurationName, Map<String, String> globalManagedVersions) {
+        renderDependencyManagementHeader(configurationName,
+                "Dependency management for the " + configurationName + " configuration");
 
         if (managedVersions != null && !managedVersions.isEmpty()) {
             if (!managedVersions.equals(globalManagedVersions)) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,27 +16,25 @@
 
 package io.spring.gradle.dependencymanagement.internal.report;
 
-import java.util.Comparator;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-
 import org.gradle.api.DefaultTask;
-import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.tasks.TaskAction;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
 
 /**
- * Task to display the dependency management for a project.
+ * Task to display the dependency management for a project. The contents of the report are captured before the task
+ * graph is executed so that, once captured, the task does not need to access the project or its dependency
+ * management.
  *
  * @author Andy Wilkinson.
  */
 public class DependencyManagementReportTask extends DefaultTask {
 
-    private DependencyManagementContainer dependencyManagementContainer;
+    private transient DependencyManagementContainer dependencyManagementContainer;
+
+    private transient DependencyManagementReportRenderer renderer;
 
-    private DependencyManagementReportRenderer renderer = new DependencyManagementReportRenderer();
+    private DependencyManagementReport report;
 
     void setRenderer(DependencyManagementReportRenderer renderer) {
         this.renderer = renderer;
@@ -51,33 +49,22 @@ public class DependencyManagementReportTask extends DefaultTask {
         this.dependencyManagementContainer = dependencyManagementContainer;
     }
 
+    /**
+     * Captures the contents of the report from the project's dependency management.
+     */
+    public void captureReport() {
+        this.report = DependencyManagementReport.capture(getProject(), this.dependencyManagementContainer);
+    }
+
     /**
      * {@link TaskAction} that produces the dependency management report.
      */
     @TaskAction
     public void report() {
-        this.renderer.startProject(getProject());
-
-        Map<String, String> globalManagedVersions =
-                this.dependencyManagementContainer.getManagedVersionsForConfiguration(null);
-
-        this.renderer.renderGlobalManagedVersions(globalManagedVersions);
-
-        Set<Configuration> configurations = new TreeSet<Configuration>(
-                new Comparator<Configuration>() {
-                        @Override
-                        public int compare(Configuration one, Configuration two) {
-                            return one.getName().compareTo(two.getName());
-                        }
-                }
-        );
-        configurations.addAll(getProject().getConfigurations());
-        for (Configuration configuration: configurations) {
-            Map<String, String> managedVersions =
-                    this.dependencyManagementContainer.getManagedVersionsForConfiguration(configuration);
-            this.renderer.renderConfigurationManagedVersions(managedVersions, configuration,
-                    globalManagedVersions);
+        if (this.report == null) {
+            captureReport();
         }
+        this.report.render((this.renderer != null) ? this.renderer : new DependencyManagementReportRenderer());
     }
 
 }
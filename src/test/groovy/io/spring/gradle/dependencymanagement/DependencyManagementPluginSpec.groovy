@@ -17,6 +17,8 @@
 package io.spring.gradle.dependencymanagement
 
 import io.spring.gradle.dependencymanagement.internal.dsl.StandardDependencyManagementExtension
+import io.spring.gradle.dependencymanagement.internal.profile.DependencyManagementProfileTask
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler
 import org.gradle.api.Action
 import org.gradle.api.GradleException
 import org.gradle.api.InvalidUserDataException
@@ -54,6 +56,67 @@ public class DependencyManagementPluginSpec extends Specification {
         project.tasks.getByName("dependencyManagement")
     }
 
+    def "Plugin provides the dependency management profile task"() {
+        when: 'The plugin is applied'
+        project.apply plugin: 'io.spring.dependency-management'
+        then: 'The profile task is available'
+        project.tasks.getByName("dependencyManagementProfile")
+    }
+
+    def "The dependency management profile task writes a profile of each configuration"() {
+        given: 'A project with the plugin applied that imports a bom'
+        project.apply plugin: 'io.spring.dependency-management'
+        project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        project.configurations { managed }
+        project.dependencyManagement {
+            imports {
+                mavenBom 'test:direct-exclude-bom:1.0'
+            }
+        }
+        project.dependencies {
+            managed 'org.springframework:spring-tx:4.1.2.RELEASE'
+        }
+        Profiler.forBuild(project.gradle).enabled = true
+        when: 'The profile task is executed'
+        DependencyManagementProfileTask task = project.tasks.getByName("dependencyManagementProfile")
+        task.profile()
+        then: 'The work for the configuration has been recorded and written'
+        Map<String, Profiler.Measurements> measurements = Profiler.forBuild(project.gradle).getMeasurements(project.path)
+        measurements.managed.phases.keySet().containsAll(['bomResolution', 'versionConfiguration',
+                'exclusions.copyResolution', 'exclusions.traversal'])
+        measurements.managed.phases.versionConfiguration.invocations > 0
+        measurements.managed.caches.excludedDependencies.misses == 1
+        task.jsonFile.text.contains('"managed": {')
+        task.summaryFile.text.contains("Configuration 'managed'")
+    }
+
+    def "The dependency management profile task skips configurations that cannot be resolved"() {
+        given: 'A project with the plugin and the java plugin applied'
+        project.apply plugin: 'io.spring.dependency-management'
+        project.apply plugin: 'java'
+        project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        project.dependencyManagement {
+            imports {
+                mavenBom 'test:direct-exclude-bom:1.0'
+            }
+        }
+        project.dependencies {
+            runtimeOnly 'org.springframework:spring-tx:4.1.2.RELEASE'
+        }
+        Profiler.forBuild(project.gradle).enabled = true
+        when: 'The profile task is executed'
+        DependencyManagementProfileTask task = project.tasks.getByName("dependencyManagementProfile")
+        task.profile()
+        then: 'The resolvable configurations have been profiled'
+        Map<String, Profiler.Measurements> measurements = Profiler.forBuild(project.gradle).getMeasurements(project.path)
+        measurements.runtimeClasspath.phases.versionConfiguration.invocations > 0
+        task.summaryFile.text.contains("Configuration 'runtimeClasspath'")
+    }
+
     def "Customization of generated poms can be disabled"() {
         given: 'A project with the plugin applied'
             project.apply plugin: 'io.spring.dependency-management'
@@ -850,6 +913,97 @@ public class DependencyManagementPluginSpec extends Specification {
                                                    'spring-core-4.1.2.RELEASE.jar'])
     }
 
+    def 'An exclusion declared on the dependency that has the excluded dependency is honoured when using poms'() {
+        given: 'A project with the plugin applied that finds Maven exclusions using poms'
+            project.apply plugin: 'io.spring.dependency-management'
+            project.apply plugin: 'java'
+            project.repositories {
+                maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+            }
+            project.dependencyManagement {
+                mavenExclusionsFromPoms = true
+            }
+        when: 'It depends on a module that directly excludes commons-logging'
+            project.dependencies {
+                compile 'test:direct-exclude:1.0'
+            }
+            def files = project.configurations.compile.resolve()
+        then: "commons-logging has been excluded"
+            files.size() == 4
+            files.collect { it.name }.containsAll(['direct-exclude-1.0.jar',
+                                                   'spring-tx-4.1.2.RELEASE.jar',
+                                                   'spring-beans-4.1.2.RELEASE.jar',
+                                                   'spring-core-4.1.2.RELEASE.jar'])
+    }
+
+    def 'A dependency with an otherwise excluded transitive dependency overrides the exclude when using poms'() {
+        given: 'A project with the plugin applied that finds Maven exclusions using poms'
+            project.apply plugin: 'io.spring.dependency-management'
+            project.apply plugin: 'java'
+            project.repositories {
+                maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+            }
+            project.dependencyManagement {
+                mavenExclusionsFromPoms = true
+            }
+        when: 'It depends on a module that directly excludes commons-logging and one that does not'
+            project.dependencies {
+                compile 'test:direct-exclude:1.0'
+                compile 'org.springframework:spring-core:4.1.2.RELEASE'
+            }
+            def files = project.configurations.compile.resolve()
+        then: "commons-logging has not been excluded"
+            files.size() == 5
+            files.collect { it.name }.contains('commons-logging-1.1.3.jar')
+    }
+
+    def 'Exclusions found using poms are not cached on disk when persistent exclusion caching is disabled'() {
+        given: 'A project with the plugin applied that finds Maven exclusions using poms without caching them on disk'
+            project.apply plugin: 'io.spring.dependency-management'
+            project.repositories {
+                maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+            }
+            project.configurations { managed }
+            project.dependencyManagement {
+                mavenExclusionsFromPoms = true
+                persistentExclusionCache = false
+            }
+        when: 'It depends on a module that directly excludes commons-logging'
+            project.dependencies {
+                managed 'test:direct-exclude:1.0'
+            }
+            def files = project.configurations.managed.resolve()
+        then: 'commons-logging has been excluded and no exclusions have been cached on disk'
+            files.collect { it.name }.containsAll(['direct-exclude-1.0.jar', 'spring-tx-4.1.2.RELEASE.jar'])
+            !files.collect { it.name }.contains('commons-logging-1.1.3.jar')
+            !new File(project.gradle.gradleUserHomeDir, 'caches/dependency-management/exclusions-1.bin').exists()
+    }
+
+    def 'A transitive exclusion declared in a bom is honoured when using poms'() {
+        given: 'A project with the plugin applied that finds Maven exclusions using poms'
+            project.apply plugin: 'io.spring.dependency-management'
+            project.apply plugin: 'java'
+            project.repositories {
+                maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+            }
+        when: 'It imports a bom that transitively excludes commons-logging'
+            project.dependencyManagement {
+                mavenExclusionsFromPoms = true
+                imports {
+                    mavenBom 'test:transitive-exclude-bom:1.0'
+                }
+            }
+            project.dependencies {
+                compile 'org.springframework:spring-tx:4.1.2.RELEASE'
+            }
+            def files = project.configurations.compile.resolve()
+        then: "commons-logging has been excluded"
+            files.size() == 3
+            files.collect { it.name }.containsAll(['spring-tx-4.1.2.RELEASE.jar',
+                                                   'spring-beans-4.1.2.RELEASE.jar',
+                                                   'spring-core-4.1.2.RELEASE.jar'])
+    }
+
     def 'Exclusions are not inherited and do not affect direct dependencies (see gh-21)'() {
         given: 'A project with the plugin applied'
             project.apply plugin: 'io.spring.dependency-management'
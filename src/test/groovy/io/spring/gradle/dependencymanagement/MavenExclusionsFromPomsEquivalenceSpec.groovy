@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement
+
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Tests that verify that finding the dependencies excluded by Maven-style exclusions using poms produces the same
+ * result as finding them by resolving a copy of each configuration.
+ *
+ * @author agent (agent@local)
+ */
+class MavenExclusionsFromPomsEquivalenceSpec extends Specification {
+
+    List<Project> projects = []
+
+    def cleanup() {
+        this.projects*.projectDir*.deleteDir()
+    }
+
+    @Unroll
+    def "Exclusions found using poms are equivalent to those found by resolution when #scenario"() {
+        when: 'A configuration is resolved with and without finding Maven exclusions using poms'
+        List<String> fromResolution = resolve(false, dependencies, boms, managed)
+        List<String> fromPoms = resolve(true, dependencies, boms, managed)
+        then: 'The same files are resolved'
+        fromPoms == fromResolution
+        and: 'Dependencies have been excluded where expected'
+        fromResolution.contains('commons-logging-1.1.3.jar') == commonsLogging
+        where:
+        scenario                                             | dependencies                                                                 | boms                                         | managed                                                                                | commonsLogging
+        'a dependency excludes a dependency'                 | ['test:direct-exclude:1.0']                                                  | []                                           | [:]                                                                                    | false
+        'another dependency has an unexcluded path'          | ['test:direct-exclude:1.0', 'org.springframework:spring-core:4.1.2.RELEASE'] | []                                           | [:]                                                                                    | true
+        'a dependency excludes a transitive dependency'      | ['test:transitive-exclude:1.0']                                              | []                                           | [:]                                                                                    | false
+        'a bom excludes a dependency'                        | ['org.springframework:spring-tx:4.1.2.RELEASE']                              | ['test:direct-exclude-bom:1.0']              | [:]                                                                                    | false
+        'a bom excludes a transitive dependency'             | ['org.springframework:spring-tx:4.1.2.RELEASE']                              | ['test:transitive-exclude-bom:1.0']          | [:]                                                                                    | false
+        'dependency management excludes a dependency'        | ['org.springframework:spring-tx:4.1.2.RELEASE']                              | []                                           | ['org.springframework:spring-core:4.1.2.RELEASE': ['commons-logging:commons-logging']] | false
+        'an excluded dependency is also a direct dependency' | ['test:direct-exclude:1.0', 'commons-logging:commons-logging:1.1.3']         | []                                           | [:]                                                                                    | true
+        'a bom excludes an unresolvable dependency'          | ['test:unresolvable-transitive-dependency']                                  | ['test:exclude-unresolvable-dependency:1.0'] | [:]                                                                                    | false
+    }
+
+    private List<String> resolve(boolean mavenExclusionsFromPoms, List<String> dependencies, List<String> boms,
+            Map<String, List<String>> managed) {
+        Project project = new ProjectBuilder().build()
+        this.projects << project
+        project.apply plugin: 'io.spring.dependency-management'
+        project.repositories {
+            mavenCentral()
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        project.configurations.create('managed')
+        project.dependencyManagement {
+            delegate.mavenExclusionsFromPoms = mavenExclusionsFromPoms
+            imports {
+                boms.each { mavenBom it }
+            }
+            delegate.dependencies {
+                managed.each { coordinates, exclusions ->
+                    dependency(coordinates) {
+                        exclusions.each { exclude it }
+                    }
+                }
+            }
+        }
+        dependencies.each { project.dependencies.add('managed', it) }
+        return project.configurations.managed.resolve().collect { it.name }.sort()
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver
+import io.spring.gradle.dependencymanagement.internal.profile.Profiler
+import org.gradle.api.Action
+import org.gradle.api.Project
+import org.gradle.api.artifacts.Configuration
+import org.gradle.api.artifacts.DependencyResolveDetails
+import org.gradle.api.artifacts.ModuleVersionSelector
+import org.gradle.api.artifacts.ResolutionStrategy
+import org.gradle.api.artifacts.ResolvableDependencies
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+/**
+ * Tests for {@link DependencyManagementApplier}.
+ *
+ * @author agent (agent@local)
+ */
+class DependencyManagementApplierSpec extends Specification {
+
+    Project project = ProjectBuilder.builder().build()
+
+    DependencyManagementContainer container
+
+    DependencyManagementApplier applier
+
+    def setup() {
+        DependencyManagementConfigurationContainer configurationContainer =
+                new DependencyManagementConfigurationContainer(this.project)
+        MavenPomResolver pomResolver = new MavenPomResolver(this.project, configurationContainer)
+        this.container = new DependencyManagementContainer(this.project, pomResolver)
+        this.applier = new DependencyManagementApplier(this.project, this.container, configurationContainer,
+                new DependencyManagementSettings(), pomResolver)
+    }
+
+    def 'The version configuring action that is registered with a configuration can be serialized'() {
+        given: 'A configuration with dependency management'
+        Action<DependencyResolveDetails> action = registeredAction()
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '1.0', [])
+        DependencyResolveDetails details = details('com.example', 'alpha')
+        when: 'The registered action is serialized and deserialized and then applied to the managed dependency'
+        roundTrip(action).execute(details)
+        then: 'The deserialized action applies the captured dependency management'
+        1 * details.useVersion('1.0')
+    }
+
+    def 'A serialized version configuring action does not reflect subsequent changes to dependency management'() {
+        given: 'A configuration with dependency management that has been serialized'
+        Action<DependencyResolveDetails> action = registeredAction()
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '1.0', [])
+        byte[] serialized = serialize(action)
+        DependencyResolveDetails details = details('com.example', 'alpha')
+        when: 'The dependency management changes and the deserialized action is applied to the managed dependency'
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '2.0', [])
+        deserialize(serialized).execute(details)
+        then: 'The version that was managed when the action was serialized is used'
+        1 * details.useVersion('1.0')
+    }
+
+    def 'Once dependency management has been resolved, no profiler scope is entered when the profiler is disabled'() {
+        given: 'A configuration whose dependency management has been resolved'
+        Action<DependencyResolveDetails> action = registeredAction()
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '1.0', [])
+        action.execute(details('com.example', 'alpha'))
+        DependencyResolveDetails details = details('com.example', 'alpha')
+        Profiler.Scope scope = null
+        when: 'The action is applied to the managed dependency'
+        action.execute(details)
+        then: 'The version is applied without entering a scope'
+        1 * details.useVersion('1.0') >> { scope = Profiler.currentScope() }
+        scope.is(Profiler.Scope.NONE)
+    }
+
+    def 'Once dependency management has been resolved, a profiler scope is entered when the profiler is enabled'() {
+        given: 'A configuration whose dependency management has been resolved and an enabled profiler'
+        Action<DependencyResolveDetails> action = registeredAction()
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '1.0', [])
+        action.execute(details('com.example', 'alpha'))
+        Profiler.forBuild(this.project.gradle).enabled = true
+        DependencyResolveDetails details = details('com.example', 'alpha')
+        Profiler.Scope scope = null
+        when: 'The action is applied to the managed dependency'
+        action.execute(details)
+        then: 'The version is applied in the scope of the configuration'
+        1 * details.useVersion('1.0') >> { scope = Profiler.currentScope() }
+        scope.configurationName == 'managed'
+    }
+
+    private Action<DependencyResolveDetails> registeredAction() {
+        Configuration configuration = Mock(Configuration)
+        ResolutionStrategy resolutionStrategy = Mock(ResolutionStrategy)
+        Action<DependencyResolveDetails> action = null
+        configuration.getName() >> 'managed'
+        configuration.getHierarchy() >> ([configuration] as Set)
+        configuration.getExtendsFrom() >> ([] as Set)
+        configuration.getAllDependencies() >> this.project.configurations.detachedConfiguration().allDependencies
+        configuration.getIncoming() >> Mock(ResolvableDependencies)
+        configuration.getResolutionStrategy() >> resolutionStrategy
+        resolutionStrategy.eachDependency(_) >> { arguments ->
+            action = arguments[0]
+            return resolutionStrategy
+        }
+        this.applier.execute(configuration)
+        return action
+    }
+
+    private DependencyResolveDetails details(String group, String name) {
+        ModuleVersionSelector requested = Mock(ModuleVersionSelector)
+        requested.getGroup() >> group
+        requested.getName() >> name
+        DependencyResolveDetails details = Mock(DependencyResolveDetails)
+        details.getRequested() >> requested
+        return details
+    }
+
+    private Action<DependencyResolveDetails> roundTrip(Action<DependencyResolveDetails> action) {
+        return deserialize(serialize(action))
+    }
+
+    private byte[] serialize(Object object) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).withStream { it.writeObject(object) }
+        return bytes.toByteArray()
+    }
+
+    private Action<DependencyResolveDetails> deserialize(byte[] bytes) {
+        return new ObjectInputStream(new ByteArrayInputStream(bytes)).withStream { it.readObject() }
+    }
+
+}
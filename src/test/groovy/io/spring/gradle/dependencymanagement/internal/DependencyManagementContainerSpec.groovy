@@ -0,0 +1,218 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates
+import io.spring.gradle.dependencymanagement.internal.pom.PomResolver
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+/**
+ * Tests for {@link DependencyManagementContainer}.
+ *
+ * @author agent (agent@local)
+ */
+class DependencyManagementContainerSpec extends Specification {
+
+    Project project = new ProjectBuilder().build()
+
+    PomResolver pomResolver = Mock(PomResolver)
+
+    DependencyManagementContainer container = new DependencyManagementContainer(this.project, this.pomResolver)
+
+    def 'Prefetching resolves each distinct imported bom once'() {
+        given: 'Global and configuration-specific dependency management that import the same bom'
+        def configuration = this.project.configurations.create('test')
+        this.container.importBom(null, new Coordinates('test', 'alpha', '1.0'), new MapPropertySource([:]))
+        this.container.importBom(configuration, new Coordinates('test', 'alpha', '1.0'), new MapPropertySource([:]))
+        this.container.importBom(configuration, new Coordinates('test', 'bravo', '1.0'), new MapPropertySource([:]))
+        when: 'The imported boms are prefetched'
+        this.container.prefetchImportedBoms()
+        then: 'The distinct boms are resolved together'
+        1 * this.pomResolver.resolvePoms({ it*.coordinates*.artifactId == ['alpha', 'bravo'] }, _) >> []
+        0 * this.pomResolver._
+    }
+
+    def 'Prefetching resolves different versions or properties of the same bom in separate batches'() {
+        given: 'Dependency management that imports two versions of a bom and one with different properties'
+        def configuration = this.project.configurations.create('test')
+        this.container.importBom(null, new Coordinates('test', 'alpha', '1.0'), new MapPropertySource([:]))
+        this.container.importBom(null, new Coordinates('test', 'bravo', '1.0'), new MapPropertySource([:]))
+        this.container.importBom(configuration, new Coordinates('test', 'alpha', '2.0'), new MapPropertySource([:]))
+        this.container.importBom(configuration, new Coordinates('test', 'alpha', '1.0'),
+                new MapPropertySource(['alpha.version': '1.1']))
+        when: 'The imported boms are prefetched'
+        this.container.prefetchImportedBoms()
+        then: 'Each batch contains at most one version of each bom'
+        1 * this.pomResolver.resolvePoms({ it*.coordinates*.artifactId == ['alpha', 'bravo'] }, _) >> []
+        1 * this.pomResolver.resolvePoms({ it*.coordinates*.version == ['2.0'] }, _) >> []
+        1 * this.pomResolver.resolvePoms({ it*.coordinates*.version == ['1.0'] && it[0].properties.getProperty('alpha.version') == '1.1' }, _) >> []
+        0 * this.pomResolver._
+    }
+
+    def 'Project properties are looked up again when a configuration is resolved'() {
+        given: 'Project properties that have been memoized while prefetching an imported bom'
+        def configuration = this.project.configurations.create('test')
+        this.project.ext['alpha.version'] = '1.0'
+        this.container.importBom(null, new Coordinates('test', 'alpha', '1.0'), new MapPropertySource([:]))
+        PropertySource properties = null
+        this.pomResolver.resolvePoms(_, _) >> { references, projectProperties ->
+            properties = projectProperties
+            []
+        }
+        this.container.prefetchImportedBoms()
+        properties.getProperty('alpha.version')
+        when: 'A property is changed'
+        this.project.ext['alpha.version'] = '2.0'
+        then: 'Its memoized value is used'
+        properties.getProperty('alpha.version') == '1.0'
+        when: 'A configuration is resolved'
+        this.container.resolve(configuration)
+        then: 'Its new value is used'
+        properties.getProperty('alpha.version') == '2.0'
+    }
+
+    def 'Project properties are looked up again when they are invalidated'() {
+        given: 'Project properties that have been memoized while prefetching an imported bom'
+        this.project.ext['alpha.version'] = '1.0'
+        this.container.importBom(null, new Coordinates('test', 'alpha', '1.0'), new MapPropertySource([:]))
+        PropertySource properties = null
+        this.pomResolver.resolvePoms(_, _) >> { references, projectProperties ->
+            properties = projectProperties
+            []
+        }
+        this.container.prefetchImportedBoms()
+        properties.getProperty('alpha.version')
+        when: 'A property is changed and the project properties are invalidated'
+        this.project.ext['alpha.version'] = '2.0'
+        this.container.invalidateProjectProperties()
+        then: 'Its new value is used'
+        properties.getProperty('alpha.version') == '2.0'
+    }
+
+    def 'Managed versions of a configuration share the views of the configurations it extends'() {
+        given: 'A configuration that extends another'
+        def parent = this.project.configurations.create('parent')
+        def child = this.project.configurations.create('child').extendsFrom(parent)
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '1.0', [])
+        this.container.addManagedVersion(null, 'com.example', 'bravo', '1.0', [])
+        this.container.addManagedVersion(parent, 'com.example', 'bravo', '2.0', [])
+        this.container.addManagedVersion(child, 'com.example', 'charlie', '3.0', [])
+        when: 'The managed versions of both configurations are retrieved'
+        def parentVersions = this.container.getManagedVersionsForConfiguration(parent)
+        def childVersions = this.container.getManagedVersionsForConfiguration(child)
+        then: 'The child view is layered on the parent view'
+        childVersions == ['com.example:alpha': '1.0', 'com.example:bravo': '2.0', 'com.example:charlie': '3.0']
+        childVersions.@parent.is(parentVersions)
+        this.container.getManagedVersionsForConfiguration(child).is(childVersions)
+    }
+
+    def 'Managed versions of a configuration reflect changes to its dependency management and hierarchy'() {
+        given: 'A configuration whose managed versions have been retrieved'
+        def configuration = this.project.configurations.create('test')
+        def other = this.project.configurations.create('other')
+        this.container.addManagedVersion(other, 'com.example', 'alpha', '1.0', [])
+        def before = this.container.getManagedVersionsForConfiguration(configuration)
+        when: 'Its dependency management and hierarchy are changed'
+        this.container.addManagedVersion(configuration, 'com.example', 'bravo', '1.0', [])
+        def afterManagement = this.container.getManagedVersionsForConfiguration(configuration)
+        configuration.extendsFrom(other)
+        def afterHierarchy = this.container.getManagedVersionsForConfiguration(configuration)
+        then: 'The managed versions are updated'
+        before.isEmpty()
+        afterManagement == ['com.example:bravo': '1.0']
+        afterHierarchy == ['com.example:alpha': '1.0', 'com.example:bravo': '1.0']
+    }
+
+    def 'Managed versions of a configuration with multiple parents prefer the first parent'() {
+        given: 'A configuration that extends two configurations that manage the same dependency'
+        def first = this.project.configurations.create('first')
+        def second = this.project.configurations.create('second')
+        def configuration = this.project.configurations.create('test').extendsFrom(first, second)
+        this.container.addManagedVersion(first, 'com.example', 'alpha', '1.0', [])
+        this.container.addManagedVersion(second, 'com.example', 'alpha', '2.0', [])
+        when: 'The managed versions are retrieved'
+        def managedVersions = this.container.getManagedVersionsForConfiguration(configuration)
+        then: 'The first parent wins'
+        managedVersions['com.example:alpha'] == this.container.getManagedVersion(configuration, 'com.example', 'alpha')
+        managedVersions['com.example:alpha'] == '1.0'
+    }
+
+    def 'Managed version lookups reflect changes to the hierarchy'() {
+        given: 'A configuration whose managed version has been looked up'
+        def configuration = this.project.configurations.create('test')
+        def other = this.project.configurations.create('other')
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '1.0', [])
+        this.container.addManagedVersion(other, 'com.example', 'alpha', '2.0', [])
+        def before = this.container.getManagedVersion(configuration, 'com.example', 'alpha')
+        when: 'The configuration extends another configuration with different dependency management'
+        configuration.extendsFrom(other)
+        def after = this.container.getManagedVersion(configuration, 'com.example', 'alpha')
+        then: 'The lookup uses the new hierarchy'
+        before == '1.0'
+        after == '2.0'
+    }
+
+    def 'Managed versions of a configuration reflect changes to the hierarchy of its parent'() {
+        given: 'A configuration whose parent\'s managed versions have been retrieved through it'
+        def grandparent = this.project.configurations.create('grandparent')
+        def parent = this.project.configurations.create('parent')
+        def child = this.project.configurations.create('child').extendsFrom(parent)
+        this.container.addManagedVersion(grandparent, 'com.example', 'alpha', '1.0', [])
+        def before = this.container.getManagedVersionsForConfiguration(child)
+        when: 'The parent extends another configuration'
+        parent.extendsFrom(grandparent)
+        def after = this.container.getManagedVersionsForConfiguration(child)
+        then: 'The child\'s managed versions include those of the new grandparent and are reused'
+        before.isEmpty()
+        after == ['com.example:alpha': '1.0']
+        this.container.getManagedVersionsForConfiguration(child).is(after)
+    }
+
+    def 'Exclusions of a configuration are merged once and cannot be modified'() {
+        given: 'Global and configuration-specific dependency management with exclusions'
+        def configuration = this.project.configurations.create('test')
+        this.container.addManagedVersion(null, 'com.example', 'alpha', '1.0', ['com.example:bravo'])
+        this.container.addManagedVersion(configuration, 'com.example', 'alpha', '1.0', ['com.example:charlie'])
+        when: 'The exclusions are retrieved twice'
+        Exclusions exclusions = this.container.getExclusions(configuration)
+        then: 'They are merged from the hierarchy and global dependency management and reused'
+        exclusions.exclusionsForDependency('com.example:alpha') == ['com.example:bravo', 'com.example:charlie'] as Set
+        this.container.getExclusions(configuration).is(exclusions)
+        when: 'The exclusions are modified'
+        exclusions.add('com.example:alpha', ['com.example:delta'])
+        then: 'The modification is rejected'
+        thrown(UnsupportedOperationException)
+    }
+
+    def 'Exclusions of a configuration reflect changes to its dependency management'() {
+        given: 'A configuration whose exclusions have been retrieved'
+        def configuration = this.project.configurations.create('test')
+        this.container.addManagedVersion(configuration, 'com.example', 'alpha', '1.0', ['com.example:bravo'])
+        Exclusions before = this.container.getExclusions(configuration)
+        when: 'Another managed version with exclusions is added'
+        this.container.addManagedVersion(configuration, 'com.example', 'charlie', '1.0', ['com.example:delta'])
+        Exclusions after = this.container.getExclusions(configuration)
+        then: 'The exclusions are merged again'
+        before.exclusionsForDependency('com.example:charlie') == null
+        after.exclusionsForDependency('com.example:charlie') == ['com.example:delta'] as Set
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import java.nio.file.Files
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates
+import io.spring.gradle.dependencymanagement.internal.pom.PomResolver
+import io.spring.gradle.dependencymanagement.internal.profile.FlightRecorderEvents
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+/**
+ * Tests for {@link DependencyManagement}.
+ *
+ * @author agent (agent@local)
+ */
+class DependencyManagementSpec extends Specification {
+
+    Project project
+
+    PomResolver pomResolver
+
+    def setup() {
+        this.project = new ProjectBuilder().build()
+        this.project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        this.pomResolver = new MavenPomResolver(this.project, new DependencyManagementConfigurationContainer(project))
+        DependencyManagementContainer container = new DependencyManagementContainer(this.project, this.pomResolver)
+        container.importBom(null, new Coordinates('test', 'imported-bom', '1.0'), new MapPropertySource([:]))
+        container.compileBomIndexes()
+    }
+
+    def cleanup() {
+        this.project.projectDir.deleteDir()
+    }
+
+    def 'Compiled bom indexes are used in place of resolving the imported boms'() {
+        given: 'Dependency management that imports a bom that has been indexed'
+        PomResolver resolver = Mock(PomResolver)
+        DependencyManagementContainer container = new DependencyManagementContainer(this.project, resolver)
+        container.importBom(null, new Coordinates('test', 'imported-bom', '1.0'), new MapPropertySource([:]))
+        when: 'The managed versions are retrieved'
+        Map<String, String> managedVersions = container.getManagedVersionsForConfiguration(null)
+        String managedVersion = container.getManagedVersion(null, 'org.springframework', 'spring-core')
+        then: 'They are read from the index and the bom is not resolved'
+        0 * resolver._
+        managedVersions == ['org.springframework:spring-core': '4.1.2.RELEASE']
+        managedVersion == '4.1.2.RELEASE'
+        container.importedPropertiesForConfiguration(null) == ['spring.version': '4.1.2.RELEASE']
+    }
+
+    def 'A bom index is not used when a property that was used to compile it has changed'() {
+        given: 'Dependency management that imports an indexed bom and overrides one of its properties'
+        PomResolver resolver = Mock(PomResolver)
+        DependencyManagementContainer container = new DependencyManagementContainer(this.project, resolver)
+        container.importBom(null, new Coordinates('test', 'imported-bom', '1.0'),
+                new MapPropertySource(['spring.version': '4.1.3.RELEASE']))
+        when: 'The managed versions are retrieved'
+        Map<String, String> managedVersions = container.getManagedVersionsForConfiguration(null)
+        then: 'The bom is resolved rather than using the index'
+        1 * resolver.resolvePoms(_, _) >> { references, properties ->
+            this.pomResolver.resolvePoms(references, properties)
+        }
+        managedVersions == ['org.springframework:spring-core': '4.1.3.RELEASE']
+    }
+
+    def 'A bom compiled with different property values has an index for each of them'() {
+        given: 'A bom that has also been indexed with one of its properties overridden'
+        DependencyManagementContainer compiling = new DependencyManagementContainer(this.project, this.pomResolver)
+        compiling.importBom(null, new Coordinates('test', 'imported-bom', '1.0'),
+                new MapPropertySource(['spring.version': '4.1.3.RELEASE']))
+        compiling.compileBomIndexes()
+        and: 'Dependency management that imports the bom with and without the override'
+        PomResolver resolver = Mock(PomResolver)
+        DependencyManagementContainer overriding = new DependencyManagementContainer(this.project, resolver)
+        overriding.importBom(null, new Coordinates('test', 'imported-bom', '1.0'),
+                new MapPropertySource(['spring.version': '4.1.3.RELEASE']))
+        DependencyManagementContainer plain = new DependencyManagementContainer(this.project, resolver)
+        plain.importBom(null, new Coordinates('test', 'imported-bom', '1.0'), new MapPropertySource([:]))
+        when: 'The managed versions are retrieved'
+        Map<String, String> overridingVersions = overriding.getManagedVersionsForConfiguration(null)
+        Map<String, String> plainVersions = plain.getManagedVersionsForConfiguration(null)
+        then: 'Each is read from its own index and the bom is not resolved'
+        0 * resolver._
+        overridingVersions == ['org.springframework:spring-core': '4.1.3.RELEASE']
+        plainVersions == ['org.springframework:spring-core': '4.1.2.RELEASE']
+    }
+
+    def 'A bom index is not used when the bom from which it was compiled has changed'() {
+        given: 'A project with a bom index compiled from a bom in its own repository'
+        Project project = new ProjectBuilder().build()
+        File repository = new File(project.projectDir, 'maven-repo')
+        File bom = new File(repository, 'test/imported-bom/1.0/imported-bom-1.0.pom')
+        bom.parentFile.mkdirs()
+        bom.text = new File('src/test/resources/maven-repo/test/imported-bom/1.0/imported-bom-1.0.pom').text
+        project.repositories {
+            maven { url repository.toURI().toURL().toString() }
+        }
+        PomResolver pomResolver = new MavenPomResolver(project, new DependencyManagementConfigurationContainer(project))
+        DependencyManagementContainer compiling = new DependencyManagementContainer(project, pomResolver)
+        compiling.importBom(null, new Coordinates('test', 'imported-bom', '1.0'), new MapPropertySource([:]))
+        compiling.compileBomIndexes()
+        and: 'A later build of the project in which the bom has changed'
+        bom.text = bom.text.replace('4.1.2.RELEASE', '4.1.5.RELEASE')
+        Project laterProject = new ProjectBuilder().withProjectDir(project.projectDir).build()
+        laterProject.repositories {
+            maven { url repository.toURI().toURL().toString() }
+        }
+        PomResolver resolver = Mock(PomResolver)
+        DependencyManagementContainer container = new DependencyManagementContainer(laterProject, resolver)
+        container.importBom(null, new Coordinates('test', 'imported-bom', '1.0'), new MapPropertySource([:]))
+        when: 'The managed versions are retrieved'
+        Map<String, String> managedVersions = container.getManagedVersionsForConfiguration(null)
+        then: 'The bom is resolved rather than using the index'
+        1 * resolver.resolvePoms(_, _) >> { references, properties ->
+            new MavenPomResolver(laterProject, new DependencyManagementConfigurationContainer(laterProject))
+                    .resolvePoms(references, properties)
+        }
+        managedVersions == ['org.springframework:spring-core': '4.1.5.RELEASE']
+        cleanup:
+        project.projectDir.deleteDir()
+    }
+
+    @IgnoreIf({ !FlightRecorderEvents.isAvailable() })
+    def 'Resolution of boms that are served from the pom cache is recorded as a cache hit'() {
+        given: 'A recording of bom resolution events'
+        def recording = Class.forName('jdk.jfr.Recording').newInstance()
+        recording.enable('io.spring.dependencymanagement.BomResolution')
+        recording.start()
+        and: 'Properties that prevent the bom index from being used'
+        Map<String, String> properties = ['spring.version': UUID.randomUUID().toString()]
+        when: 'Two sets of dependency management resolve the same bom'
+        2.times {
+            DependencyManagementContainer container = new DependencyManagementContainer(this.project,
+                    this.pomResolver)
+            container.importBom(null, new Coordinates('test', 'imported-bom', '1.0'),
+                    new MapPropertySource(properties))
+            container.getManagedVersionsForConfiguration(null)
+        }
+        recording.stop()
+        def events = readEvents(recording)
+        then: 'The first resolution built the bom and the second was served from the cache'
+        events.size() == 2
+        !events[0].getBoolean('cacheHit')
+        events[1].getBoolean('cacheHit')
+        cleanup:
+        recording?.close()
+    }
+
+    private List<Object> readEvents(def recording) {
+        def dump = Files.createTempFile('bom-resolution-events', '.jfr')
+        try {
+            recording.dump(dump)
+            return Class.forName('jdk.jfr.consumer.RecordingFile').readAllEvents(dump)
+                    .findAll { it.eventType.name == 'io.spring.dependencymanagement.BomResolution' }
+        }
+        finally {
+            Files.delete(dump)
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import org.gradle.api.Project
+import org.gradle.api.artifacts.Dependency
+import org.gradle.api.artifacts.ModuleDependency
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+import io.spring.gradle.dependencymanagement.internal.ExclusionConfiguringAction.DependencyCandidate
+
+/**
+ * Tests for {@link ExcludedDependenciesCache}.
+ *
+ * @author agent (agent@local)
+ */
+class ExcludedDependenciesCacheSpec extends Specification {
+
+    Project project = ProjectBuilder.builder().build()
+
+    ExcludedDependenciesCache cache = new ExcludedDependenciesCache()
+
+    def 'Configurations with the same dependencies and dependency management have equal keys'() {
+        expect:
+        key(['com.example:alpha:1.0', 'com.example:bravo:1.0'], ['com.example:alpha': '1.0']) ==
+                key(['com.example:alpha:1.0', 'com.example:bravo:1.0'], ['com.example:alpha': '1.0'])
+    }
+
+    def 'Configurations that declare the same dependencies in a different order have different keys'() {
+        expect:
+        key(['com.example:alpha:1.0', 'com.example:bravo:1.0'], ['com.example:alpha': '1.0']) !=
+                key(['com.example:bravo:1.0', 'com.example:alpha:1.0'], ['com.example:alpha': '1.0'])
+    }
+
+    def 'Configurations with different dependencies have different keys'() {
+        expect:
+        key(['com.example:alpha:1.0'], [:]) != key(['com.example:alpha:2.0'], [:])
+        key(['com.example:alpha:1.0'], [:]) != key(['com.example:alpha:1.0', 'com.example:bravo:1.0'], [:])
+    }
+
+    def 'Configurations with different dependency management have different keys'() {
+        expect:
+        key(['com.example:alpha:1.0'], ['com.example:bravo': '1.0']) !=
+                key(['com.example:alpha:1.0'], ['com.example:bravo': '2.0'])
+        key(['com.example:alpha:1.0'], [:]) !=
+                key(['com.example:alpha:1.0'], [:], ['com.example:alpha': ['com.example:bravo']])
+    }
+
+    def 'A dependency\'s exclusions and transitivity are part of the key'() {
+        given:
+        Dependency excluding = project.dependencies.create('com.example:alpha:1.0')
+        ((ModuleDependency) excluding).exclude(group: 'com.example', module: 'bravo')
+        Dependency intransitive = project.dependencies.create('com.example:alpha:1.0')
+        ((ModuleDependency) intransitive).transitive = false
+        expect:
+        key(['com.example:alpha:1.0'], [:]) != key([excluding], [:])
+        key(['com.example:alpha:1.0'], [:]) != key([intransitive], [:])
+    }
+
+    def 'Excluded dependencies are cached by key'() {
+        given:
+        ExcludedDependenciesCache.Key alphaKey = key(['com.example:alpha:1.0'], [:])
+        Set<DependencyCandidate> excluded = [new DependencyCandidate('com.example', 'bravo')] as Set
+        when:
+        Set<DependencyCandidate> missed = cache.get(alphaKey)
+        Set<DependencyCandidate> cached = cache.put(alphaKey, excluded)
+        then:
+        missed == null
+        cached == excluded
+        cache.get(key(['com.example:alpha:1.0'], [:])).is(cached)
+    }
+
+    def 'Configurations with the same managed exclusions share an expansion cache'() {
+        given:
+        Exclusions exclusions = new Exclusions()
+        exclusions.add('com.example:alpha', ['com.example:bravo'])
+        Exclusions sameExclusions = new Exclusions()
+        sameExclusions.add('com.example:alpha', ['com.example:bravo'])
+        expect:
+        cache.getExpansionCache(exclusions).is(cache.getExpansionCache(sameExclusions))
+        !cache.getExpansionCache(exclusions).is(cache.getExpansionCache(new Exclusions()))
+    }
+
+    private ExcludedDependenciesCache.Key key(List<Object> dependencies, Map<String, String> managedVersions,
+            Map<String, List<String>> managedExclusions = [:]) {
+        Exclusions exclusions = new Exclusions()
+        managedExclusions.each { dependency, excluded -> exclusions.add(dependency, excluded) }
+        SymbolTable symbols = new SymbolTable()
+        ManagedVersions versions = new ManagedVersions()
+        managedVersions.each { key, version ->
+            String[] components = key.split(':')
+            versions.put(symbols.intern(components[0]), symbols.intern(components[1]), symbols.intern(version))
+        }
+        ResolvedDependencyManagement dependencyManagement = new ResolvedDependencyManagement(
+                new ManagedVersionIndex(symbols, versions, []), exclusions)
+        return ExcludedDependenciesCache.createKey(dependencyManagement, dependencies.collect {
+            it instanceof Dependency ? it : project.dependencies.create(it)
+        })
+    }
+
+}
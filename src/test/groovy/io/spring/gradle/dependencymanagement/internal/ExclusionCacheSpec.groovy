@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ExclusionCache}.
+ *
+ * @author agent (agent@local)
+ */
+class ExclusionCacheSpec extends Specification {
+
+    File directory
+
+    File file
+
+    def setup() {
+        this.directory = File.createTempFile("exclusion-cache", "")
+        this.directory.delete()
+        this.directory.mkdirs()
+        this.file = new File(this.directory, "exclusions.bin")
+    }
+
+    def cleanup() {
+        this.directory.deleteDir()
+    }
+
+    def 'Exclusions are cached by version and lookups are counted'() {
+        given: 'A cache containing the exclusions of one version of a module'
+        ExclusionCache cache = new ExclusionCache(10, null, false)
+        cache.putAll(['com.example:alpha:1.0': exclusions('com.example:bravo', 'com.example:charlie')])
+        when: 'Two versions of the module are looked up'
+        Exclusions cached = cache.get('com.example:alpha:1.0')
+        Exclusions other = cache.get('com.example:alpha:2.0')
+        then: 'Only the cached version is found'
+        cached.exclusionsForDependency('com.example:bravo') == ['com.example:charlie'] as Set
+        other == null
+        cache.hits == 1
+        cache.misses == 1
+    }
+
+    def 'The least recently used entry is evicted when the cache is full'() {
+        given: 'A full cache'
+        ExclusionCache cache = new ExclusionCache(2, null, false)
+        cache.putAll(['com.example:alpha:1.0': new Exclusions(), 'com.example:bravo:1.0': new Exclusions()])
+        when: 'An entry is used and another is added'
+        cache.get('com.example:alpha:1.0')
+        cache.putAll(['com.example:charlie:1.0': new Exclusions()])
+        then: 'The least recently used entry has been evicted'
+        cache.size() == 2
+        cache.get('com.example:alpha:1.0') != null
+        cache.get('com.example:bravo:1.0') == null
+        cache.get('com.example:charlie:1.0') != null
+    }
+
+    def 'Cached exclusions cannot be modified'() {
+        given: 'A cache containing exclusions'
+        ExclusionCache cache = new ExclusionCache(10, null, false)
+        cache.putAll(['com.example:alpha:1.0': exclusions('com.example:bravo', 'com.example:charlie')])
+        when: 'The cached exclusions are modified'
+        cache.get('com.example:alpha:1.0').add('com.example:bravo', ['com.example:delta'])
+        then: 'The modification is rejected'
+        thrown(UnsupportedOperationException)
+    }
+
+    def 'Exclusions are persisted for use by subsequent caches'() {
+        given: 'A cache with a file that contains the exclusions of a release and of a snapshot'
+        new ExclusionCache(10, this.file, false).putAll([
+                'com.example:alpha:1.0': exclusions('com.example:bravo', 'com.example:charlie'),
+                'com.example:alpha:1.1-SNAPSHOT': exclusions('com.example:bravo', 'com.example:delta')])
+        new ExclusionCache(10, this.file, false).putAll(['com.example:echo:1.0': new Exclusions()])
+        when: 'A new cache is created with the same file'
+        ExclusionCache cache = new ExclusionCache(10, this.file, false)
+        then: 'It contains the persisted exclusions of the release'
+        cache.get('com.example:alpha:1.0').exclusionsForDependency('com.example:bravo') == ['com.example:charlie'] as Set
+        cache.get('com.example:echo:1.0') != null
+        cache.get('com.example:alpha:1.1-SNAPSHOT') == null
+    }
+
+    def 'Persisted exclusions are ignored when the cache is refreshed'() {
+        given: 'A cache with a file that contains exclusions'
+        new ExclusionCache(10, this.file, false).putAll(['com.example:alpha:1.0': new Exclusions()])
+        when: 'A new cache is created with the same file and refresh enabled'
+        ExclusionCache cache = new ExclusionCache(10, this.file, true)
+        then: 'It does not contain the persisted exclusions'
+        cache.get('com.example:alpha:1.0') == null
+        new ExclusionCache(10, this.file, false).size() == 0
+    }
+
+    def 'An unreadable file is discarded'() {
+        given: 'A corrupt file'
+        this.file.text = 'corrupt'
+        when: 'A cache is created with the file'
+        ExclusionCache cache = new ExclusionCache(10, this.file, false)
+        then: 'It is empty and the file has been deleted'
+        cache.size() == 0
+        !this.file.exists()
+    }
+
+    def 'A partial entry at the end of the file is ignored'() {
+        given: 'A file whose last entry has been partially written'
+        new ExclusionCache(10, this.file, false).putAll(['com.example:alpha:1.0': new Exclusions()])
+        long complete = this.file.length()
+        new ExclusionCache(10, this.file, false).putAll(['com.example:bravo:1.0': new Exclusions()])
+        RandomAccessFile partial = new RandomAccessFile(this.file, 'rw')
+        partial.length = this.file.length() - 2
+        partial.close()
+        when: 'A cache is created with the file and another entry is added'
+        ExclusionCache cache = new ExclusionCache(10, this.file, false)
+        cache.putAll(['com.example:charlie:1.0': new Exclusions()])
+        then: 'The complete entries have been kept and the partial entry has been discarded'
+        cache.get('com.example:alpha:1.0') != null
+        cache.get('com.example:bravo:1.0') == null
+        this.file.length() > complete
+        ExclusionCache reread = new ExclusionCache(10, this.file, false)
+        reread.get('com.example:alpha:1.0') != null
+        reread.get('com.example:charlie:1.0') != null
+        reread.size() == 2
+    }
+
+    def 'The file is compacted once it exceeds its maximum size'() {
+        given: 'A file that exceeds its maximum size'
+        new ExclusionCache(10, this.file, 0, false).putAll(['com.example:alpha:1.0': new Exclusions(),
+                'com.example:bravo:1.0': new Exclusions(), 'com.example:charlie:1.0': new Exclusions()])
+        long uncompacted = this.file.length()
+        when: 'A cache that is too small to hold all of the entries adds an entry'
+        ExclusionCache cache = new ExclusionCache(2, this.file, 0, false)
+        cache.putAll(['com.example:delta:1.0': new Exclusions()])
+        then: 'The file has been rewritten with the entries held by the cache'
+        this.file.length() < uncompacted
+        !new File(this.directory, 'exclusions.bin.tmp').exists()
+        ExclusionCache reread = new ExclusionCache(10, this.file, false)
+        reread.size() == 2
+        reread.get('com.example:delta:1.0') != null
+    }
+
+    def 'A cache without a file only holds its entries in memory'() {
+        given: 'A cache without a file'
+        ExclusionCache cache = new ExclusionCache(10, null, false)
+        when: 'Exclusions are cached'
+        cache.putAll(['com.example:alpha:1.0': new Exclusions()])
+        then: 'They are held in memory and no file has been written'
+        cache.get('com.example:alpha:1.0') != null
+        this.directory.listFiles().length == 0
+    }
+
+    private Exclusions exclusions(String dependency, String... excluded) {
+        Exclusions exclusions = new Exclusions()
+        exclusions.add(dependency, excluded as List)
+        return exclusions
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import java.util.concurrent.Callable
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates
+import io.spring.gradle.dependencymanagement.internal.pom.Pom
+import io.spring.gradle.dependencymanagement.internal.pom.PomReference
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ImportedBomPrefetcher}.
+ *
+ * @author agent (agent@local)
+ */
+class ImportedBomPrefetcherSpec extends Specification {
+
+    Project rootProject = new ProjectBuilder().withName('root').build()
+
+    Project childProject = new ProjectBuilder().withName('child').withParent(this.rootProject).build()
+
+    List<List<String>> stages = []
+
+    def setup() {
+        [this.rootProject, this.childProject].each { project ->
+            project.repositories {
+                maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+            }
+        }
+    }
+
+    def 'Prefetching from the root project resolves the distinct boms of every project'() {
+        given: 'A root project and a child project that import the same bom and one other bom'
+        register(this.rootProject, 'imported-bom')
+        register(this.childProject, 'imported-bom', 'alpha-pom-customization-bom')
+        when: 'The root project prefetches'
+        ImportedBomPrefetcher.forBuild(this.rootProject).prefetch(this.rootProject)
+        then: 'Each distinct bom is resolved once by the first project that imports it'
+        this.stages == [['root:imported-bom'], ['child:alpha-pom-customization-bom']]
+        when: 'The child project prefetches'
+        ImportedBomPrefetcher.forBuild(this.childProject).prefetch(this.childProject)
+        then: 'Its boms have already been prefetched'
+        this.stages.size() == 2
+    }
+
+    def 'Prefetching from a subproject resolves only its own boms'() {
+        given: 'A root project and a child project that import different boms'
+        register(this.rootProject, 'imported-bom')
+        register(this.childProject, 'alpha-pom-customization-bom')
+        when: 'The child project prefetches'
+        ImportedBomPrefetcher.forBuild(this.childProject).prefetch(this.childProject)
+        then: 'Only its boms are resolved'
+        this.stages == [['child:alpha-pom-customization-bom']]
+        when: 'The root project prefetches'
+        ImportedBomPrefetcher.forBuild(this.rootProject).prefetch(this.rootProject)
+        then: 'Only the boms of the projects that have yet to be prefetched are resolved'
+        this.stages == [['child:alpha-pom-customization-bom'], ['root:imported-bom']]
+    }
+
+    private void register(Project project, String... boms) {
+        List<List<String>> stages = this.stages
+        MavenPomResolver pomResolver = new MavenPomResolver(project,
+                new DependencyManagementConfigurationContainer(project)) {
+
+            @Override
+            Callable<List<Callable<Pom>>> createStage(List<PomReference> pomReferences, PropertySource properties) {
+                stages << pomReferences.collect { project.name + ':' + it.coordinates.artifactId }
+                return super.createStage(pomReferences, properties)
+            }
+
+        }
+        DependencyManagementContainer container = new DependencyManagementContainer(project, pomResolver)
+        boms.each { bom ->
+            container.importBom(null, new Coordinates('test', bom, '1.0'), new MapPropertySource([:]))
+        }
+        ImportedBomPrefetcher.forBuild(project).register(project, container, pomResolver)
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+/**
+ * Tests for {@link LocalProjects}.
+ *
+ * @author agent (agent@local)
+ */
+class LocalProjectsSpec extends Specification {
+
+    Project rootProject = ProjectBuilder.builder().withName('root').build()
+
+    Project childProject = ProjectBuilder.builder().withName('child').withParent(rootProject).build()
+
+    def setup() {
+        rootProject.group = 'com.example'
+        childProject.group = 'com.example.child'
+    }
+
+    def 'Local projects are identified by their group and name'() {
+        when:
+        LocalProjects localProjects = LocalProjects.forBuild(childProject)
+        then:
+        localProjects.contains('com.example', 'root')
+        localProjects.contains('com.example.child', 'child')
+        !localProjects.contains('com.example', 'child')
+        !localProjects.contains('com.example.other', 'root')
+    }
+
+    def 'Local projects are shared across the build'() {
+        expect:
+        LocalProjects.forBuild(rootProject).is(LocalProjects.forBuild(childProject))
+    }
+
+    def 'Changes to a project\'s group are visible to subsequent lookups'() {
+        given:
+        LocalProjects localProjects = LocalProjects.forBuild(rootProject)
+        localProjects.contains('com.example', 'root')
+        when:
+        rootProject.group = 'com.example.changed'
+        then:
+        localProjects.contains('com.example.changed', 'root')
+        !localProjects.contains('com.example', 'root')
+    }
+
+    def 'A snapshot is not affected by subsequent changes to a project\'s group'() {
+        given:
+        Map<String, Set<String>> snapshot = LocalProjects.forBuild(rootProject).snapshot()
+        when:
+        rootProject.group = 'com.example.changed'
+        then:
+        snapshot == ['com.example': ['root'] as Set, 'com.example.child': ['child'] as Set]
+        LocalProjects.forBuild(rootProject).snapshot()['com.example.changed'] == ['root'] as Set
+    }
+
+    def 'The names in a snapshot cannot be modified'() {
+        given:
+        Map<String, Set<String>> snapshot = LocalProjects.forBuild(rootProject).snapshot()
+        when:
+        snapshot['com.example'].add('other')
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import io.spring.gradle.dependencymanagement.internal.pom.BomIndex
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency
+import io.spring.gradle.dependencymanagement.internal.pom.Pom
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ManagedVersionIndex}.
+ *
+ * @author agent (agent@local)
+ */
+class ManagedVersionIndexSpec extends Specification {
+
+    SymbolTable symbols = new SymbolTable()
+
+    List<File> indexFiles = []
+
+    def cleanup() {
+        this.indexFiles*.delete()
+    }
+
+    def 'Managed versions can be found by group and name'() {
+        given:
+        ManagedVersionIndex index = index(['com.example:alpha': '1.0', 'com.example:bravo': '2.0'])
+        expect:
+        index.get('com.example', 'alpha') == '1.0'
+        index.get('com.example', 'bravo') == '2.0'
+        index.get('com.example', 'charlie') == null
+        index.get('com.example.alpha', '') == null
+    }
+
+    def 'An empty index has no managed versions'() {
+        expect:
+        index([:]).get('com.example', 'alpha') == null
+    }
+
+    def 'An index of many managed versions finds each of them'() {
+        given:
+        Map<String, String> managedVersions = (0..<2000).collectEntries { ["group$it:name$it".toString(), "$it".toString()] }
+        when:
+        ManagedVersionIndex index = index(managedVersions)
+        then:
+        (0..<2000).every { index.get("group$it".toString(), "name$it".toString()) == "$it".toString() }
+        index.get('group1', 'name2') == null
+    }
+
+    def 'Versions in the table take precedence over those in later bom indexes which take precedence over earlier'() {
+        given:
+        ManagedVersionIndex index = index(['com.example:alpha': '1.0'],
+                [bomIndex(['com.example:alpha': '2.0', 'com.example:bravo': '2.0', 'com.example:charlie': '2.0']),
+                        bomIndex(['com.example:alpha': '3.0', 'com.example:bravo': '3.0'])])
+        expect:
+        index.get('com.example', 'alpha') == '1.0'
+        index.get('com.example', 'bravo') == '3.0'
+        index.get('com.example', 'charlie') == '2.0'
+        index.get('com.example', 'delta') == null
+    }
+
+    def 'Versions in an index take precedence over those in its parent'() {
+        given:
+        ManagedVersionIndex parent = index(['com.example:alpha': '1.0', 'com.example:bravo': '1.0'])
+        ManagedVersionIndex index = index(['com.example:alpha': '2.0']).withParent(parent)
+        expect:
+        index.get('com.example', 'alpha') == '2.0'
+        index.get('com.example', 'bravo') == '1.0'
+        parent.get('com.example', 'alpha') == '1.0'
+    }
+
+    def 'A layered index with bom indexes can be serialized'() {
+        given:
+        ManagedVersionIndex parent = index(['com.example:alpha': '1.0'], [bomIndex(['com.example:bravo': '1.0'])])
+        ManagedVersionIndex index = index(['com.example:charlie': '2.0'], [bomIndex(['com.example:delta': '2.0'])])
+                .withParent(parent)
+        when:
+        ManagedVersionIndex deserialized = roundTrip(index)
+        then:
+        deserialized.get('com.example', 'alpha') == '1.0'
+        deserialized.get('com.example', 'bravo') == '1.0'
+        deserialized.get('com.example', 'charlie') == '2.0'
+        deserialized.get('com.example', 'delta') == '2.0'
+        deserialized.get('com.example', 'echo') == null
+    }
+
+    def 'An index is a map of the merged managed versions keyed by group and name'() {
+        given:
+        ManagedVersionIndex parent = index(['com.example:alpha': '1.0', 'com.example:bravo': '1.0'],
+                [bomIndex(['com.example:charlie': '1.0'])])
+        ManagedVersionIndex index = index(['com.example:alpha': '2.0'], [bomIndex(['com.example:charlie': '2.0'])])
+                .withParent(parent)
+        expect:
+        index == ['com.example:alpha': '2.0', 'com.example:bravo': '1.0', 'com.example:charlie': '2.0']
+        index['com.example:charlie'] == '2.0'
+        index.containsKey('com.example:bravo')
+        !index.containsKey('com.example:delta')
+        !index.isEmpty()
+        this.index([:], [bomIndex([:])]).withParent(this.index([:])).isEmpty()
+    }
+
+    private ManagedVersionIndex index(Map<String, String> managedVersions, List<BomIndex> bomIndexes = []) {
+        ManagedVersions versions = new ManagedVersions()
+        managedVersions.each { key, version ->
+            String[] components = key.split(':')
+            versions.put(this.symbols.intern(components[0]), this.symbols.intern(components[1]),
+                    this.symbols.intern(version))
+        }
+        return new ManagedVersionIndex(this.symbols, versions, bomIndexes)
+    }
+
+    private BomIndex bomIndex(Map<String, String> managedVersions) {
+        File indexFile = File.createTempFile('bom', '.idx')
+        this.indexFiles << indexFile
+        List<Dependency> dependencies = managedVersions.collect { key, version ->
+            String[] components = key.split(':')
+            new Dependency(new Coordinates(components[0], components[1], version), [] as Set)
+        }
+        BomIndex.write(new Pom(new Coordinates('com.example', 'bom', '1.0'), dependencies, [], [:]), [:], indexFile)
+        return BomIndex.load(indexFile)
+    }
+
+    private ManagedVersionIndex roundTrip(ManagedVersionIndex index) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).withStream { it.writeObject(index) }
+        return new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).withStream { it.readObject() }
+    }
+
+}
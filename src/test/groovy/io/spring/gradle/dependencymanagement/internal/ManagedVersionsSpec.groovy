@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ManagedVersions}.
+ *
+ * @author agent (agent@local)
+ */
+class ManagedVersionsSpec extends Specification {
+
+    ManagedVersions managedVersions = new ManagedVersions()
+
+    def 'A version that has been put can be retrieved'() {
+        when:
+        managedVersions.put(1, 2, 3)
+        then:
+        managedVersions.get(1, 2) == 3
+        managedVersions.get(2, 1) == -1
+        managedVersions.size() == 1
+    }
+
+    def 'Putting a version for an existing dependency replaces its version in place'() {
+        when:
+        managedVersions.put(1, 2, 3)
+        managedVersions.put(4, 5, 6)
+        managedVersions.put(1, 2, 7)
+        then:
+        managedVersions.get(1, 2) == 7
+        managedVersions.size() == 2
+        managedVersions.getGroup(0) == 1
+        managedVersions.getVersion(0) == 7
+    }
+
+    def 'Versions are retained in insertion order as the table grows'() {
+        when:
+        (0..<1000).each { managedVersions.put(it, it + 1, it + 2) }
+        then:
+        managedVersions.size() == 1000
+        (0..<1000).every { managedVersions.get(it, it + 1) == it + 2 }
+        (0..<1000).every { managedVersions.getGroup(it) == it && managedVersions.getName(it) == it + 1 }
+    }
+
+    def 'Versions from another table override existing versions'() {
+        given:
+        managedVersions.put(1, 2, 3)
+        managedVersions.put(4, 5, 6)
+        ManagedVersions other = new ManagedVersions()
+        other.put(4, 5, 9)
+        when:
+        ManagedVersions copy = managedVersions.copy()
+        copy.putAll(other)
+        then:
+        copy.get(1, 2) == 3
+        copy.get(4, 5) == 9
+        managedVersions.get(4, 5) == 6
+    }
+
+}
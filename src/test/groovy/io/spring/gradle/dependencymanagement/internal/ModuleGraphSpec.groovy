@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ModuleGraph}.
+ *
+ * @author agent (agent@local)
+ */
+class ModuleGraphSpec extends Specification {
+
+    ModuleGraph graph = new ModuleGraph()
+
+    Exclusions managedExclusions = new Exclusions()
+
+    Map<String, Exclusions> pomExclusions = [:]
+
+    def 'A module is only added once'() {
+        when:
+        int first = graph.addModule('com.example', 'alpha')
+        then:
+        graph.addModule('com.example', 'alpha') == first
+        first != ModuleGraph.ROOT
+        graph.size() == 2
+    }
+
+    def 'Modules that are reachable from the root are not excluded'() {
+        given:
+        int alpha = graph.addModule('com.example', 'alpha')
+        int bravo = graph.addModule('com.example', 'bravo')
+        graph.addDependency(ModuleGraph.ROOT, alpha)
+        graph.addDependency(alpha, bravo)
+        graph.addDependency(bravo, alpha)
+        expect:
+        graph.findExcludedDependencies(managedExclusions, pomExclusions).isEmpty()
+    }
+
+    def 'Exclusions in a pom exclude the dependency\'s transitive dependencies'() {
+        given:
+        int alpha = graph.addModule('com.example', 'alpha')
+        int bravo = graph.addModule('com.example', 'bravo')
+        int charlie = graph.addModule('com.example', 'charlie')
+        int delta = graph.addModule('com.example', 'delta')
+        graph.addDependency(ModuleGraph.ROOT, alpha)
+        graph.addDependency(alpha, bravo)
+        graph.addDependency(bravo, charlie)
+        graph.addDependency(charlie, delta)
+        pomExclusions['com.example:alpha'] = exclusions('com.example:bravo', ['com.example:delta'])
+        expect:
+        graph.findExcludedDependencies(managedExclusions, pomExclusions)*.toString() == ['com.example:delta']
+    }
+
+    def 'Exclusions declared in dependency management apply wherever the dependency is reached'() {
+        given:
+        int alpha = graph.addModule('com.example', 'alpha')
+        int bravo = graph.addModule('com.example', 'bravo')
+        int charlie = graph.addModule('com.example', 'charlie')
+        graph.addDependency(ModuleGraph.ROOT, alpha)
+        graph.addDependency(alpha, bravo)
+        graph.addDependency(bravo, charlie)
+        managedExclusions.add('com.example:bravo', ['com.example:charlie'])
+        expect:
+        graph.findExcludedDependencies(managedExclusions, pomExclusions)*.toString() == ['com.example:charlie']
+    }
+
+    def 'Exclusions on one path do not leak onto a sibling'() {
+        given:
+        int alpha = graph.addModule('com.example', 'alpha')
+        int bravo = graph.addModule('com.example', 'bravo')
+        int charlie = graph.addModule('com.example', 'charlie')
+        int delta = graph.addModule('com.example', 'delta')
+        graph.addDependency(ModuleGraph.ROOT, alpha)
+        graph.addDependency(ModuleGraph.ROOT, bravo)
+        graph.addDependency(alpha, charlie)
+        graph.addDependency(bravo, delta)
+        managedExclusions.add('com.example:alpha', ['com.example:delta'])
+        expect:
+        graph.findExcludedDependencies(managedExclusions, pomExclusions).isEmpty()
+    }
+
+    def 'Exclusions of modules that are not in the graph are ignored'() {
+        given:
+        int alpha = graph.addModule('com.example', 'alpha')
+        int bravo = graph.addModule('com.example', 'bravo')
+        graph.addDependency(ModuleGraph.ROOT, alpha)
+        graph.addDependency(alpha, bravo)
+        managedExclusions.add('com.example:bravo', ['com.example:unknown'])
+        expect:
+        graph.findExcludedDependencies(managedExclusions, pomExclusions).isEmpty()
+    }
+
+    def 'A deep graph can be traversed'() {
+        given:
+        int previous = ModuleGraph.ROOT
+        (0..<5000).each {
+            int module = graph.addModule('com.example', "module-$it")
+            graph.addDependency(previous, module)
+            previous = module
+        }
+        managedExclusions.add('com.example:module-2500', ['com.example:module-2501'])
+        expect:
+        graph.findExcludedDependencies(managedExclusions, pomExclusions).size() == 2499
+    }
+
+    def 'Graphs that share an expansion cache are walked in the order in which their dependencies are declared'() {
+        given:
+        ComponentExpansionCache expansionCache = new ComponentExpansionCache()
+        ModuleGraph alphaFirst = sharedGraph(expansionCache, ['alpha', 'bravo'])
+        ModuleGraph bravoFirst = sharedGraph(expansionCache, ['bravo', 'alpha'])
+        pomExclusions['com.example:alpha'] = exclusions('com.example:charlie', ['com.example:delta'])
+        expect:
+        alphaFirst.findExcludedDependencies(managedExclusions, pomExclusions)*.toString() == ['com.example:delta']
+        bravoFirst.findExcludedDependencies(managedExclusions, pomExclusions).isEmpty()
+        alphaFirst.findExcludedDependencies(managedExclusions, pomExclusions)*.toString() == ['com.example:delta']
+    }
+
+    def 'A component\'s cached expansion is not reused when its dependencies differ'() {
+        given:
+        ComponentExpansionCache expansionCache = new ComponentExpansionCache()
+        ModuleGraph first = new ModuleGraph(expansionCache)
+        int alpha = first.addModule('com.example', 'alpha', '1.0')
+        first.addDependency(ModuleGraph.ROOT, alpha)
+        first.addDependency(alpha, first.addModule('com.example', 'bravo', '1.0'))
+        ModuleGraph second = new ModuleGraph(expansionCache)
+        int sameAlpha = second.addModule('com.example', 'alpha', '1.0')
+        second.addDependency(ModuleGraph.ROOT, sameAlpha)
+        second.addDependency(sameAlpha, second.addModule('com.example', 'bravo', '1.0'))
+        int charlie = second.addModule('com.example', 'charlie', '1.0')
+        second.addDependency(sameAlpha, charlie)
+        second.addDependency(charlie, second.addModule('com.example', 'delta', '1.0'))
+        pomExclusions['com.example:alpha'] = exclusions('com.example:charlie', ['com.example:delta'])
+        expect:
+        first.findExcludedDependencies(managedExclusions, pomExclusions).isEmpty()
+        second.findExcludedDependencies(managedExclusions, pomExclusions)*.toString() == ['com.example:delta']
+    }
+
+    private ModuleGraph sharedGraph(ComponentExpansionCache expansionCache, List<String> rootDependencies) {
+        ModuleGraph graph = new ModuleGraph(expansionCache)
+        rootDependencies.each { graph.addDependency(ModuleGraph.ROOT, graph.addModule('com.example', it, '1.0')) }
+        int charlie = graph.addModule('com.example', 'charlie', '1.0')
+        graph.addDependency(graph.addModule('com.example', 'alpha', '1.0'), charlie)
+        graph.addDependency(graph.addModule('com.example', 'bravo', '1.0'), charlie)
+        graph.addDependency(charlie, graph.addModule('com.example', 'delta', '1.0'))
+        return graph
+    }
+
+    private Exclusions exclusions(String dependency, List<String> excluded) {
+        Exclusions exclusions = new Exclusions()
+        exclusions.add(dependency, excluded)
+        return exclusions
+    }
+
+}
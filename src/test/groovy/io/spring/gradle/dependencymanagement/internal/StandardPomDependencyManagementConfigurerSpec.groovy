@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,7 +55,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom is configured'
             Node pom = new XmlParser().parseText("<project></project>")
             new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement,
-                    new PomCustomizationSettings(), pomResolver, project).configurePom(pom)
+                    new PomCustomizationSettings(), pomResolver).configurePom(pom)
         then: 'The imported bom has been added'
             pom.dependencyManagement.dependencies.dependency.size() == 1
             def dependency = pom.dependencyManagement.dependencies.dependency[0]
@@ -79,7 +79,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom is configured'
             Node pom = new XmlParser().parseText("<project></project>")
             PomCustomizationSettings settings = new PomCustomizationSettings()
-            new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver, project).configurePom(pom)
+            new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver).configurePom(pom)
         then: 'The imported boms have been imported in the reverse of their imported order'
             pom.dependencyManagement.dependencies.dependency.size() == 2
             def dependency1 = pom.dependencyManagement.dependencies.dependency[0]
@@ -105,7 +105,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
             Node pom = new XmlParser().parseText("<project></project>")
             PomCustomizationSettings settings = new PomCustomizationSettings()
             settings.enabled = false
-            new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver, project).configurePom(pom)
+            new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver).configurePom(pom)
         then: 'The imported bom has not been added'
             pom.dependencyManagement.dependencies.dependency.size() == 0
     }
@@ -116,7 +116,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom is configured'
             Node pom = new XmlParser().parseText("<project></project>")
             new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement,
-                    new PomCustomizationSettings(), pomResolver, project).configurePom(pom)
+                    new PomCustomizationSettings(), pomResolver).configurePom(pom)
         then: 'The managed dependency has been added'
             pom.dependencyManagement.dependencies.dependency.size() == 1
             def dependency = pom.dependencyManagement.dependencies.dependency[0]
@@ -133,7 +133,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom with existing dependency management is configured'
             Node pom = new XmlParser().parseText("<project><dependencyManagement><dependencies></dependencies></dependencyManagement></project>")
             new StandardPomDependencyManagementConfigurer(this.dependencyManagement.globalDependencyManagement,
-                    new PomCustomizationSettings(), pomResolver, project).configurePom(pom)
+                    new PomCustomizationSettings(), pomResolver).configurePom(pom)
         then: 'The imported bom has been added'
             pom.dependencyManagement.dependencies.dependency.size() == 1
             def dependency = pom.dependencyManagement.dependencies.dependency[0]
@@ -151,7 +151,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom is configured'
             Node pom = new XmlParser().parseText("<project></project>")
             new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement,
-                    new PomCustomizationSettings(), pomResolver, project).configurePom(pom)
+                    new PomCustomizationSettings(), pomResolver).configurePom(pom)
         then: 'The managed dependency has been added with its exclusions'
             pom.dependencyManagement.dependencies.dependency.size() == 1
             def dependency = pom.dependencyManagement.dependencies.dependency[0]
@@ -174,7 +174,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom is configured'
         Node pom = new XmlParser().parseText("<project></project>")
         new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement,
-                new PomCustomizationSettings(), pomResolver, project).configurePom(pom)
+                new PomCustomizationSettings(), pomResolver).configurePom(pom)
         then: 'The imported bom has been added with overrides'
         def dependencies = pom.dependencyManagement.dependencies.dependency
         pom.dependencyManagement.dependencies.dependency.size() == 21
@@ -200,7 +200,7 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom is configured'
         Node pom = new XmlParser().parseText("<project></project>")
         new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement,
-                new PomCustomizationSettings(), pomResolver, project).configurePom(pom)
+                new PomCustomizationSettings(), pomResolver).configurePom(pom)
         then: 'The imported bom has been added with overrides including the new managed dependency'
         def dependencies = pom.dependencyManagement.dependencies.dependency
         pom.dependencyManagement.dependencies.dependency.size() == 22
@@ -231,18 +231,90 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         when: 'The pom is configured'
         Node pom = new XmlParser().parseText("<project></project>")
         PomCustomizationSettings settings = new PomCustomizationSettings()
-        new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver, project).configurePom(pom)
+        new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver).configurePom(pom)
         then: 'The imported boms have been imported with no explicit override'
         pom.dependencyManagement.dependencies.dependency.size() == 2
     }
 
+    def "When no project properties are used by the imported boms they are only resolved once"() {
+        given: 'Dependency management that imports a bom that does not use any of the project\'s properties'
+        this.project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        PomResolver countingResolver = Mock(PomResolver)
+        DependencyManagementContainer container = new DependencyManagementContainer(this.project, countingResolver)
+        container.importBom(null, new Coordinates('test', 'alpha-pom-customization-bom', '1.0'),
+                new MapPropertySource([:]))
+        when: 'The pom is configured'
+        Node pom = new XmlParser().parseText("<project></project>")
+        new StandardPomDependencyManagementConfigurer(container.globalDependencyManagement,
+                new PomCustomizationSettings(), countingResolver).configurePom(pom)
+        then: 'The bom was resolved once and the pom contains its import and no overrides'
+        1 * countingResolver.resolvePoms(_, _) >> { references, properties ->
+            this.pomResolver.resolvePoms(references, properties)
+        }
+        pom.dependencyManagement.dependencies.dependency.size() == 1
+        pom.dependencyManagement.dependencies.dependency[0].artifactId[0].value() == 'alpha-pom-customization-bom'
+    }
+
+    def "When a project property has the same value as the imported bom's own property the bom is only resolved once"() {
+        given: 'Dependency management that imports a bom and a project property with the value of the bom\'s property'
+        this.project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        this.project.extensions.extraProperties.set("spring.version", "4.1.2.RELEASE")
+        PomResolver countingResolver = Mock(PomResolver)
+        DependencyManagementContainer container = new DependencyManagementContainer(this.project, countingResolver)
+        container.importBom(null, new Coordinates('test', 'imported-bom', '1.0'), new MapPropertySource([:]))
+        when: 'The pom is configured'
+        Node pom = new XmlParser().parseText("<project></project>")
+        new StandardPomDependencyManagementConfigurer(container.globalDependencyManagement,
+                new PomCustomizationSettings(), countingResolver).configurePom(pom)
+        then: 'The bom was resolved once and the pom contains its import and no overrides'
+        1 * countingResolver.resolvePoms(_, _) >> { references, properties ->
+            this.pomResolver.resolvePoms(references, properties)
+        }
+        pom.dependencyManagement.dependencies.dependency.size() == 1
+        pom.dependencyManagement.dependencies.dependency[0].artifactId[0].value() == 'imported-bom'
+    }
+
+    def "When a project property changes one of the imported boms only that bom is resolved again"() {
+        given: 'Dependency management that imports two boms and a project property that changes one of them'
+        this.project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        this.project.extensions.extraProperties.set("spring.version", "4.1.3.RELEASE")
+        PomResolver countingResolver = Mock(PomResolver)
+        DependencyManagementContainer container = new DependencyManagementContainer(this.project, countingResolver)
+        container.importBom(null, new Coordinates('test', 'alpha-pom-customization-bom', '1.0'),
+                new MapPropertySource([:]))
+        container.importBom(null, new Coordinates('test', 'imported-bom', '1.0'), new MapPropertySource([:]))
+        when: 'The pom is configured'
+        Node pom = new XmlParser().parseText("<project></project>")
+        new StandardPomDependencyManagementConfigurer(container.globalDependencyManagement,
+                new PomCustomizationSettings(), countingResolver).configurePom(pom)
+        then: 'Only the changed bom was resolved again and the pom contains an override for its managed dependency'
+        1 * countingResolver.resolvePoms({ it*.coordinates*.artifactId == ['imported-bom'] },
+                { it.class.simpleName == 'EmptyPropertySource' }) >> { references, properties ->
+            this.pomResolver.resolvePoms(references, properties)
+        }
+        1 * countingResolver.resolvePoms(_,
+                { it.class.simpleName != 'EmptyPropertySource' }) >> { references, properties ->
+            this.pomResolver.resolvePoms(references, properties)
+        }
+        def dependencies = pom.dependencyManagement.dependencies.dependency
+        dependencies.size() == 3
+        dependencies[0].artifactId[0].value() == 'spring-core'
+        dependencies[0].version[0].value() == '4.1.3.RELEASE'
+    }
+
     def "Dependency management is expanded to cover dependencies with a classifier"() {
         given: "Dependency management for a module"
         this.dependencyManagement.addManagedVersion(null, "org.apache.logging.log4j", "log4j-core", "2.6", Collections.emptyList())
         when: "A pom with a dependency on the module with a classifier is configured"
         Node pom = new XmlParser().parseText("<project><dependencies><dependency><groupId>org.apache.logging.log4j</groupId><artifactId>log4j-core</artifactId><classifier>test</classifier></dependency></dependencies></project>")
         PomCustomizationSettings settings = new PomCustomizationSettings()
-        new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver, project).configurePom(pom)
+        new StandardPomDependencyManagementConfigurer(dependencyManagement.globalDependencyManagement, settings, pomResolver).configurePom(pom)
         then: "Dependency management covers the module with the classifier"
         pom.dependencyManagement.dependencies.dependency.size() == 2
         def dependency = pom.dependencyManagement.dependencies.dependency[0]
@@ -257,4 +329,33 @@ class StandardPomDependencyManagementConfigurerSpec extends Specification {
         classifiedDependency.classifier[0].value() == 'test'
     }
 
+    def "A serialized configurer configures the pom without resolving the imported boms"() {
+        given: 'Dependency management that imports a bom and manages a dependency'
+            this.project.repositories {
+                maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+            }
+            this.dependencyManagement.importBom(null, new Coordinates('test', 'alpha-pom-customization-bom', '1.0'),
+                    new MapPropertySource([:]))
+            this.dependencyManagement.addManagedVersion(null, 'org.springframework', 'spring-core', '4.1.3.RELEASE',
+                    ['commons-logging:commons-logging'])
+        when: 'The configurer is serialized and then deserialized'
+            def bytes = new ByteArrayOutputStream()
+            new ObjectOutputStream(bytes).withStream {
+                it.writeObject(new StandardPomDependencyManagementConfigurer(
+                        dependencyManagement.globalDependencyManagement, new PomCustomizationSettings(), pomResolver))
+            }
+            StandardPomDependencyManagementConfigurer configurer = new ObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray())).withStream { it.readObject() }
+        and: 'The pom is configured'
+            Node pom = new XmlParser().parseText("<project></project>")
+            configurer.configurePom(pom)
+        then: 'The imported bom and the managed dependency have been added'
+            pom.dependencyManagement.dependencies.dependency.size() == 2
+            pom.dependencyManagement.dependencies.dependency[0].artifactId[0].value() == 'alpha-pom-customization-bom'
+            def managedDependency = pom.dependencyManagement.dependencies.dependency[1]
+            managedDependency.artifactId[0].value() == 'spring-core'
+            managedDependency.version[0].value() == '4.1.3.RELEASE'
+            managedDependency.exclusions.exclusion.artifactId[0].value() == 'commons-logging'
+    }
+
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link SymbolTable}.
+ *
+ * @author agent (agent@local)
+ */
+class SymbolTableSpec extends Specification {
+
+    SymbolTable symbols = new SymbolTable()
+
+    def 'Equal symbols are interned with the same id and instance'() {
+        given:
+        String one = new String('org.springframework')
+        String two = new String('org.springframework')
+        when:
+        int id = symbols.intern(one)
+        then:
+        symbols.intern(two) == id
+        symbols.get(id).is(one)
+    }
+
+    def 'Finding a symbol that has not been interned does not add it'() {
+        expect:
+        symbols.find('spring-core') == -1
+        symbols.find('spring-core') == -1
+        symbols.intern('spring-core') == 0
+        symbols.find('spring-core') == 0
+    }
+
+    def 'Many symbols can be interned'() {
+        when:
+        List<Integer> ids = (0..<5000).collect { symbols.intern("symbol-$it".toString()) }
+        then:
+        ids == (0..<5000).toList()
+        (0..<5000).every { symbols.get(it) == "symbol-$it".toString() }
+    }
+
+}
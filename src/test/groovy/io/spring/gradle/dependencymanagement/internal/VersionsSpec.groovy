@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Tests for {@link Versions}.
+ *
+ * @author agent (agent@local)
+ */
+class VersionsSpec extends Specification {
+
+    @Unroll
+    def "'#newer' is newer than '#older'"() {
+        expect:
+        Versions.compare(newer, older) > 0
+        Versions.compare(older, newer) < 0
+        where:
+        newer                 | older
+        '1.10'                | '1.9'
+        '1.0.1'               | '1.0'
+        '1.0'                 | '1.0-RC1'
+        '1.0-RC2'             | '1.0-RC1'
+        '4.1.2.RELEASE'       | '4.1.2.RC1'
+        '4.1.2.RELEASE'       | '4.1.2.M1'
+        '4.1.2.M1'            | '4.1.2.BUILD-SNAPSHOT'
+        '1.0-alpha'           | '1.0-dev'
+        '1.0.10'              | '1.0.9'
+        '2.0-b1'              | '2.0-a2'
+    }
+
+    def 'Versions that differ only in their separators are equal'() {
+        expect:
+        Versions.compare('1.0.1', '1-0_1') == 0
+        Versions.compare('1.0.1', '1.0.1') == 0
+    }
+
+}
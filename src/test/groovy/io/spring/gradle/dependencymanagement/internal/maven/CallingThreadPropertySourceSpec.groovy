@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven
+
+import java.util.concurrent.Callable
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource
+import spock.lang.Specification
+
+/**
+ * Tests for {@link CallingThreadPropertySource}.
+ *
+ * @author agent (agent@local)
+ */
+class CallingThreadPropertySourceSpec extends Specification {
+
+    def 'Properties requested on worker threads are retrieved on the calling thread'() {
+        given:
+        Thread caller = Thread.currentThread()
+        List<Thread> threads = [].asSynchronized()
+        PropertySource properties = new CallingThreadPropertySource({ String name ->
+            threads << Thread.currentThread()
+            name == 'alpha' ? 'a' : null
+        } as PropertySource)
+        List<Callable<Object>> tasks = ['alpha', 'bravo'].collect { String name ->
+            { -> properties.getProperty(name) } as Callable<Object>
+        }
+        when:
+        List<Object> values = new ModelBuildingExecutor(2, ModelBuildingExecutor.createExecutorService(2))
+                .invokeAll(tasks)
+        then:
+        values == ['a', null]
+        threads.every { it.is(caller) }
+    }
+
+    def 'Each property is only retrieved once'() {
+        given:
+        int retrievals = 0
+        PropertySource properties = new CallingThreadPropertySource({ String name ->
+            retrievals++
+            name == 'alpha' ? 'a' : null
+        } as PropertySource)
+        when:
+        3.times { properties.getProperty('alpha'); properties.getProperty('bravo') }
+        then:
+        properties.getProperty('alpha') == 'a'
+        properties.getProperty('bravo') == null
+        retrievals == 2
+    }
+
+}
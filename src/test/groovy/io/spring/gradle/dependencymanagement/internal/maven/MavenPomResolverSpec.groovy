@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package io.spring.gradle.dependencymanagement.internal.maven
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates
 import io.spring.gradle.dependencymanagement.internal.pom.PomReference
 import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
@@ -76,4 +77,69 @@ class MavenPomResolverSpec extends Specification {
         result.size() == 1
     }
 
+    def 'Poms are shared by the resolvers of every project in a build'() {
+        given: 'A child project with its own resolver'
+        Project child = new ProjectBuilder().withParent(this.project).build()
+        child.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        MavenPomResolver childResolver = new MavenPomResolver(child,
+                new DependencyManagementConfigurationContainer(child))
+        PomReference reference = new PomReference(new Coordinates("test", "direct-exclude-bom", "1.0"))
+        when: 'The same reference is resolved by both resolvers'
+        def result = this.resolver.resolvePoms([reference], new MapPropertySource([:]))
+        def childResult = childResolver.resolvePoms([reference], new MapPropertySource([:]))
+        then: 'The same pom is returned'
+        result.size() == 1
+        childResult.size() == 1
+        result[0].is(childResult[0])
+    }
+
+    def 'Parents and imports resolved by one project are not used by a project with different repositories'() {
+        given: 'A child project whose only repository contains a different version of an imported bom'
+        Project child = new ProjectBuilder().withParent(this.project).build()
+        File repository = new File(child.projectDir, 'repository')
+        copyPom('bom-with-parent-and-import', repository)
+        copyPom('bom-parent', repository)
+        File importedBom = copyPom('imported-bom', repository)
+        importedBom.text = importedBom.text.replace('4.1.2.RELEASE', '4.2.0.RELEASE')
+        child.repositories {
+            maven { url repository.toURI().toURL().toString() }
+        }
+        MavenPomResolver childResolver = new MavenPomResolver(child,
+                new DependencyManagementConfigurationContainer(child))
+        PomReference reference = new PomReference(new Coordinates("test", "bom-with-parent-and-import", "1.0"))
+        when: 'The bom is resolved by the parent project and then by the child project'
+        def result = this.resolver.resolvePoms([reference], new MapPropertySource([:]))
+        def childResult = childResolver.resolvePoms([reference], new MapPropertySource([:]))
+        then: 'Each project used the import from its own repositories'
+        result[0].managedDependencies[0].coordinates.version == '4.1.2.RELEASE'
+        childResult[0].managedDependencies[0].coordinates.version == '4.2.0.RELEASE'
+    }
+
+    def 'Poms that are built in parallel are returned in declaration order'() {
+        given: 'A resolver that builds poms in parallel'
+        DependencyManagementSettings settings = new DependencyManagementSettings()
+        settings.bomParallelism = 4
+        MavenPomResolver parallelResolver = new MavenPomResolver(this.project,
+                new DependencyManagementConfigurationContainer(this.project),
+                PomResolutionCache.forBuild(this.project.gradle), settings)
+        def references = ['direct-exclude-bom', 'transitive-exclude-bom', 'first-alpha-dependency-management',
+                'second-alpha-dependency-management', 'missing-managed-version-bom'].collect {
+            new PomReference(new Coordinates("test", it, "1.0"))
+        }
+        when: 'The references are resolved'
+        def result = parallelResolver.resolvePoms(references, new MapPropertySource([:]))
+        then: 'The poms are in the same order as the references'
+        result.collect { it.coordinates.artifactId } == references.collect { it.coordinates.artifactId }
+    }
+
+    private File copyPom(String artifactId, File repository) {
+        File directory = new File(repository, "test/$artifactId/1.0")
+        directory.mkdirs()
+        File pom = new File(directory, "$artifactId-1.0.pom")
+        pom.bytes = new File("src/test/resources/maven-repo/test/$artifactId/1.0/$artifactId-1.0.pom").bytes
+        return pom
+    }
+
 }
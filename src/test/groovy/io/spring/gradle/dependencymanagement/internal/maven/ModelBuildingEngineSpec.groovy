@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuildingRequest
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.FileModelSource
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ModelBuildingEngine}.
+ *
+ * @author agent (agent@local)
+ */
+class ModelBuildingEngineSpec extends Specification {
+
+    File pomFile
+
+    def setup() {
+        this.pomFile = File.createTempFile("model-building-engine", ".pom")
+        this.pomFile.text = """<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>com.example</groupId>
+    <artifactId>bom</artifactId>
+    <version>1.0</version>
+    <dependencyManagement>
+        <dependencies>
+            <dependency>
+                <groupId>com.example</groupId>
+                <artifactId>alpha</artifactId>
+                <version>\${alpha.version}</version>
+            </dependency>
+        </dependencies>
+    </dependencyManagement>
+</project>"""
+    }
+
+    def cleanup() {
+        this.pomFile.delete()
+    }
+
+    def 'Model builders are reused'() {
+        given: 'An engine'
+        ModelBuildingEngine engine = new ModelBuildingEngine(new Properties())
+        when: 'Two models are built, one after the other'
+        Model first = build(engine, ['alpha.version': '1.0'])
+        Model second = build(engine, ['alpha.version': '2.0'])
+        then: 'Each model was built using its own properties'
+        first.dependencyManagement.dependencies[0].version == '1.0'
+        second.dependencyManagement.dependencies[0].version == '2.0'
+        and: 'A single builder was used'
+        engine.@pool.size() == 1
+    }
+
+    def 'Models can be built concurrently'() {
+        given: 'An engine'
+        ModelBuildingEngine engine = new ModelBuildingEngine(new Properties())
+        ExecutorService executor = Executors.newFixedThreadPool(4)
+        when: 'Many models are built concurrently, each using different properties'
+        List<Callable<String>> tasks = (1..100).collect { version ->
+            { -> build(engine, ['alpha.version': "$version".toString()]).dependencyManagement.dependencies[0].version }
+                    as Callable<String>
+        }
+        List<String> versions = executor.invokeAll(tasks)*.get()
+        then: 'Each model was built using its own properties'
+        versions == (1..100).collect { "$it".toString() }
+        and: 'No more builders were created than there were threads'
+        engine.@pool.size() <= 4
+        cleanup:
+        executor.shutdown()
+    }
+
+    def 'A snapshot of the system properties is used'() {
+        given: 'An engine with a snapshot of the system properties'
+        System.setProperty('alpha.version', '1.0')
+        ModelBuildingEngine engine = new ModelBuildingEngine((Properties) System.getProperties().clone())
+        when: 'A system property is changed and a model is built'
+        System.setProperty('alpha.version', '2.0')
+        Model model = build(engine, [:])
+        then: 'The value from the snapshot was used'
+        model.dependencyManagement.dependencies[0].version == '1.0'
+        cleanup:
+        System.clearProperty('alpha.version')
+    }
+
+    private Model build(ModelBuildingEngine engine, Map<String, String> properties) {
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest()
+        request.setModelSource(new FileModelSource(this.pomFile))
+        return engine.build(request, new MapPropertySource(properties)).effectiveModel
+    }
+
+}
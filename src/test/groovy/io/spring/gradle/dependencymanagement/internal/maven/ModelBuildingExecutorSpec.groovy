@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ModelBuildingExecutor}.
+ *
+ * @author agent (agent@local)
+ */
+class ModelBuildingExecutorSpec extends Specification {
+
+    def 'Results of tasks created in stages are in stage and task order'() {
+        given:
+        List<Callable<List<Callable<String>>>> stages = (0..<3).collect { int stage ->
+            { -> (0..<5).collect { int task -> { -> "$stage-$task".toString() } as Callable<String> } } as Callable
+        }
+        when:
+        List<String> results = executor(4).invokeInStages(stages)
+        then:
+        results == (0..<3).collectMany { int stage -> (0..<5).collect { int task -> "$stage-$task".toString() } }
+    }
+
+    def 'Tasks of one stage run while the next stage is being created'() {
+        given:
+        CountDownLatch firstStageRunning = new CountDownLatch(1)
+        boolean overlapped = false
+        List<Callable<List<Callable<String>>>> stages = [
+                { -> [{ -> firstStageRunning.countDown(); 'first' } as Callable<String>] } as Callable,
+                { -> overlapped = firstStageRunning.await(10, TimeUnit.SECONDS); [{ -> 'second' } as Callable<String>] }
+                        as Callable]
+        when:
+        List<String> results = executor(2).invokeInStages(stages)
+        then:
+        results == ['first', 'second']
+        overlapped
+    }
+
+    def 'Work handed back to the caller runs between stages'() {
+        given:
+        ModelBuildingExecutor executor = executor(2)
+        boolean handedBackWorkRun = false
+        boolean handedBackWorkRunBeforeLastStage = false
+        List<Callable<List<Callable<String>>>> stages = [
+                { -> [{ -> ModelBuildingExecutor.callerRuns({ -> handedBackWorkRun = true; 'first' } as Callable<String>)
+                } as Callable<String>] } as Callable,
+                { -> awaitCallerTask(executor); [{ -> 'second' } as Callable<String>] } as Callable,
+                { -> handedBackWorkRunBeforeLastStage = handedBackWorkRun; [{ -> 'third' } as Callable<String>] }
+                        as Callable]
+        when:
+        List<String> results = executor.invokeInStages(stages)
+        then:
+        results == ['first', 'second', 'third']
+        handedBackWorkRunBeforeLastStage
+    }
+
+    def 'Stages are invoked on the calling thread when parallelism is one'() {
+        given:
+        List<Thread> threads = new CopyOnWriteArrayList<Thread>()
+        List<Callable<List<Callable<Thread>>>> stages = (0..<2).collect {
+            { -> [{ -> threads << Thread.currentThread(); Thread.currentThread() } as Callable<Thread>] } as Callable
+        }
+        when:
+        executor(1).invokeInStages(stages)
+        then:
+        threads == [Thread.currentThread(), Thread.currentThread()]
+    }
+
+    def 'Tasks run on virtual threads when the JVM supports them'() {
+        given:
+        String specificationVersion = System.getProperty('java.specification.version')
+        boolean virtualThreadsSupported = !specificationVersion.startsWith('1.') &&
+                Integer.parseInt(specificationVersion) >= 21
+        List<Callable<Thread>> tasks = (0..<4).collect { { -> Thread.currentThread() } as Callable<Thread> }
+        when:
+        List<Thread> threads = executor(2).invokeAll(tasks)
+        then:
+        threads.every { it.name.startsWith('dependency-management-model-builder-') }
+        threads.every { it.respondsTo('isVirtual') && it.isVirtual() } == virtualThreadsSupported
+    }
+
+    def 'Work handed back to the caller runs on the calling thread'() {
+        given:
+        Thread caller = Thread.currentThread()
+        List<Callable<Thread>> tasks = (0..<4).collect {
+            { -> ModelBuildingExecutor.callerRuns({ -> Thread.currentThread() } as Callable<Thread>) } as Callable<Thread>
+        }
+        when:
+        List<Thread> threads = executor(4).invokeAll(tasks)
+        then:
+        threads.every { it.is(caller) }
+    }
+
+    def 'Idle threads of a shared pool are reused by subsequent invocations'() {
+        given:
+        ExecutorService executorService = ModelBuildingExecutor.createExecutorService(2)
+        List<Callable<Thread>> tasks = (0..<4).collect { { -> Thread.currentThread() } as Callable<Thread> }
+        when:
+        List<Thread> first = new ModelBuildingExecutor(2, executorService).invokeAll(tasks)
+        List<Thread> second = new ModelBuildingExecutor(2, executorService).invokeAll(tasks)
+        then:
+        executorService instanceof ThreadPoolExecutor ? !first.intersect(second).isEmpty() : true
+        cleanup:
+        executorService.shutdownNow()
+    }
+
+    private void awaitCallerTask(ModelBuildingExecutor executor) {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10)
+        while (executor.@callerTasks.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+    }
+
+    private ModelBuildingExecutor executor(int parallelism) {
+        return new ModelBuildingExecutor(parallelism, ModelBuildingExecutor.createExecutorService(parallelism))
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates
+import io.spring.gradle.dependencymanagement.internal.pom.PomReference
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import org.gradle.api.Project
+import org.gradle.api.artifacts.Configuration
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ModelPrefetcher}.
+ *
+ * @author agent (agent@local)
+ */
+class ModelPrefetcherSpec extends Specification {
+
+    Project project
+
+    DependencyManagementConfigurationContainer configurationContainer
+
+    PomResolutionCache cache
+
+    def setup() {
+        this.project = new ProjectBuilder().build()
+        this.project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        this.configurationContainer = new DependencyManagementConfigurationContainer(this.project)
+        this.cache = new PomResolutionCache(new PersistentPomCache(new File(this.project.projectDir, "pom-cache"),
+                false))
+    }
+
+    def cleanup() {
+        this.project.projectDir.deleteDir()
+    }
+
+    def 'Parents and imports are prefetched one level at a time'() {
+        given: 'A prefetcher'
+        ConfigurationModelResolver modelResolver = new ConfigurationModelResolver(this.project,
+                this.configurationContainer, new PlatformCategoryAttributeConfigurer(), this.cache)
+        ModelPrefetcher prefetcher = new ModelPrefetcher(modelResolver)
+        when: 'A bom with a parent that provides the version of an import is prefetched'
+        prefetcher.prefetch([(pomFile('bom-with-parent-and-import')): new MapPropertySource([:])])
+        then: 'The parent and the import have been resolved'
+        modelResolver.getPomFile('test:bom-parent:1.0') != null
+        modelResolver.getPomFile('test:imported-bom:1.0') != null
+        and: 'One configuration was used for each level'
+        configurations().size() == 2
+    }
+
+    def 'Imports whose version is overridden by a property are prefetched using the overriding version'() {
+        given: 'A prefetcher'
+        ConfigurationModelResolver modelResolver = new ConfigurationModelResolver(this.project,
+                this.configurationContainer, new PlatformCategoryAttributeConfigurer(), this.cache)
+        ModelPrefetcher prefetcher = new ModelPrefetcher(modelResolver)
+        when: 'A bom is prefetched with a property that overrides the version of its import'
+        prefetcher.prefetch([(pomFile('bom-with-parent-and-import')):
+                new MapPropertySource(['imported-bom.version': '2.0'])])
+        then: 'The overriding version was requested at the same level as the parent'
+        modelResolver.getPomFile('test:imported-bom:1.0') == null
+        configurations().size() == 1
+        configurations()[0].dependencies.collect { "$it.name:$it.version".toString() } ==
+                ['bom-parent:1.0', 'imported-bom:2.0']
+    }
+
+    def 'Prefetched poms are used when building an effective model'() {
+        given: 'A resolver'
+        MavenPomResolver resolver = new MavenPomResolver(this.project, this.configurationContainer, this.cache,
+                new DependencyManagementSettings())
+        when: 'A bom with a parent and an import is resolved'
+        def result = resolver.resolvePoms([new PomReference(
+                new Coordinates("test", "bom-with-parent-and-import", "1.0"))], new MapPropertySource([:]))
+        then: 'Its dependency management includes the import'
+        result.size() == 1
+        result[0].managedDependencies.size() == 1
+        result[0].managedDependencies[0].coordinates.version == '4.1.2.RELEASE'
+        and: 'The bom, its parent, and its import were resolved using one configuration for each level'
+        configurations().size() == 3
+    }
+
+    private File pomFile(String artifactId) {
+        return new File("src/test/resources/maven-repo/test/$artifactId/1.0/$artifactId-1.0.pom")
+    }
+
+    private List<Configuration> configurations() {
+        List<Configuration> configurations = []
+        this.configurationContainer.apply { configurations << it }
+        return configurations
+    }
+
+}
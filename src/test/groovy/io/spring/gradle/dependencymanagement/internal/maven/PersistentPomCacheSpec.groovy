@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven
+
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency
+import io.spring.gradle.dependencymanagement.internal.pom.Pom
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import spock.lang.Specification
+
+/**
+ * Tests for {@link PersistentPomCache}.
+ *
+ * @author agent (agent@local)
+ */
+class PersistentPomCacheSpec extends Specification {
+
+    File directory
+
+    File pomFile
+
+    File parentFile
+
+    def setup() {
+        this.directory = File.createTempFile("persistent-pom-cache", "")
+        this.directory.delete()
+        this.directory.mkdirs()
+        this.pomFile = new File(this.directory, "bom-1.0.pom")
+        this.pomFile.text = "<project><artifactId>bom</artifactId></project>"
+        this.parentFile = new File(this.directory, "parent-1.0.pom")
+        this.parentFile.text = "<project><artifactId>parent</artifactId></project>"
+    }
+
+    def cleanup() {
+        this.directory.deleteDir()
+    }
+
+    def 'Cached pom can be retrieved when its inputs are unchanged'() {
+        given: 'A cache containing a pom'
+        PersistentPomCache cache = new PersistentPomCache(new File(this.directory, "cache"), false)
+        cache.put(this.pomFile, inputs("1.2.3"), pom())
+        when: 'The pom is retrieved using the same properties'
+        ModelInputs inputs = new ModelInputs()
+        Pom cached = new PersistentPomCache(new File(this.directory, "cache"), false)
+                .get(this.pomFile, new MapPropertySource(['alpha.version': '1.2.3']), inputs)
+        then: 'The cached pom is returned and its inputs are recorded'
+        inputs.poms == ['test:parent:1.0': this.parentFile]
+        inputs.properties == ['alpha.version': '1.2.3', 'bravo.version': null]
+        cached.coordinates.groupId == 'test'
+        cached.coordinates.artifactId == 'bom'
+        cached.coordinates.version == '1.0'
+        cached.managedDependencies.size() == 1
+        cached.managedDependencies[0].coordinates.artifactId == 'alpha'
+        cached.managedDependencies[0].coordinates.version == '1.2.3'
+        cached.managedDependencies[0].type == 'jar'
+        cached.managedDependencies[0].classifier == null
+        cached.managedDependencies[0].scope == 'compile'
+        cached.managedDependencies[0].exclusions == ['test:bravo'] as Set
+        cached.dependencies.isEmpty()
+        cached.properties == ['alpha.version': '1.2.3']
+    }
+
+    def 'Cached pom is not used when a property that was used to build it has changed'() {
+        given: 'A cache containing a pom'
+        PersistentPomCache cache = new PersistentPomCache(new File(this.directory, "cache"), false)
+        cache.put(this.pomFile, inputs("1.2.3"), pom())
+        when: 'The pom is retrieved using different properties'
+        Pom cached = cache.get(this.pomFile, new MapPropertySource(['alpha.version': '2.0.0']), new ModelInputs())
+        then: 'No pom is returned'
+        cached == null
+    }
+
+    def 'Cached pom is not used when a pom in its chain has changed'() {
+        given: 'A cache containing a pom'
+        PersistentPomCache cache = new PersistentPomCache(new File(this.directory, "cache"), false)
+        cache.put(this.pomFile, inputs("1.2.3"), pom())
+        when: 'The parent pom is modified and the pom is retrieved'
+        this.parentFile.text = "<project><artifactId>modified-parent</artifactId></project>"
+        Pom cached = cache.get(this.pomFile, new MapPropertySource(['alpha.version': '1.2.3']), new ModelInputs())
+        then: 'No pom is returned'
+        cached == null
+    }
+
+    def 'Pom built from incomplete inputs is not cached'() {
+        given: 'A cache'
+        PersistentPomCache cache = new PersistentPomCache(new File(this.directory, "cache"), false)
+        when: 'A pom with incomplete inputs is stored and then retrieved'
+        ModelInputs inputs = inputs("1.2.3")
+        inputs.markIncomplete()
+        cache.put(this.pomFile, inputs, pom())
+        Pom cached = cache.get(this.pomFile, new MapPropertySource(['alpha.version': '1.2.3']), new ModelInputs())
+        then: 'No pom is returned'
+        cached == null
+    }
+
+    def 'Cached pom is not used when the cache is refreshing'() {
+        given: 'A cache containing a pom'
+        new PersistentPomCache(new File(this.directory, "cache"), false).put(this.pomFile, inputs("1.2.3"), pom())
+        when: 'The pom is retrieved from a refreshing cache'
+        Pom cached = new PersistentPomCache(new File(this.directory, "cache"), true)
+                .get(this.pomFile, new MapPropertySource(['alpha.version': '1.2.3']), new ModelInputs())
+        then: 'No pom is returned'
+        cached == null
+    }
+
+    def 'Corrupt cache entries are ignored'() {
+        given: 'A cache containing a corrupt entry'
+        PersistentPomCache cache = new PersistentPomCache(new File(this.directory, "cache"), false)
+        cache.put(this.pomFile, inputs("1.2.3"), pom())
+        new File(this.directory, "cache").eachFileRecurse { file ->
+            if (file.name.endsWith('.bin')) {
+                file.bytes = file.bytes[0..20] as byte[]
+            }
+        }
+        when: 'The pom is retrieved'
+        Pom cached = cache.get(this.pomFile, new MapPropertySource(['alpha.version': '1.2.3']), new ModelInputs())
+        then: 'No pom is returned'
+        cached == null
+    }
+
+    private ModelInputs inputs(String alphaVersion) {
+        ModelInputs inputs = new ModelInputs()
+        inputs.pomUsed("test:parent:1.0", this.parentFile)
+        inputs.propertyUsed("alpha.version", alphaVersion)
+        inputs.propertyUsed("bravo.version", null)
+        return inputs
+    }
+
+    private Pom pom() {
+        Dependency alpha = new Dependency(new Coordinates("test", "alpha", "1.2.3"), false, null, null, "compile",
+                ["test:bravo"] as Set)
+        return new Pom(new Coordinates("test", "bom", "1.0"), [alpha], [], ['alpha.version': '1.2.3'])
+    }
+
+}
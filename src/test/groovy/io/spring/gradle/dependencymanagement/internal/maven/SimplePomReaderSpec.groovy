@@ -0,0 +1,273 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency
+import io.spring.gradle.dependencymanagement.internal.pom.Pom
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Tests for {@link SimplePomReader}.
+ *
+ * @author agent (agent@local)
+ */
+class SimplePomReaderSpec extends Specification {
+
+    Project project
+
+    EffectiveModelBuilder effectiveModelBuilder
+
+    SimplePomReader reader = new SimplePomReader(System.getProperties())
+
+    def setup() {
+        this.project = new ProjectBuilder().build()
+        this.project.repositories {
+            maven { url new File("src/test/resources/maven-repo").toURI().toURL().toString() }
+        }
+        this.effectiveModelBuilder = new EffectiveModelBuilder(this.project,
+                new DependencyManagementConfigurationContainer(this.project),
+                new PlatformCategoryAttributeConfigurer(), new PomResolutionCache(new PersistentPomCache(
+                        new File(this.project.projectDir, "pom-cache"), true)))
+    }
+
+    def cleanup() {
+        this.project.projectDir.deleteDir()
+    }
+
+    @Unroll
+    def 'Simple pom #artifactId is read the same as its effective model'() {
+        given: 'A simple pom from the test repository'
+        File pomFile = new File("src/test/resources/maven-repo/test/$artifactId/1.0/$artifactId-1.0.pom")
+        expect: 'Reading it produces the same result as building its effective model'
+        assertSameAsEffectiveModel(pomFile, new MapPropertySource([:]))
+        where:
+        artifactId << ['imported-bom', 'bom-parent', 'dependency-management-with-classifier-bom',
+                'transitive-exclude-bom', 'direct-exclude-bom', 'missing-managed-version-bom',
+                'no-dependency-management-bom']
+    }
+
+    def 'Properties are resolved in the same order as when building the effective model'() {
+        given: 'A pom that uses properties, built-in expressions, and fields'
+        File pomFile = writePom("""
+    <properties>
+        <alpha.version>1.0</alpha.version>
+        <bravo.version>\${alpha.version}.1</bravo.version>
+        <charlie.version>\${project.version}</charlie.version>
+        <delta.version>\${version}</delta.version>
+        <artifact>\${project.artifactId}-\${artifactId}</artifact>
+    </properties>
+    <dependencyManagement>
+        <dependencies>
+            <dependency>
+                <groupId>\${project.groupId}</groupId>
+                <artifactId>alpha</artifactId>
+                <version>\${alpha.version}</version>
+            </dependency>
+            <dependency>
+                <groupId>com.example</groupId>
+                <artifactId>bravo</artifactId>
+                <version>\${bravo.version}</version>
+            </dependency>
+            <dependency>
+                <groupId>com.example</groupId>
+                <artifactId>charlie</artifactId>
+                <version>\${charlie.version}</version>
+            </dependency>
+            <dependency>
+                <groupId>com.example</groupId>
+                <artifactId>delta</artifactId>
+                <version>\${delta.version}</version>
+            </dependency>
+        </dependencies>
+    </dependencyManagement>""")
+        expect: 'The result matches the effective model with and without overriding properties'
+        assertSameAsEffectiveModel(pomFile, new MapPropertySource([:]))
+        assertSameAsEffectiveModel(pomFile, new MapPropertySource(['alpha.version': '2.0', 'version': '3.0']))
+    }
+
+    def 'Dependencies are merged, managed, and defaulted in the same way as the effective model'() {
+        given: 'A pom with duplicate dependencies that are managed by its dependency management'
+        File pomFile = writePom("""
+    <dependencyManagement>
+        <dependencies>
+            <dependency>
+                <groupId>com.example</groupId>
+                <artifactId>alpha</artifactId>
+                <version>1.0</version>
+                <scope>runtime</scope>
+                <optional>true</optional>
+                <exclusions>
+                    <exclusion>
+                        <groupId>com.example</groupId>
+                        <artifactId>excluded</artifactId>
+                    </exclusion>
+                </exclusions>
+            </dependency>
+            <dependency>
+                <groupId>com.example</groupId>
+                <artifactId>bravo</artifactId>
+                <version>2.0</version>
+                <classifier>tests</classifier>
+            </dependency>
+        </dependencies>
+    </dependencyManagement>
+    <dependencies>
+        <dependency>
+            <groupId>com.example</groupId>
+            <artifactId>charlie</artifactId>
+            <version>3.0</version>
+        </dependency>
+        <dependency>
+            <groupId>com.example</groupId>
+            <artifactId>alpha</artifactId>
+            <version>0.9</version>
+        </dependency>
+        <dependency>
+            <groupId>com.example</groupId>
+            <artifactId>charlie</artifactId>
+            <version>3.1</version>
+            <scope>test</scope>
+        </dependency>
+        <dependency>
+            <groupId>com.example</groupId>
+            <artifactId>alpha</artifactId>
+        </dependency>
+        <dependency>
+            <groupId>com.example</groupId>
+            <artifactId>bravo</artifactId>
+            <classifier>tests</classifier>
+            <exclusions>
+                <exclusion>
+                    <groupId>com.example</groupId>
+                    <artifactId>other</artifactId>
+                </exclusion>
+            </exclusions>
+        </dependency>
+    </dependencies>
+    <build>
+        <pluginManagement>
+            <plugins>
+                <plugin>
+                    <artifactId>example-plugin</artifactId>
+                    <dependencies>
+                        <dependency>
+                            <groupId>com.example</groupId>
+                            <artifactId>plugin-dependency</artifactId>
+                            <version>1.0</version>
+                        </dependency>
+                    </dependencies>
+                </plugin>
+            </plugins>
+        </pluginManagement>
+    </build>""")
+        expect: 'The result matches the effective model'
+        assertSameAsEffectiveModel(pomFile, new MapPropertySource([:]))
+    }
+
+    def 'Properties that are used are recorded'() {
+        given: 'A pom that uses a property'
+        File pomFile = writePom("""
+    <properties>
+        <alpha.version>1.0</alpha.version>
+    </properties>
+    <dependencyManagement>
+        <dependencies>
+            <dependency>
+                <groupId>com.example</groupId>
+                <artifactId>alpha</artifactId>
+                <version>\${alpha.version}</version>
+            </dependency>
+        </dependencies>
+    </dependencyManagement>""")
+        ModelInputs inputs = new ModelInputs()
+        when: 'The pom is read'
+        Pom pom = this.reader.read(pomFile, new MapPropertySource([:]), inputs)
+        then: 'The lookup of the property was recorded'
+        pom.managedDependencies[0].coordinates.version == '1.0'
+        inputs.complete
+        inputs.poms.isEmpty()
+        inputs.properties == ['alpha.version': null]
+    }
+
+    @Unroll
+    def 'Pom that #description is not read'() {
+        given: 'A pom that is not simple'
+        File pomFile = writePom(content)
+        ModelInputs inputs = new ModelInputs()
+        when: 'The pom is read'
+        Pom pom = this.reader.read(pomFile, new MapPropertySource([:]), inputs)
+        then: 'Nothing is returned or recorded so that its effective model will be built instead'
+        pom == null
+        inputs.properties.isEmpty()
+        where:
+        description                        | content
+        'has a parent'                     | '<parent><groupId>test</groupId><artifactId>bom-parent</artifactId><version>1.0</version></parent>'
+        'has profiles'                     | '<profiles><profile><id>example</id></profile></profiles>'
+        'imports a bom'                    | '<properties><scope>import</scope></properties><dependencyManagement><dependencies><dependency><groupId>test</groupId><artifactId>imported-bom</artifactId><version>1.0</version><type>pom</type><scope>${scope}</scope></dependency></dependencies></dependencyManagement>'
+        'uses an unresolvable property'    | '<dependencyManagement><dependencies><dependency><groupId>com.example</groupId><artifactId>alpha</artifactId><version>${alpha.version}</version></dependency></dependencies></dependencyManagement>'
+        'has a cyclic property'            | '<properties><alpha>${bravo}</alpha><bravo>${alpha}</bravo></properties>'
+        'has a system dependency'          | '<dependencies><dependency><groupId>com.example</groupId><artifactId>alpha</artifactId><version>1.0</version><systemPath>foo/bar/baz</systemPath></dependency></dependencies>'
+        'has a dependency with no version' | '<dependencies><dependency><groupId>com.example</groupId><artifactId>alpha</artifactId></dependency></dependencies>'
+    }
+
+    private File writePom(String content) {
+        File pomFile = new File(this.project.projectDir, "test-1.0.pom")
+        pomFile.text = """<?xml version="1.0" encoding="UTF-8"?>
+<project xmlns="http://maven.apache.org/POM/4.0.0">
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>com.example</groupId>
+    <artifactId>test</artifactId>
+    <version>1.0</version>
+    <packaging>pom</packaging>
+$content
+</project>"""
+        return pomFile
+    }
+
+    private void assertSameAsEffectiveModel(File pomFile, PropertySource properties) {
+        Pom pom = this.reader.read(pomFile, properties, new ModelInputs())
+        Model model = this.effectiveModelBuilder.buildModel(pomFile, properties)
+        assert pom != null
+        assert "$pom.coordinates.groupId:$pom.coordinates.artifactId:$pom.coordinates.version" ==
+                "$model.groupId:$model.artifactId:$model.version"
+        assert describe(pom.managedDependencies) == describeModel(model.dependencyManagement?.dependencies ?: [])
+        assert describe(pom.dependencies) == describeModel(model.dependencies)
+        assert pom.properties == new HashMap(model.properties)
+    }
+
+    private List<String> describe(List<Dependency> dependencies) {
+        dependencies.collect {
+            "$it.coordinates.groupId:$it.coordinates.artifactId:$it.coordinates.version:$it.type:$it.classifier:" +
+                    "$it.scope:$it.optional:$it.exclusions"
+        }
+    }
+
+    private List<String> describeModel(def dependencies) {
+        dependencies.collect {
+            "$it.groupId:$it.artifactId:$it.version:$it.type:$it.classifier:$it.scope:${it.isOptional()}:" +
+                    "${it.exclusions.collect { exclusion -> "$exclusion.groupId:$exclusion.artifactId" }}"
+        }
+    }
+
+}
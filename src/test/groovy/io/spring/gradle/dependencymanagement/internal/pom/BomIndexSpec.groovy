@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.pom
+
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource
+import spock.lang.Specification
+
+/**
+ * Tests for {@link BomIndex}.
+ *
+ * @author agent (agent@local)
+ */
+class BomIndexSpec extends Specification {
+
+    File indexFile = File.createTempFile('bom', '.idx')
+
+    def cleanup() {
+        this.indexFile.delete()
+    }
+
+    def 'Every managed version can be found in a large index'() {
+        given: 'A bom that manages many dependencies in no particular order'
+        List<Dependency> managedDependencies = (0..<1000).collect {
+            dependency("com.example.group${it % 7}", "artifact-${(it * 31) % 1000}", "${it}.0")
+        }
+        BomIndex index = write(pom(managedDependencies))
+        expect: 'Each managed version is found and unmanaged dependencies are not'
+        managedDependencies.every {
+            index.getManagedVersion(it.coordinates.groupId, it.coordinates.artifactId) == it.coordinates.version
+        }
+        index.getManagedVersion('com.example.group0', 'artifact-1') == null
+        index.getManagedVersion('com.example', 'artifact-0') == null
+        index.getManagedVersion('com.example.group99', 'artifact-0') == null
+        index.getManagedVersions().size() == 1000
+    }
+
+    def 'Managed versions are found by comparing the UTF-8 encoding of the group and name'() {
+        given: 'A bom that manages dependencies with non-ASCII names'
+        BomIndex index = write(pom([dependency('com.example', 'café', '1.0'),
+                dependency('com.example', 'cafe', '2.0'), dependency('com.example', 'caf😀', '3.0'),
+                dependency('com.example', 'caf￮', '4.0')]))
+        expect: 'Each of their versions can be found'
+        index.getManagedVersion('com.example', 'café') == '1.0'
+        index.getManagedVersion('com.example', 'cafe') == '2.0'
+        index.getManagedVersion('com.example', 'caf😀') == '3.0'
+        index.getManagedVersion('com.example', 'caf￮') == '4.0'
+        index.getManagedVersion('com.example', 'caf') == null
+    }
+
+    def 'The last version of a dependency is managed and the exclusions of every declaration are merged'() {
+        given: 'A bom that manages a dependency more than once and with a classifier'
+        BomIndex index = write(pom([dependency('com.example', 'alpha', '1.0', null, ['com.example:bravo']),
+                dependency('com.example', 'alpha', '1.1', null, ['com.example:charlie']),
+                dependency('com.example', 'alpha', '2.0', 'tests', ['com.example:delta'])]))
+        expect: 'The last unclassified version is managed with the merged exclusions'
+        index.getManagedVersion('com.example', 'alpha') == '1.1'
+        index.getExclusions() == ['com.example:alpha': ['com.example:bravo', 'com.example:charlie'] as Set]
+    }
+
+    def 'Managed dependencies without a version are not managed'() {
+        given: 'A bom that declares management of a dependency without a version'
+        BomIndex index = write(pom([dependency('com.example', 'alpha', null)]))
+        expect: 'The dependency is identified as unversioned and its version is not managed'
+        index.getManagedVersion('com.example', 'alpha') == null
+        index.getUnversionedManagedDependencies()*.artifactId == ['alpha']
+    }
+
+    def 'An index can be converted back into a pom'() {
+        given: 'An index of a pom'
+        Pom pom = pom([dependency('com.example', 'alpha', '1.0', 'tests', ['com.example:bravo']),
+                new Dependency(new Coordinates('com.example', 'charlie', '2.0'), true, 'pom', null, 'import',
+                        [] as Set)])
+        BomIndex index = write(pom)
+        when: 'It is converted into a pom'
+        Pom converted = index.toPom()
+        then: 'The pom is equivalent to the indexed pom'
+        converted.coordinates.groupId == 'com.example'
+        converted.coordinates.artifactId == 'example-bom'
+        converted.coordinates.version == '1.0'
+        converted.properties == ['alpha.version': '1.0', 'bravo.version': '2.0']
+        converted.managedDependencies.collect { describe(it) } == pom.managedDependencies.collect { describe(it) }
+    }
+
+    def 'Inputs match when the properties used to resolve the bom are unchanged'() {
+        given: 'An index of a pom that was resolved using a property and a missing property'
+        BomIndex index = write(pom([]), ['alpha.version': '1.0', 'bravo.version': null])
+        expect: 'The inputs only match when the properties have the same values'
+        index.inputsMatch(new MapPropertySource(['alpha.version': '1.0']))
+        !index.inputsMatch(new MapPropertySource(['alpha.version': '1.1']))
+        !index.inputsMatch(new MapPropertySource([:]))
+        !index.inputsMatch(new MapPropertySource(['alpha.version': '1.0', 'bravo.version': '2.0']))
+    }
+
+    def 'Sources match only while the files from which the bom was built are unchanged'() {
+        given: 'An index of a pom that was built from a bom and its parent'
+        File bom = File.createTempFile('bom', '.pom')
+        File parent = File.createTempFile('parent', '.pom')
+        bom.text = '<project/>'
+        parent.text = '<project/>'
+        BomIndex index = write(new Pom(new Coordinates('com.example', 'example-bom', '1.0'), [], [], [:],
+                [bom, parent]))
+        expect: 'Its sources match'
+        index.sourcesMatch()
+        when: 'The content of the parent changes'
+        parent.text = '<project><modelVersion>4.0.0</modelVersion></project>'
+        then: 'Its sources no longer match'
+        !index.sourcesMatch()
+        when: 'The parent is deleted'
+        parent.delete()
+        then: 'Its sources still do not match'
+        !index.sourcesMatch()
+        cleanup:
+        bom.delete()
+        parent.delete()
+    }
+
+    def 'An index remains usable once its file has been replaced'() {
+        given: 'A loaded index'
+        BomIndex index = write(pom([dependency('com.example', 'alpha', '1.0')]))
+        when: 'Its file is replaced'
+        this.indexFile.delete()
+        this.indexFile.text = 'not an index'
+        then: 'The index can still be used'
+        index.getManagedVersion('com.example', 'alpha') == '1.0'
+    }
+
+    def 'A file that is not an index cannot be loaded'() {
+        given: 'A file that does not contain an index'
+        this.indexFile.text = 'not an index'
+        when: 'It is loaded'
+        BomIndex.load(this.indexFile)
+        then: 'An IOException is thrown'
+        thrown(IOException)
+    }
+
+    private BomIndex write(Pom pom, Map<String, String> inputs = [:]) {
+        BomIndex.write(pom, inputs, this.indexFile)
+        return BomIndex.load(this.indexFile)
+    }
+
+    private Pom pom(List<Dependency> managedDependencies) {
+        return new Pom(new Coordinates('com.example', 'example-bom', '1.0'), managedDependencies, [],
+                ['alpha.version': '1.0', 'bravo.version': '2.0'])
+    }
+
+    private Dependency dependency(String group, String name, String version, String classifier = null,
+            List<String> exclusions = []) {
+        return new Dependency(new Coordinates(group, name, version), false, null, classifier, null,
+                exclusions as LinkedHashSet)
+    }
+
+    private String describe(Dependency dependency) {
+        return "$dependency.coordinates.groupId:$dependency.coordinates.artifactId:$dependency.coordinates.version:" +
+                "$dependency.optional:$dependency.type:$dependency.classifier:$dependency.scope:$dependency.exclusions"
+    }
+
+}
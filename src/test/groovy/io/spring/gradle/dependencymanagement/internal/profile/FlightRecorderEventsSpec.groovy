@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.profile
+
+import java.nio.file.Files
+
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+/**
+ * Tests for {@link FlightRecorderEvents}.
+ *
+ * @author agent (agent@local)
+ */
+class FlightRecorderEventsSpec extends Specification {
+
+    def 'Events can be committed when no recording is in progress'() {
+        when:
+        FlightRecorderEvents.begin(FlightRecorderEvents.Type.MODEL_RESOLUTION).commit('com.example:bom:1.0', true)
+        then:
+        noExceptionThrown()
+    }
+
+    @IgnoreIf({ !FlightRecorderEvents.isAvailable() })
+    def 'Committed events record the current scope, the coordinates and whether the cache was hit'() {
+        given:
+        def recording = Class.forName('jdk.jfr.Recording').newInstance()
+        recording.enable('io.spring.dependencymanagement.ModelResolution')
+        recording.start()
+        when:
+        Profiler.Scope scope = new Profiler().enter(':app', 'compile')
+        FlightRecorderEvents.begin(FlightRecorderEvents.Type.MODEL_RESOLUTION).commit('com.example:bom:1.0', true)
+        scope.exit()
+        FlightRecorderEvents.begin(FlightRecorderEvents.Type.MODEL_RESOLUTION).commit('com.example:other:1.0', false)
+        recording.stop()
+        def events = readEvents(recording)
+        then:
+        events.size() == 2
+        events[0].eventType.name == 'io.spring.dependencymanagement.ModelResolution'
+        events[0].getString('projectPath') == ':app'
+        events[0].getString('configuration') == 'compile'
+        events[0].getString('coordinates') == 'com.example:bom:1.0'
+        events[0].getBoolean('cacheHit')
+        events[1].getString('projectPath') == null
+        events[1].getString('configuration') == null
+        events[1].getString('coordinates') == 'com.example:other:1.0'
+        !events[1].getBoolean('cacheHit')
+        cleanup:
+        recording?.close()
+    }
+
+    @IgnoreIf({ !FlightRecorderEvents.isAvailable() })
+    def 'An event is a cache hit when every cache access while it is in progress is a hit'() {
+        given:
+        def recording = Class.forName('jdk.jfr.Recording').newInstance()
+        recording.enable('io.spring.dependencymanagement.BomResolution')
+        recording.enable('io.spring.dependencymanagement.ModelResolution')
+        recording.start()
+        when:
+        FlightRecorderEvents.Event untouched = FlightRecorderEvents.begin(FlightRecorderEvents.Type.BOM_RESOLUTION)
+        untouched.commit(null, untouched.cacheHit)
+        FlightRecorderEvents.Event hit = FlightRecorderEvents.begin(FlightRecorderEvents.Type.BOM_RESOLUTION)
+        Profiler.recordCacheAccess('poms', true)
+        Profiler.recordCacheAccess('poms', true)
+        hit.commit(null, hit.cacheHit)
+        FlightRecorderEvents.Event missed = FlightRecorderEvents.begin(FlightRecorderEvents.Type.BOM_RESOLUTION)
+        Profiler.recordCacheAccess('poms', true)
+        FlightRecorderEvents.Event nested = FlightRecorderEvents.begin(FlightRecorderEvents.Type.MODEL_RESOLUTION)
+        Profiler.recordCacheAccess('poms', false)
+        nested.commit(null, nested.cacheHit)
+        missed.commit(null, missed.cacheHit)
+        FlightRecorderEvents.Event after = FlightRecorderEvents.begin(FlightRecorderEvents.Type.BOM_RESOLUTION)
+        Profiler.recordCacheAccess('poms', true)
+        after.commit(null, after.cacheHit)
+        recording.stop()
+        then:
+        !untouched.cacheHit
+        hit.cacheHit
+        !nested.cacheHit
+        !missed.cacheHit
+        after.cacheHit
+        readEvents(recording).size() == 5
+        cleanup:
+        recording?.close()
+    }
+
+    @IgnoreIf({ !FlightRecorderEvents.isAvailable() })
+    def 'Events of types that are disabled are not recorded'() {
+        given:
+        def recording = Class.forName('jdk.jfr.Recording').newInstance()
+        recording.disable('io.spring.dependencymanagement.BomResolution')
+        recording.start()
+        when:
+        FlightRecorderEvents.begin(FlightRecorderEvents.Type.BOM_RESOLUTION).commit('com.example:bom:1.0', false)
+        recording.stop()
+        then:
+        readEvents(recording).isEmpty()
+        cleanup:
+        recording?.close()
+    }
+
+    private List<Object> readEvents(def recording) {
+        def dump = Files.createTempFile('flight-recorder-events', '.jfr')
+        try {
+            recording.dump(dump)
+            return Class.forName('jdk.jfr.consumer.RecordingFile').readAllEvents(dump)
+                    .findAll { it.eventType.name.startsWith('io.spring.dependencymanagement.') }
+        }
+        finally {
+            Files.delete(dump)
+        }
+    }
+
+}
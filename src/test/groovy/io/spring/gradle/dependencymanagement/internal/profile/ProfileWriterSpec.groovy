@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.profile
+
+import groovy.json.JsonSlurper
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ProfileWriter}.
+ *
+ * @author agent (agent@local)
+ */
+class ProfileWriterSpec extends Specification {
+
+    Profiler profiler = new Profiler()
+
+    def setup() {
+        profiler.enabled = true
+        ['compile', 'runtime'].each { String configuration ->
+            Profiler.Scope scope = profiler.enter(':app', configuration)
+            Profiler.start('bomResolution').stop()
+            Profiler.recordCacheAccess('poms', true)
+            Profiler.recordCacheAccess('poms', false)
+            scope.exit()
+        }
+    }
+
+    def 'Profile is written as JSON'() {
+        given:
+        StringWriter json = new StringWriter()
+        when:
+        new ProfileWriter(':app', profiler.getMeasurements(':app')).writeJson(json)
+        def profile = new JsonSlurper().parseText(json.toString())
+        then:
+        profile.project == ':app'
+        profile.configurations.keySet() == ['compile', 'runtime'] as Set
+        profile.configurations.compile.phases.bomResolution.invocations == 1
+        profile.configurations.compile.phases.bomResolution.wallTimeNanos >= 0
+        profile.configurations.runtime.caches.poms.hits == 1
+        profile.configurations.runtime.caches.poms.misses == 1
+        profile.configurations.runtime.caches.poms.hitRatio == 0.5
+    }
+
+    def 'An empty profile is written as JSON'() {
+        given:
+        StringWriter json = new StringWriter()
+        when:
+        new ProfileWriter(':other', profiler.getMeasurements(':other')).writeJson(json)
+        def profile = new JsonSlurper().parseText(json.toString())
+        then:
+        profile.project == ':other'
+        profile.configurations.isEmpty()
+    }
+
+    def 'Profile is written as a summary'() {
+        given:
+        StringWriter summary = new StringWriter()
+        when:
+        new ProfileWriter(':app', profiler.getMeasurements(':app')).writeSummary(summary)
+        then:
+        summary.toString().contains("Dependency management profile of project ':app'")
+        summary.toString().contains("Configuration 'compile'")
+        summary.toString().contains("Configuration 'runtime'")
+        summary.toString().readLines().find { it.trim().startsWith('poms') }.trim() ==~ /poms\s+1\s+1\s+50\.0%/
+    }
+
+}
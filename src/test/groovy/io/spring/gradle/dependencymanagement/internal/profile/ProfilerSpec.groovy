@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.profile
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link Profiler}.
+ *
+ * @author agent (agent@local)
+ */
+class ProfilerSpec extends Specification {
+
+    Profiler profiler = new Profiler()
+
+    def 'Nothing is recorded while the profiler is disabled'() {
+        when:
+        Profiler.Scope scope = profiler.enter(':', 'compile')
+        Profiler.start('phase').stop()
+        Profiler.recordCacheAccess('cache', true)
+        scope.exit()
+        then:
+        profiler.getMeasurements(':').isEmpty()
+    }
+
+    def 'Phases and cache accesses are recorded against the current scope'() {
+        given:
+        profiler.enabled = true
+        when:
+        Profiler.Scope scope = profiler.enter(':', 'compile')
+        2.times {
+            Profiler.Sample sample = Profiler.start('phase')
+            new byte[1024]
+            sample.stop()
+        }
+        Profiler.recordCacheAccess('cache', true)
+        Profiler.recordCacheAccess('cache', true)
+        Profiler.recordCacheAccess('cache', false)
+        scope.exit()
+        then:
+        Profiler.Measurements measurements = profiler.getMeasurements(':').compile
+        measurements.phases.phase.invocations == 2
+        measurements.phases.phase.nanos > 0
+        measurements.phases.phase.allocatedBytes == -1 || measurements.phases.phase.allocatedBytes >= 2048
+        measurements.caches.cache.hits == 2
+        measurements.caches.cache.misses == 1
+        measurements.caches.cache.hitRatio == 2d / 3d
+    }
+
+    def 'Work outside of a scope is not recorded'() {
+        given:
+        profiler.enabled = true
+        when:
+        profiler.enter(':', 'compile').exit()
+        Profiler.start('phase').stop()
+        then:
+        profiler.getMeasurements(':').compile.phases.isEmpty()
+    }
+
+    def 'Exiting a nested scope restores the outer scope'() {
+        given:
+        profiler.enabled = true
+        when:
+        Profiler.Scope outer = profiler.enter(':', 'compile')
+        profiler.enter(':', 'copy').exit()
+        Profiler.start('phase').stop()
+        outer.exit()
+        then:
+        profiler.getMeasurements(':').compile.phases.phase.invocations == 1
+        profiler.getMeasurements(':').copy.phases.isEmpty()
+    }
+
+    def 'A scope can be resumed on another thread'() {
+        given:
+        profiler.enabled = true
+        Profiler.Scope scope = profiler.enter(':', 'compile')
+        when:
+        Thread thread = new Thread({
+            Profiler.Scope resumed = Profiler.resume(scope)
+            Profiler.start('phase').stop()
+            resumed.exit()
+        } as Runnable)
+        thread.start()
+        thread.join()
+        scope.exit()
+        then:
+        profiler.getMeasurements(':').compile.phases.phase.invocations == 1
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.properties
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link MemoizingPropertySource}.
+ *
+ * @author agent (agent@local)
+ */
+class MemoizingPropertySourceSpec extends Specification {
+
+    PropertySource delegate = Mock(PropertySource)
+
+    MemoizingPropertySource propertySource = new MemoizingPropertySource(this.delegate)
+
+    def 'Property that is found is only looked up once'() {
+        when: 'A property is retrieved twice'
+        def first = this.propertySource.getProperty('alpha')
+        def second = this.propertySource.getProperty('alpha')
+        then: 'The delegate was only asked for it once'
+        1 * this.delegate.getProperty('alpha') >> 'a'
+        first == 'a'
+        second == 'a'
+    }
+
+    def 'Property that is not found is only looked up once'() {
+        when: 'A missing property is retrieved twice'
+        def first = this.propertySource.getProperty('alpha')
+        def second = this.propertySource.getProperty('alpha')
+        then: 'The delegate was only asked for it once'
+        1 * this.delegate.getProperty('alpha') >> null
+        first == null
+        second == null
+    }
+
+    def 'Property is looked up again once the source has been invalidated'() {
+        given: 'A property that has been retrieved'
+        this.delegate.getProperty('alpha') >>> ['a', 'b']
+        this.propertySource.getProperty('alpha')
+        when: 'The source is invalidated and the property is retrieved again'
+        this.propertySource.invalidate()
+        def property = this.propertySource.getProperty('alpha')
+        then: 'The property has its new value'
+        property == 'b'
+    }
+
+}
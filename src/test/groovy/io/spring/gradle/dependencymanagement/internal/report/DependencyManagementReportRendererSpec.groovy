@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,7 +34,7 @@ class DependencyManagementReportRendererSpec extends Specification {
         given:
             def rootProject = new ProjectBuilder().build()
         when:
-            renderer.startProject(rootProject)
+            renderer.startProject(true, rootProject.path, rootProject.description)
         then:
             textOutput.toString().readLines() == [
                     '',
@@ -50,7 +50,7 @@ class DependencyManagementReportRendererSpec extends Specification {
             def subproject = new ProjectBuilder().withParent(new ProjectBuilder().build())
                     .withName("alpha").build()
         when:
-            renderer.startProject(subproject)
+            renderer.startProject(false, subproject.path, subproject.description)
         then:
             textOutput.toString().readLines() == [
                     '',
@@ -67,7 +67,7 @@ class DependencyManagementReportRendererSpec extends Specification {
                     .withName("alpha").build()
             subproject.description = 'foo bar baz'
         when:
-            renderer.startProject(subproject)
+            renderer.startProject(false, subproject.path, subproject.description)
         then:
             textOutput.toString().readLines() == [
                     '',
@@ -108,7 +108,7 @@ class DependencyManagementReportRendererSpec extends Specification {
         given:
             def configuration = new ProjectBuilder().build().configurations.create("test")
         when:
-            renderer.renderConfigurationManagedVersions([:], configuration, [:])
+            renderer.renderConfigurationManagedVersions([:], configuration.name, [:])
         then:
             textOutput.toString().readLines() == [
                     'test - Dependency management for the test configuration',
@@ -121,7 +121,7 @@ class DependencyManagementReportRendererSpec extends Specification {
         given:
             def configuration = new ProjectBuilder().build().configurations.create("test")
         when:
-            renderer.renderConfigurationManagedVersions(['a:b':'1.0'], configuration, ['a:b':'1.0'])
+            renderer.renderConfigurationManagedVersions(['a:b':'1.0'], configuration.name, ['a:b':'1.0'])
         then:
             textOutput.toString().readLines() == [
                     'test - Dependency management for the test configuration',
@@ -138,7 +138,7 @@ class DependencyManagementReportRendererSpec extends Specification {
                     'com.example:alpha':'1.2.3'
             ]
         when:
-            renderer.renderConfigurationManagedVersions(managedVersions, configuration, [:])
+            renderer.renderConfigurationManagedVersions(managedVersions, configuration.name, [:])
         then:
             textOutput.toString().readLines() == [
                     'test - Dependency management for the test configuration',
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,32 +35,65 @@ class DependencyManagementReportTaskSpec extends Specification {
 
     private DependencyManagementReportRenderer renderer = Mock(DependencyManagementReportRenderer)
 
+    private DependencyManagementContainer dependencyManagementContainer
+
     def setup() {
         DependencyManagementConfigurationContainer configurationContainer = new
                 DependencyManagementConfigurationContainer(project)
-        this.task.dependencyManagementContainer = new DependencyManagementContainer(project,
+        this.dependencyManagementContainer = new DependencyManagementContainer(project,
                 new MavenPomResolver(project, configurationContainer))
+        this.task.dependencyManagementContainer = this.dependencyManagementContainer
         this.task.renderer = renderer
     }
 
     def "Basic report"() {
         when:
             task.report()
-        then: 1 * renderer.startProject(project)
+        then: 1 * renderer.startProject(true, ':', null)
         then: 1 * renderer.renderGlobalManagedVersions(_)
         then: 0 * renderer._
     }
 
     def "Report for project with configurations"() {
         given:
-            def configurationOne = project.configurations.create("foo")
-            def configurationTwo = project.configurations.create("bar")
+            project.configurations.create("foo")
+            project.configurations.create("bar")
+        when:
+            task.report()
+        then: 1 * renderer.startProject(true, ':', null)
+        then: 1 * renderer.renderGlobalManagedVersions(_)
+        then: 1 * renderer.renderConfigurationManagedVersions(_, 'bar', _)
+        then: 1 * renderer.renderConfigurationManagedVersions(_, 'foo', _)
+        then: 0 * renderer._
+    }
+
+    def "Captured report is rendered without the project's dependency management"() {
+        given:
+            project.configurations.create("foo")
+            task.captureReport()
+            task.dependencyManagementContainer = null
         when:
             task.report()
-        then: 1 * renderer.startProject(project)
+        then: 1 * renderer.startProject(true, ':', null)
+        then: 1 * renderer.renderGlobalManagedVersions(_)
+        then: 1 * renderer.renderConfigurationManagedVersions(_, 'foo', _)
+        then: 0 * renderer._
+    }
+
+    def "Captured report can be serialized"() {
+        given:
+            project.description = 'Example project'
+            project.configurations.create("foo")
+            def report = DependencyManagementReport.capture(project, dependencyManagementContainer)
+            def bytes = new ByteArrayOutputStream()
+            new ObjectOutputStream(bytes).withStream { it.writeObject(report) }
+        when:
+            new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).withStream {
+                it.readObject()
+            }.render(renderer)
+        then: 1 * renderer.startProject(true, ':', 'Example project')
         then: 1 * renderer.renderGlobalManagedVersions(_)
-        then: 1 * renderer.renderConfigurationManagedVersions(_, configurationTwo, _)
-        then: 1 * renderer.renderConfigurationManagedVersions(_, configurationOne, _)
+        then: 1 * renderer.renderConfigurationManagedVersions(_, 'foo', _)
         then: 0 * renderer._
     }
 